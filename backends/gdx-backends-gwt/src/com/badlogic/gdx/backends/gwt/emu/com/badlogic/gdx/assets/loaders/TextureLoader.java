@@ -32,6 +32,7 @@ import com.badlogic.gdx.utils.Array;
 public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoader.TextureParameter> {
 	TextureData data;
 	Texture texture;
+	int uploadBudget;
 
 	public TextureLoader (FileHandleResolver resolver) {
 		super(resolver);
@@ -76,6 +77,16 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 		return texture;
 	}
 
+	/** Incremental texture upload is not supported on GWT, so textures are always uploaded at once and the budget is ignored. */
+	public void setUploadBudget (int bytes) {
+		if (bytes < 0) throw new IllegalArgumentException("bytes must be >= 0: " + bytes);
+		uploadBudget = bytes;
+	}
+
+	public int getUploadBudget () {
+		return uploadBudget;
+	}
+
 	@Override
 	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle fileHandle, TextureParameter parameter) {
 		return null;
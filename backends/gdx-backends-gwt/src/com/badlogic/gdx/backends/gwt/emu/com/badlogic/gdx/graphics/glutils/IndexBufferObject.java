@@ -16,6 +16,7 @@
 
 package com.badlogic.gdx.graphics.glutils;
 
+import java.nio.ByteBuffer;
 import java.nio.ShortBuffer;
 
 import com.badlogic.gdx.Gdx;
@@ -75,6 +76,18 @@ public class IndexBufferObject implements IndexData {
 		usage = GL20.GL_STATIC_DRAW;
 	}
 
+	/** Creates a new IndexBufferObject which uses the short indices between the position and the limit of the given buffer,
+	 * read in the byte order of the buffer, instead of allocating its own.
+	 *
+	 * @param isStatic whether the index buffer is static
+	 * @param data the indices */
+	public IndexBufferObject (boolean isStatic, ByteBuffer data) {
+		isDirect = true;
+		buffer = data.slice().order(data.order()).asShortBuffer();
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
+	}
+
 	/** @return the number of indices currently stored in this buffer */
 	public int getNumIndices () {
 		return buffer.limit();
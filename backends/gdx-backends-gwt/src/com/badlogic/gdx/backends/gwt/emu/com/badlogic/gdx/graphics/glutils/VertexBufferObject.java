@@ -16,6 +16,7 @@
 
 package com.badlogic.gdx.graphics.glutils;
 
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 
 import com.badlogic.gdx.Gdx;
@@ -81,6 +82,22 @@ public class VertexBufferObject implements VertexData {
 		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
 	}
 
+	/** Constructs a new interleaved VertexBufferObject which uses the given buffer for its vertices instead of allocating its own.
+	 * The vertices between the position and the limit of the buffer are uploaded on the first bind. The buffer is not disposed.
+	 *
+	 * @param isStatic whether the vertex data is static.
+	 * @param unmanagedBuffer the vertices, read in the byte order of the buffer
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObject (boolean isStatic, ByteBuffer unmanagedBuffer, VertexAttributes attributes) {
+		this.isStatic = isStatic;
+		this.attributes = attributes;
+
+		buffer = unmanagedBuffer.slice().order(unmanagedBuffer.order()).asFloatBuffer();
+		isDirty = true;
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
+	}
+
 	@Override
 	public VertexAttributes getAttributes () {
 		return attributes;
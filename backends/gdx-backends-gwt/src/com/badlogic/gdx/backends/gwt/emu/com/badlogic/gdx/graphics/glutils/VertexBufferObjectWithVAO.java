@@ -1,6 +1,7 @@
 
 package com.badlogic.gdx.graphics.glutils;
 
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
@@ -68,6 +69,31 @@ public class VertexBufferObjectWithVAO implements VertexData {
 		createVAO();
 	}
 
+	/** Constructs a new interleaved VertexBufferObjectWithVAO which uses the given buffer instead of allocating its own. The
+	 * buffer is not disposed.
+	 *
+	 * @param isStatic whether the vertex data is static.
+	 * @param unmanagedBuffer the buffer to store the vertices in, read and written in the byte order of the buffer
+	 * @param attributes the {@link VertexAttributes}.
+	 * @param hasVertices whether the buffer already contains the vertices, between its position and limit, which are then
+	 *           uploaded on the first bind. Otherwise the buffer is only used as storage for the vertices set later. */
+	public VertexBufferObjectWithVAO (boolean isStatic, ByteBuffer unmanagedBuffer, VertexAttributes attributes,
+		boolean hasVertices) {
+		this.isStatic = isStatic;
+		this.attributes = attributes;
+
+		if (hasVertices) {
+			buffer = unmanagedBuffer.slice().order(unmanagedBuffer.order()).asFloatBuffer();
+			isDirty = true;
+		} else {
+			buffer = unmanagedBuffer.asFloatBuffer();
+			buffer.flip();
+		}
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
+		createVAO();
+	}
+
 	@Override
 	public VertexAttributes getAttributes () {
 		return attributes;
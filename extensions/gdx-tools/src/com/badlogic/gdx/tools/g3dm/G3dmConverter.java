@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tools.g3dm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.loader.G3dModelLoader;
+import com.badlogic.gdx.graphics.g3d.loader.G3dmModelLoader;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+import com.badlogic.gdx.graphics.g3d.utils.MeshOptimizer;
+import com.badlogic.gdx.utils.BaseJsonReader;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.UBJsonReader;
+import com.badlogic.gdx.utils.UBJsonWriter;
+
+/** Converts g3dj and g3db models to the g3dm format loaded by {@link G3dmModelLoader}, whose vertices and indices can be used
+ * directly from the mapped file.
+ * <p>
+ * With -optimize, the meshes are optimized for the vertex cache, overdraw and vertex fetch first, see {@link MeshOptimizer}, and
+ * the average cache miss ratio of each mesh before and after is printed.
+ * <p>
+ * Usage: G3dmConverter [-optimize] input.g3dj|input.g3db output.g3dm */
+public class G3dmConverter {
+	public static void main (String[] args) throws IOException {
+		final boolean optimize = args.length == 3 && args[0].equals("-optimize");
+		if (args.length != (optimize ? 3 : 2)) {
+			System.out.println("Usage: G3dmConverter [-optimize] input.g3dj|input.g3db output.g3dm");
+			System.exit(-1);
+		}
+		final int first = optimize ? 1 : 0;
+		convert(new FileHandle(args[first]), new FileHandle(args[first + 1]), optimize ? new MeshOptimizer.Config() : null);
+	}
+
+	/** Converts a g3dj or g3db file, depending on its extension, to a g3dm file. */
+	public static void convert (FileHandle input, FileHandle output) throws IOException {
+		convert(input, output, null);
+	}
+
+	/** Converts a g3dj or g3db file, depending on its extension, to a g3dm file.
+	 * @param optimizer If not null, the meshes are optimized with this configuration. Quantization is not supported, as g3dm
+	 *           stores float attributes. */
+	public static void convert (FileHandle input, FileHandle output, MeshOptimizer.Config optimizer) throws IOException {
+		final BaseJsonReader reader = input.extension().equalsIgnoreCase("g3dj") ? new JsonReader() : new UBJsonReader();
+		final JsonValue json = reader.parse(input);
+		final ModelData model = new G3dModelLoader(reader).parseModel(input);
+		if (optimizer != null) {
+			if (optimizer.quantize) throw new IllegalArgumentException("g3dm doesn't support quantized attributes.");
+			for (ModelMesh modelMesh : model.meshes) {
+				final float before = acmr(modelMesh, optimizer.cacheSize);
+				MeshOptimizer.optimize(modelMesh, optimizer);
+				System.out.println("Mesh " + modelMesh.id + ": ACMR " + before + " -> " + acmr(modelMesh, optimizer.cacheSize));
+			}
+		}
+
+		// Replace the vertex and index arrays by the location of their data
+		final JsonValue meshes = json.get("meshes");
+		final ByteArrayOutputStream data = new ByteArrayOutputStream();
+		int i = 0;
+		if (meshes != null) {
+			for (JsonValue mesh = meshes.child; mesh != null; mesh = mesh.next) {
+				final ModelMesh modelMesh = model.meshes.get(i++);
+				final int vertexSize = new VertexAttributes(modelMesh.attributes).vertexSize;
+				final int numVertices = modelMesh.vertices.length * 4 / vertexSize;
+				mesh.remove("vertices");
+				mesh.addChild("vertices", block(data, floats(modelMesh.vertices)));
+
+				int numIndices = 0;
+				for (ModelMeshPart part : modelMesh.parts)
+					numIndices += part.indices.length;
+				final short[] indices = new short[numIndices];
+				JsonValue part = mesh.require("parts").child;
+				int offset = 0;
+				for (ModelMeshPart modelPart : modelMesh.parts) {
+					// Same as Model#convertMesh, parts without indices draw all vertices
+					final int size = numIndices > 0 ? modelPart.indices.length : numVertices;
+					if (numIndices > 0) System.arraycopy(modelPart.indices, 0, indices, offset, size);
+					part.remove("indices");
+					part.addChild("offset", new JsonValue(offset));
+					part.addChild("size", new JsonValue(size));
+					offset += size;
+					part = part.next;
+				}
+				if (numIndices > 0) mesh.addChild("indices", block(data, shorts(indices)));
+			}
+		}
+
+		final ByteArrayOutputStream header = new ByteArrayOutputStream();
+		final UBJsonWriter writer = new UBJsonWriter(header);
+		writer.value(json);
+		writer.close();
+
+		final ByteBuffer start = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+		start.put((byte)'G').put((byte)'3').put((byte)'D').put((byte)'M');
+		start.putInt(G3dmModelLoader.VERSION).putInt(header.size());
+		final OutputStream out = output.write(false);
+		try {
+			out.write(start.array());
+			header.writeTo(out);
+			out.write(new byte[padding(12 + header.size())]);
+			data.writeTo(out);
+		} finally {
+			StreamUtils.closeQuietly(out);
+		}
+	}
+
+	/** @return The average cache miss ratio of the triangle parts of the mesh. */
+	private static float acmr (ModelMesh mesh, int cacheSize) {
+		float misses = 0f;
+		int triangles = 0;
+		for (ModelMeshPart part : mesh.parts) {
+			if (part.primitiveType != GL20.GL_TRIANGLES || part.indices == null) continue;
+			misses += MeshOptimizer.computeACMR(part.indices, 0, part.indices.length, cacheSize) * (part.indices.length / 3);
+			triangles += part.indices.length / 3;
+		}
+		return triangles == 0 ? 0f : misses / triangles;
+	}
+
+	/** Appends the bytes to the data, aligned to 16 bytes.
+	 * @return The location of the bytes in the data. */
+	private static JsonValue block (ByteArrayOutputStream data, byte[] bytes) {
+		data.write(new byte[padding(data.size())], 0, padding(data.size()));
+		final JsonValue result = new JsonValue(ValueType.object);
+		result.addChild("offset", new JsonValue(data.size()));
+		result.addChild("size", new JsonValue(bytes.length));
+		data.write(bytes, 0, bytes.length);
+		return result;
+	}
+
+	private static int padding (int size) {
+		return (16 - (size & 15)) & 15;
+	}
+
+	private static byte[] floats (float[] values) {
+		final ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.asFloatBuffer().put(values);
+		return buffer.array();
+	}
+
+	private static byte[] shorts (short[] values) {
+		final ByteBuffer buffer = ByteBuffer.allocate(values.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.asShortBuffer().put(values);
+		return buffer.array();
+	}
+}
@@ -14,6 +14,7 @@ import com.badlogic.gdx.backends.headless.HeadlessApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglNativesLoader;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Pixmap.Filter;
@@ -77,9 +78,9 @@ public class KTXProcessor {
 		public void create () {
 			boolean isCubemap = args.length == 7 || args.length == 8 || args.length == 9;
 			boolean isTexture = args.length == 2 || args.length == 3 || args.length == 4;
-			boolean isPackETC1 = false, isAlphaAtlas = false, isGenMipMaps = false;
+			boolean isPackETC1 = false, isPackETC2 = false, isAlphaAtlas = false, isGenMipMaps = false;
 			if (!isCubemap && !isTexture) {
-				System.out.println("usage : KTXProcessor input_file output_file [-etc1|-etc1a] [-mipmaps]");
+				System.out.println("usage : KTXProcessor input_file output_file [-etc1|-etc1a|-etc2] [-mipmaps]");
 				System.out.println("  input_file  is the texture file to include in the output KTX or ZKTX file.");
 				System.out.println(
 					"              for cube map, just provide 6 input files corresponding to the faces in the following order : X+, X-, Y+, Y-, Z+, Z-");
@@ -90,6 +91,8 @@ public class KTXProcessor {
 				System.out.println("    -etc1    input file will be packed using ETC1 compression, dropping the alpha channel");
 				System.out.println(
 					"    -etc1a   input file will be packed using ETC1 compression, doubling the height and placing the alpha channel in the bottom half");
+				System.out.println(
+					"    -etc2    input file will be packed using ETC2 compression, with EAC compression of the alpha channel if it has one (requires OpenGL ES 3.0)");
 				System.out.println("    -mipmaps input file will be processed to generate mipmaps");
 				System.out.println();
 				System.out.println("  examples:");
@@ -115,6 +118,7 @@ public class KTXProcessor {
 				if (isCubemap && i < 7) continue;
 				if ("-etc1".equals(args[i])) isPackETC1 = true;
 				if ("-etc1a".equals(args[i])) isAlphaAtlas = isPackETC1 = true;
+				if ("-etc2".equals(args[i])) isPackETC2 = isPackETC1 = true;
 				if ("-mipmaps".equals(args[i])) isGenMipMaps = true;
 			}
 
@@ -124,7 +128,7 @@ public class KTXProcessor {
 			int ktxDispose = DISPOSE_DONT;
 			KTXTextureData ktx = null;
 			FileHandle file = new FileHandle(args[0]);
-			if (file.name().toLowerCase().endsWith(".ktx") || file.name().toLowerCase().endsWith(".zktx")) {
+			if (isKTX(file)) {
 				ktx = new KTXTextureData(file, false);
 				if (ktx.getNumberOfFaces() == 6) isCubemap = true;
 				ktxDispose = DISPOSE_PACK;
@@ -147,7 +151,7 @@ public class KTXProcessor {
 				} else {
 					file = new FileHandle(args[face]);
 					System.out.println("Processing : " + file + " for face #" + face);
-					if (file.name().toLowerCase().endsWith(".ktx") || file.name().toLowerCase().endsWith(".zktx")) {
+					if (isKTX(file)) {
 						if (ktx == null || ktx.getNumberOfFaces() != 6) {
 							ktxDispose = DISPOSE_FACE;
 							ktx = new KTXTextureData(file, false);
@@ -231,6 +235,12 @@ public class KTXProcessor {
 						levelETCData = null;
 					}
 
+					// Perform EAC compression of the alpha channel, ETC1 blocks are valid ETC2 blocks for the color channels
+					byte[] levelAlphaData = null;
+					if (isPackETC2 && !isAlphaAtlas && levelPixmap != null && hasAlpha(levelPixmap.getFormat())) {
+						levelAlphaData = encodeEACAlpha(levelPixmap);
+					}
+
 					// Perform ETC1 compression
 					if (levelETCData == null && isPackETC1) {
 						if (levelPixmap.getFormat() != Format.RGB888 && levelPixmap.getFormat() != Format.RGB565) {
@@ -252,6 +262,7 @@ public class KTXProcessor {
 					// Save result to ouput ktx
 					images[face][level] = new Image();
 					images[face][level].etcData = levelETCData;
+					images[face][level].alphaData = levelAlphaData;
 					images[face][level].pixmap = levelPixmap;
 					if (levelPixmap != null) {
 						levelPixmap.dispose();
@@ -279,7 +290,17 @@ public class KTXProcessor {
 			}
 
 			int glType, glTypeSize, glFormat, glInternalFormat, glBaseInternalFormat;
-			if (isPackETC1) {
+			if (isPackETC2) {
+				boolean alpha = images[0][0].alphaData != null;
+				for (int face = 0; face < nFaces; face++)
+					for (int level = 0; level < nLevels; level++)
+						if ((images[face][level].alphaData != null) != alpha)
+							throw new GdxRuntimeException("Either all or none of the input files must have an alpha channel");
+				glType = glFormat = 0;
+				glTypeSize = 1;
+				glInternalFormat = alpha ? GL30.GL_COMPRESSED_RGBA8_ETC2_EAC : GL30.GL_COMPRESSED_RGB8_ETC2;
+				glBaseInternalFormat = alpha ? GL20.GL_RGBA : GL20.GL_RGB;
+			} else if (isPackETC1) {
 				glType = glFormat = 0;
 				glTypeSize = 1;
 				glInternalFormat = ETC1.ETC1_RGB8_OES;
@@ -346,16 +367,114 @@ public class KTXProcessor {
 		}
 	}
 
+	static boolean isKTX (FileHandle file) {
+		String name = file.name().toLowerCase();
+		return name.endsWith(".ktx") || name.endsWith(".ktx2") || name.endsWith(".zktx");
+	}
+
+	static boolean hasAlpha (Format format) {
+		return format == Format.Alpha || format == Format.LuminanceAlpha || format == Format.RGBA4444
+			|| format == Format.RGBA8888;
+	}
+
+	/** The EAC modifier tables, see the OpenGL ES 3.0 specification. */
+	private final static int[][] EAC_MODIFIERS = { //
+		{-3, -6, -9, -15, 2, 5, 8, 14}, //
+		{-3, -7, -10, -13, 2, 6, 9, 12}, //
+		{-2, -5, -8, -13, 1, 4, 7, 12}, //
+		{-2, -4, -6, -13, 1, 3, 5, 12}, //
+		{-3, -6, -8, -12, 2, 5, 7, 11}, //
+		{-3, -7, -9, -11, 2, 6, 8, 10}, //
+		{-4, -7, -8, -11, 3, 6, 7, 10}, //
+		{-3, -5, -8, -11, 2, 4, 7, 10}, //
+		{-2, -6, -8, -10, 1, 5, 7, 9}, //
+		{-2, -5, -8, -10, 1, 4, 7, 9}, //
+		{-2, -4, -8, -10, 1, 3, 7, 9}, //
+		{-2, -5, -7, -10, 1, 4, 6, 9}, //
+		{-3, -4, -7, -10, 2, 3, 6, 9}, //
+		{-1, -2, -3, -10, 0, 1, 2, 9}, //
+		{-4, -6, -8, -9, 3, 5, 7, 8}, //
+		{-3, -5, -7, -9, 2, 4, 6, 8}};
+
+	/** Encodes the alpha channel of a pixmap to the EAC blocks of the GL_COMPRESSED_RGBA8_ETC2_EAC format, one 8 bytes block per
+	 * 4x4 pixels in the same order as the ETC1 encoder, so they can be interleaved with the ETC1 blocks of the color channels. */
+	static byte[] encodeEACAlpha (Pixmap pixmap) {
+		int width = pixmap.getWidth(), height = pixmap.getHeight();
+		int blocksX = (width + 3) / 4, blocksY = (height + 3) / 4;
+		byte[] result = new byte[blocksX * blocksY * 8];
+		int[] alpha = new int[16];
+		for (int by = 0; by < blocksY; by++) {
+			for (int bx = 0; bx < blocksX; bx++) {
+				// Pixels are stored column by column, pixels outside of the image repeat the edge
+				for (int i = 0; i < 16; i++) {
+					int x = Math.min(bx * 4 + i / 4, width - 1), y = Math.min(by * 4 + i % 4, height - 1);
+					alpha[i] = pixmap.getPixel(x, y) & 0xff;
+				}
+				long block = encodeEACBlock(alpha);
+				int offset = (by * blocksX + bx) * 8;
+				for (int i = 0; i < 8; i++)
+					result[offset + i] = (byte)(block >>> (56 - i * 8));
+			}
+		}
+		return result;
+	}
+
+	/** Finds the base value, multiplier and modifier table with the least squared error for 16 alpha values. For each table only
+	 * the multipliers and base values around the ones spanning the range of the values are tried. */
+	static long encodeEACBlock (int[] alpha) {
+		int min = 255, max = 0;
+		for (int i = 0; i < 16; i++) {
+			min = Math.min(min, alpha[i]);
+			max = Math.max(max, alpha[i]);
+		}
+		long bestBlock = 0;
+		int bestError = Integer.MAX_VALUE;
+		for (int table = 0; table < 16 && bestError > 0; table++) {
+			int[] modifiers = EAC_MODIFIERS[table];
+			int low = modifiers[3], high = modifiers[7];
+			int multiplier = MathUtils.clamp(Math.round((max - min) / (float)(high - low)), 1, 15);
+			for (int m = Math.max(1, multiplier - 1), mEnd = Math.min(15, multiplier + 1); m <= mEnd; m++) {
+				int base = Math.round((min + max - (low + high) * m) / 2f);
+				for (int b = Math.max(0, base - 1), bEnd = Math.min(255, base + 1); b <= bEnd; b++) {
+					int error = 0;
+					long indices = 0;
+					for (int i = 0; i < 16 && error < bestError; i++) {
+						int bestIndex = 0, bestDiff = Integer.MAX_VALUE;
+						for (int j = 0; j < 8; j++) {
+							int diff = Math.abs(MathUtils.clamp(b + modifiers[j] * m, 0, 255) - alpha[i]);
+							if (diff < bestDiff) {
+								bestDiff = diff;
+								bestIndex = j;
+							}
+						}
+						error += bestDiff * bestDiff;
+						indices = (indices << 3) | bestIndex;
+					}
+					if (error < bestError) {
+						bestError = error;
+						bestBlock = ((long)b << 56) | ((long)m << 52) | ((long)table << 48) | indices;
+					}
+				}
+			}
+		}
+		return bestBlock;
+	}
+
 	private static class Image {
 
 		public ETC1Data etcData;
+		/** EAC blocks of the alpha channel, interleaved with the ETC1 blocks. */
+		public byte[] alphaData;
 		public Pixmap pixmap;
 
 		public Image () {
 		}
 
 		public int getSize () {
-			if (etcData != null) return etcData.compressedData.limit() - etcData.dataOffset;
+			if (etcData != null) {
+				int size = etcData.compressedData.limit() - etcData.dataOffset;
+				return alphaData != null ? size + alphaData.length : size;
+			}
 			throw new GdxRuntimeException("Unsupported output format, try adding '-etc1' as argument");
 		}
 
@@ -363,7 +482,14 @@ public class KTXProcessor {
 			if (etcData != null) {
 				byte[] result = new byte[getSize()];
 				((Buffer)etcData.compressedData).position(etcData.dataOffset);
-				etcData.compressedData.get(result);
+				if (alphaData == null)
+					etcData.compressedData.get(result);
+				else {
+					for (int offset = 0; offset < result.length; offset += 16) {
+						System.arraycopy(alphaData, offset / 2, result, offset, 8);
+						etcData.compressedData.get(result, offset + 8, 8);
+					}
+				}
 				return result;
 			}
 			throw new GdxRuntimeException("Unsupported output format, try adding '-etc1' as argument");
@@ -0,0 +1,100 @@
+package com.badlogic.gdx.tools.g3dm;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g3d.loader.G3dModelLoader;
+import com.badlogic.gdx.graphics.g3d.loader.G3dmModelLoader;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNode;
+import com.badlogic.gdx.utils.JsonReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class G3dmConverterTest {
+	private static final String MODEL = "{ version: [0, 1], id: test, meshes: [" //
+		+ "{ attributes: [POSITION, NORMAL], vertices: [0, 0, 0, 0, 0, 1, 1, 0, 0, 0, 0, 1, 1, 1, 0, 0, 0, 1, 0, 1, 0, 0, 0, 1],"
+		+ " parts: [{ id: quad, type: TRIANGLES, indices: [0, 1, 2, 2, 3, 0] },"
+		+ " { id: edges, type: LINES, indices: [0, 1, 1, 2, 2, 3, 3, 0] }] },"
+		+ "{ attributes: [POSITION], vertices: [-1.5, 2.25, 1e-3, 4, 5, 6, 7, 8, 9],"
+		+ " parts: [{ id: triangle, type: TRIANGLES, indices: [2, 1, 0] }] }]," //
+		+ "materials: [{ id: red, diffuse: [1, 0, 0] }]," //
+		+ "nodes: [{ id: root, translation: [1, 2, 3], rotation: [0, 0.7071068, 0, 0.7071068],"
+		+ " parts: [{ meshpartid: quad, materialid: red }, { meshpartid: edges, materialid: red }],"
+		+ " children: [{ id: child, scale: [2, 2, 2], parts: [{ meshpartid: triangle, materialid: red }] }] }],"
+		+ "animations: [] }";
+
+	@Test
+	public void testRoundTrip () throws IOException {
+		File directory = File.createTempFile("g3dm", "");
+		directory.delete();
+		directory.mkdir();
+		try {
+			FileHandle input = new FileHandle(new File(directory, "test.g3dj"));
+			FileHandle output = new FileHandle(new File(directory, "test.g3dm"));
+			input.writeString(MODEL, false);
+			G3dmConverter.convert(input, output);
+
+			ModelData expected = new G3dModelLoader(new JsonReader()).parseModel(input);
+			ModelData actual = new G3dmModelLoader().parseModel(output);
+			Assert.assertEquals(expected.id, actual.id);
+			Assert.assertEquals(expected.meshes.size, actual.meshes.size);
+			for (int i = 0; i < expected.meshes.size; i++)
+				assertMesh(expected.meshes.get(i), actual.meshes.get(i));
+			Assert.assertEquals(expected.materials.size, actual.materials.size);
+			Assert.assertEquals(expected.materials.get(0).id, actual.materials.get(0).id);
+			Assert.assertEquals(expected.materials.get(0).diffuse, actual.materials.get(0).diffuse);
+			Assert.assertEquals(expected.nodes.size, actual.nodes.size);
+			assertNode(expected.nodes.get(0), actual.nodes.get(0));
+		} finally {
+			new FileHandle(directory).deleteDirectory();
+		}
+	}
+
+	private static void assertMesh (ModelMesh expected, ModelMesh actual) {
+		Assert.assertArrayEquals(expected.attributes, actual.attributes);
+		Assert.assertNull(actual.vertices);
+		FloatBuffer vertices = actual.vertexBuffer.asFloatBuffer();
+		Assert.assertEquals(expected.vertices.length, vertices.remaining());
+		for (int i = 0; i < expected.vertices.length; i++)
+			Assert.assertEquals(expected.vertices[i], vertices.get(i), 0f);
+
+		ShortBuffer indices = actual.indexBuffer.asShortBuffer();
+		Assert.assertEquals(expected.parts.length, actual.parts.length);
+		int offset = 0;
+		for (int p = 0; p < expected.parts.length; p++) {
+			ModelMeshPart expectedPart = expected.parts[p], actualPart = actual.parts[p];
+			Assert.assertEquals(expectedPart.id, actualPart.id);
+			Assert.assertEquals(expectedPart.primitiveType, actualPart.primitiveType);
+			Assert.assertEquals(offset, actualPart.offset);
+			Assert.assertEquals(expectedPart.indices.length, actualPart.size);
+			for (int i = 0; i < actualPart.size; i++)
+				Assert.assertEquals(expectedPart.indices[i], indices.get(actualPart.offset + i));
+			offset += actualPart.size;
+		}
+		Assert.assertEquals(offset, indices.remaining());
+	}
+
+	private static void assertNode (ModelNode expected, ModelNode actual) {
+		Assert.assertEquals(expected.id, actual.id);
+		Assert.assertEquals(expected.translation, actual.translation);
+		Assert.assertEquals(expected.rotation, actual.rotation);
+		Assert.assertEquals(expected.scale, actual.scale);
+		Assert.assertEquals(expected.parts.length, actual.parts.length);
+		for (int i = 0; i < expected.parts.length; i++) {
+			Assert.assertEquals(expected.parts[i].meshPartId, actual.parts[i].meshPartId);
+			Assert.assertEquals(expected.parts[i].materialId, actual.parts[i].materialId);
+		}
+		Assert.assertEquals(expected.children == null, actual.children == null);
+		if (expected.children == null) return;
+		Assert.assertEquals(expected.children.length, actual.children.length);
+		for (int i = 0; i < expected.children.length; i++)
+			assertNode(expected.children[i], actual.children[i]);
+	}
+}
@@ -0,0 +1,75 @@
+package com.badlogic.gdx.tools.ktx;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KTXProcessorTest {
+	/** The EAC modifier tables of the OpenGL ES 3.0 specification, table C.12. */
+	private static final int[][] MODIFIERS = { //
+		{-3, -6, -9, -15, 2, 5, 8, 14}, {-3, -7, -10, -13, 2, 6, 9, 12}, {-2, -5, -8, -13, 1, 4, 7, 12},
+		{-2, -4, -6, -13, 1, 3, 5, 12}, {-3, -6, -8, -12, 2, 5, 7, 11}, {-3, -7, -9, -11, 2, 6, 8, 10},
+		{-4, -7, -8, -11, 3, 6, 7, 10}, {-3, -5, -8, -11, 2, 4, 7, 10}, {-2, -6, -8, -10, 1, 5, 7, 9},
+		{-2, -5, -8, -10, 1, 4, 7, 9}, {-2, -4, -8, -10, 1, 3, 7, 9}, {-2, -5, -7, -10, 1, 4, 6, 9},
+		{-3, -4, -7, -10, 2, 3, 6, 9}, {-1, -2, -3, -10, 0, 1, 2, 9}, {-4, -6, -8, -9, 3, 5, 7, 8},
+		{-3, -5, -7, -9, 2, 4, 6, 8}};
+
+	/** Decodes an EAC alpha block as described in the OpenGL ES 3.0 specification, section C.1.5. */
+	private static int[] decode (long block) {
+		int base = (int)(block >>> 56) & 0xff, multiplier = (int)(block >>> 52) & 0xf, table = (int)(block >>> 48) & 0xf;
+		int[] result = new int[16];
+		for (int i = 0; i < 16; i++) {
+			int index = (int)(block >>> (45 - i * 3)) & 7;
+			result[i] = Math.max(0, Math.min(255, base + MODIFIERS[table][index] * multiplier));
+		}
+		return result;
+	}
+
+	/** @return The largest difference of a value after encoding and decoding. */
+	private static int roundTrip (int[] alpha) {
+		int[] decoded = decode(KTXProcessor.encodeEACBlock(alpha));
+		int max = 0;
+		for (int i = 0; i < 16; i++)
+			max = Math.max(max, Math.abs(decoded[i] - alpha[i]));
+		return max;
+	}
+
+	@Test
+	public void testFlat () {
+		int[] alpha = new int[16];
+		for (int value : new int[] {0, 77, 128, 255}) {
+			Arrays.fill(alpha, value);
+			Assert.assertEquals(0, roundTrip(alpha));
+		}
+	}
+
+	@Test
+	public void testOpaqueAndTransparent () {
+		int[] alpha = new int[16];
+		for (int i = 0; i < 16; i++)
+			alpha[i] = (i * 7) % 3 == 0 ? 255 : 0;
+		Assert.assertEquals(0, roundTrip(alpha));
+	}
+
+	@Test
+	public void testGradient () {
+		int[] alpha = new int[16];
+		for (int i = 0; i < 16; i++)
+			alpha[i] = 100 + i * 4;
+		Assert.assertTrue(roundTrip(alpha) <= 4);
+	}
+
+	@Test
+	public void testRandom () {
+		Random random = new Random(1);
+		int[] alpha = new int[16];
+		for (int block = 0; block < 1000; block++) {
+			int low = random.nextInt(256), range = random.nextInt(256 - low);
+			for (int i = 0; i < 16; i++)
+				alpha[i] = low + random.nextInt(range + 1);
+			Assert.assertTrue(roundTrip(alpha) <= Math.max(2, range / 6));
+		}
+	}
+}
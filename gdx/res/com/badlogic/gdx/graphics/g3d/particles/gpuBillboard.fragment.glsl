@@ -0,0 +1,16 @@
+#ifdef GL_ES
+#define MED mediump
+precision mediump float;
+#else
+#define MED
+#endif
+
+in vec4 v_color;
+in MED vec2 v_texCoords0;
+out vec4 out_color;
+
+uniform sampler2D u_diffuseTexture;
+
+void main() {
+	out_color = texture(u_diffuseTexture, v_texCoords0) * v_color;
+}
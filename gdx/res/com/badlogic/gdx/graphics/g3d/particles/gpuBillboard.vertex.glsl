@@ -0,0 +1,45 @@
+#ifdef GL_ES
+#define MED mediump
+precision mediump float;
+#else
+#define MED
+#endif
+
+// Corner of the quad, -1 or 1 on each axis
+in vec2 a_corner;
+// Per particle: position and age, velocity and life
+in vec4 a_state0;
+in vec4 a_state1;
+
+out vec4 v_color;
+out MED vec2 v_texCoords0;
+
+uniform mat4 u_projViewTrans;
+uniform vec3 u_cameraRight;
+uniform vec3 u_cameraUp;
+uniform vec4 u_startColor;
+uniform vec4 u_endColor;
+// Start and end scale
+uniform vec2 u_scale;
+// u, v, u2, v2 of the texture region
+uniform vec4 u_region;
+uniform vec2 u_halfSize;
+
+void main() {
+	float life = a_state1.w;
+	if (life <= 0.0 || a_state0.w >= life) {
+		// Dead particles are moved outside of the clip volume
+		v_color = vec4(0.0);
+		v_texCoords0 = vec2(0.0);
+		gl_Position = vec4(2.0, 2.0, 2.0, 1.0);
+		return;
+	}
+	float percent = a_state0.w / life;
+	float scale = mix(u_scale.x, u_scale.y, percent);
+	vec3 offset = u_cameraRight * (a_corner.x * u_halfSize.x) + u_cameraUp * (a_corner.y * u_halfSize.y);
+	vec3 position = a_state0.xyz + offset * scale;
+	v_color = mix(u_startColor, u_endColor, percent);
+	vec2 uv = a_corner * 0.5 + 0.5;
+	v_texCoords0 = vec2(mix(u_region.x, u_region.z, uv.x), mix(u_region.w, u_region.y, uv.y));
+	gl_Position = u_projViewTrans * vec4(position, 1.0);
+}
@@ -0,0 +1,10 @@
+#ifdef GL_ES
+precision mediump float;
+#endif
+
+out vec4 out_color;
+
+// Nothing is rasterized while updating the particles
+void main() {
+	out_color = vec4(0.0);
+}
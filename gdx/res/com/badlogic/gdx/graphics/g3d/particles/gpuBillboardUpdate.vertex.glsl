@@ -0,0 +1,23 @@
+// Per particle: position and age, velocity and life
+in vec4 a_state0;
+in vec4 a_state1;
+
+// Captured with transform feedback
+out vec4 v_state0;
+out vec4 v_state1;
+
+uniform float u_deltaTime;
+uniform vec3 u_gravity;
+
+void main() {
+	vec4 state0 = a_state0;
+	vec4 state1 = a_state1;
+	if (state0.w < state1.w) {
+		state0.w += u_deltaTime;
+		state1.xyz += u_gravity * u_deltaTime;
+		state0.xyz += state1.xyz * u_deltaTime;
+	}
+	v_state0 = state0;
+	v_state1 = state1;
+	gl_Position = vec4(0.0, 0.0, 0.0, 1.0);
+}
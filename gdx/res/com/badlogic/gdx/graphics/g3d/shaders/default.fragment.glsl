@@ -17,6 +17,10 @@ precision mediump float;
 varying vec3 v_normal;
 #endif //normalFlag
 
+#if defined(instanceColorFlag) && !defined(colorFlag)
+#define colorFlag
+#endif
+
 #if defined(colorFlag)
 varying vec4 v_color;
 #endif
@@ -88,6 +92,7 @@ uniform sampler2D u_shadowTexture;
 uniform float u_shadowPCFOffset;
 varying vec3 v_shadowMapUv;
 #define separateAmbientFlag
+#define shadowFlag
 
 float getShadowness(vec2 offset)
 {
@@ -105,6 +110,112 @@ float getShadow()
 }
 #endif //shadowMapFlag
 
+#ifdef cascadedShadowMapFlag
+uniform sampler2D u_csmStaticTexture;
+uniform sampler2D u_csmDynamicTexture;
+uniform HIGH mat4 u_csmProjViewTrans[numCascades];
+uniform HIGH float u_csmSplits[numCascades];
+uniform vec2 u_csmPCFOffset;
+// The world position and the view distance
+varying HIGH vec4 v_csmPosition;
+#define separateAmbientFlag
+#define shadowFlag
+
+float getCascadeShadowness(HIGH vec3 uv, vec2 offset)
+{
+	const vec4 bitShifts = vec4(1.0, 1.0 / 255.0, 1.0 / 65025.0, 1.0 / 16581375.0);
+	return step(uv.z, dot(texture2D(u_csmStaticTexture, uv.xy + offset), bitShifts))
+		* step(uv.z, dot(texture2D(u_csmDynamicTexture, uv.xy + offset), bitShifts));
+}
+
+float getShadow()
+{
+	for (int i = 0; i < numCascades; i++) {
+		if (v_csmPosition.w <= u_csmSplits[i]) {
+			HIGH vec3 uv = (u_csmProjViewTrans[i] * vec4(v_csmPosition.xyz, 1.0)).xyz;
+			uv.z = min(uv.z, 0.998);
+			return (getCascadeShadowness(uv, u_csmPCFOffset) +
+					getCascadeShadowness(uv, vec2(-u_csmPCFOffset.x, u_csmPCFOffset.y)) +
+					getCascadeShadowness(uv, vec2(u_csmPCFOffset.x, -u_csmPCFOffset.y)) +
+					getCascadeShadowness(uv, -u_csmPCFOffset)) * 0.25;
+		}
+	}
+	return 1.0;
+}
+#endif //cascadedShadowMapFlag
+
+#ifdef clusteredLightsFlag
+uniform HIGH sampler2D u_clusterTexture;
+// The width, height and their inverses
+uniform HIGH vec4 u_clusterTextureSize;
+// The tiles per pixel horizontally and vertically, the scale and the bias of the slice of the log view distance
+uniform HIGH vec4 u_clusterScale;
+uniform HIGH vec3 u_clusterSize;
+// The texel offsets of the lights and of the light indices
+uniform HIGH vec2 u_clusterOffsets;
+// The world position and the view distance
+varying HIGH vec4 v_clusterPosition;
+
+#ifdef specularFlag
+uniform HIGH vec4 u_cameraPosition;
+#ifdef shininessFlag
+uniform HIGH float u_shininess;
+#else
+const float u_shininess = 20.0;
+#endif // shininessFlag
+#endif // specularFlag
+
+HIGH vec4 getClusterTexel(HIGH float index)
+{
+	HIGH float y = floor(index * u_clusterTextureSize.z);
+	HIGH float x = index - y * u_clusterTextureSize.x;
+	return texture2D(u_clusterTexture, (vec2(x, y) + 0.5) * u_clusterTextureSize.zw);
+}
+
+#ifdef specularFlag
+void addClusteredLights(vec3 normal, inout vec3 lightDiffuse, inout vec3 lightSpecular)
+#else
+void addClusteredLights(vec3 normal, inout vec3 lightDiffuse)
+#endif // specularFlag
+{
+	HIGH vec3 cluster = vec3(floor(gl_FragCoord.xy * u_clusterScale.xy),
+		floor(log(max(v_clusterPosition.w, 1e-4)) * u_clusterScale.z + u_clusterScale.w));
+	cluster = clamp(cluster, vec3(0.0), u_clusterSize - 1.0);
+	HIGH vec4 header = getClusterTexel(cluster.x + (cluster.y + cluster.z * u_clusterSize.y) * u_clusterSize.x);
+	#ifdef specularFlag
+		vec3 viewVec = normalize(u_cameraPosition.xyz - v_clusterPosition.xyz);
+	#endif // specularFlag
+	for (int i = 0; i < maxClusterLights; i++) {
+		if (float(i) >= header.y) break;
+		HIGH float index = header.x + float(i);
+		HIGH float texel = floor(index * 0.25);
+		HIGH vec4 indices = getClusterTexel(u_clusterOffsets.y + texel);
+		HIGH float light = dot(indices, vec4(equal(vec4(index - texel * 4.0), vec4(0.0, 1.0, 2.0, 3.0))));
+		HIGH float offset = u_clusterOffsets.x + light * 3.0;
+		// The position and the cosine of the cutoff angle, the color and the squared range, the direction and the exponent
+		HIGH vec4 position = getClusterTexel(offset);
+		HIGH vec4 color = getClusterTexel(offset + 1.0);
+		HIGH vec3 lightDir = position.xyz - v_clusterPosition.xyz;
+		HIGH float dist2 = dot(lightDir, lightDir);
+		if (dist2 > color.w) continue;
+		lightDir *= inversesqrt(dist2);
+		float attenuation = 1.0 / (1.0 + dist2);
+		if (position.w > -1.5) {
+			vec4 spot = getClusterTexel(offset + 2.0);
+			float cosAngle = dot(-lightDir, spot.xyz);
+			attenuation *= step(position.w, cosAngle) * pow(max(cosAngle, 1e-4), spot.w);
+		}
+		float NdotL = clamp(dot(normal, lightDir), 0.0, 1.0);
+		vec3 value = color.rgb * (NdotL * attenuation);
+		lightDiffuse += value;
+		#ifdef specularFlag
+			float halfDotView = max(0.0, dot(normal, normalize(lightDir + viewVec)));
+			lightSpecular += value * pow(halfDotView, u_shininess);
+		#endif // specularFlag
+	}
+}
+#endif //clusteredLightsFlag
+
 #if defined(ambientFlag) && defined(separateAmbientFlag)
 varying vec3 v_ambientLight;
 #endif //separateAmbientFlag
@@ -149,47 +260,59 @@ void main() {
 		vec4 emissive = vec4(0.0);
 	#endif
 
+	#ifdef lightingFlag
+		vec3 lightDiffuse = v_lightDiffuse;
+		#ifdef specularFlag
+			vec3 lightSpecular = v_lightSpecular;
+		#endif // specularFlag
+		#if defined(clusteredLightsFlag) && defined(specularFlag)
+			addClusteredLights(normalize(normal), lightDiffuse, lightSpecular);
+		#elif defined(clusteredLightsFlag)
+			addClusteredLights(normalize(normal), lightDiffuse);
+		#endif //clusteredLightsFlag
+	#endif //lightingFlag
+
 	#if (!defined(lightingFlag))
 		gl_FragColor.rgb = diffuse.rgb + emissive.rgb;
 	#elif (!defined(specularFlag))
 		#if defined(ambientFlag) && defined(separateAmbientFlag)
-			#ifdef shadowMapFlag
-				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + getShadow() * v_lightDiffuse)) + emissive.rgb;
+			#ifdef shadowFlag
+				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + getShadow() * lightDiffuse)) + emissive.rgb;
 				//gl_FragColor.rgb = texture2D(u_shadowTexture, v_shadowMapUv.xy);
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + v_lightDiffuse)) + emissive.rgb;
-			#endif //shadowMapFlag
+				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + lightDiffuse)) + emissive.rgb;
+			#endif //shadowFlag
 		#else
-			#ifdef shadowMapFlag
-				gl_FragColor.rgb = getShadow() * (diffuse.rgb * v_lightDiffuse) + emissive.rgb;
+			#ifdef shadowFlag
+				gl_FragColor.rgb = getShadow() * (diffuse.rgb * lightDiffuse) + emissive.rgb;
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * v_lightDiffuse) + emissive.rgb;
-			#endif //shadowMapFlag
+				gl_FragColor.rgb = (diffuse.rgb * lightDiffuse) + emissive.rgb;
+			#endif //shadowFlag
 		#endif
 	#else
 		#if defined(specularTextureFlag) && defined(specularColorFlag)
-			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * u_specularColor.rgb * v_lightSpecular;
+			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * u_specularColor.rgb * lightSpecular;
 		#elif defined(specularTextureFlag)
-			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * v_lightSpecular;
+			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * lightSpecular;
 		#elif defined(specularColorFlag)
-			vec3 specular = u_specularColor.rgb * v_lightSpecular;
+			vec3 specular = u_specularColor.rgb * lightSpecular;
 		#else
-			vec3 specular = v_lightSpecular;
+			vec3 specular = lightSpecular;
 		#endif
 
 		#if defined(ambientFlag) && defined(separateAmbientFlag)
-			#ifdef shadowMapFlag
-			gl_FragColor.rgb = (diffuse.rgb * (getShadow() * v_lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
+			#ifdef shadowFlag
+			gl_FragColor.rgb = (diffuse.rgb * (getShadow() * lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
 				//gl_FragColor.rgb = texture2D(u_shadowTexture, v_shadowMapUv.xy);
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * (v_lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
-			#endif //shadowMapFlag
+				gl_FragColor.rgb = (diffuse.rgb * (lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
+			#endif //shadowFlag
 		#else
-			#ifdef shadowMapFlag
-				gl_FragColor.rgb = getShadow() * ((diffuse.rgb * v_lightDiffuse) + specular) + emissive.rgb;
+			#ifdef shadowFlag
+				gl_FragColor.rgb = getShadow() * ((diffuse.rgb * lightDiffuse) + specular) + emissive.rgb;
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * v_lightDiffuse) + specular + emissive.rgb;
-			#endif //shadowMapFlag
+				gl_FragColor.rgb = (diffuse.rgb * lightDiffuse) + specular + emissive.rgb;
+			#endif //shadowFlag
 		#endif
 	#endif //lightingFlag
 
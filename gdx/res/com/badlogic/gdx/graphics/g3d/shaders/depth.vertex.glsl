@@ -62,15 +62,38 @@ attribute vec2 a_boneWeight6;
 attribute vec2 a_boneWeight7;
 #endif //boneWeight7Flag
 
-#if defined(numBones) && defined(boneWeightsFlag)
+#if defined(boneTextureFlag) && defined(boneWeightsFlag)
+#define skinningFlag
+#elif defined(numBones) && defined(boneWeightsFlag)
 #if (numBones > 0) 
 #define skinningFlag
 #endif
 #endif
 
-#if defined(numBones)
+#if defined(boneTextureFlag)
+#ifdef GL_ES
+uniform highp sampler2D u_boneTexture;
+#else
+uniform sampler2D u_boneTexture;
+#endif
+// width, height, 1 / width, 1 / height
+uniform vec4 u_boneTextureSize;
+uniform float u_boneOffset;
+
+// Each bone is stored in 4 consecutive texels, one per column, and never spans two rows
+mat4 getBone(float index) {
+	float texel = (u_boneOffset + index) * 4.0;
+	float v = (floor(texel * u_boneTextureSize.z) + 0.5) * u_boneTextureSize.w;
+	float u = (mod(texel, u_boneTextureSize.x) + 0.5) * u_boneTextureSize.z;
+	return mat4(texture2D(u_boneTexture, vec2(u, v)),
+		texture2D(u_boneTexture, vec2(u + u_boneTextureSize.z, v)),
+		texture2D(u_boneTexture, vec2(u + 2.0 * u_boneTextureSize.z, v)),
+		texture2D(u_boneTexture, vec2(u + 3.0 * u_boneTextureSize.z, v)));
+}
+#elif defined(numBones)
 #if numBones > 0
 uniform mat4 u_bones[numBones];
+#define getBone(index) u_bones[int(index)]
 #endif //numBones
 #endif
 
@@ -86,28 +109,28 @@ void main() {
 	#ifdef skinningFlag
 		mat4 skinning = mat4(0.0);
 		#ifdef boneWeight0Flag
-			skinning += (a_boneWeight0.y) * u_bones[int(a_boneWeight0.x)];
+			skinning += (a_boneWeight0.y) * getBone(a_boneWeight0.x);
 		#endif //boneWeight0Flag
 		#ifdef boneWeight1Flag				
-			skinning += (a_boneWeight1.y) * u_bones[int(a_boneWeight1.x)];
+			skinning += (a_boneWeight1.y) * getBone(a_boneWeight1.x);
 		#endif //boneWeight1Flag
 		#ifdef boneWeight2Flag		
-			skinning += (a_boneWeight2.y) * u_bones[int(a_boneWeight2.x)];
+			skinning += (a_boneWeight2.y) * getBone(a_boneWeight2.x);
 		#endif //boneWeight2Flag
 		#ifdef boneWeight3Flag
-			skinning += (a_boneWeight3.y) * u_bones[int(a_boneWeight3.x)];
+			skinning += (a_boneWeight3.y) * getBone(a_boneWeight3.x);
 		#endif //boneWeight3Flag
 		#ifdef boneWeight4Flag
-			skinning += (a_boneWeight4.y) * u_bones[int(a_boneWeight4.x)];
+			skinning += (a_boneWeight4.y) * getBone(a_boneWeight4.x);
 		#endif //boneWeight4Flag
 		#ifdef boneWeight5Flag
-			skinning += (a_boneWeight5.y) * u_bones[int(a_boneWeight5.x)];
+			skinning += (a_boneWeight5.y) * getBone(a_boneWeight5.x);
 		#endif //boneWeight5Flag
 		#ifdef boneWeight6Flag
-			skinning += (a_boneWeight6.y) * u_bones[int(a_boneWeight6.x)];
+			skinning += (a_boneWeight6.y) * getBone(a_boneWeight6.x);
 		#endif //boneWeight6Flag
 		#ifdef boneWeight7Flag
-			skinning += (a_boneWeight7.y) * u_bones[int(a_boneWeight7.x)];
+			skinning += (a_boneWeight7.y) * getBone(a_boneWeight7.x);
 		#endif //boneWeight7Flag
 	#endif //skinningFlag
 
@@ -27,6 +27,7 @@ import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelTexture;
+import com.badlogic.gdx.graphics.g3d.utils.MeshOptimizer;
 import com.badlogic.gdx.graphics.g3d.utils.TextureProvider;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
@@ -50,7 +51,7 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 
 	/** Directly load the model on the calling thread. The model with not be managed by an {@link AssetManager}. */
 	public Model loadModel (final FileHandle fileHandle, TextureProvider textureProvider, P parameters) {
-		final ModelData data = loadModelData(fileHandle, parameters);
+		final ModelData data = optimize(loadModelData(fileHandle, parameters), parameters);
 		return data == null ? null : new Model(data, textureProvider);
 	}
 
@@ -72,7 +73,7 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 	@Override
 	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, P parameters) {
 		final Array<AssetDescriptor> deps = new Array();
-		ModelData data = loadModelData(file, parameters);
+		ModelData data = optimize(loadModelData(file, parameters), parameters);
 		if (data == null) return deps;
 
 		ObjectMap.Entry<String, ModelData> item = new ObjectMap.Entry<String, ModelData>();
@@ -94,6 +95,13 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 		return deps;
 	}
 
+	/** Optimizes the meshes of the model data if {@link ModelParameters#meshOptimizer} is set. */
+	protected ModelData optimize (ModelData data, P parameters) {
+		final MeshOptimizer.Config config = parameters != null ? parameters.meshOptimizer : defaultParameters.meshOptimizer;
+		if (data != null && config != null) MeshOptimizer.optimize(data, config);
+		return data;
+	}
+
 	@Override
 	public void loadAsync (AssetManager manager, String fileName, FileHandle file, P parameters) {
 	}
@@ -125,6 +133,8 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 
 	static public class ModelParameters extends AssetLoaderParameters<Model> {
 		public TextureLoader.TextureParameter textureParameter;
+		/** If set, the meshes are optimized with the {@link MeshOptimizer} after loading, before the model is created. */
+		public MeshOptimizer.Config meshOptimizer;
 
 		public ModelParameters () {
 			textureParameter = new TextureLoader.TextureParameter();
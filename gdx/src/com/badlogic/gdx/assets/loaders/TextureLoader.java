@@ -25,21 +25,29 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.Texture.TextureWrap;
 import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.TextureUploader;
 import com.badlogic.gdx.utils.Array;
 
 /** {@link AssetLoader} for {@link Texture} instances. The pixel data is loaded asynchronously. The texture is then created on the
  * rendering thread, synchronously. Passing a {@link TextureParameter} to
  * {@link AssetManager#load(String, Class, AssetLoaderParameters)} allows one to specify parameters as can be passed to the
  * various Texture constructors, e.g. filtering, whether to generate mipmaps and so on.
+ * <p>
+ * By default the pixel data is uploaded in one go. If an upload budget is set with {@link #setUploadBudget(int)}, textures
+ * without mipmaps are instead uploaded with a {@link TextureUploader}, at most that many bytes per call to
+ * {@link #loadSync(AssetManager, String, FileHandle, TextureParameter)}. {@link AssetManager#update(int)} may run several such
+ * steps in one call.
  * @author mzechner */
 public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoader.TextureParameter> {
 	static public class TextureLoaderInfo {
 		String filename;
 		TextureData data;
 		Texture texture;
+		TextureUploader uploader;
 	};
 
 	TextureLoaderInfo info = new TextureLoaderInfo();
+	int uploadBudget;
 
 	public TextureLoader (FileHandleResolver resolver) {
 		super(resolver);
@@ -73,6 +81,12 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 		Texture texture = info.texture;
 		if (texture != null) {
 			texture.load(info.data);
+		} else if (uploadBudget > 0 && TextureUploader.canUpload(info.data)) {
+			if (info.uploader == null) info.uploader = new TextureUploader(info.data);
+			if (!info.uploader.update(uploadBudget)) return null;
+			texture = info.uploader.getTexture();
+			info.uploader.dispose();
+			info.uploader = null;
 		} else {
 			texture = new Texture(info.data);
 		}
@@ -83,6 +97,25 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 		return texture;
 	}
 
+	@Override
+	public void unloadAsync (AssetManager manager, String fileName, FileHandle file, TextureParameter parameter) {
+		if (info.uploader != null) {
+			info.uploader.dispose();
+			info.uploader = null;
+		}
+	}
+
+	/** Sets the maximum number of bytes of pixel data uploaded per loadSync step, which spreads the upload of large textures over
+	 * several {@link AssetManager#update()} calls. 0 uploads each texture at once. Default is 0. */
+	public void setUploadBudget (int bytes) {
+		if (bytes < 0) throw new IllegalArgumentException("bytes must be >= 0: " + bytes);
+		uploadBudget = bytes;
+	}
+
+	public int getUploadBudget () {
+		return uploadBudget;
+	}
+
 	@Override
 	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, TextureParameter parameter) {
 		return null;
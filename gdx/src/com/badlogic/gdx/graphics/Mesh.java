@@ -17,6 +17,8 @@
 package com.badlogic.gdx.graphics;
 
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
 import java.util.HashMap;
@@ -34,12 +36,14 @@ import com.badlogic.gdx.graphics.glutils.InstanceData;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.VertexArray;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObject;
+import com.badlogic.gdx.graphics.glutils.VertexBufferObjectRing;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObjectSubData;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObjectWithVAO;
 import com.badlogic.gdx.graphics.glutils.VertexData;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.BulkTransform;
 import com.badlogic.gdx.math.Matrix3;
 import com.badlogic.gdx.math.Matrix4;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Array;
@@ -70,7 +74,10 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
  * @author mzechner, Dave Clayton <contact@redskyforge.com>, Xoppa */
 public class Mesh implements Disposable {
 	public enum VertexDataType {
-		VertexArray, VertexBufferObject, VertexBufferObjectSubData, VertexBufferObjectWithVAO
+		VertexArray, VertexBufferObject, VertexBufferObjectSubData, VertexBufferObjectWithVAO,
+		/** Streams vertices into a ring buffer, see {@link com.badlogic.gdx.graphics.glutils.VertexBufferObjectRing}. Requires
+		 * OpenGL ES 3.0. */
+		VertexBufferObjectRing
 	}
 
 	/** list of all meshes **/
@@ -140,6 +147,26 @@ public class Mesh implements Disposable {
 		addManagedMesh(Gdx.app, this);
 	}
 
+	/** Creates a new static Mesh which uses the given buffers as is instead of copying them, for example buffers mapped from a
+	 * file with {@link com.badlogic.gdx.files.FileHandle#map()}. The vertices and indices between the position and the limit of
+	 * the buffers must be in little endian byte order, the byte order of all supported platforms. They are uploaded on the first
+	 * bind, and the buffers must be kept unchanged while the mesh is used, so it can be reloaded after a context loss.
+	 *
+	 * @param vertexBuffer the interleaved vertices
+	 * @param indexBuffer the short indices, may be empty
+	 * @param attributes the {@link VertexAttributes}. */
+	public Mesh (ByteBuffer vertexBuffer, ByteBuffer indexBuffer, VertexAttributes attributes) {
+		final ByteBuffer vertexData = vertexBuffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		if (Gdx.gl30 != null)
+			vertices = new VertexBufferObjectWithVAO(true, vertexData, attributes, true);
+		else
+			vertices = new VertexBufferObject(true, vertexData, attributes);
+		indices = new IndexBufferObject(true, indexBuffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+		isVertexArray = false;
+
+		addManagedMesh(Gdx.app, this);
+	}
+
 	private VertexData makeVertexBuffer (boolean isStatic, int maxVertices, VertexAttributes vertexAttributes) {
 		if (Gdx.gl30 != null) {
 			return new VertexBufferObjectWithVAO(isStatic, maxVertices, vertexAttributes);
@@ -184,6 +211,11 @@ public class Mesh implements Disposable {
 			indices = new IndexBufferObjectSubData(isStatic, maxIndices);
 			isVertexArray = false;
 			break;
+		case VertexBufferObjectRing:
+			vertices = new VertexBufferObjectRing(maxVertices, attributes);
+			indices = new IndexBufferObjectSubData(isStatic, maxIndices);
+			isVertexArray = false;
+			break;
 		case VertexArray:
 		default:
 			vertices = new VertexArray(maxVertices, attributes);
@@ -1025,32 +1057,8 @@ public class Mesh implements Disposable {
 
 		final float[] vertices = new float[numVertices * vertexSize];
 		getVertices(vertices);
-
-		int idx = offset;
-		switch (numComponents) {
-		case 1:
-			for (int i = 0; i < numVertices; i++) {
-				vertices[idx] *= scaleX;
-				idx += vertexSize;
-			}
-			break;
-		case 2:
-			for (int i = 0; i < numVertices; i++) {
-				vertices[idx] *= scaleX;
-				vertices[idx + 1] *= scaleY;
-				idx += vertexSize;
-			}
-			break;
-		case 3:
-			for (int i = 0; i < numVertices; i++) {
-				vertices[idx] *= scaleX;
-				vertices[idx + 1] *= scaleY;
-				vertices[idx + 2] *= scaleZ;
-				idx += vertexSize;
-			}
-			break;
-		}
-
+		if (numComponents <= 3)
+			BulkTransform.scale(scaleX, scaleY, scaleZ, vertices, offset, numVertices, vertexSize, numComponents);
 		setVertices(vertices);
 	}
 
@@ -1093,35 +1101,7 @@ public class Mesh implements Disposable {
 		if (start < 0 || count < 1 || ((start + count) * vertexSize) > vertices.length) throw new IndexOutOfBoundsException(
 			"start = " + start + ", count = " + count + ", vertexSize = " + vertexSize + ", length = " + vertices.length);
 
-		final Vector3 tmp = new Vector3();
-
-		int idx = offset + (start * vertexSize);
-		switch (dimensions) {
-		case 1:
-			for (int i = 0; i < count; i++) {
-				tmp.set(vertices[idx], 0, 0).mul(matrix);
-				vertices[idx] = tmp.x;
-				idx += vertexSize;
-			}
-			break;
-		case 2:
-			for (int i = 0; i < count; i++) {
-				tmp.set(vertices[idx], vertices[idx + 1], 0).mul(matrix);
-				vertices[idx] = tmp.x;
-				vertices[idx + 1] = tmp.y;
-				idx += vertexSize;
-			}
-			break;
-		case 3:
-			for (int i = 0; i < count; i++) {
-				tmp.set(vertices[idx], vertices[idx + 1], vertices[idx + 2]).mul(matrix);
-				vertices[idx] = tmp.x;
-				vertices[idx + 1] = tmp.y;
-				vertices[idx + 2] = tmp.z;
-				idx += vertexSize;
-			}
-			break;
-		}
+		if (dimensions <= 3) BulkTransform.mul(matrix, vertices, offset + start * vertexSize, count, vertexSize, dimensions);
 	}
 
 	/** Method to transform the texture coordinates in the mesh. This is a potentially slow operation, use with care. It will also
@@ -1159,15 +1139,7 @@ public class Mesh implements Disposable {
 		if (start < 0 || count < 1 || ((start + count) * vertexSize) > vertices.length) throw new IndexOutOfBoundsException(
 			"start = " + start + ", count = " + count + ", vertexSize = " + vertexSize + ", length = " + vertices.length);
 
-		final Vector2 tmp = new Vector2();
-
-		int idx = offset + (start * vertexSize);
-		for (int i = 0; i < count; i++) {
-			tmp.set(vertices[idx], vertices[idx + 1]).mul(matrix);
-			vertices[idx] = tmp.x;
-			vertices[idx + 1] = tmp.y;
-			idx += vertexSize;
-		}
+		BulkTransform.mul(new Affine2().set(matrix), vertices, offset + start * vertexSize, count, vertexSize);
 	}
 
 	/** Copies this mesh optionally removing duplicate vertices and/or reducing the amount of attributes.
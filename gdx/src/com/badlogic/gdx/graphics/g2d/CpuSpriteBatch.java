@@ -19,6 +19,7 @@ package com.badlogic.gdx.graphics.g2d;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.BulkTransform;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.utils.GdxRuntimeException;
@@ -597,25 +598,14 @@ public class CpuSpriteBatch extends SpriteBatch {
 
 		if (texture != lastTexture) switchTexture(texture);
 
-		Affine2 t = adjustAffine;
-
 		int copyCount = Math.min(vertices.length - idx, count);
 		do {
 			count -= copyCount;
-			while (copyCount > 0) {
-				float x = spriteVertices[offset];
-				float y = spriteVertices[offset + 1];
-
-				vertices[idx] = t.m00 * x + t.m01 * y + t.m02; // x
-				vertices[idx + 1] = t.m10 * x + t.m11 * y + t.m12; // y
-				vertices[idx + 2] = spriteVertices[offset + 2]; // color
-				vertices[idx + 3] = spriteVertices[offset + 3]; // u
-				vertices[idx + 4] = spriteVertices[offset + 4]; // v
-
-				idx += Sprite.VERTEX_SIZE;
-				offset += Sprite.VERTEX_SIZE;
-				copyCount -= Sprite.VERTEX_SIZE;
-			}
+			// Copies the color and texture coordinates along with the positions, then transforms the positions in place
+			System.arraycopy(spriteVertices, offset, vertices, idx, copyCount);
+			BulkTransform.mul(adjustAffine, vertices, idx, copyCount / Sprite.VERTEX_SIZE, Sprite.VERTEX_SIZE);
+			idx += copyCount;
+			offset += copyCount;
 
 			if (count > 0) {
 				super.flush();
@@ -38,9 +38,17 @@ import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.IntArray;
 
-/** Draws 2D images, optimized for geometry that does not change. Sprites and/or textures are cached and given an ID, which can
- * later be used for drawing. The size, color, and texture region for each cached image cannot be modified. This information is
- * stored in video memory and does not have to be sent to the GPU each time it is drawn.<br>
+/** Draws 2D images, optimized for geometry that rarely changes. Sprites and/or textures are cached and given an ID, which can
+ * later be used for drawing. This information is stored in video memory and does not have to be sent to the GPU each time it is
+ * drawn.<br>
+ * <br>
+ * The size, color and texture region of the images in an existing cache can be modified in place: an image can be replaced with
+ * {@link #set(int, int, Sprite)}, removed with {@link #remove(int, int)} and its slot reused with {@link #add(int, Sprite)}. An
+ * image is identified by its index within the cache, which is the order it was added in. The texture of an image slot is fixed
+ * when the cache is defined. Each modification only copies the image's vertices, but the vertices of all caches are then
+ * re-uploaded to the GPU, right away between {@link #begin()} and {@link #end()}, otherwise on the next {@link #begin()}.
+ * Modifying a few images per frame is cheaper than rebuilding the cache, but geometry that changes every frame is better drawn
+ * with a {@link SpriteBatch}.<br>
  * <br>
  * To cache {@link Sprite sprites} or {@link Texture textures}, first call {@link SpriteCache#beginCache()}, then call the
  * appropriate add method to define the images. To complete the cache, call {@link SpriteCache#endCache()} and store the returned
@@ -202,6 +210,7 @@ public class SpriteCache implements Disposable {
 		if (cache.textures == null) {
 			// New cache.
 			cache.maxCount = cacheCount;
+			cache.imageCount = cacheCount / ((mesh.getNumIndices() > 0 ? 4 : 6) * VERTEX_SIZE);
 			cache.textureCount = textures.size;
 			cache.textures = textures.toArray(Texture[]::new);
 			cache.counts = new int[cache.textureCount];
@@ -217,6 +226,8 @@ public class SpriteCache implements Disposable {
 						+ cacheCount + " (" + cache.maxCount + " max)");
 			}
 
+			cache.imageCount = cacheCount / ((mesh.getNumIndices() > 0 ? 4 : 6) * VERTEX_SIZE);
+			cache.freeImages.clear();
 			cache.textureCount = textures.size;
 
 			if (cache.textures.length < cache.textureCount) cache.textures = new Texture[cache.textureCount];
@@ -848,6 +859,85 @@ public class SpriteCache implements Disposable {
 		add(sprite.getTexture(), tempVertices, 0, 30);
 	}
 
+	/** Returns the number of images in the specified cache, including removed images whose slots have not been reused. */
+	public int getImageCount (int cacheID) {
+		return caches.get(cacheID).imageCount;
+	}
+
+	/** Returns the texture of the image at the specified index in the specified cache. */
+	public Texture getTexture (int cacheID, int index) {
+		Cache cache = caches.get(cacheID);
+		if (index < 0 || index >= cache.imageCount)
+			throw new IndexOutOfBoundsException("index can't be >= " + cache.imageCount + ": " + index);
+		int indexCount = index * 6;
+		int[] counts = cache.counts;
+		for (int i = 0, n = cache.textureCount; i < n; i++) {
+			indexCount -= counts[i];
+			if (indexCount < 0) return cache.textures[i];
+		}
+		return cache.textures[cache.textureCount - 1];
+	}
+
+	/** Replaces the vertices of the image at the specified index in an existing cache, without rebuilding the cache. The vertices
+	 * are laid out as for {@link #add(Texture, float[], int, int)} and must describe exactly one image. The texture of the image
+	 * can't be changed. Must not be called while a cache is being defined. */
+	public void set (int cacheID, int index, float[] vertices, int offset, int length) {
+		if (currentCache != null) throw new IllegalStateException("endCache must be called before set.");
+		Cache cache = caches.get(cacheID);
+		if (index < 0 || index >= cache.imageCount)
+			throw new IndexOutOfBoundsException("index can't be >= " + cache.imageCount + ": " + index);
+		int imageSize = (mesh.getNumIndices() > 0 ? 4 : 6) * VERTEX_SIZE;
+		if (length != imageSize) throw new IllegalArgumentException("length must be " + imageSize + ": " + length);
+		mesh.updateVertices(cache.offset + index * imageSize, vertices, offset, length);
+	}
+
+	/** Replaces the image at the specified index in an existing cache with the specified sprite, without rebuilding the cache. The
+	 * sprite must use the same texture as the image it replaces. Must not be called while a cache is being defined. */
+	public void set (int cacheID, int index, Sprite sprite) {
+		Texture texture = getTexture(cacheID, index);
+		if (sprite.getTexture() != texture) throw new IllegalArgumentException("The sprite must use the texture of the image.");
+		if (mesh.getNumIndices() > 0) {
+			set(cacheID, index, sprite.getVertices(), 0, SPRITE_SIZE);
+			return;
+		}
+
+		float[] spriteVertices = sprite.getVertices();
+		System.arraycopy(spriteVertices, 0, tempVertices, 0, 3 * VERTEX_SIZE); // temp0,1,2=sprite0,1,2
+		System.arraycopy(spriteVertices, 2 * VERTEX_SIZE, tempVertices, 3 * VERTEX_SIZE, VERTEX_SIZE); // temp3=sprite2
+		System.arraycopy(spriteVertices, 3 * VERTEX_SIZE, tempVertices, 4 * VERTEX_SIZE, VERTEX_SIZE); // temp4=sprite3
+		System.arraycopy(spriteVertices, 0, tempVertices, 5 * VERTEX_SIZE, VERTEX_SIZE); // temp5=sprite0
+		set(cacheID, index, tempVertices, 0, 30);
+	}
+
+	/** Removes the image at the specified index from an existing cache, without rebuilding the cache. The image is no longer
+	 * drawn and its slot can be reused with {@link #add(int, Sprite)}. Indices of other images are unaffected. */
+	public void remove (int cacheID, int index) {
+		Cache cache = caches.get(cacheID);
+		if (cache.freeImages.contains(index)) return;
+		int length = (mesh.getNumIndices() > 0 ? 4 : 6) * VERTEX_SIZE;
+		for (int i = 0; i < length; i++)
+			tempVertices[i] = 0;
+		set(cacheID, index, tempVertices, 0, length);
+		cache.freeImages.add(index);
+	}
+
+	/** Adds the specified sprite to an existing cache by reusing the slot of an image previously removed with
+	 * {@link #remove(int, int)} that has the same texture as the sprite.
+	 * @return The index of the image, or -1 if the cache has no free slot for the sprite's texture. */
+	public int add (int cacheID, Sprite sprite) {
+		Cache cache = caches.get(cacheID);
+		IntArray freeImages = cache.freeImages;
+		Texture texture = sprite.getTexture();
+		for (int i = freeImages.size - 1; i >= 0; i--) {
+			int index = freeImages.get(i);
+			if (getTexture(cacheID, index) != texture) continue;
+			freeImages.removeIndex(i);
+			set(cacheID, index, sprite);
+			return index;
+		}
+		return -1;
+	}
+
 	/** Prepares the OpenGL state for SpriteCache rendering. */
 	public void begin () {
 		if (drawing) throw new IllegalStateException("end must be called before begin.");
@@ -968,9 +1058,11 @@ public class SpriteCache implements Disposable {
 		final int id;
 		final int offset;
 		int maxCount;
+		int imageCount;
 		int textureCount;
 		Texture[] textures;
 		int[] counts;
+		final IntArray freeImages = new IntArray();
 
 		public Cache (int id, int offset) {
 			this.id = id;
@@ -20,14 +20,20 @@ import java.util.Comparator;
 import java.util.Iterator;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
+/** A collection of {@link Attribute} instances, at most one of each type. The attributes are kept ordered by type, so the
+ * index of an attribute follows from the number of lower type bits set in the {@link #getMask() mask}. This makes
+ * {@link #get(long)}, {@link #has(long)} and {@link #set(Attribute)} constant time, which matters because shaders and
+ * sorters look up attributes for every renderable. */
 public class Attributes implements Iterable<Attribute>, Comparator<Attribute>, Comparable<Attributes> {
 	protected long mask;
 	protected final Array<Attribute> attributes = new Array<Attribute>();
 
 	protected boolean sorted = true;
 
-	/** Sort the attributes by their ID */
+	/** Sort the attributes by their ID. The attributes are always kept sorted, this is only needed when {@link #attributes} was
+	 * modified directly. */
 	public final void sort () {
 		if (!sorted) {
 			attributes.sort(this);
@@ -43,9 +49,8 @@ public class Attributes implements Iterable<Attribute>, Comparator<Attribute>, C
 	/** Example usage: ((BlendingAttribute)material.get(BlendingAttribute.ID)).sourceFunction;
 	 * @return The attribute (which can safely be cast) if any, otherwise null */
 	public final Attribute get (final long type) {
-		if (has(type)) for (int i = 0; i < attributes.size; i++)
-			if (attributes.get(i).type == type) return attributes.get(i);
-		return null;
+		final int idx = indexOf(type);
+		return idx < 0 ? null : attributes.get(idx);
 	}
 
 	/** Example usage: ((BlendingAttribute)material.get(BlendingAttribute.ID)).sourceFunction;
@@ -83,15 +88,16 @@ public class Attributes implements Iterable<Attribute>, Comparator<Attribute>, C
 
 	/** Add a attribute to this material. If the material already contains an attribute of the same type it is overwritten. */
 	public final void set (final Attribute attribute) {
-		final int idx = indexOf(attribute.type);
-		if (idx < 0) {
-			enable(attribute.type);
-			attributes.add(attribute);
-			sorted = false;
+		final long type = attribute.type;
+		if (type == 0 || (type & (type - 1)) != 0) throw new GdxRuntimeException("Invalid attribute type: " + type);
+		sort();
+		final int idx = Long.bitCount(mask & (type - 1));
+		if ((mask & type) == 0) {
+			enable(type);
+			attributes.insert(idx, attribute);
 		} else {
 			attributes.set(idx, attribute);
 		}
-		sort(); // FIXME: See #4186
 	}
 
 	/** Add multiple attributes to this material. If the material already contains an attribute of the same type it is
@@ -141,10 +147,8 @@ public class Attributes implements Iterable<Attribute>, Comparator<Attribute>, C
 			if ((mask & type) == type) {
 				attributes.removeIndex(i);
 				disable(type);
-				sorted = false;
 			}
 		}
-		sort(); // FIXME: See #4186
 	}
 
 	/** @return True if this collection has the specified attribute, i.e. attributes.has(ColorAttribute.Diffuse); Or when multiple
@@ -156,9 +160,9 @@ public class Attributes implements Iterable<Attribute>, Comparator<Attribute>, C
 
 	/** @return the index of the attribute with the specified type or negative if not available. */
 	protected int indexOf (final long type) {
-		if (has(type)) for (int i = 0; i < attributes.size; i++)
-			if (attributes.get(i).type == type) return i;
-		return -1;
+		if (!has(type) || (type & (type - 1)) != 0) return -1;
+		sort();
+		return Long.bitCount(mask & (type - 1));
 	}
 
 	/** Check if this collection has the same attributes as the other collection. If compareValues is true, it also compares the
@@ -185,7 +189,7 @@ public class Attributes implements Iterable<Attribute>, Comparator<Attribute>, C
 	/** Used for sorting attributes by type (not by value) */
 	@Override
 	public final int compare (final Attribute arg0, final Attribute arg1) {
-		return (int)(arg0.type - arg1.type);
+		return Long.numberOfTrailingZeros(arg0.type) - Long.numberOfTrailingZeros(arg1.type);
 	}
 
 	/** Used for iterating through the attributes */
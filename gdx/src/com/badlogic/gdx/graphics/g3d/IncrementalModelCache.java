@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d;
+
+import com.badlogic.gdx.graphics.g3d.ModelCache.TightMeshPool;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FlushablePool;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+
+/** A cache of mostly static {@link RenderableProvider}s that only merges again the parts of the scene that changed. The providers
+ * are partitioned into a grid of cubic cells by the center of their bounds, and each cell merges its providers with its own
+ * {@link ModelCache}, combining the renderables of equal materials as much as possible. When a provider is added, removed or
+ * changed, only the cells it was and is in are marked dirty, and {@link #update()} rebuilds just those, so the cost of an edit is
+ * proportional to the content of a cell instead of the whole scene.
+ * <p>
+ * The providers are used by reference. After changing one, for example moving the transform of a {@link ModelInstance}, call
+ * {@link #invalidate(RenderableProvider)}. Changes to providers that are not invalidated are only picked up when their cell is
+ * rebuilt for another reason. Skinned renderables are added as-is, like {@link ModelCache} does.
+ * <p>
+ * Larger cells mean fewer draw calls but more work per edit. The meshes of each cell are allocated at their exact size, so
+ * rebuilding a cell whose vertex count didn't change, which is typical for a moved object, reuses its meshes. */
+public class IncrementalModelCache implements RenderableProvider, Disposable {
+	/** The number of cells rebuilt by the last {@link #update()}. */
+	public int rebuiltCells = 0;
+
+	private final float cellSize;
+	private final LongMap<Cell> cells = new LongMap<Cell>();
+	private final IdentityMap<RenderableProvider, Cell> providerCells = new IdentityMap<RenderableProvider, Cell>();
+	private final Array<Cell> dirtyCells = new Array<Cell>(false, 16);
+	private final Array<Renderable> tmp = new Array<Renderable>();
+	private final FlushablePool<Renderable> tmpPool = new FlushablePool<Renderable>() {
+		@Override
+		protected Renderable newObject () {
+			return new Renderable();
+		}
+	};
+	private final BoundingBox tmpBounds = new BoundingBox();
+	private final Vector3 tmpV = new Vector3();
+
+	private static class Cell implements Disposable {
+		final long key;
+		final Array<RenderableProvider> providers = new Array<RenderableProvider>(false, 16);
+		final TightMeshPool meshPool = new TightMeshPool();
+		final ModelCache cache = new ModelCache(new ModelCache.Sorter(), meshPool);
+		boolean dirty;
+
+		Cell (long key) {
+			this.key = key;
+		}
+
+		void rebuild () {
+			cache.begin();
+			for (int i = 0; i < providers.size; i++)
+				cache.add(providers.get(i));
+			cache.end();
+			meshPool.disposeFree();
+			dirty = false;
+		}
+
+		@Override
+		public void dispose () {
+			cache.dispose();
+		}
+	}
+
+	/** @param cellSize The size of the cubic cells, in world units. */
+	public IncrementalModelCache (float cellSize) {
+		if (cellSize <= 0f) throw new IllegalArgumentException("cellSize must be > 0: " + cellSize);
+		this.cellSize = cellSize;
+	}
+
+	/** Adds the provider to the cell containing the center of its bounds and marks that cell dirty. Adding a provider that is
+	 * already cached is the same as {@link #invalidate(RenderableProvider)}. */
+	public void add (final RenderableProvider provider) {
+		if (providerCells.containsKey(provider)) {
+			invalidate(provider);
+			return;
+		}
+		final Cell cell = obtainCell(provider);
+		cell.providers.add(provider);
+		providerCells.put(provider, cell);
+		markDirty(cell);
+	}
+
+	/** Adds the providers, see {@link #add(RenderableProvider)}. */
+	public <T extends RenderableProvider> void add (final Iterable<T> providers) {
+		for (final RenderableProvider provider : providers)
+			add(provider);
+	}
+
+	/** Removes the provider and marks the cell it was in dirty.
+	 * @return Whether the provider was cached. */
+	public boolean remove (final RenderableProvider provider) {
+		final Cell cell = providerCells.remove(provider);
+		if (cell == null) return false;
+		cell.providers.removeValue(provider, true);
+		markDirty(cell);
+		return true;
+	}
+
+	/** Marks the cell of the provider dirty after it changed. If its bounds moved into another cell, it is moved to that cell and
+	 * both cells are marked dirty.
+	 * @return Whether the provider was cached. */
+	public boolean invalidate (final RenderableProvider provider) {
+		final Cell cell = providerCells.get(provider);
+		if (cell == null) return false;
+		final Cell newCell = obtainCell(provider);
+		if (newCell != cell) {
+			cell.providers.removeValue(provider, true);
+			newCell.providers.add(provider);
+			providerCells.put(provider, newCell);
+			markDirty(newCell);
+		}
+		markDirty(cell);
+		return true;
+	}
+
+	/** Marks all cells dirty, so every provider is merged again by the next {@link #update()}. */
+	public void invalidateAll () {
+		for (final Cell cell : cells.values())
+			markDirty(cell);
+	}
+
+	/** @return Whether the provider is cached. */
+	public boolean contains (final RenderableProvider provider) {
+		return providerCells.containsKey(provider);
+	}
+
+	/** Removes all providers and disposes the meshes of all cells. */
+	public void clear () {
+		for (final Cell cell : cells.values())
+			cell.dispose();
+		cells.clear();
+		providerCells.clear();
+		dirtyCells.clear();
+	}
+
+	/** Merges again the providers of the cells that changed since the last update, removing the cells that became empty. Called
+	 * by {@link #getRenderables(Array, Pool)} if needed.
+	 * @return The number of cells rebuilt. */
+	public int update () {
+		rebuiltCells = 0;
+		for (int i = 0; i < dirtyCells.size; i++) {
+			final Cell cell = dirtyCells.get(i);
+			if (cell.providers.size == 0) {
+				cells.remove(cell.key);
+				cell.dispose();
+				continue;
+			}
+			cell.rebuild();
+			rebuiltCells++;
+		}
+		dirtyCells.clear();
+		return rebuiltCells;
+	}
+
+	/** @return Whether some cells changed since the last {@link #update()}. */
+	public boolean isDirty () {
+		return dirtyCells.size > 0;
+	}
+
+	/** @return The number of cells holding providers. */
+	public int getNumCells () {
+		return cells.size;
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+	private void markDirty (final Cell cell) {
+		if (cell.dirty) return;
+		cell.dirty = true;
+		dirtyCells.add(cell);
+	}
+
+	private Cell obtainCell (final RenderableProvider provider) {
+		final long key = getKey(provider);
+		Cell cell = cells.get(key);
+		if (cell == null) cells.put(key, cell = new Cell(key));
+		return cell;
+	}
+
+	/** @return The key of the cell containing the center of the bounds of the renderables of the provider. */
+	private long getKey (final RenderableProvider provider) {
+		provider.getRenderables(tmp, tmpPool);
+		final BoundingBox bounds = tmpBounds.inf();
+		for (int i = 0; i < tmp.size; i++) {
+			final Renderable renderable = tmp.get(i);
+			bounds.ext(tmpV.set(renderable.meshPart.center).mul(renderable.worldTransform));
+		}
+		tmp.clear();
+		tmpPool.flush();
+		if (!bounds.isValid()) return 0L;
+		bounds.getCenter(tmpV);
+		final long x = MathUtils.floor(tmpV.x / cellSize) & 0x1FFFFF;
+		final long y = MathUtils.floor(tmpV.y / cellSize) & 0x1FFFFF;
+		final long z = MathUtils.floor(tmpV.z / cellSize) & 0x1FFFFF;
+		return x | y << 21 | z << 42;
+	}
+
+	/** Provides the merged renderables of all cells, rebuilding the dirty cells first. */
+	@Override
+	public void getRenderables (final Array<Renderable> renderables, final Pool<Renderable> pool) {
+		if (dirtyCells.size > 0) update();
+		for (final Cell cell : cells.values())
+			cell.cache.getRenderables(renderables, pool);
+	}
+
+	@Override
+	public void dispose () {
+		clear();
+	}
+}
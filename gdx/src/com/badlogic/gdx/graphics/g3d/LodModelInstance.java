@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.Pool;
+
+/** A {@link ModelInstance} that renders the level of detail of a {@link ModelLod} matching its size on screen. Each time its
+ * renderables are obtained, the bounding sphere of the model is transformed by the {@link #transform} and projected by the
+ * {@link #camera} to select the level, and the mesh parts of the renderables are replaced by those of the level. Without a
+ * camera the level set by {@link #update(Camera)} or {@link #setLevel(int)} is used. */
+public class LodModelInstance extends ModelInstance {
+	private final static Vector3 tmp = new Vector3();
+
+	/** The levels of detail of the model. */
+	public final ModelLod lod;
+	/** The camera the level is selected for each time the renderables are obtained, or null to keep the current level. */
+	public Camera camera;
+	/** Multiplies the size on screen before selecting the level, lower values switch to simpler levels sooner. */
+	public float lodBias = 1f;
+
+	private final IdentityMap<NodePart, MeshPart[]> levels = new IdentityMap<NodePart, MeshPart[]>();
+	private int level;
+
+	/** Constructs a new LodModelInstance with all nodes and materials of the model of the levels of detail. */
+	public LodModelInstance (final ModelLod lod) {
+		this(lod, new Matrix4());
+	}
+
+	/** Constructs a new LodModelInstance at the specified position. */
+	public LodModelInstance (final ModelLod lod, float x, float y, float z) {
+		this(lod, new Matrix4().setToTranslation(x, y, z));
+	}
+
+	/** Constructs a new LodModelInstance with the specified transform. */
+	public LodModelInstance (final ModelLod lod, Matrix4 transform) {
+		super(lod.model, transform);
+		this.lod = lod;
+		for (int i = 0; i < nodes.size; i++)
+			addLevels(nodes.get(i));
+	}
+
+	private void addLevels (Node node) {
+		for (int i = 0; i < node.parts.size; i++) {
+			final NodePart nodePart = node.parts.get(i);
+			final MeshPart[] partLevels = lod.getLevels(nodePart.meshPart);
+			if (partLevels != null) levels.put(nodePart, partLevels);
+		}
+		for (Node child : node.getChildren())
+			addLevels(child);
+	}
+
+	/** Selects the level from the size of the bounding sphere of the model on screen.
+	 * @return The selected level. */
+	public int update (final Camera camera) {
+		final Matrix4 transform = this.transform;
+		final float scale = Math.max(transform.getScaleX(), Math.max(transform.getScaleY(), transform.getScaleZ()));
+		tmp.set(lod.center).mul(transform);
+		level = lod.getLevel(getScreenSize(camera, tmp, lod.radius * scale) * lodBias);
+		return level;
+	}
+
+	/** @return The current level. */
+	public int getLevel () {
+		return level;
+	}
+
+	/** Sets the current level, which is replaced on the next {@link #update(Camera)} or when the renderables are obtained while
+	 * {@link #camera} is set. */
+	public void setLevel (int level) {
+		this.level = Math.max(0, Math.min(level, lod.getNumLevels() - 1));
+	}
+
+	/** @param center The center of the sphere in world space.
+	 * @return The height of the sphere projected by the camera, as a fraction of the viewport height. */
+	public static float getScreenSize (final Camera camera, final Vector3 center, final float radius) {
+		final float[] projection = camera.projection.val;
+		float w = 1f;
+		if (projection[Matrix4.M33] == 0f) {
+			// Perspective projection, the size shrinks with the distance along the view direction.
+			final float x = center.x - camera.position.x, y = center.y - camera.position.y, z = center.z - camera.position.z;
+			w = Math.max(camera.near, x * camera.direction.x + y * camera.direction.y + z * camera.direction.z);
+		}
+		return radius * Math.abs(projection[Matrix4.M11]) / w;
+	}
+
+	@Override
+	public void getRenderables (Array<Renderable> renderables, Pool<Renderable> pool) {
+		if (camera != null) update(camera);
+		super.getRenderables(renderables, pool);
+	}
+
+	@Override
+	public Renderable getRenderable (final Renderable out, final Node node, final NodePart nodePart) {
+		super.getRenderable(out, node, nodePart);
+		if (level > 0) {
+			final MeshPart[] partLevels = levels.get(nodePart);
+			if (partLevels != null) out.meshPart.set(partLevels[level - 1]);
+		}
+		return out;
+	}
+}
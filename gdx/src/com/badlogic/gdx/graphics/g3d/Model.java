@@ -56,6 +56,7 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ObjectMap;
 
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.ShortBuffer;
 
 /** A model represents a 3D assets. It stores a hierarchy of nodes. A node has a transform and optionally a graphical part in form
@@ -157,7 +158,10 @@ public class Model implements Disposable {
 
 				if ((nodeAnim.translation != null && nodeAnim.translation.size > 0)
 					|| (nodeAnim.rotation != null && nodeAnim.rotation.size > 0)
-					|| (nodeAnim.scaling != null && nodeAnim.scaling.size > 0)) animation.nodeAnimations.add(nodeAnim);
+					|| (nodeAnim.scaling != null && nodeAnim.scaling.size > 0)) {
+					nodeAnim.pack();
+					animation.nodeAnimations.add(nodeAnim);
+				}
 			}
 			if (animation.nodeAnimations.size > 0) animations.add(animation);
 		}
@@ -235,6 +239,10 @@ public class Model implements Disposable {
 	}
 
 	protected void convertMesh (ModelMesh modelMesh) {
+		if (modelMesh.vertexBuffer != null) {
+			convertMappedMesh(modelMesh);
+			return;
+		}
 		int numIndices = 0;
 		for (ModelMeshPart part : modelMesh.parts) {
 			numIndices += part.indices.length;
@@ -269,6 +277,27 @@ public class Model implements Disposable {
 			part.update();
 	}
 
+	/** Creates a mesh using the buffers of the {@link ModelMesh} as is, see {@link Mesh#Mesh(ByteBuffer, ByteBuffer,
+	 * VertexAttributes)}. */
+	protected void convertMappedMesh (ModelMesh modelMesh) {
+		final ByteBuffer indexBuffer = modelMesh.indexBuffer != null ? modelMesh.indexBuffer : BufferUtils.newByteBuffer(0);
+		Mesh mesh = new Mesh(modelMesh.vertexBuffer, indexBuffer, new VertexAttributes(modelMesh.attributes));
+		meshes.add(mesh);
+		disposables.add(mesh);
+
+		for (ModelMeshPart part : modelMesh.parts) {
+			MeshPart meshPart = new MeshPart();
+			meshPart.id = part.id;
+			meshPart.primitiveType = part.primitiveType;
+			meshPart.offset = part.offset;
+			meshPart.size = part.size;
+			meshPart.mesh = mesh;
+			meshParts.add(meshPart);
+		}
+		for (MeshPart part : meshParts)
+			part.update();
+	}
+
 	protected void loadMaterials (Iterable<ModelMaterial> modelMaterials, TextureProvider textureProvider) {
 		for (ModelMaterial mtl : modelMaterials) {
 			this.materials.add(convertMaterial(mtl, textureProvider));
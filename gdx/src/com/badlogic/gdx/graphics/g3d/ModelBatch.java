@@ -22,13 +22,18 @@ import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
 import com.badlogic.gdx.graphics.g3d.utils.DefaultRenderableSorter;
 import com.badlogic.gdx.graphics.g3d.utils.DefaultShaderProvider;
 import com.badlogic.gdx.graphics.g3d.utils.DefaultTextureBinder;
+import com.badlogic.gdx.graphics.g3d.utils.FrustumRenderableCuller;
+import com.badlogic.gdx.graphics.g3d.utils.ModelInstanceCollider;
 import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableCuller;
 import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
+import com.badlogic.gdx.math.Octree;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.FlushablePool;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.Pool;
 
 /** Batches {@link Renderable} instances, fetches {@link Shader}s for them, sorts them and then renders them. Fetching the shaders
@@ -39,6 +44,10 @@ import com.badlogic.gdx.utils.Pool;
  * 
  * To provide multiple {@link Renderable}s at once a {@link RenderableProvider} can be used, e.g. a {@link ModelInstance}.
  * 
+ * Optionally a {@link RenderableCuller} can be set with {@link #setCuller(RenderableCuller)}, e.g. a
+ * {@link FrustumRenderableCuller}, to skip renderables before shaders are fetched and renderables are sorted. Static instances
+ * can also be kept in an {@link Octree}, see {@link #render(Octree)}.
+ * 
  * @author xoppa, badlogic */
 public class ModelBatch implements Disposable {
 	protected static class RenderablePool extends FlushablePool<Renderable> {
@@ -70,6 +79,15 @@ public class ModelBatch implements Disposable {
 	protected final ShaderProvider shaderProvider;
 	/** the {@link RenderableSorter} **/
 	protected final RenderableSorter sorter;
+	/** the {@link RenderableCuller}, or null to render all renderables **/
+	protected RenderableCuller culler;
+	/** Reused for the results of {@link #render(Octree, Environment)}, for any type of renderable provider. **/
+	private final ObjectSet<? extends RenderableProvider> queryResult = new ObjectSet<RenderableProvider>();
+	/** Number of renderables provided since the last call to {@link #begin(Camera)}, including the culled renderables. Renderable
+	 * providers skipped by an {@link Octree} query are not counted. **/
+	public int submittedRenderables = 0;
+	/** Number of renderables culled by the {@link RenderableCuller} since the last call to {@link #begin(Camera)}. **/
+	public int culledRenderables = 0;
 
 	/** Construct a ModelBatch, using this constructor makes you responsible for calling context.begin() and context.end()
 	 * yourself.
@@ -153,6 +171,8 @@ public class ModelBatch implements Disposable {
 	public void begin (final Camera cam) {
 		if (camera != null) throw new GdxRuntimeException("Call end() first.");
 		camera = cam;
+		submittedRenderables = 0;
+		culledRenderables = 0;
 		if (ownContext) context.begin();
 	}
 
@@ -195,6 +215,34 @@ public class ModelBatch implements Disposable {
 		return sorter;
 	}
 
+	/** Sets the {@link RenderableCuller} used to skip renderables that don't need to be rendered, e.g. a
+	 * {@link FrustumRenderableCuller}. Culling is applied when renderables are added to the batch, with the current camera.
+	 * @param culler the culler, or null to render all renderables (the default) */
+	public void setCuller (final RenderableCuller culler) {
+		this.culler = culler;
+	}
+
+	/** @return the {@link RenderableCuller} used by this ModelBatch, or null if renderables are not culled. */
+	public RenderableCuller getCuller () {
+		return culler;
+	}
+
+	/** Removes the renderables from the specified index on which are not visible according to the {@link RenderableCuller}, and
+	 * updates the counters.
+	 * @param offset the index of the first renderable to test */
+	protected void cull (final int offset) {
+		submittedRenderables += renderables.size - offset;
+		if (culler == null) return;
+		int visible = offset;
+		for (int i = offset; i < renderables.size; i++) {
+			final Renderable renderable = renderables.get(i);
+			if (culler.isVisible(camera, renderable)) renderables.set(visible++, renderable);
+		}
+		culledRenderables += renderables.size - visible;
+		// Culled renderables obtained from the pool are freed when the batch is flushed
+		renderables.truncate(visible);
+	}
+
 	/** Flushes the batch, causing all {@link Renderable}s in the batch to be rendered. Can only be called after the call to
 	 * {@link #begin(Camera)} and before the call to {@link #end()}. */
 	public void flush () {
@@ -227,6 +275,11 @@ public class ModelBatch implements Disposable {
 	 * Can only be called after a call to {@link #begin(Camera)} and before a call to {@link #end()}.
 	 * @param renderable The {@link Renderable} to be added. */
 	public void render (final Renderable renderable) {
+		submittedRenderables++;
+		if (culler != null && !culler.isVisible(camera, renderable)) {
+			culledRenderables++;
+			return;
+		}
 		renderable.shader = shaderProvider.getShader(renderable);
 		renderables.add(renderable);
 	}
@@ -237,6 +290,7 @@ public class ModelBatch implements Disposable {
 	public void render (final RenderableProvider renderableProvider) {
 		final int offset = renderables.size;
 		renderableProvider.getRenderables(renderables, renderablesPool);
+		cull(offset);
 		for (int i = offset; i < renderables.size; i++) {
 			Renderable renderable = renderables.get(i);
 			renderable.shader = shaderProvider.getShader(renderable);
@@ -259,6 +313,7 @@ public class ModelBatch implements Disposable {
 	public void render (final RenderableProvider renderableProvider, final Environment environment) {
 		final int offset = renderables.size;
 		renderableProvider.getRenderables(renderables, renderablesPool);
+		cull(offset);
 		for (int i = offset; i < renderables.size; i++) {
 			Renderable renderable = renderables.get(i);
 			renderable.environment = environment;
@@ -284,6 +339,7 @@ public class ModelBatch implements Disposable {
 	public void render (final RenderableProvider renderableProvider, final Shader shader) {
 		final int offset = renderables.size;
 		renderableProvider.getRenderables(renderables, renderablesPool);
+		cull(offset);
 		for (int i = offset; i < renderables.size; i++) {
 			Renderable renderable = renderables.get(i);
 			renderable.shader = shader;
@@ -311,6 +367,7 @@ public class ModelBatch implements Disposable {
 	public void render (final RenderableProvider renderableProvider, final Environment environment, final Shader shader) {
 		final int offset = renderables.size;
 		renderableProvider.getRenderables(renderables, renderablesPool);
+		cull(offset);
 		for (int i = offset; i < renderables.size; i++) {
 			Renderable renderable = renderables.get(i);
 			renderable.environment = environment;
@@ -332,6 +389,35 @@ public class ModelBatch implements Disposable {
 			render(renderableProvider, environment, shader);
 	}
 
+	/** Queries the octree with the camera frustum and adds the {@link Renderable} instances of the returned providers to the
+	 * current batch to be rendered, see {@link #render(RenderableProvider)}. The renderables are culled too if a
+	 * {@link RenderableCuller} is set. Can only be called after a call to {@link #begin(Camera)} and before a call to
+	 * {@link #end()}.
+	 * @param octree the octree containing the renderable providers, e.g. static {@link ModelInstance}s with a
+	 *           {@link ModelInstanceCollider} */
+	public <T extends RenderableProvider> void render (final Octree<T> octree) {
+		render(octree, (Environment)null);
+	}
+
+	/** Queries the octree with the camera frustum and adds the {@link Renderable} instances of the returned providers to the
+	 * current batch to be rendered, see {@link #render(RenderableProvider, Environment)}. The renderables are culled too if a
+	 * {@link RenderableCuller} is set. Can only be called after a call to {@link #begin(Camera)} and before a call to
+	 * {@link #end()}.
+	 * @param octree the octree containing the renderable providers, e.g. static {@link ModelInstance}s with a
+	 *           {@link ModelInstanceCollider}
+	 * @param environment the {@link Environment} to use for the renderables, or null to keep the environment of the renderables */
+	@SuppressWarnings("unchecked")
+	public <T extends RenderableProvider> void render (final Octree<T> octree, final Environment environment) {
+		octree.query(camera.frustum, (ObjectSet<T>)queryResult);
+		for (final RenderableProvider renderableProvider : queryResult) {
+			if (environment == null)
+				render(renderableProvider);
+			else
+				render(renderableProvider, environment);
+		}
+		queryResult.clear();
+	}
+
 	@Override
 	public void dispose () {
 		shaderProvider.dispose();
@@ -125,6 +125,14 @@ public class ModelCache implements Disposable, RenderableProvider {
 			return result;
 		}
 
+		/** Disposes the meshes released by the last {@link #flush()} that weren't obtained again since, so rebuilding a cache
+		 * with different sizes doesn't keep the old meshes around. */
+		public void disposeFree () {
+			for (Mesh m : freeMeshes)
+				m.dispose();
+			freeMeshes.clear();
+		}
+
 		@Override
 		public void dispose () {
 			for (Mesh m : usedMeshes)
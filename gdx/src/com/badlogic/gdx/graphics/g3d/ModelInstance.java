@@ -323,6 +323,7 @@ public class ModelInstance implements RenderableProvider {
 				nodeAnim.translation = nanim.translation;
 				nodeAnim.rotation = nanim.rotation;
 				nodeAnim.scaling = nanim.scaling;
+				nodeAnim.pack(nanim);
 			} else {
 				if (nanim.translation != null) {
 					nodeAnim.translation = new Array<NodeKeyframe<Vector3>>();
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.utils.MeshOptimizer;
+import com.badlogic.gdx.graphics.g3d.utils.MeshSimplifier;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ShortArray;
+
+/** The levels of detail of a {@link Model}, generated by simplifying the triangles of its mesh parts with a
+ * {@link MeshSimplifier}. Level 0 is the model itself, each following level keeps a smaller fraction of the triangles of the
+ * previous one and is used by {@link LodModelInstance} once the model appears smaller than its {@link #screenSizes screen size}
+ * on screen.
+ * <p>
+ * The simplified levels of a mesh only refer to its original vertices, which are copied once to a new mesh for all levels,
+ * keeping only the vertices the levels use. Mesh parts that aren't triangles or whose mesh doesn't have float positions keep
+ * their original triangles at all levels. The model is not modified and must outlive the ModelLod, which must be disposed when
+ * no longer needed. */
+public class ModelLod implements Disposable {
+	/** The model the levels are generated from. */
+	public final Model model;
+	/** The height of the model on screen, as a fraction of the viewport height, below which each level after the first is used. */
+	public final float[] screenSizes;
+	/** The center of the bounding sphere of the model. */
+	public final Vector3 center = new Vector3();
+	/** The radius of the bounding sphere of the model. */
+	public final float radius;
+
+	private final Array<MeshPart> parts = new Array<MeshPart>();
+	private final Array<MeshPart[]> levels = new Array<MeshPart[]>();
+	private final Array<Mesh> meshes = new Array<Mesh>();
+
+	/** Generates the levels with a simplification error of at most 5% of the size of each mesh part.
+	 * @see #ModelLod(Model, float[], float[], MeshSimplifier) */
+	public ModelLod (Model model, float[] ratios, float[] screenSizes) {
+		this(model, ratios, screenSizes, createSimplifier());
+	}
+
+	/** @param ratios The fraction of the triangles of the model kept by each level after the first, in decreasing order. Each
+	 *           level is simplified from the previous one, so the error of later levels may stop them short of their ratio.
+	 * @param screenSizes The height of the model on screen, as a fraction of the viewport height, below which each level after
+	 *           the first is used, in decreasing order. For example 0.5 to switch to the second level once the model covers less
+	 *           than half of the viewport height.
+	 * @param simplifier Simplifies the mesh parts, see {@link MeshSimplifier#targetError}. */
+	public ModelLod (Model model, float[] ratios, float[] screenSizes, MeshSimplifier simplifier) {
+		if (ratios.length != screenSizes.length)
+			throw new GdxRuntimeException("Expected a screen size for each ratio: " + ratios.length + " != " + screenSizes.length);
+		this.model = model;
+		this.screenSizes = screenSizes;
+		final BoundingBox bounds = model.calculateBoundingBox(new BoundingBox());
+		bounds.getCenter(center);
+		radius = bounds.getDimensions(new Vector3()).len() * 0.5f;
+		for (int i = 0; i < model.meshes.size; i++)
+			generate(model.meshes.get(i), ratios, simplifier);
+	}
+
+	private static MeshSimplifier createSimplifier () {
+		final MeshSimplifier simplifier = new MeshSimplifier();
+		simplifier.targetError = 0.05f;
+		return simplifier;
+	}
+
+	private void generate (Mesh mesh, float[] ratios, MeshSimplifier simplifier) {
+		final VertexAttribute position = mesh.getVertexAttribute(Usage.Position);
+		if (position == null || position.type != GL20.GL_FLOAT || position.numComponents != 3) return;
+		final int stride = mesh.getVertexSize() / 4;
+		final int numVertices = mesh.getNumVertices();
+		final int numIndices = mesh.getNumIndices();
+		if (numIndices == 0 && numVertices > 1 << 16) return;
+		final float[] vertices = mesh.getVertices(new float[numVertices * stride]);
+
+		final ShortArray lodIndices = new ShortArray();
+		final int first = parts.size;
+		for (int i = 0; i < model.meshParts.size; i++) {
+			final MeshPart part = model.meshParts.get(i);
+			if (part.mesh != mesh || part.primitiveType != GL20.GL_TRIANGLES || part.size < 3) continue;
+			final short[] indices = new short[part.size];
+			if (numIndices > 0)
+				mesh.getIndices(part.offset, part.size, indices, 0);
+			else
+				for (int j = 0; j < part.size; j++)
+					indices[j] = (short)(part.offset + j);
+			int count = part.size;
+			final MeshPart[] partLevels = new MeshPart[ratios.length];
+			for (int level = 0; level < ratios.length; level++) {
+				count = simplifier.simplify(indices, 0, count, vertices, stride, position.offset / 4,
+					(int)(part.size * ratios[level]), indices, 0);
+				// Keep the bounds of the original part, so the levels are culled alike.
+				final MeshPart levelPart = new MeshPart(part);
+				levelPart.offset = lodIndices.size;
+				levelPart.size = count;
+				lodIndices.addAll(indices, 0, count);
+				partLevels[level] = levelPart;
+			}
+			parts.add(part);
+			levels.add(partLevels);
+		}
+		if (lodIndices.size == 0) return;
+
+		final int used = MeshOptimizer.optimizeVertexFetch(vertices, stride, lodIndices.items, 0, lodIndices.size);
+		final Mesh lodMesh = new Mesh(true, used, lodIndices.size, mesh.getVertexAttributes());
+		lodMesh.setVertices(vertices, 0, used * stride);
+		lodMesh.setIndices(lodIndices.items, 0, lodIndices.size);
+		meshes.add(lodMesh);
+		for (int i = first; i < parts.size; i++)
+			for (MeshPart levelPart : levels.get(i))
+				levelPart.mesh = lodMesh;
+	}
+
+	/** @return The number of levels, including the model itself. */
+	public int getNumLevels () {
+		return screenSizes.length + 1;
+	}
+
+	/** @param screenSize The height of the model on screen, as a fraction of the viewport height.
+	 * @return The level to use for that size. */
+	public int getLevel (float screenSize) {
+		int level = 0;
+		while (level < screenSizes.length && screenSize < screenSizes[level])
+			level++;
+		return level;
+	}
+
+	/** @param part A mesh part of the model, or a copy of it as found in the nodes of a {@link ModelInstance}.
+	 * @return The mesh parts of the levels after the first for the mesh part, or null if it isn't simplified. */
+	public MeshPart[] getLevels (MeshPart part) {
+		for (int i = 0; i < parts.size; i++)
+			if (parts.get(i).equals(part)) return levels.get(i);
+		return null;
+	}
+
+	/** @return The number of triangles of the simplified mesh parts at the level. */
+	public int getNumTriangles (int level) {
+		int result = 0;
+		for (int i = 0; i < parts.size; i++)
+			result += (level == 0 ? parts.get(i).size : levels.get(i)[level - 1].size) / 3;
+		return result;
+	}
+
+	@Override
+	public void dispose () {
+		for (Mesh mesh : meshes)
+			mesh.dispose();
+		meshes.clear();
+	}
+}
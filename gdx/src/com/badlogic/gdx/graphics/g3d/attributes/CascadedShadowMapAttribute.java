@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.attributes;
+
+import com.badlogic.gdx.graphics.g3d.Attribute;
+import com.badlogic.gdx.graphics.g3d.environment.CascadedShadowLight;
+
+/** An {@link Attribute} which tells the shader to sample the cascaded shadow maps of a {@link CascadedShadowLight}. The light is
+ * stored by reference, the {@link #copy()} method will not create a new light. */
+public class CascadedShadowMapAttribute extends Attribute {
+	public final static String Alias = "cascadedShadowMap";
+	public final static long Type = register(Alias);
+
+	public final static boolean is (final long mask) {
+		return (mask & Type) == mask;
+	}
+
+	public CascadedShadowLight light;
+
+	public CascadedShadowMapAttribute (final CascadedShadowLight light) {
+		super(Type);
+		this.light = light;
+	}
+
+	public CascadedShadowMapAttribute (final CascadedShadowMapAttribute copyFrom) {
+		this(copyFrom.light);
+	}
+
+	@Override
+	public CascadedShadowMapAttribute copy () {
+		return new CascadedShadowMapAttribute(this);
+	}
+
+	@Override
+	public int hashCode () {
+		int result = super.hashCode();
+		result = 1123 * result + (light == null ? 0 : System.identityHashCode(light));
+		return result;
+	}
+
+	@Override
+	public int compareTo (Attribute o) {
+		if (type != o.type) return type < o.type ? -1 : 1;
+		final CascadedShadowLight other = ((CascadedShadowMapAttribute)o).light;
+		if (light == other) return 0;
+		if (light == null) return -1;
+		if (other == null) return 1;
+		final int h1 = System.identityHashCode(light), h2 = System.identityHashCode(other);
+		return h1 == h2 ? 0 : (h1 < h2 ? -1 : 1);
+	}
+}
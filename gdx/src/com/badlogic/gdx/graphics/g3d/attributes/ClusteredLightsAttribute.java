@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.attributes;
+
+import com.badlogic.gdx.graphics.g3d.Attribute;
+import com.badlogic.gdx.graphics.g3d.environment.ClusteredLights;
+
+/** An {@link Attribute} which tells the shader to shade the point and spot lights per fragment with the clusters of a
+ * {@link ClusteredLights}, instead of the lights of the {@link PointLightsAttribute} and {@link SpotLightsAttribute}. The
+ * clusters are stored by reference, the {@link #copy()} method will not create a new ClusteredLights. */
+public class ClusteredLightsAttribute extends Attribute {
+	public final static String Alias = "clusteredLights";
+	public final static long Type = register(Alias);
+
+	public final static boolean is (final long mask) {
+		return (mask & Type) == mask;
+	}
+
+	public ClusteredLights lights;
+
+	public ClusteredLightsAttribute (final ClusteredLights lights) {
+		super(Type);
+		this.lights = lights;
+	}
+
+	public ClusteredLightsAttribute (final ClusteredLightsAttribute copyFrom) {
+		this(copyFrom.lights);
+	}
+
+	@Override
+	public ClusteredLightsAttribute copy () {
+		return new ClusteredLightsAttribute(this);
+	}
+
+	@Override
+	public int hashCode () {
+		int result = super.hashCode();
+		result = 1129 * result + (lights == null ? 0 : System.identityHashCode(lights));
+		return result;
+	}
+
+	@Override
+	public int compareTo (Attribute o) {
+		if (type != o.type) return type < o.type ? -1 : 1;
+		return 0;
+	}
+}
@@ -107,13 +107,13 @@ public class CameraGroupStrategy implements GroupStrategy, Disposable {
 				return (int)Math.signum(dist2 - dist1);
 			}
 		};
-		createDefaultShader();
+		shader = createDefaultShader();
 	}
 
 	public CameraGroupStrategy (Camera camera, Comparator<Decal> sorter) {
 		this.camera = camera;
 		this.cameraSorter = sorter;
-		createDefaultShader();
+		shader = createDefaultShader();
 	}
 
 	public void setCamera (Camera camera) {
@@ -180,7 +180,8 @@ public class CameraGroupStrategy implements GroupStrategy, Disposable {
 		Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
 	}
 
-	private void createDefaultShader () {
+	/** @return a new shader drawing textured, vertex colored decals with the {@code u_projectionViewMatrix} uniform */
+	static ShaderProgram createDefaultShader () {
 		String vertexShader = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" //
 			+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" //
 			+ "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" //
@@ -206,8 +207,9 @@ public class CameraGroupStrategy implements GroupStrategy, Disposable {
 			+ "  gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n" //
 			+ "}";
 
-		shader = new ShaderProgram(vertexShader, fragmentShader);
+		ShaderProgram shader = new ShaderProgram(vertexShader, fragmentShader);
 		if (!shader.isCompiled()) throw new IllegalArgumentException("couldn't compile shader: " + shader.getLog());
+		return shader;
 	}
 
 	@Override
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.decals;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/** Renderer for large numbers of {@link Decal} objects, drawing them like a {@link DecalBatch} with a
+ * {@link CameraGroupStrategy} does, but without grouping the decals in arrays and sorting them with a comparator.
+ * <p>
+ * When a decal is {@link #add(Decal) added}, it is updated and its vertices are copied into a packed float buffer right away,
+ * along with an integer sort key computed from its material and its distance to the camera. {@link #flush()} sorts the keys with
+ * a radix sort, gathers the vertices in sorted order and uploads them in chunks of up to {@link #getSize()} decals, one upload
+ * per chunk. Each run of decals sharing a material is then drawn as a contiguous range of the chunk.
+ * <p>
+ * Opaque decals are drawn first, grouped by material and roughly front to back within a material. The blended decals follow back
+ * to front, with blending enabled and depth writes disabled. Materials are compared with {@link DecalMaterial#equals(Object)}, up
+ * to 32768 different materials can be drawn in one flush. The distances are computed when the decals are added, so the camera
+ * should be updated before. Decals with equal keys are drawn in the order they were added.
+ * <p>
+ * It expects and leaves the same OpenGL states as {@link CameraGroupStrategy}. */
+public class PackedDecalBatch implements Disposable {
+	public static final int DEFAULT_SIZE = 8192;
+	/** The maximum size of a batch, the vertices of a chunk have to be addressable by unsigned short indices. */
+	public static final int MAX_SIZE = 16383;
+	private static final int MATERIAL_BITS = 15, DEPTH_BITS = 16;
+	private static final int BLENDED = 1 << 31;
+
+	private Camera camera;
+	private final ShaderProgram shader;
+	private final boolean ownsShader;
+	private final Mesh mesh;
+	private final float[] vertices;
+
+	private final ObjectIntMap<DecalMaterial> materialIds = new ObjectIntMap<DecalMaterial>();
+	private final Array<DecalMaterial> materials = new Array<DecalMaterial>();
+	private final int[] counts = new int[256];
+	private float[] packed = new float[0];
+	private int[] keys = new int[0], tmpKeys = new int[0];
+	private int[] indices = new int[0], tmpIndices = new int[0];
+	private int[] decalMaterials = new int[0];
+	private int count;
+
+	/** Creates a batch of {@link #DEFAULT_SIZE} using its own shader, which is the same as the one of
+	 * {@link CameraGroupStrategy}. */
+	public PackedDecalBatch (Camera camera) {
+		this(DEFAULT_SIZE, camera);
+	}
+
+	/** Creates a batch using its own shader, which is the same as the one of {@link CameraGroupStrategy}.
+	 * @param size Maximum number of decals uploaded at once, at most {@link #MAX_SIZE} */
+	public PackedDecalBatch (int size, Camera camera) {
+		this(size, camera, CameraGroupStrategy.createDefaultShader(), true);
+	}
+
+	/** Creates a batch drawing with the given shader, which has to have the attributes and uniforms of the shader of
+	 * {@link CameraGroupStrategy}. The shader is not disposed by the batch.
+	 * @param size Maximum number of decals uploaded at once, at most {@link #MAX_SIZE} */
+	public PackedDecalBatch (int size, Camera camera, ShaderProgram shader) {
+		this(size, camera, shader, false);
+	}
+
+	private PackedDecalBatch (int size, Camera camera, ShaderProgram shader, boolean ownsShader) {
+		if (size < 1 || size > MAX_SIZE) {
+			if (ownsShader) shader.dispose();
+			throw new IllegalArgumentException("size must be between 1 and " + MAX_SIZE + ": " + size);
+		}
+		this.camera = camera;
+		this.shader = shader;
+		this.ownsShader = ownsShader;
+		vertices = new float[size * Decal.SIZE];
+
+		Mesh.VertexDataType vertexDataType = Mesh.VertexDataType.VertexArray;
+		if (Gdx.gl30 != null) {
+			vertexDataType = Mesh.VertexDataType.VertexBufferObjectWithVAO;
+		}
+		mesh = new Mesh(vertexDataType, false, size * 4, size * 6,
+			new VertexAttribute(VertexAttributes.Usage.Position, 3, ShaderProgram.POSITION_ATTRIBUTE),
+			new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
+			new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"));
+
+		short[] indices = new short[size * 6];
+		int v = 0;
+		for (int i = 0; i < indices.length; i += 6, v += 4) {
+			indices[i] = (short)(v);
+			indices[i + 1] = (short)(v + 2);
+			indices[i + 2] = (short)(v + 1);
+			indices[i + 3] = (short)(v + 1);
+			indices[i + 4] = (short)(v + 2);
+			indices[i + 5] = (short)(v + 3);
+		}
+		mesh.setIndices(indices);
+	}
+
+	public void setCamera (Camera camera) {
+		this.camera = camera;
+	}
+
+	public Camera getCamera () {
+		return camera;
+	}
+
+	/** @return maximum number of decals uploaded to the GL at once */
+	public int getSize () {
+		return vertices.length / Decal.SIZE;
+	}
+
+	/** @return number of decals added since the last flush */
+	public int getCount () {
+		return count;
+	}
+
+	/** Adds a decal to the batch, copying its vertices and computing its sort key with the current camera position. Changes to the
+	 * decal made afterwards are not drawn by the next flush. */
+	public void add (Decal decal) {
+		if (count == keys.length) resize(Math.max(64, count << 1));
+		final DecalMaterial material = decal.material;
+		int materialId = materialIds.get(material, -1);
+		if (materialId == -1) {
+			materialId = materials.size;
+			if (materialId == 1 << MATERIAL_BITS)
+				throw new GdxRuntimeException("More than " + (1 << MATERIAL_BITS) + " materials in one flush");
+			materialIds.put(material, materialId);
+			materials.add(material);
+		}
+
+		decal.update();
+		System.arraycopy(decal.vertices, 0, packed, count * Decal.SIZE, Decal.SIZE);
+		// The bits of a positive float are ordered like the float
+		final int depth = Float.floatToIntBits(camera.position.dst2(decal.position));
+		if (material.isOpaque())
+			keys[count] = (materialId << DEPTH_BITS) | (depth >>> (31 - DEPTH_BITS));
+		else
+			keys[count] = BLENDED | (~depth & 0x7fffffff);
+		decalMaterials[count] = materialId;
+		count++;
+	}
+
+	private void resize (int capacity) {
+		packed = Arrays.copyOf(packed, capacity * Decal.SIZE);
+		keys = Arrays.copyOf(keys, capacity);
+		decalMaterials = Arrays.copyOf(decalMaterials, capacity);
+		tmpKeys = new int[capacity];
+		indices = new int[capacity];
+		tmpIndices = new int[capacity];
+	}
+
+	/** Flushes this batch, drawing all added decals. After flushing the batch is empty once again. */
+	public void flush () {
+		if (count > 0) render();
+		clear();
+	}
+
+	/** Sorts the added decals and draws them, uploading a chunk of at most {@link #getSize()} decals at a time. */
+	protected void render () {
+		final int count = this.count;
+		radixSort(count);
+		final int[] keys = this.keys, order = this.indices, decalMaterials = this.decalMaterials;
+		final float[] packed = this.packed, vertices = this.vertices;
+		final int size = getSize();
+
+		Gdx.gl.glEnable(GL20.GL_DEPTH_TEST);
+		shader.bind();
+		shader.setUniformMatrix("u_projectionViewMatrix", camera.combined);
+		shader.setUniformi("u_texture", 0);
+		boolean blending = false;
+		for (int start = 0; start < count; start += size) {
+			final int end = Math.min(start + size, count);
+			for (int i = start, offset = 0; i < end; i++, offset += Decal.SIZE)
+				System.arraycopy(packed, order[i] * Decal.SIZE, vertices, offset, Decal.SIZE);
+			mesh.setVertices(vertices, 0, (end - start) * Decal.SIZE);
+
+			mesh.bind(shader);
+			for (int runStart = start, runEnd; runStart < end; runStart = runEnd) {
+				final int material = decalMaterials[order[runStart]];
+				for (runEnd = runStart + 1; runEnd < end; runEnd++)
+					if (decalMaterials[order[runEnd]] != material) break;
+				if (!blending && keys[runStart] < 0) {
+					Gdx.gl.glEnable(GL20.GL_BLEND);
+					Gdx.gl.glDepthMask(false);
+					blending = true;
+				}
+				materials.get(material).set();
+				mesh.render(shader, GL20.GL_TRIANGLES, (runStart - start) * 6, (runEnd - runStart) * 6, false);
+			}
+			mesh.unbind(shader);
+		}
+		if (blending) {
+			Gdx.gl.glDisable(GL20.GL_BLEND);
+			Gdx.gl.glDepthMask(true);
+		}
+		Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
+	}
+
+	/** Sorts the keys with a least significant digit radix sort of 8 bits per pass, skipping the passes where all keys have the
+	 * same digit. Afterwards {@link #keys} are sorted, the top bit being treated as unsigned, and {@link #indices} holds the
+	 * indices of the decals in sorted order. */
+	private void radixSort (final int size) {
+		final int[] counts = this.counts;
+		int[] keys = this.keys, tmpKeys = this.tmpKeys;
+		int[] indices = this.indices, tmpIndices = this.tmpIndices;
+		for (int i = 0; i < size; i++)
+			indices[i] = i;
+		for (int shift = 0; shift < 32; shift += 8) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < size; i++)
+				counts[(keys[i] >>> shift) & 0xff]++;
+			if (counts[(keys[0] >>> shift) & 0xff] == size) continue;
+			for (int i = 0, total = 0; i < 256; i++) {
+				final int count = counts[i];
+				counts[i] = total;
+				total += count;
+			}
+			for (int i = 0; i < size; i++) {
+				final int key = keys[i];
+				final int index = counts[(key >>> shift) & 0xff]++;
+				tmpKeys[index] = key;
+				tmpIndices[index] = indices[i];
+			}
+			int[] swap = keys;
+			keys = tmpKeys;
+			tmpKeys = swap;
+			swap = indices;
+			indices = tmpIndices;
+			tmpIndices = swap;
+		}
+		this.keys = keys;
+		this.tmpKeys = tmpKeys;
+		this.indices = indices;
+		this.tmpIndices = tmpIndices;
+	}
+
+	/** Removes all decals from the batch. */
+	protected void clear () {
+		count = 0;
+		materialIds.clear();
+		materials.clear();
+	}
+
+	@Override
+	public void dispose () {
+		clear();
+		mesh.dispose();
+		if (ownsShader) shader.dispose();
+	}
+}
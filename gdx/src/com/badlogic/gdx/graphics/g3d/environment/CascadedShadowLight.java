@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.environment;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.attributes.CascadedShadowMapAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.TextureDescriptor;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** A {@link DirectionalLight} that casts shadows through cascaded shadow maps. The view frustum of the camera is split into up to
+ * {@link #MAX_CASCADES} cascades along the view direction, each covered by its own shadow map, so nearby shadows get more texels
+ * than distant ones. The split distances blend a logarithmic and a uniform split scheme, see {@link #splitLambda}.
+ * <p>
+ * Each cascade is fitted around the bounding sphere of its part of the view frustum, enlarged by {@link #cacheMargin}, and
+ * snapped to whole shadow map texels. It stays in place until its part of the view frustum moved further than the margin.
+ * That allows the depth of static casters to be cached: static and dynamic casters are rendered into two separate atlases, and
+ * the static cascades are only rendered again when they moved, when the light direction changed or after
+ * {@link #invalidate()}. The dynamic casters are rendered every frame. A fragment is lit only if it is lit in both atlases.
+ * <p>
+ * Add the light to the {@link com.badlogic.gdx.graphics.g3d.Environment} like any directional light, together with a
+ * {@link CascadedShadowMapAttribute} so {@link com.badlogic.gdx.graphics.g3d.shaders.DefaultShader} samples the shadow maps.
+ * Each frame, call {@link #update(Camera)} and render the casters, for example with
+ * {@link #render(ModelBatch, Iterable, Iterable)} and a ModelBatch using a
+ * {@link com.badlogic.gdx.graphics.g3d.utils.DepthShaderProvider}. Call {@link #invalidate()} after the OpenGL context was
+ * lost. */
+public class CascadedShadowLight extends DirectionalLight implements Disposable {
+	public final static int MAX_CASCADES = 4;
+
+	/** How the split distances are chosen, 1 for logarithmic splits, 0 for uniform splits or anything in between. */
+	public float splitLambda = 0.75f;
+	/** The view distance up to which shadows are rendered, limited by the far plane of the camera. */
+	public float shadowDistance;
+	/** The distance towards the light in front of each cascade within which casters are still rendered. */
+	public float casterDistance;
+	/** The offset subtracted from the depth of a fragment before it is compared with the shadow map, to prevent shadow acne. */
+	public float depthBias = 0.002f;
+	/** The fraction of its radius a cascade is enlarged by, which is how far its part of the view frustum can move before the
+	 * cascade moves and its static casters have to be rendered again. 0 moves the cascades with every texel. */
+	public float cacheMargin = 0.1f;
+
+	protected final int numCascades;
+	protected final int cascadeSize;
+	protected final int columns;
+	protected FrameBuffer staticBuffer;
+	protected FrameBuffer dynamicBuffer;
+	protected final OrthographicCamera[] cameras;
+	/** The view distance at which each cascade ends. */
+	protected final float[] splits;
+	/** The matrices transforming world coordinates to the atlas coordinates and depth of each cascade. */
+	protected final float[] projViewTrans;
+	/** The plane through the camera position facing the view direction, its distance is the view distance of a point. */
+	protected final Plane depthPlane = new Plane();
+	protected final TextureDescriptor<Texture> staticDesc;
+	protected final TextureDescriptor<Texture> dynamicDesc;
+	/** The snapped center in light space, rounded radius and light direction of each cascade when its static casters were last
+	 * rendered. */
+	private final float[] staticKeys;
+	private final boolean[] staticDirty;
+	private FrameBuffer current;
+
+	private final Vector3[] corners = new Vector3[8];
+	private final Vector3 center = new Vector3();
+	private final Vector3 lightDirection = new Vector3();
+	private final Vector3 lightUp = new Vector3();
+	private final Matrix4 lightRotation = new Matrix4();
+	private final Matrix4 tmpM = new Matrix4();
+
+	/** @param numCascades The number of cascades, 1 to {@link #MAX_CASCADES}.
+	 * @param cascadeSize The width and height of the shadow map of each cascade in texels.
+	 * @param shadowDistance See {@link #shadowDistance}.
+	 * @param casterDistance See {@link #casterDistance}. */
+	public CascadedShadowLight (int numCascades, int cascadeSize, float shadowDistance, float casterDistance) {
+		if (numCascades < 1 || numCascades > MAX_CASCADES)
+			throw new GdxRuntimeException("numCascades must be between 1 and " + MAX_CASCADES + ": " + numCascades);
+		this.numCascades = numCascades;
+		this.cascadeSize = cascadeSize;
+		this.shadowDistance = shadowDistance;
+		this.casterDistance = casterDistance;
+		columns = numCascades > 1 ? 2 : 1;
+		final int rows = numCascades > 2 ? 2 : 1;
+		staticBuffer = createFrameBuffer(columns * cascadeSize, rows * cascadeSize);
+		dynamicBuffer = createFrameBuffer(columns * cascadeSize, rows * cascadeSize);
+		cameras = new OrthographicCamera[numCascades];
+		for (int i = 0; i < numCascades; i++)
+			cameras[i] = new OrthographicCamera();
+		splits = new float[numCascades];
+		projViewTrans = new float[numCascades * 16];
+		staticKeys = new float[numCascades * 7];
+		staticDirty = new boolean[numCascades];
+		for (int i = 0; i < corners.length; i++)
+			corners[i] = new Vector3();
+		staticDesc = createDepthMapDescriptor();
+		dynamicDesc = createDepthMapDescriptor();
+		invalidate();
+	}
+
+	/** Creates the frame buffer of the static or dynamic atlas, the depth is packed into its color buffer. */
+	protected FrameBuffer createFrameBuffer (int width, int height) {
+		return new FrameBuffer(Format.RGBA8888, width, height, true);
+	}
+
+	private static TextureDescriptor<Texture> createDepthMapDescriptor () {
+		final TextureDescriptor<Texture> textureDesc = new TextureDescriptor<Texture>();
+		textureDesc.minFilter = textureDesc.magFilter = Texture.TextureFilter.Nearest;
+		textureDesc.uWrap = textureDesc.vWrap = Texture.TextureWrap.ClampToEdge;
+		return textureDesc;
+	}
+
+	/** Fits the cascades to the view frustum of the camera, which must be updated. Marks the static casters of the cascades that
+	 * moved to be rendered again. */
+	public void update (final Camera camera) {
+		lightDirection.set(direction).nor();
+		if (Math.abs(lightDirection.y) > 0.99f)
+			lightUp.set(Vector3.Z);
+		else
+			lightUp.set(Vector3.Y);
+		lightRotation.setToLookAt(lightDirection, lightUp);
+		depthPlane.set(camera.position, camera.direction);
+
+		final float near = camera.near;
+		final float far = Math.min(camera.far, shadowDistance);
+		final float logNear = Math.max(near, 0.001f);
+		float previous = near;
+		for (int i = 0; i < numCascades; i++) {
+			final float t = (i + 1f) / numCascades;
+			final float log = logNear * (float)Math.pow(far / logNear, t);
+			final float uniform = near + (far - near) * t;
+			splits[i] = splitLambda * log + (1f - splitLambda) * uniform;
+			updateCascade(i, camera, previous, splits[i]);
+			previous = splits[i];
+		}
+	}
+
+	/** Fits the cascade around the part of the view frustum between the two view distances. */
+	protected void updateCascade (final int cascade, final Camera camera, final float from, final float to) {
+		final Vector3[] points = camera.frustum.planePoints;
+		final float range = camera.far - camera.near;
+		final float t0 = (from - camera.near) / range, t1 = (to - camera.near) / range;
+		center.setZero();
+		for (int i = 0; i < 4; i++) {
+			center.add(corners[i].set(points[i]).lerp(points[i + 4], t0));
+			center.add(corners[i + 4].set(points[i]).lerp(points[i + 4], t1));
+		}
+		center.scl(1f / 8f);
+		float radius = 0;
+		for (final Vector3 corner : corners)
+			radius = Math.max(radius, corner.dst2(center));
+		radius = (float)Math.sqrt(radius);
+
+		final float[] keys = staticKeys;
+		final int k = cascade * 7;
+		// Round the radius up and keep it while it only changes slightly, so it stays the same while the camera rotates
+		float rounded = keys[k + 3];
+		if (radius > rounded || radius < rounded - 0.125f) rounded = (float)Math.ceil(radius * 16f) / 16f;
+		// Keep two texels at each side free, so filtering never samples the neighbouring cascades
+		final float extent = rounded * (1f + cacheMargin) * cascadeSize / (cascadeSize - 4f);
+
+		// Keep the cascade where it is as long as the bounding sphere stays within the margin. Otherwise move it, snapped to whole
+		// texels in light space so the shadows don't shimmer, which leaves up to half a texel of the margin to the snapping.
+		final float texel = 2f * extent / cascadeSize;
+		final float margin = rounded * (1f + cacheMargin) - radius - 0.5f * texel;
+		center.mul(lightRotation);
+		boolean moved = keys[k + 3] != rounded || keys[k + 4] != lightDirection.x || keys[k + 5] != lightDirection.y
+			|| keys[k + 6] != lightDirection.z;
+		if (moved || Math.abs(keys[k] - center.x) > margin || Math.abs(keys[k + 1] - center.y) > margin
+			|| Math.abs(keys[k + 2] - center.z) > margin) {
+			final float x = Math.round(center.x / texel) * texel;
+			final float y = Math.round(center.y / texel) * texel;
+			final float z = Math.round(center.z / texel) * texel;
+			moved |= keys[k] != x || keys[k + 1] != y || keys[k + 2] != z;
+			keys[k] = x;
+			keys[k + 1] = y;
+			keys[k + 2] = z;
+			keys[k + 3] = rounded;
+			keys[k + 4] = lightDirection.x;
+			keys[k + 5] = lightDirection.y;
+			keys[k + 6] = lightDirection.z;
+			if (moved) staticDirty[cascade] = true;
+		}
+		radius = extent;
+		center.set(keys[k], keys[k + 1], keys[k + 2]).mul(tmpM.set(lightRotation).tra());
+
+		final OrthographicCamera cam = cameras[cascade];
+		cam.viewportWidth = cam.viewportHeight = 2f * radius;
+		cam.near = 0f;
+		cam.far = 2f * radius + casterDistance;
+		cam.direction.set(lightDirection);
+		cam.up.set(lightUp);
+		cam.position.set(lightDirection).scl(-(radius + casterDistance)).add(center);
+		cam.update();
+
+		// Map the cascade to its tile of the atlas and the depth to [0, 1]
+		final int rows = numCascades > 2 ? 2 : 1;
+		final float[] val = tmpM.idt().val;
+		val[Matrix4.M00] = 0.5f / columns;
+		val[Matrix4.M11] = 0.5f / rows;
+		val[Matrix4.M22] = 0.5f;
+		val[Matrix4.M03] = (cascade % columns + 0.5f) / columns;
+		val[Matrix4.M13] = (cascade / columns + 0.5f) / rows;
+		val[Matrix4.M23] = 0.5f - depthBias;
+		tmpM.mul(cam.combined);
+		System.arraycopy(val, 0, projViewTrans, cascade * 16, 16);
+	}
+
+	/** Starts rendering the static casters of the cascade with the camera returned by {@link #getCamera(int)}, if they have to
+	 * be rendered again. Call {@link #end()} afterwards.
+	 * @return false if the static casters of the cascade are cached, in which case nothing has to be rendered and {@link #end()}
+	 *         must not be called. */
+	public boolean beginStatic (final int cascade) {
+		if (!staticDirty[cascade]) return false;
+		staticDirty[cascade] = false;
+		begin(staticBuffer, cascade);
+		return true;
+	}
+
+	/** Starts rendering the dynamic casters of the cascade with the camera returned by {@link #getCamera(int)}. Must be called
+	 * for each cascade every frame, even if there are no dynamic casters. Call {@link #end()} afterwards. */
+	public void beginDynamic (final int cascade) {
+		begin(dynamicBuffer, cascade);
+	}
+
+	protected void begin (final FrameBuffer buffer, final int cascade) {
+		if (current != null) throw new GdxRuntimeException("Call end() first.");
+		current = buffer;
+		final int x = (cascade % columns) * cascadeSize;
+		final int y = (cascade / columns) * cascadeSize;
+		buffer.begin();
+		Gdx.gl.glViewport(x, y, cascadeSize, cascadeSize);
+		Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+		Gdx.gl.glScissor(x, y, cascadeSize, cascadeSize);
+		Gdx.gl.glClearColor(1, 1, 1, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+		Gdx.gl.glScissor(x + 1, y + 1, cascadeSize - 2, cascadeSize - 2);
+	}
+
+	public void end () {
+		if (current == null) throw new GdxRuntimeException("Call beginStatic() or beginDynamic() first.");
+		Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
+		current.end();
+		current = null;
+	}
+
+	/** Renders the casters of all cascades, the static casters only if their cascade has to be rendered again. Must be called
+	 * after {@link #update(Camera)}.
+	 * @param batch The ModelBatch used to render the depth of the casters, e.g. with a
+	 *           {@link com.badlogic.gdx.graphics.g3d.utils.DepthShaderProvider}.
+	 * @param staticCasters The casters that don't move, may be null.
+	 * @param dynamicCasters The casters that may move, may be null. */
+	public <T extends RenderableProvider> void render (final ModelBatch batch, final Iterable<T> staticCasters,
+		final Iterable<T> dynamicCasters) {
+		for (int i = 0; i < numCascades; i++) {
+			if (beginStatic(i)) {
+				if (staticCasters != null) {
+					batch.begin(cameras[i]);
+					batch.render(staticCasters);
+					batch.end();
+				}
+				end();
+			}
+			beginDynamic(i);
+			if (dynamicCasters != null) {
+				batch.begin(cameras[i]);
+				batch.render(dynamicCasters);
+				batch.end();
+			}
+			end();
+		}
+	}
+
+	/** Marks the static casters of all cascades to be rendered again, call this when static casters were added, removed or
+	 * changed. */
+	public void invalidate () {
+		for (int i = 0; i < numCascades; i++)
+			staticDirty[i] = true;
+	}
+
+	public int getNumCascades () {
+		return numCascades;
+	}
+
+	/** @return The camera used to render the casters of the cascade. */
+	public Camera getCamera (final int cascade) {
+		return cameras[cascade];
+	}
+
+	/** @return The view distance at which each cascade ends. */
+	public float[] getSplits () {
+		return splits;
+	}
+
+	/** @return The matrices transforming world coordinates to the atlas coordinates and depth of each cascade. */
+	public float[] getProjViewTrans () {
+		return projViewTrans;
+	}
+
+	/** @return The plane whose distance to a point is the view distance compared with the {@link #getSplits() splits}. */
+	public Plane getDepthPlane () {
+		return depthPlane;
+	}
+
+	/** @return The atlas holding the packed depth of the static casters. */
+	public TextureDescriptor<Texture> getStaticDepthMap () {
+		staticDesc.texture = staticBuffer.getColorBufferTexture();
+		return staticDesc;
+	}
+
+	/** @return The atlas holding the packed depth of the dynamic casters. */
+	public TextureDescriptor<Texture> getDynamicDepthMap () {
+		dynamicDesc.texture = dynamicBuffer.getColorBufferTexture();
+		return dynamicDesc;
+	}
+
+	@Override
+	public void dispose () {
+		if (staticBuffer != null) staticBuffer.dispose();
+		if (dynamicBuffer != null) dynamicBuffer.dispose();
+		staticBuffer = dynamicBuffer = null;
+	}
+}
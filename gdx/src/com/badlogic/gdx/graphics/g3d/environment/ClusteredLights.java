@@ -0,0 +1,397 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.environment;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.attributes.PointLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.SpotLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.TextureBinder;
+import com.badlogic.gdx.graphics.glutils.FloatTextureData;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Assigns point and spot lights to the clusters of a grid dividing the view frustum into screen tiles and exponentially growing
+ * depth slices, so a shader only evaluates the lights of the cluster a fragment is in. This lets a scene have hundreds of lights
+ * at a roughly constant cost per fragment, instead of being limited to the few lights of
+ * {@link com.badlogic.gdx.graphics.g3d.shaders.DefaultShader.Config#numPointLights}. Requires OpenGL ES 3.0.
+ * <p>
+ * Each frame, call {@link #update(Camera, Environment)} after the camera was updated. It bins the lights of the
+ * {@link PointLightsAttribute} and {@link SpotLightsAttribute} of the environment on the CPU, optionally in parallel with an
+ * {@link AsyncExecutor}, see {@link #setExecutor(AsyncExecutor)}. The clusters, the light indices of each cluster and the lights
+ * are stored in a float texture, uploaded by the next {@link #bind(TextureBinder)}. Set a
+ * {@link com.badlogic.gdx.graphics.g3d.attributes.ClusteredLightsAttribute} on the environment so DefaultShader shades its point
+ * and spot lights per fragment with the clusters.
+ * <p>
+ * Point and spot lights never fade out completely, so a light is only assigned to the clusters within the distance at which its
+ * contribution drops below {@link #threshold}. A spot light is treated as a point light for the assignment, and its cone is
+ * applied in the shader, with {@link SpotLight#cutoffAngle} as the half angle of the cone in degrees. If more than
+ * {@link #maxLightsPerCluster} lights touch a cluster, the first ones are kept.
+ * <p>
+ * The texture is {@link #WIDTH} texels wide. It starts with one texel per cluster holding the offset and the number of its light
+ * indices, followed by three texels per light and then the light indices, four per texel. */
+public class ClusteredLights implements Disposable {
+	/** The width of the texture in texels. */
+	public static final int WIDTH = 1024;
+	/** The number of texels per light. */
+	public static final int LIGHT_TEXELS = 3;
+
+	public final int tilesX, tilesY, slices;
+	public final int maxLightsPerCluster;
+	/** The contribution below which a light is ignored, relative to a fully lit surface. */
+	public float threshold = 1f / 256f;
+
+	private FloatTextureData data;
+	private Texture texture;
+	private final IntBuffer tmpInt = BufferUtils.newIntBuffer(16);
+	private float[] texels = new float[0];
+	private boolean dirty;
+	private int usedTexels;
+	private int lightOffset, indexOffset;
+	private int viewportWidth, viewportHeight;
+	private float near, far;
+	private final Plane depthPlane = new Plane();
+
+	private int numLights;
+	/** The first and last tile and slice of each light, -1 if it isn't visible. */
+	private int[] bounds = new int[0];
+	private final int[] counts;
+	private final int[] offsets;
+	private AsyncExecutor executor;
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+	private final Array<AsyncTask<Void>> countTasks = new Array<AsyncTask<Void>>();
+	private final Array<AsyncTask<Void>> fillTasks = new Array<AsyncTask<Void>>();
+	private final Vector3 tmpV = new Vector3();
+	private final Vector3 tmpV2 = new Vector3();
+
+	/** Creates a 16 by 9 grid of tiles with 24 slices and at most 64 lights per cluster. */
+	public ClusteredLights () {
+		this(16, 9, 24, 64);
+	}
+
+	public ClusteredLights (int tilesX, int tilesY, int slices, int maxLightsPerCluster) {
+		if (Gdx.gl30 == null) throw new GdxRuntimeException("ClusteredLights requires OpenGL ES 3.0.");
+		if (tilesX < 1 || tilesY < 1 || slices < 1 || maxLightsPerCluster < 1)
+			throw new GdxRuntimeException("The grid size and the maximum number of lights per cluster must be > 0");
+		this.tilesX = tilesX;
+		this.tilesY = tilesY;
+		this.slices = slices;
+		this.maxLightsPerCluster = maxLightsPerCluster;
+		counts = new int[tilesX * tilesY * slices];
+		offsets = new int[tilesX * tilesY * slices];
+		create(1);
+	}
+
+	private void create (int height) {
+		data = new FloatTextureData(WIDTH, height, GL30.GL_RGBA32F, GL20.GL_RGBA, GL20.GL_FLOAT, false);
+		data.prepare();
+		if (texture != null) texture.dispose();
+		texture = null;
+	}
+
+	/** Sets the executor used to bin the lights in parallel, null to bin them on the calling thread. */
+	public void setExecutor (AsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	/** Bins the point and spot lights of the environment for the camera, which must be updated, covering the back buffer. */
+	public void update (final Camera camera, final Environment environment) {
+		update(camera, environment, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+	}
+
+	/** Bins the point and spot lights of the environment for the camera, which must be updated.
+	 * @param viewportWidth The width in pixels of the viewport the camera renders to.
+	 * @param viewportHeight The height in pixels of the viewport the camera renders to. */
+	public void update (final Camera camera, final Environment environment, int viewportWidth, int viewportHeight) {
+		final PointLightsAttribute pla = environment.get(PointLightsAttribute.class, PointLightsAttribute.Type);
+		final SpotLightsAttribute sla = environment.get(SpotLightsAttribute.class, SpotLightsAttribute.Type);
+		update(camera, pla == null ? null : pla.lights, sla == null ? null : sla.lights, viewportWidth, viewportHeight);
+	}
+
+	/** Bins the lights for the camera, which must be updated. The shader finds the tile of a fragment from its window
+	 * coordinates, so the viewport must start at the bottom left corner of the window.
+	 * @param pointLights The point lights, may be null.
+	 * @param spotLights The spot lights, may be null.
+	 * @param viewportWidth The width in pixels of the viewport the camera renders to.
+	 * @param viewportHeight The height in pixels of the viewport the camera renders to. */
+	public void update (final Camera camera, final Array<PointLight> pointLights, final Array<SpotLight> spotLights,
+		int viewportWidth, int viewportHeight) {
+		this.viewportWidth = viewportWidth;
+		this.viewportHeight = viewportHeight;
+		near = Math.max(camera.near, 0.001f);
+		far = Math.max(camera.far, near * 1.001f);
+		depthPlane.set(camera.position, camera.direction);
+
+		final int numPoints = pointLights == null ? 0 : pointLights.size;
+		final int numSpots = spotLights == null ? 0 : spotLights.size;
+		numLights = numPoints + numSpots;
+		if (bounds.length < numLights * 6) bounds = new int[numLights * 6];
+		lightOffset = counts.length;
+		ensureCapacity(lightOffset + numLights * LIGHT_TEXELS);
+
+		// Store the lights and find the clusters each of them touches
+		final float[] texels = this.texels;
+		for (int i = 0; i < numPoints; i++) {
+			final PointLight light = pointLights.get(i);
+			final int t = (lightOffset + i * LIGHT_TEXELS) * 4;
+			final float radius = setLight(texels, t, light.color.r, light.color.g, light.color.b, light.intensity, light.position);
+			texels[t + 3] = -2f;
+			texels[t + 8] = texels[t + 9] = texels[t + 10] = texels[t + 11] = 0f;
+			setBounds(camera, i, light.position, radius);
+		}
+		for (int i = 0; i < numSpots; i++) {
+			final SpotLight light = spotLights.get(i);
+			final int t = (lightOffset + (numPoints + i) * LIGHT_TEXELS) * 4;
+			final float radius = setLight(texels, t, light.color.r, light.color.g, light.color.b, light.intensity, light.position);
+			texels[t + 3] = MathUtils.cosDeg(light.cutoffAngle);
+			tmpV.set(light.direction).nor();
+			texels[t + 8] = tmpV.x;
+			texels[t + 9] = tmpV.y;
+			texels[t + 10] = tmpV.z;
+			texels[t + 11] = light.exponent;
+			setBounds(camera, numPoints + i, light.position, radius);
+		}
+
+		// Count the lights of each cluster, then store their indices behind the lights
+		run(countTasks, true);
+		indexOffset = lightOffset + numLights * LIGHT_TEXELS;
+		int numIndices = 0;
+		for (int c = 0; c < counts.length; c++) {
+			offsets[c] = numIndices;
+			texels[c * 4] = numIndices;
+			texels[c * 4 + 1] = counts[c];
+			numIndices += counts[c];
+		}
+		usedTexels = indexOffset + (numIndices + 3) / 4;
+		ensureCapacity(usedTexels);
+		run(fillTasks, false);
+		dirty = true;
+	}
+
+	/** Stores the position and the color of a light at the offset.
+	 * @return The distance at which the contribution of the light drops below the threshold. */
+	private float setLight (final float[] texels, final int t, float r, float g, float b, float intensity, Vector3 position) {
+		texels[t] = position.x;
+		texels[t + 1] = position.y;
+		texels[t + 2] = position.z;
+		texels[t + 4] = r * intensity;
+		texels[t + 5] = g * intensity;
+		texels[t + 6] = b * intensity;
+		// The shader attenuates a light by 1 / (1 + distance * distance)
+		final float brightness = Math.max(Math.max(texels[t + 4], texels[t + 5]), texels[t + 6]);
+		final float radius2 = Math.max(0f, brightness / threshold - 1f);
+		texels[t + 7] = radius2;
+		return (float)Math.sqrt(radius2);
+	}
+
+	/** Finds the range of tiles and slices touched by the bounding box of the light's sphere. */
+	private void setBounds (final Camera camera, final int light, final Vector3 position, final float radius) {
+		final int[] bounds = this.bounds;
+		final int b = light * 6;
+		bounds[b] = -1;
+		final float depth = depthPlane.distance(position);
+		final float minDepth = Math.max(depth - radius, near), maxDepth = Math.min(depth + radius, far);
+		if (radius <= 0f || minDepth > maxDepth) return;
+
+		float minX = 1f, minY = 1f, maxX = -1f, maxY = -1f;
+		final Vector3 view = tmpV.set(position).mul(camera.view);
+		for (int i = 0; i < 8; i++) {
+			final float z = (i & 4) == 0 ? minDepth : maxDepth;
+			tmpV2.set(view.x + ((i & 1) == 0 ? -radius : radius), view.y + ((i & 2) == 0 ? -radius : radius), -z)
+				.prj(camera.projection);
+			minX = Math.min(minX, tmpV2.x);
+			minY = Math.min(minY, tmpV2.y);
+			maxX = Math.max(maxX, tmpV2.x);
+			maxY = Math.max(maxY, tmpV2.y);
+		}
+		if (minX > 1f || minY > 1f || maxX < -1f || maxY < -1f) return;
+		bounds[b] = tile(minX, tilesX);
+		bounds[b + 1] = tile(maxX, tilesX);
+		bounds[b + 2] = tile(minY, tilesY);
+		bounds[b + 3] = tile(maxY, tilesY);
+		bounds[b + 4] = slice(minDepth);
+		bounds[b + 5] = slice(maxDepth);
+	}
+
+	private static int tile (float ndc, int tiles) {
+		return MathUtils.clamp((int)((ndc * 0.5f + 0.5f) * tiles), 0, tiles - 1);
+	}
+
+	private int slice (float depth) {
+		return MathUtils.clamp((int)(Math.log(depth / near) / Math.log(far / near) * slices), 0, slices - 1);
+	}
+
+	/** Counts or stores the lights of the clusters in the slices, each slice only touches its own clusters. */
+	void bin (final int fromSlice, final int toSlice, final boolean count) {
+		final int[] bounds = this.bounds, counts = this.counts, offsets = this.offsets;
+		final float[] texels = this.texels;
+		final int tilesX = this.tilesX, tilesPerSlice = tilesX * tilesY, base = indexOffset * 4;
+		if (count) {
+			for (int c = fromSlice * tilesPerSlice; c < toSlice * tilesPerSlice; c++)
+				counts[c] = 0;
+		}
+		for (int light = 0; light < numLights; light++) {
+			final int b = light * 6;
+			if (bounds[b] < 0 || bounds[b + 5] < fromSlice || bounds[b + 4] >= toSlice) continue;
+			final int s1 = Math.min(bounds[b + 5], toSlice - 1);
+			for (int s = Math.max(bounds[b + 4], fromSlice); s <= s1; s++) {
+				for (int y = bounds[b + 2]; y <= bounds[b + 3]; y++) {
+					for (int x = bounds[b], c = s * tilesPerSlice + y * tilesX + x; x <= bounds[b + 1]; x++, c++) {
+						if (count) {
+							if (counts[c] < maxLightsPerCluster) counts[c]++;
+						} else if (offsets[c] - (int)texels[c * 4] < counts[c]) {
+							texels[base + offsets[c]++] = light;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void run (final Array<AsyncTask<Void>> tasks, final boolean count) {
+		if (executor == null) {
+			bin(0, slices, count);
+			return;
+		}
+		if (tasks.size == 0) {
+			for (int i = 0; i < slices; i++) {
+				final int slice = i;
+				tasks.add(new AsyncTask<Void>() {
+					@Override
+					public Void call () {
+						bin(slice, slice + 1, count);
+						return null;
+					}
+				});
+			}
+		}
+		for (int i = 0; i < tasks.size; i++)
+			results.add(executor.submit(tasks.get(i)));
+		for (int i = 0; i < results.size; i++)
+			results.get(i).get();
+		results.clear();
+	}
+
+	private void ensureCapacity (int numTexels) {
+		if (texels.length < numTexels * 4) {
+			final float[] newTexels = new float[Math.max(numTexels * 4, texels.length * 3 / 2)];
+			System.arraycopy(texels, 0, newTexels, 0, texels.length);
+			texels = newTexels;
+		}
+		final int rows = (numTexels + WIDTH - 1) / WIDTH;
+		if (rows > data.getHeight()) create(Integer.highestOneBit(rows) << 1);
+	}
+
+	/** Binds the texture with the binder, creating it or uploading the clusters binned since the last bind if needed. Must be
+	 * called on the rendering thread.
+	 * @return The texture unit the texture is bound to. */
+	public int bind (final TextureBinder binder) {
+		if (texture == null) {
+			// Creating the texture binds it to the active unit, restore the binding the binder knows about.
+			Gdx.gl.glGetIntegerv(GL20.GL_TEXTURE_BINDING_2D, tmpInt);
+			texture = new Texture(data);
+			Gdx.gl.glBindTexture(GL20.GL_TEXTURE_2D, tmpInt.get(0));
+			dirty = true;
+		}
+		final int unit = binder.bind(texture);
+		if (dirty) {
+			final int rows = Math.max(1, (usedTexels + WIDTH - 1) / WIDTH);
+			final FloatBuffer buffer = data.getBuffer();
+			((Buffer)buffer).clear();
+			buffer.put(texels, 0, Math.min(texels.length, rows * WIDTH * 4));
+			((Buffer)buffer).position(0);
+			((Buffer)buffer).limit(rows * WIDTH * 4);
+			Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, 0, WIDTH, rows, GL20.GL_RGBA, GL20.GL_FLOAT, buffer);
+			dirty = false;
+		}
+		return unit;
+	}
+
+	/** @return The number of lights binned by the last update. */
+	public int getNumLights () {
+		return numLights;
+	}
+
+	/** @return The texel offset of the first light. */
+	public int getLightOffset () {
+		return lightOffset;
+	}
+
+	/** @return The texel offset of the first light index. */
+	public int getIndexOffset () {
+		return indexOffset;
+	}
+
+	public int getViewportWidth () {
+		return viewportWidth;
+	}
+
+	public int getViewportHeight () {
+		return viewportHeight;
+	}
+
+	/** @return The scale of the logarithm of the view distance giving the slice, see {@link #getSliceBias()}. */
+	public float getSliceScale () {
+		return slices / (float)Math.log(far / near);
+	}
+
+	/** @return The bias added to the scaled logarithm of the view distance: slice = log(distance) * scale + bias. */
+	public float getSliceBias () {
+		return -(float)Math.log(near) * getSliceScale();
+	}
+
+	/** @return The plane whose distance to a point is the view distance used to find its slice. */
+	public Plane getDepthPlane () {
+		return depthPlane;
+	}
+
+	/** @return The texture, null before the first {@link #bind(TextureBinder)}. */
+	public Texture getTexture () {
+		return texture;
+	}
+
+	public int getWidth () {
+		return WIDTH;
+	}
+
+	public int getHeight () {
+		return data.getHeight();
+	}
+
+	@Override
+	public void dispose () {
+		if (texture != null) texture.dispose();
+		texture = null;
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.loader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.UBJsonReader;
+
+/** Loads models in the g3dm format, a binary variant of g3db whose vertices and indices can be used without parsing or copying
+ * them. The file is memory mapped with {@link FileHandle#map()} if possible, or read at once otherwise, and each mesh is
+ * created with {@link com.badlogic.gdx.graphics.Mesh#Mesh(ByteBuffer, ByteBuffer, com.badlogic.gdx.graphics.VertexAttributes)}
+ * on a slice of it.
+ * <p>
+ * A g3dm file starts with the 4 bytes "G3DM", followed by the format version and the size of the header as little endian ints.
+ * The header is the UBJSON document of the g3db format, except that each mesh has "vertices" and "indices" objects with the
+ * "offset" and "size" in bytes of its data instead of arrays, and each mesh part has the "offset" and "size" of its indices. The
+ * data follows the header, starting at the next multiple of 16 bytes from which the offsets are counted, with the vertices and
+ * indices in little endian byte order. The G3dmConverter of gdx-tools creates g3dm files from g3dj and g3db files.
+ * <p>
+ * The meshes of models loaded this way keep referencing the file data, their vertices can't be modified. */
+public class G3dmModelLoader extends G3dModelLoader {
+	public static final int VERSION = 1;
+
+	public G3dmModelLoader () {
+		this(null);
+	}
+
+	public G3dmModelLoader (FileHandleResolver resolver) {
+		super(new UBJsonReader(), resolver);
+	}
+
+	@Override
+	public ModelData parseModel (FileHandle handle) {
+		final ByteBuffer data = read(handle);
+		if (data.limit() < 12 || data.get(0) != 'G' || data.get(1) != '3' || data.get(2) != 'D' || data.get(3) != 'M')
+			throw new GdxRuntimeException("Not a g3dm file: " + handle);
+		if (data.getInt(4) != VERSION) throw new GdxRuntimeException("g3dm version not supported: " + data.getInt(4));
+		final byte[] header = new byte[data.getInt(8)];
+		((Buffer)data).position(12);
+		data.get(header);
+
+		JsonValue json = reader.parse(new ByteArrayInputStream(header));
+		ModelData model = new ModelData();
+		JsonValue version = json.require("version");
+		model.version[0] = version.getShort(0);
+		model.version[1] = version.getShort(1);
+		if (model.version[0] != VERSION_HI || model.version[1] != VERSION_LO)
+			throw new GdxRuntimeException("Model version not supported");
+
+		model.id = json.getString("id", "");
+		final int base = (12 + header.length + 15) & ~15;
+		((Buffer)data).position(Math.min(base, data.limit()));
+		parseMeshes(model, json, data.slice().order(ByteOrder.LITTLE_ENDIAN));
+		((Buffer)data).position(0);
+		parseMaterials(model, json, handle.parent().path());
+		parseNodes(model, json);
+		parseAnimations(model, json);
+		return model;
+	}
+
+	/** @return The contents of the file, mapped if possible, in little endian byte order. */
+	protected ByteBuffer read (FileHandle handle) {
+		ByteBuffer data;
+		try {
+			data = handle.map();
+		} catch (GdxRuntimeException e) {
+			// Classpath files and compressed Android assets can't be mapped
+			final byte[] bytes = handle.readBytes();
+			data = BufferUtils.newByteBuffer(bytes.length);
+			data.put(bytes);
+			((Buffer)data).flip();
+		}
+		return data.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/** @param data The data section of the file, which the offsets of the meshes refer to. */
+	protected void parseMeshes (ModelData model, JsonValue json, ByteBuffer data) {
+		JsonValue meshes = json.get("meshes");
+		if (meshes == null) return;
+		model.meshes.ensureCapacity(meshes.size);
+		for (JsonValue mesh = meshes.child; mesh != null; mesh = mesh.next) {
+			ModelMesh modelMesh = new ModelMesh();
+			modelMesh.id = mesh.getString("id", "");
+			modelMesh.attributes = parseAttributes(mesh.require("attributes"));
+			modelMesh.vertexBuffer = slice(data, mesh.require("vertices"));
+			JsonValue indices = mesh.get("indices");
+			if (indices != null) modelMesh.indexBuffer = slice(data, indices);
+
+			JsonValue parts = mesh.require("parts");
+			modelMesh.parts = new ModelMeshPart[parts.size];
+			int i = 0;
+			for (JsonValue part = parts.child; part != null; part = part.next) {
+				ModelMeshPart modelPart = new ModelMeshPart();
+				modelPart.id = part.getString("id", null);
+				if (modelPart.id == null) throw new GdxRuntimeException("Not id given for mesh part");
+				String type = part.getString("type", null);
+				if (type == null) throw new GdxRuntimeException("No primitive type given for mesh part '" + modelPart.id + "'");
+				modelPart.primitiveType = parseType(type);
+				modelPart.offset = part.getInt("offset");
+				modelPart.size = part.getInt("size");
+				modelMesh.parts[i++] = modelPart;
+			}
+			model.meshes.add(modelMesh);
+		}
+	}
+
+	private static ByteBuffer slice (ByteBuffer data, JsonValue block) {
+		final int offset = block.getInt("offset"), size = block.getInt("size");
+		if (offset < 0 || size < 0 || offset + size > data.limit()) throw new GdxRuntimeException("Invalid g3dm data block");
+		final ByteBuffer result = data.duplicate();
+		((Buffer)result).limit(offset + size);
+		((Buffer)result).position(offset);
+		return result.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -16,9 +16,10 @@
 
 package com.badlogic.gdx.graphics.g3d.loader;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
@@ -44,6 +45,9 @@ import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.StreamUtils;
 
 /** {@link ModelLoader} to load Wavefront OBJ files. Only intended for testing basic models/meshes and educational usage. The
  * Wavefront specification is NOT fully implemented, only a subset of the specification is supported. Especially the
@@ -85,6 +89,7 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 	final FloatArray norms = new FloatArray(300);
 	final FloatArray uvs = new FloatArray(200);
 	final Array<Group> groups = new Array<Group>(10);
+	final IntArray polygon = new IntArray(12);
 
 	public ObjLoader () {
 		this(null);
@@ -107,9 +112,6 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 	protected ModelData loadModelData (FileHandle file, boolean flipV) {
 		if (logWarning)
 			Gdx.app.error("ObjLoader", "Wavefront (OBJ) is not fully supported, consult the documentation for more information");
-		String line;
-		String[] tokens;
-		char firstChar;
 		MtlLoader mtl = new MtlLoader();
 
 		// Create a "default" Group and set it as the active group, in case
@@ -117,53 +119,43 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 		Group activeGroup = new Group("default");
 		groups.add(activeGroup);
 
-		BufferedReader reader = new BufferedReader(new InputStreamReader(file.read()), 4096);
+		LineReader reader = new LineReader(file.read());
 		int id = 0;
 		try {
-			while ((line = reader.readLine()) != null) {
-
-				tokens = line.split("\\s+");
-				if (tokens.length < 1) break;
-
-				if (tokens[0].length() == 0) {
-					continue;
-				} else if ((firstChar = tokens[0].toLowerCase().charAt(0)) == '#') {
+			while (reader.nextLine()) {
+				if (!reader.nextToken()) continue;
+				final int firstChar = Character.toLowerCase(reader.charAt(0));
+				if (firstChar == '#') {
 					continue;
 				} else if (firstChar == 'v') {
-					if (tokens[0].length() == 1) {
-						verts.add(Float.parseFloat(tokens[1]));
-						verts.add(Float.parseFloat(tokens[2]));
-						verts.add(Float.parseFloat(tokens[3]));
-					} else if (tokens[0].charAt(1) == 'n') {
-						norms.add(Float.parseFloat(tokens[1]));
-						norms.add(Float.parseFloat(tokens[2]));
-						norms.add(Float.parseFloat(tokens[3]));
-					} else if (tokens[0].charAt(1) == 't') {
-						uvs.add(Float.parseFloat(tokens[1]));
-						uvs.add((flipV ? 1 - Float.parseFloat(tokens[2]) : Float.parseFloat(tokens[2])));
+					if (reader.tokenLength() == 1) {
+						verts.add(reader.nextFloat());
+						verts.add(reader.nextFloat());
+						verts.add(reader.nextFloat());
+					} else if (reader.charAt(1) == 'n') {
+						norms.add(reader.nextFloat());
+						norms.add(reader.nextFloat());
+						norms.add(reader.nextFloat());
+					} else if (reader.charAt(1) == 't') {
+						uvs.add(reader.nextFloat());
+						uvs.add(flipV ? 1 - reader.nextFloat() : reader.nextFloat());
 					}
 				} else if (firstChar == 'f') {
-					String[] parts;
-					Array<Integer> faces = activeGroup.faces;
-					for (int i = 1; i < tokens.length - 2; i--) {
-						parts = tokens[1].split("/");
-						faces.add(getIndex(parts[0], verts.size));
-						if (parts.length > 2) {
-							if (i == 1) activeGroup.hasNorms = true;
-							faces.add(getIndex(parts[2], norms.size));
-						}
-						if (parts.length > 1 && parts[1].length() > 0) {
-							if (i == 1) activeGroup.hasUVs = true;
-							faces.add(getIndex(parts[1], uvs.size));
-						}
-						parts = tokens[++i].split("/");
-						faces.add(getIndex(parts[0], verts.size));
-						if (parts.length > 2) faces.add(getIndex(parts[2], norms.size));
-						if (parts.length > 1 && parts[1].length() > 0) faces.add(getIndex(parts[1], uvs.size));
-						parts = tokens[++i].split("/");
-						faces.add(getIndex(parts[0], verts.size));
-						if (parts.length > 2) faces.add(getIndex(parts[2], norms.size));
-						if (parts.length > 1 && parts[1].length() > 0) faces.add(getIndex(parts[1], uvs.size));
+					// The vertex, normal and uv index of each vertex of the polygon, -1 if not specified
+					final IntArray polygon = this.polygon;
+					polygon.clear();
+					while (reader.nextToken())
+						reader.faceVertex(polygon, verts.size / 3, norms.size / 3, uvs.size / 2);
+					final int numVertices = polygon.size / 3;
+					if (numVertices < 3) continue;
+					if (polygon.get(1) >= 0) activeGroup.hasNorms = true;
+					if (polygon.get(2) >= 0) activeGroup.hasUVs = true;
+					// Triangulate the polygon as a fan around its first vertex
+					final IntArray faces = activeGroup.faces;
+					for (int i = 1; i < numVertices - 1; i++) {
+						addFaceVertex(faces, polygon, 0);
+						addFaceVertex(faces, polygon, i);
+						addFaceVertex(faces, polygon, i + 1);
 						activeGroup.numFaces++;
 					}
 				} else if (firstChar == 'o' || firstChar == 'g') {
@@ -171,22 +163,23 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 					// definitions. i.e. "o group_a group_b" will set group_a
 					// as the active group, while group_b will simply be
 					// ignored.
-					if (tokens.length > 1)
-						activeGroup = setActiveGroup(tokens[1]);
+					if (reader.nextToken())
+						activeGroup = setActiveGroup(reader.token());
 					else
 						activeGroup = setActiveGroup("default");
-				} else if (tokens[0].equals("mtllib")) {
-					mtl.load(file.parent().child(tokens[1]));
-				} else if (tokens[0].equals("usemtl")) {
-					if (tokens.length == 1)
+				} else if (reader.tokenEquals("mtllib", false)) {
+					if (reader.nextToken()) mtl.load(file.parent().child(reader.token()));
+				} else if (reader.tokenEquals("usemtl", false)) {
+					if (!reader.nextToken())
 						activeGroup.materialName = "default";
 					else
-						activeGroup.materialName = tokens[1].replace('.', '_');
+						activeGroup.materialName = reader.token().replace('.', '_');
 				}
 			}
-			reader.close();
 		} catch (IOException e) {
 			return null;
+		} finally {
+			StreamUtils.closeQuietly(reader);
 		}
 
 		// If the "default" group or any others were not used, get rid of them
@@ -204,11 +197,12 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 		final int numGroups = groups.size;
 
 		final ModelData data = new ModelData();
+		final float[] vertItems = verts.items, normItems = norms.items, uvItems = uvs.items;
 
 		for (int g = 0; g < numGroups; g++) {
 			Group group = groups.get(g);
-			Array<Integer> faces = group.faces;
-			final int numElements = faces.size;
+			final int[] faces = group.faces.items;
+			final int numElements = group.faces.size;
 			final int numFaces = group.numFaces;
 			final boolean hasNorms = group.hasNorms;
 			final boolean hasUVs = group.hasUVs;
@@ -216,20 +210,20 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 			final float[] finalVerts = new float[(numFaces * 3) * (3 + (hasNorms ? 3 : 0) + (hasUVs ? 2 : 0))];
 
 			for (int i = 0, vi = 0; i < numElements;) {
-				int vertIndex = faces.get(i++) * 3;
-				finalVerts[vi++] = verts.get(vertIndex++);
-				finalVerts[vi++] = verts.get(vertIndex++);
-				finalVerts[vi++] = verts.get(vertIndex);
+				int vertIndex = faces[i++] * 3;
+				finalVerts[vi++] = vertItems[vertIndex++];
+				finalVerts[vi++] = vertItems[vertIndex++];
+				finalVerts[vi++] = vertItems[vertIndex];
 				if (hasNorms) {
-					int normIndex = faces.get(i++) * 3;
-					finalVerts[vi++] = norms.get(normIndex++);
-					finalVerts[vi++] = norms.get(normIndex++);
-					finalVerts[vi++] = norms.get(normIndex);
+					int normIndex = faces[i++] * 3;
+					finalVerts[vi++] = normItems[normIndex++];
+					finalVerts[vi++] = normItems[normIndex++];
+					finalVerts[vi++] = normItems[normIndex];
 				}
 				if (hasUVs) {
-					int uvIndex = faces.get(i++) * 2;
-					finalVerts[vi++] = uvs.get(uvIndex++);
-					finalVerts[vi++] = uvs.get(uvIndex);
+					int uvIndex = faces[i++] * 2;
+					finalVerts[vi++] = uvItems[uvIndex++];
+					finalVerts[vi++] = uvItems[uvIndex];
 				}
 			}
 
@@ -302,19 +296,197 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 		return group;
 	}
 
-	private int getIndex (String index, int size) {
-		if (index == null || index.length() == 0) return 0;
-		final int idx = Integer.parseInt(index);
-		if (idx < 0)
-			return size + idx;
-		else
-			return idx - 1;
+	private static void addFaceVertex (IntArray faces, IntArray polygon, int vertex) {
+		final int[] items = polygon.items;
+		final int i = vertex * 3;
+		faces.add(items[i]);
+		if (items[i + 1] >= 0) faces.add(items[i + 1]);
+		if (items[i + 2] >= 0) faces.add(items[i + 2]);
+	}
+
+	/** Reads the lines of OBJ and MTL files from a stream and splits them into whitespace separated tokens. Numbers are parsed
+	 * directly from the bytes, only names are converted to strings. */
+	static class LineReader implements Closeable {
+		private final static double[] powersOfTen = new double[23];
+		static {
+			powersOfTen[0] = 1;
+			for (int i = 1; i < powersOfTen.length; i++)
+				powersOfTen[i] = powersOfTen[i - 1] * 10;
+		}
+
+		private final InputStream input;
+		private final byte[] buffer = new byte[8192];
+		private int position, limit;
+		private byte[] line = new byte[256];
+		private int length, start, end;
+
+		LineReader (InputStream input) {
+			this.input = input;
+		}
+
+		/** Reads the next line, the tokens are then read with {@link #nextToken()}.
+		 * @return false if the end of the stream was reached. */
+		boolean nextLine () throws IOException {
+			length = start = end = 0;
+			boolean read = false;
+			while (true) {
+				if (position == limit) {
+					limit = input.read(buffer, 0, buffer.length);
+					position = 0;
+					if (limit <= 0) {
+						limit = 0;
+						return read;
+					}
+				}
+				read = true;
+				final byte[] buffer = this.buffer;
+				int i = position;
+				while (i < limit && buffer[i] != '\n')
+					i++;
+				append(i);
+				if (i < limit) {
+					position = i + 1;
+					return true;
+				}
+				position = limit;
+			}
+		}
+
+		private void append (int to) {
+			final int count = to - position;
+			if (length + count > line.length) {
+				final byte[] newLine = new byte[Math.max(line.length * 2, length + count)];
+				System.arraycopy(line, 0, newLine, 0, length);
+				line = newLine;
+			}
+			System.arraycopy(buffer, position, line, length, count);
+			length += count;
+		}
+
+		/** Moves to the next token of the line.
+		 * @return false if there are no more tokens on the line. */
+		boolean nextToken () {
+			final byte[] line = this.line;
+			int i = end;
+			while (i < length && line[i] <= ' ')
+				i++;
+			start = i;
+			while (i < length && line[i] > ' ')
+				i++;
+			end = i;
+			return start < end;
+		}
+
+		int tokenLength () {
+			return end - start;
+		}
+
+		int charAt (int index) {
+			return line[start + index];
+		}
+
+		boolean tokenEquals (String value, boolean ignoreCase) {
+			if (value.length() != end - start) return false;
+			for (int i = 0; i < value.length(); i++) {
+				final char c = (char)line[start + i];
+				if (c != value.charAt(i) && (!ignoreCase || Character.toLowerCase(c) != value.charAt(i))) return false;
+			}
+			return true;
+		}
+
+		String token () {
+			try {
+				return new String(line, start, end - start, "UTF-8");
+			} catch (UnsupportedEncodingException e) {
+				return new String(line, start, end - start);
+			}
+		}
+
+		/** Moves to the next token and parses it as a float. */
+		float nextFloat () {
+			if (!nextToken()) throw new GdxRuntimeException("Missing value");
+			return floatToken();
+		}
+
+		/** Parses the token as a float. Numbers with up to 15 significant digits are parsed without creating a string. */
+		float floatToken () {
+			final byte[] line = this.line;
+			final int end = this.end;
+			int i = start;
+			boolean negative = false;
+			if (i < end && (line[i] == '-' || line[i] == '+')) negative = line[i++] == '-';
+			long mantissa = 0;
+			int digits = 0, exponent = 0;
+			boolean valid = false;
+			for (int d; i < end && (d = line[i] - '0') >= 0 && d <= 9; i++, valid = true) {
+				mantissa = mantissa * 10 + d;
+				if (mantissa != 0) digits++;
+			}
+			if (i < end && line[i] == '.') {
+				for (int d; ++i < end && (d = line[i] - '0') >= 0 && d <= 9; valid = true) {
+					mantissa = mantissa * 10 + d;
+					if (mantissa != 0) digits++;
+					exponent--;
+				}
+			}
+			if (valid && i < end && (line[i] == 'e' || line[i] == 'E')) {
+				boolean negativeExponent = false;
+				if (++i < end && (line[i] == '-' || line[i] == '+')) negativeExponent = line[i++] == '-';
+				int e = 0;
+				valid = i < end;
+				for (int d; i < end && (d = line[i] - '0') >= 0 && d <= 9 && e < 1000; i++)
+					e = e * 10 + d;
+				exponent += negativeExponent ? -e : e;
+			}
+			// Let Float#parseFloat handle anything else, such as NaN or numbers which can't be computed exactly with doubles
+			if (!valid || i != end || digits > 15 || exponent < -22 || exponent > 22) return Float.parseFloat(token());
+			final double value = exponent < 0 ? mantissa / powersOfTen[-exponent] : mantissa * powersOfTen[exponent];
+			// The double is correctly rounded, so casting it gives the correctly rounded float unless it landed exactly halfway
+			// between two floats, where the second rounding could go the wrong way
+			if ((Double.doubleToRawLongBits(value) & 0x1fffffffL) == 0x10000000L) return Float.parseFloat(token());
+			return (float)(negative ? -value : value);
+		}
+
+		/** Parses the token as a face vertex "v", "v/vt", "v//vn" or "v/vt/vn" and adds the zero based vertex, normal and uv index
+		 * to the array, -1 for those not specified. Negative indices are relative to the number of elements read so far. */
+		void faceVertex (IntArray out, int numVerts, int numNorms, int numUVs) {
+			final int vert = faceIndex(numVerts);
+			int uv = -1, norm = -1;
+			if (start < end) uv = faceIndex(numUVs);
+			if (start < end) norm = faceIndex(numNorms);
+			out.add(vert == -1 ? 0 : vert);
+			out.add(norm);
+			out.add(uv);
+		}
+
+		private int faceIndex (int size) {
+			final byte[] line = this.line;
+			int i = start;
+			final boolean negative = i < end && line[i] == '-';
+			if (negative) i++;
+			int index = 0;
+			boolean empty = true;
+			for (; i < end && line[i] != '/'; i++, empty = false) {
+				final int d = line[i] - '0';
+				if (d < 0 || d > 9) throw new GdxRuntimeException("Invalid face index: " + token());
+				index = index * 10 + d;
+			}
+			// Skip the slash, the next component starts after it
+			start = i < end ? i + 1 : i;
+			if (empty) return -1;
+			return negative ? size - index : index - 1;
+		}
+
+		@Override
+		public void close () throws IOException {
+			input.close();
+		}
 	}
 
 	private static class Group {
 		final String name;
 		String materialName;
-		Array<Integer> faces;
+		IntArray faces;
 		int numFaces;
 		boolean hasNorms;
 		boolean hasUVs;
@@ -322,7 +494,7 @@ public class ObjLoader extends ModelLoader<ObjLoader.ObjLoaderParameters> {
 
 		Group (String name) {
 			this.name = name;
-			this.faces = new Array<Integer>(200);
+			this.faces = new IntArray(200);
 			this.numFaces = 0;
 			this.mat = new Material("");
 			this.materialName = "default";
@@ -335,65 +507,53 @@ class MtlLoader {
 
 	/** loads .mtl file */
 	public void load (FileHandle file) {
-		String line;
-		String[] tokens;
-
 		ObjMaterial currentMaterial = new ObjMaterial();
 
 		if (file == null || !file.exists()) return;
 
-		BufferedReader reader = new BufferedReader(new InputStreamReader(file.read()), 4096);
+		ObjLoader.LineReader reader = new ObjLoader.LineReader(file.read());
 		try {
-			while ((line = reader.readLine()) != null) {
-
-				if (line.length() > 0 && line.charAt(0) == '\t') line = line.substring(1).trim();
-
-				tokens = line.split("\\s+");
-
-				if (tokens[0].length() == 0) {
-					continue;
-				} else if (tokens[0].charAt(0) == '#')
-					continue;
-				else {
-					final String key = tokens[0].toLowerCase();
-					if (key.equals("newmtl")) {
-						ModelMaterial mat = currentMaterial.build();
-						materials.add(mat);
-
-						if (tokens.length > 1) {
-							currentMaterial.materialName = tokens[1];
-							currentMaterial.materialName = currentMaterial.materialName.replace('.', '_');
-						} else {
-							currentMaterial.materialName = "default";
-						}
-
-						currentMaterial.reset();
-					} else if (key.equals("ka")) {
-						currentMaterial.ambientColor = parseColor(tokens);
-					} else if (key.equals("kd")) {
-						currentMaterial.diffuseColor = parseColor(tokens);
-					} else if (key.equals("ks")) {
-						currentMaterial.specularColor = parseColor(tokens);
-					} else if (key.equals("tr") || key.equals("d")) {
-						currentMaterial.opacity = Float.parseFloat(tokens[1]);
-					} else if (key.equals("ns")) {
-						currentMaterial.shininess = Float.parseFloat(tokens[1]);
-					} else if (key.equals("map_d")) {
-						currentMaterial.alphaTexFilename = file.parent().child(tokens[1]).path();
-					} else if (key.equals("map_ka")) {
-						currentMaterial.ambientTexFilename = file.parent().child(tokens[1]).path();
-					} else if (key.equals("map_kd")) {
-						currentMaterial.diffuseTexFilename = file.parent().child(tokens[1]).path();
-					} else if (key.equals("map_ks")) {
-						currentMaterial.specularTexFilename = file.parent().child(tokens[1]).path();
-					} else if (key.equals("map_ns")) {
-						currentMaterial.shininessTexFilename = file.parent().child(tokens[1]).path();
+			while (reader.nextLine()) {
+				if (!reader.nextToken() || reader.charAt(0) == '#') continue;
+
+				if (reader.tokenEquals("newmtl", true)) {
+					ModelMaterial mat = currentMaterial.build();
+					materials.add(mat);
+
+					if (reader.nextToken()) {
+						currentMaterial.materialName = reader.token();
+						currentMaterial.materialName = currentMaterial.materialName.replace('.', '_');
+					} else {
+						currentMaterial.materialName = "default";
 					}
+
+					currentMaterial.reset();
+				} else if (reader.tokenEquals("ka", true)) {
+					currentMaterial.ambientColor = parseColor(reader);
+				} else if (reader.tokenEquals("kd", true)) {
+					currentMaterial.diffuseColor = parseColor(reader);
+				} else if (reader.tokenEquals("ks", true)) {
+					currentMaterial.specularColor = parseColor(reader);
+				} else if (reader.tokenEquals("tr", true) || reader.tokenEquals("d", true)) {
+					currentMaterial.opacity = reader.nextFloat();
+				} else if (reader.tokenEquals("ns", true)) {
+					currentMaterial.shininess = reader.nextFloat();
+				} else if (reader.tokenEquals("map_d", true)) {
+					currentMaterial.alphaTexFilename = parseFilename(reader, file);
+				} else if (reader.tokenEquals("map_ka", true)) {
+					currentMaterial.ambientTexFilename = parseFilename(reader, file);
+				} else if (reader.tokenEquals("map_kd", true)) {
+					currentMaterial.diffuseTexFilename = parseFilename(reader, file);
+				} else if (reader.tokenEquals("map_ks", true)) {
+					currentMaterial.specularTexFilename = parseFilename(reader, file);
+				} else if (reader.tokenEquals("map_ns", true)) {
+					currentMaterial.shininessTexFilename = parseFilename(reader, file);
 				}
 			}
-			reader.close();
 		} catch (IOException e) {
 			return;
+		} finally {
+			StreamUtils.closeQuietly(reader);
 		}
 
 		// last material
@@ -403,13 +563,18 @@ class MtlLoader {
 		return;
 	}
 
-	private Color parseColor (String[] tokens) {
-		float r = Float.parseFloat(tokens[1]);
-		float g = Float.parseFloat(tokens[2]);
-		float b = Float.parseFloat(tokens[3]);
+	private String parseFilename (ObjLoader.LineReader reader, FileHandle file) {
+		if (!reader.nextToken()) throw new GdxRuntimeException("Missing file name in " + file);
+		return file.parent().child(reader.token()).path();
+	}
+
+	private Color parseColor (ObjLoader.LineReader reader) {
+		float r = reader.nextFloat();
+		float g = reader.nextFloat();
+		float b = reader.nextFloat();
 		float a = 1;
-		if (tokens.length > 4) {
-			a = Float.parseFloat(tokens[4]);
+		if (reader.nextToken()) {
+			a = reader.floatToken();
 		}
 
 		return new Color(r, g, b, a);
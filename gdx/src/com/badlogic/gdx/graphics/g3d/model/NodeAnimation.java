@@ -23,6 +23,10 @@ import com.badlogic.gdx.utils.Array;
 
 /** A NodeAnimation defines keyframes for a {@link Node} in a {@link Model}. The keyframes are given as a translation vector, a
  * rotation quaternion and a scale vector. Keyframes are interpolated linearly for now. Keytimes are given in seconds.
+ * <p>
+ * For sampling, the keyframes are packed into primitive arrays of keytimes and values by {@link #pack()}, which is done when the
+ * animation is loaded or else on the first call to {@link #getTransform(float, float[], int, int[], int)}. Call {@link #pack()}
+ * again after changing the keyframes.
  * @author badlogic, Xoppa */
 public class NodeAnimation {
 	/** the Node affected by this animation **/
@@ -33,4 +37,168 @@ public class NodeAnimation {
 	public Array<NodeKeyframe<Quaternion>> rotation = null;
 	/** the scaling keyframes if any (might be null), sorted by time ascending **/
 	public Array<NodeKeyframe<Vector3>> scaling = null;
+	/** the packed keytimes and values (x, y, z) of the translation keyframes, null if there are none or not packed yet **/
+	public float[] translationTimes, translationValues;
+	/** the packed keytimes and values (x, y, z, w) of the rotation keyframes, null if there are none or not packed yet **/
+	public float[] rotationTimes, rotationValues;
+	/** the packed keytimes and values (x, y, z) of the scaling keyframes, null if there are none or not packed yet **/
+	public float[] scalingTimes, scalingValues;
+	private boolean packed;
+
+	/** Packs the keyframes into the primitive arrays used for sampling. */
+	public void pack () {
+		translationTimes = translation == null ? null : packTimes(translation);
+		translationValues = translation == null ? null : packVectors(translation);
+		rotationTimes = rotation == null ? null : packTimes(rotation);
+		rotationValues = rotation == null ? null : packQuaternions(rotation);
+		scalingTimes = scaling == null ? null : packTimes(scaling);
+		scalingValues = scaling == null ? null : packVectors(scaling);
+		packed = true;
+	}
+
+	/** Uses the packed keyframes of another NodeAnimation with the same keyframes. */
+	public void pack (final NodeAnimation other) {
+		if (!other.packed) other.pack();
+		translationTimes = other.translationTimes;
+		translationValues = other.translationValues;
+		rotationTimes = other.rotationTimes;
+		rotationValues = other.rotationValues;
+		scalingTimes = other.scalingTimes;
+		scalingValues = other.scalingValues;
+		packed = true;
+	}
+
+	private static float[] packTimes (final Array<? extends NodeKeyframe<?>> keyframes) {
+		final float[] times = new float[keyframes.size];
+		for (int i = 0; i < times.length; i++)
+			times[i] = keyframes.get(i).keytime;
+		return times;
+	}
+
+	private static float[] packVectors (final Array<NodeKeyframe<Vector3>> keyframes) {
+		final float[] values = new float[keyframes.size * 3];
+		for (int i = 0, o = 0; i < keyframes.size; i++) {
+			final Vector3 value = keyframes.get(i).value;
+			values[o++] = value.x;
+			values[o++] = value.y;
+			values[o++] = value.z;
+		}
+		return values;
+	}
+
+	private static float[] packQuaternions (final Array<NodeKeyframe<Quaternion>> keyframes) {
+		final float[] values = new float[keyframes.size * 4];
+		for (int i = 0, o = 0; i < keyframes.size; i++) {
+			final Quaternion value = keyframes.get(i).value;
+			values[o++] = value.x;
+			values[o++] = value.y;
+			values[o++] = value.z;
+			values[o++] = value.w;
+		}
+		return values;
+	}
+
+	/** Find the index of the keyframe just before a given time, first checking the keyframe at the cursor and the one after it so
+	 * that playing an animation forward doesn't need to search.
+	 * @param times Keytimes ordered ascending
+	 * @param time Time to search
+	 * @param cursor The index returned by the previous search, or any index
+	 * @return keyframe index, 0 if time is out of the keytimes range */
+	public static int getKeyframeIndex (final float[] times, final float time, final int cursor) {
+		final int lastIndex = times.length - 1;
+		// edges cases : time out of range always return first index
+		if (lastIndex <= 0 || time < times[0] || time > times[lastIndex]) return 0;
+
+		if (cursor >= 0 && cursor < lastIndex && time >= times[cursor]) {
+			if (time <= times[cursor + 1]) return cursor;
+			if (cursor + 1 < lastIndex && time <= times[cursor + 2]) return cursor + 1;
+		}
+
+		// binary search
+		int minIndex = 0;
+		int maxIndex = lastIndex;
+		while (minIndex < maxIndex) {
+			int i = (minIndex + maxIndex) / 2;
+			if (time > times[i + 1])
+				minIndex = i + 1;
+			else if (time < times[i])
+				maxIndex = i - 1;
+			else
+				return i;
+		}
+		return minIndex;
+	}
+
+	/** Samples the translation, rotation and scale of the node at the specified time, using the node's own values for those
+	 * without keyframes.
+	 * @param out Receives the translation (x, y, z), rotation (x, y, z, w) and scale (x, y, z) at the offset, 10 values
+	 * @param cursors The keyframe indices of the previous sample, updated by this call: translation, rotation and scaling at the
+	 *           cursor offset. May be null. */
+	public void getTransform (final float time, final float[] out, final int offset, final int[] cursors, final int cursorOffset) {
+		if (!packed) pack();
+		getVector(translationTimes, translationValues, node.translation, time, out, offset, cursors, cursorOffset);
+		getRotation(rotationTimes, rotationValues, node.rotation, time, out, offset + 3, cursors, cursorOffset + 1);
+		getVector(scalingTimes, scalingValues, node.scale, time, out, offset + 7, cursors, cursorOffset + 2);
+	}
+
+	private static void getVector (final float[] times, final float[] values, final Vector3 rest, final float time,
+		final float[] out, final int o, final int[] cursors, final int c) {
+		if (times == null || times.length == 0) {
+			out[o] = rest.x;
+			out[o + 1] = rest.y;
+			out[o + 2] = rest.z;
+			return;
+		}
+		final int index = times.length == 1 ? 0 : getKeyframeIndex(times, time, cursors == null ? 0 : cursors[c]);
+		if (cursors != null) cursors[c] = index;
+		final int v = index * 3;
+		float x = values[v], y = values[v + 1], z = values[v + 2];
+		if (index + 1 < times.length) {
+			final float t = (time - times[index]) / (times[index + 1] - times[index]);
+			x += t * (values[v + 3] - x);
+			y += t * (values[v + 4] - y);
+			z += t * (values[v + 5] - z);
+		}
+		out[o] = x;
+		out[o + 1] = y;
+		out[o + 2] = z;
+	}
+
+	private static void getRotation (final float[] times, final float[] values, final Quaternion rest, final float time,
+		final float[] out, final int o, final int[] cursors, final int c) {
+		if (times == null || times.length == 0) {
+			out[o] = rest.x;
+			out[o + 1] = rest.y;
+			out[o + 2] = rest.z;
+			out[o + 3] = rest.w;
+			return;
+		}
+		final int index = times.length == 1 ? 0 : getKeyframeIndex(times, time, cursors == null ? 0 : cursors[c]);
+		if (cursors != null) cursors[c] = index;
+		final int v = index * 4;
+		float x = values[v], y = values[v + 1], z = values[v + 2], w = values[v + 3];
+		if (index + 1 < times.length) {
+			final float t = (time - times[index]) / (times[index + 1] - times[index]);
+			final float x2 = values[v + 4], y2 = values[v + 5], z2 = values[v + 6], w2 = values[v + 7];
+			// Same as Quaternion#slerp
+			final float d = x * x2 + y * y2 + z * z2 + w * w2;
+			final float absDot = d < 0f ? -d : d;
+			float scale0 = 1f - t, scale1 = t;
+			if ((1 - absDot) > 0.1) {
+				final float angle = (float)Math.acos(absDot);
+				final float invSinTheta = 1f / (float)Math.sin(angle);
+				scale0 = (float)Math.sin((1f - t) * angle) * invSinTheta;
+				scale1 = (float)Math.sin(t * angle) * invSinTheta;
+			}
+			if (d < 0f) scale1 = -scale1;
+			x = scale0 * x + scale1 * x2;
+			y = scale0 * y + scale1 * y2;
+			z = scale0 * z + scale1 * z2;
+			w = scale0 * w + scale1 * w2;
+		}
+		out[o] = x;
+		out[o + 1] = y;
+		out[o + 2] = z;
+		out[o + 3] = w;
+	}
 }
@@ -16,6 +16,8 @@
 
 package com.badlogic.gdx.graphics.g3d.model.data;
 
+import java.nio.ByteBuffer;
+
 import com.badlogic.gdx.graphics.VertexAttribute;
 
 public class ModelMesh {
@@ -23,4 +25,9 @@ public class ModelMesh {
 	public VertexAttribute[] attributes;
 	public float[] vertices;
 	public ModelMeshPart[] parts;
+	/** The vertices in native byte order, used instead of {@link #vertices} if set, for example mapped from a file. */
+	public ByteBuffer vertexBuffer;
+	/** The indices of all parts in native byte order, used with {@link #vertexBuffer} instead of {@link ModelMeshPart#indices}.
+	 * The parts refer to them with {@link ModelMeshPart#offset} and {@link ModelMeshPart#size}. */
+	public ByteBuffer indexBuffer;
 }
@@ -20,4 +20,6 @@ public class ModelMeshPart {
 	public String id;
 	public short[] indices;
 	public int primitiveType;
+	/** The offset and number of indices, or of vertices if there are none, of this part in {@link ModelMesh#indexBuffer}. */
+	public int offset, size;
 }
@@ -21,6 +21,7 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
 import com.badlogic.gdx.graphics.g3d.particles.emitters.Emitter;
 import com.badlogic.gdx.graphics.g3d.particles.influencers.Influencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.InfluencerExecutor;
 import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderer;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
@@ -67,6 +68,10 @@ public class ParticleController implements Json.Serializable, ResourceData.Confi
 	/** Time step, DO NOT CHANGE MANUALLY */
 	public float deltaTime, deltaTimeSqr;
 
+	/** Updates the consecutive influencers which {@link Influencer#canUpdateInParallel() can update in parallel}, if not null. The
+	 * other influencers are always updated on the calling thread, in order. */
+	public InfluencerExecutor executor;
+
 	public ParticleController () {
 		transform = new Matrix4();
 		scale = new Vector3(1, 1, 1);
@@ -228,8 +233,26 @@ public class ParticleController implements Json.Serializable, ResourceData.Confi
 	public void update (float deltaTime) {
 		setTimeStep(deltaTime);
 		emitter.update();
-		for (Influencer influencer : influencers)
-			influencer.update();
+		updateInfluencers();
+	}
+
+	/** Updates the influencers, handing the runs of influencers which can update in parallel to the {@link #executor}. */
+	protected void updateInfluencers () {
+		if (executor == null) {
+			for (Influencer influencer : influencers)
+				influencer.update();
+			return;
+		}
+		for (int i = 0, n = influencers.size; i < n;) {
+			int end = i;
+			while (end < n && influencers.get(end).canUpdateInParallel())
+				end++;
+			if (end > i) {
+				if (particles.size > 0) executor.update(influencers, i, end, particles.size);
+				i = end;
+			} else
+				influencers.get(i++).update();
+		}
 	}
 
 	/** Updates the renderer used by this controller, usually this means the particles will be draw inside a batch. */
@@ -247,8 +270,10 @@ public class ParticleController implements Json.Serializable, ResourceData.Confi
 		for (Influencer influencer : this.influencers) {
 			influencers[i++] = (Influencer)influencer.copy();
 		}
-		return new ParticleController(new String(this.name), emitter, (ParticleControllerRenderer<?, ?>)renderer.copy(),
-			influencers);
+		ParticleController controller = new ParticleController(new String(this.name), emitter,
+			(ParticleControllerRenderer<?, ?>)renderer.copy(), influencers);
+		controller.executor = executor;
+		return controller;
 	}
 
 	public void dispose () {
@@ -18,6 +18,7 @@ package com.badlogic.gdx.graphics.g3d.particles;
 
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g3d.particles.batches.ParticleBatch;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.InfluencerExecutor;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
@@ -91,6 +92,13 @@ public class ParticleEffect implements Disposable, ResourceData.Configurable {
 		return true;
 	}
 
+	/** Sets the executor used by each controller to update its influencers, null to update them on the calling thread.
+	 * @see ParticleController#executor */
+	public void setExecutor (InfluencerExecutor executor) {
+		for (int i = 0, n = controllers.size; i < n; i++)
+			controllers.get(i).executor = executor;
+	}
+
 	/** Sets the given transform matrix on each controller. */
 	public void setTransform (Matrix4 transform) {
 		for (int i = 0, n = controllers.size; i < n; i++)
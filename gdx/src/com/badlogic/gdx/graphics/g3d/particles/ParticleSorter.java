@@ -16,6 +16,8 @@
 
 package com.badlogic.gdx.graphics.g3d.particles;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderData;
 import com.badlogic.gdx.math.Matrix4;
@@ -48,19 +50,37 @@ public abstract class ParticleSorter {
 		}
 	}
 
-	/** This class will sort all the particles using the distance from camera. */
+	/** This class will sort all the particles using the distance from camera.
+	 * <p>
+	 * As the order of the particles barely changes between frames, the order of the previous frame is refined with an insertion
+	 * sort, which is given up once it moved the particles more than {@link #maxShiftsPerParticle} places per particle on
+	 * average, for example because the camera turned. The particles are then fully sorted, with a radix sort of the distances
+	 * when there are at least {@link #radixSortThreshold} of them, and the refinement is skipped for a few frames if it keeps
+	 * being given up, as happens with dense clouds of particles. */
 	public static class Distance extends ParticleSorter {
-		private float[] distances;
-		private int[] particleIndices, particleOffsets;
-		private int currentSize = 0;
+		/** The average number of places a particle can be moved by the insertion sort before falling back to a full sort, 0 to
+		 * always fully sort the particles. */
+		public int maxShiftsPerParticle = 4;
+		/** The least number of particles sorted with a radix sort rather than a quick sort. */
+		public int radixSortThreshold = 128;
+
+		private float[] distances, particleDistances;
+		private int[] particleIndices, particleOffsets, keys, tmpKeys, tmpIndices;
+		private final int[] counts = new int[256];
+		private int currentSize = 0, previousCount = 0, failures = 0, skippedFrames = 0;
 
 		@Override
 		public void ensureCapacity (int capacity) {
 			if (currentSize < capacity) {
 				distances = new float[capacity];
+				particleDistances = new float[capacity];
 				particleIndices = new int[capacity];
 				particleOffsets = new int[capacity];
+				keys = new int[capacity];
+				tmpKeys = new int[capacity];
+				tmpIndices = new int[capacity];
 				currentSize = capacity;
+				previousCount = 0;
 			}
 		}
 
@@ -71,22 +91,119 @@ public abstract class ParticleSorter {
 			int count = 0, i = 0;
 			for (ParticleControllerRenderData data : renderData) {
 				for (int k = 0, c = i + data.controller.particles.size; i < c; ++i, k += data.positionChannel.strideSize) {
-					distances[i] = cx * data.positionChannel.data[k + ParticleChannels.XOffset]
+					particleDistances[i] = cx * data.positionChannel.data[k + ParticleChannels.XOffset]
 						+ cy * data.positionChannel.data[k + ParticleChannels.YOffset]
 						+ cz * data.positionChannel.data[k + ParticleChannels.ZOffset];
-					particleIndices[i] = i;
 				}
 				count += data.controller.particles.size;
 			}
 
-			qsort(0, count - 1);
+			// Start from the order of the previous frame, without the particles that were removed and with the new ones at the end
+			int[] particleIndices = this.particleIndices;
+			int size = 0;
+			for (i = 0; i < previousCount; ++i) {
+				if (particleIndices[i] < count) particleIndices[size++] = particleIndices[i];
+			}
+			for (i = previousCount; i < count; ++i)
+				particleIndices[size++] = i;
+			for (i = 0; i < count; ++i)
+				distances[i] = particleDistances[particleIndices[i]];
+			previousCount = count;
+
+			if (skippedFrames > 0) {
+				skippedFrames--;
+				fullSort(count);
+			} else if (insertionSort(count, (long)count * maxShiftsPerParticle))
+				failures = 0;
+			else {
+				// Skips the refinement for 1, 2, 4... up to 16 frames after each consecutive failure
+				skippedFrames = Math.min(1 << failures, 16);
+				if (failures < 4) failures++;
+				fullSort(count);
+			}
 
+			particleIndices = this.particleIndices;
 			for (i = 0; i < count; ++i) {
 				particleOffsets[particleIndices[i]] = i;
 			}
 			return particleOffsets;
 		}
 
+		private void fullSort (int count) {
+			if (count >= radixSortThreshold)
+				radixSort(count);
+			else {
+				// The previous order is the worst case of the quick sort, start from the order of the particles
+				for (int i = 0; i < count; ++i) {
+					distances[i] = particleDistances[i];
+					particleIndices[i] = i;
+				}
+				qsort(0, count - 1);
+			}
+		}
+
+		/** Sorts the particles with an insertion sort, unless it moves them more than the given number of places.
+		 * @return whether the particles were sorted */
+		private boolean insertionSort (int count, long maxShifts) {
+			float[] distances = this.distances;
+			int[] particleIndices = this.particleIndices;
+			long shifts = 0;
+			for (int i = 1; i < count; i++) {
+				float distance = distances[i];
+				if (distances[i - 1] <= distance) continue;
+				int index = particleIndices[i], j = i;
+				do {
+					distances[j] = distances[j - 1];
+					particleIndices[j] = particleIndices[j - 1];
+				} while (--j > 0 && distances[j - 1] > distance);
+				distances[j] = distance;
+				particleIndices[j] = index;
+				shifts += i - j;
+				if (shifts > maxShifts) return false;
+			}
+			return true;
+		}
+
+		/** Sorts the particles with a least significant digit radix sort of the distances, 8 bits per pass, skipping the passes
+		 * where all the distances have the same digit. The distances themselves are left unsorted. */
+		private void radixSort (int count) {
+			int[] counts = this.counts, keys = this.keys, tmpKeys = this.tmpKeys;
+			int[] indices = particleIndices, tmpIndices = this.tmpIndices;
+			float[] distances = this.distances;
+			for (int i = 0; i < count; i++) {
+				// Flips the bits of negative floats and the sign bit of positive ones, so the keys are ordered like the floats
+				int bits = Float.floatToRawIntBits(distances[i]);
+				keys[i] = bits ^ ((bits >> 31) | 0x80000000);
+			}
+			for (int shift = 0; shift < 32; shift += 8) {
+				Arrays.fill(counts, 0);
+				for (int i = 0; i < count; i++)
+					counts[(keys[i] >>> shift) & 0xff]++;
+				if (counts[(keys[0] >>> shift) & 0xff] == count) continue;
+				for (int i = 0, total = 0; i < 256; i++) {
+					int digitCount = counts[i];
+					counts[i] = total;
+					total += digitCount;
+				}
+				for (int i = 0; i < count; i++) {
+					int key = keys[i];
+					int index = counts[(key >>> shift) & 0xff]++;
+					tmpKeys[index] = key;
+					tmpIndices[index] = indices[i];
+				}
+				int[] swap = keys;
+				keys = tmpKeys;
+				tmpKeys = swap;
+				swap = indices;
+				indices = tmpIndices;
+				tmpIndices = swap;
+			}
+			this.keys = keys;
+			this.tmpKeys = tmpKeys;
+			particleIndices = indices;
+			this.tmpIndices = tmpIndices;
+		}
+
 		public void qsort (int si, int ei) {
 			// base case
 			if (si < ei) {
@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.particles.batches;
+
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DepthTestAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleChannels;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleController;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleShader.AlignMode;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.BillboardRenderer;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Pool;
+
+/** Simulates and renders screen facing billboard particles on the GPU. Each particle moves with its own velocity and the
+ * {@link #gravity}, and its color and scale are interpolated over its life between {@link #startColor} and {@link #endColor},
+ * {@link #startScale} and {@link #endScale}.
+ * <p>
+ * With OpenGL ES 3.0 the state of the particles, their position, age, velocity and life, stays in two buffers on the GPU. Each
+ * {@link #update(float)} advances the particles from one buffer to the other with transform feedback, and the particles are drawn
+ * from the buffer with a single instanced draw call, so the CPU only uploads the particles emitted since the last update. Without
+ * OpenGL ES 3.0, or if the GPU isn't requested, the particles are simulated on the CPU and drawn by a
+ * {@link BillboardParticleBatch}.
+ * <p>
+ * Particles are emitted with {@link #emit(float, float, float, float, float, float, float)} in a ring of {@link #getCapacity()}
+ * slots, once it is full the oldest particles are replaced. On the GPU the particles aren't sorted by distance, which suits
+ * additive blending, and the buffers aren't managed, they must be recreated if the OpenGL context is lost. */
+public class GpuBillboardParticleBatch implements RenderableProvider, Disposable {
+	/** The number of floats of a particle: position and age, velocity and life. */
+	static final int PARTICLE_SIZE = 8;
+	static final String[] VARYINGS = {"v_state0", "v_state1"};
+
+	/** The acceleration applied to all the particles, in units per second per second. */
+	public final Vector3 gravity = new Vector3();
+	/** The color of the particles at the start and at the end of their life. */
+	public final Color startColor = new Color(Color.WHITE), endColor = new Color(1, 1, 1, 0);
+	/** The scale of the particles at the start and at the end of their life, a scale of 1 makes them 1 unit wide. */
+	public float startScale = 1, endScale = 1;
+
+	private final int capacity;
+	private final boolean gpu;
+	private final TextureRegion region;
+	private final float halfWidth = 0.5f, halfHeight;
+	/** The state of the particles on the CPU, only the emitted particles waiting to be uploaded are used on the GPU. */
+	private final float[] particles;
+	private int head, pending, count;
+
+	// GPU
+	private ShaderProgram updateProgram;
+	private GpuBillboardShader shader;
+	private Mesh quad;
+	private Renderable renderable;
+	private final int[] buffers = new int[2], vertexArrays = new int[2];
+	private int current;
+	private FloatBuffer upload;
+
+	// CPU
+	private BillboardParticleBatch billboardBatch;
+	private BillboardRenderer renderer;
+	private ParticleController controller;
+	private FloatChannel positionChannel, colorChannel, scaleChannel;
+
+	/** Creates a batch which simulates the particles on the GPU if OpenGL ES 3.0 is available, with the default blending and
+	 * depth test of {@link BillboardParticleBatch}. */
+	public GpuBillboardParticleBatch (int capacity, TextureRegion region) {
+		this(capacity, region, true, null, null);
+	}
+
+	/** @param useGPU whether to simulate the particles on the GPU if OpenGL ES 3.0 is available
+	 * @param blendingAttribute the blending of the particles, null for the default one
+	 * @param depthTestAttribute the depth test of the particles, null for the default one */
+	public GpuBillboardParticleBatch (int capacity, TextureRegion region, boolean useGPU, BlendingAttribute blendingAttribute,
+		DepthTestAttribute depthTestAttribute) {
+		if (capacity < 1) throw new IllegalArgumentException("capacity must be > 0: " + capacity);
+		this.capacity = capacity;
+		this.region = region;
+		this.halfHeight = 0.5f * region.getRegionHeight() / region.getRegionWidth();
+		this.gpu = useGPU && Gdx.gl30 != null;
+		this.particles = new float[capacity * PARTICLE_SIZE];
+		if (blendingAttribute == null) blendingAttribute = new BlendingAttribute(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA, 1f);
+		if (depthTestAttribute == null) depthTestAttribute = new DepthTestAttribute(GL20.GL_LEQUAL, false);
+		if (gpu)
+			initGPU(blendingAttribute, depthTestAttribute);
+		else
+			initCPU(blendingAttribute, depthTestAttribute);
+	}
+
+	private void initGPU (BlendingAttribute blendingAttribute, DepthTestAttribute depthTestAttribute) {
+		String prefix = createPrefix();
+		updateProgram = new UpdateProgram(prefix + read("gpuBillboardUpdate.vertex.glsl"),
+			prefix + read("gpuBillboardUpdate.fragment.glsl"));
+		if (!updateProgram.isCompiled()) throw new GdxRuntimeException("Couldn't compile update shader: " + updateProgram.getLog());
+		shader = new GpuBillboardShader(
+			new ShaderProgram(prefix + read("gpuBillboard.vertex.glsl"), prefix + read("gpuBillboard.fragment.glsl")));
+		shader.init();
+
+		quad = new Mesh(true, 4, 6, new VertexAttribute(Usage.Generic, 2, "a_corner"));
+		quad.setVertices(new float[] {-1, -1, 1, -1, 1, 1, -1, 1});
+		quad.setIndices(new short[] {0, 1, 2, 2, 3, 0});
+
+		renderable = new Renderable();
+		renderable.meshPart.set("particles", quad, 0, 6, GL20.GL_TRIANGLES);
+		renderable.material = new Material(blendingAttribute, depthTestAttribute,
+			TextureAttribute.createDiffuse(region.getTexture()));
+		renderable.shader = shader;
+
+		GL30 gl = Gdx.gl30;
+		upload = BufferUtils.newFloatBuffer(particles.length);
+		upload.put(particles, 0, particles.length).flip();
+		gl.glGenVertexArrays(2, vertexArrays, 0);
+		int location0 = updateProgram.getAttributeLocation("a_state0"),
+			location1 = updateProgram.getAttributeLocation("a_state1");
+		for (int i = 0; i < 2; i++) {
+			buffers[i] = gl.glGenBuffer();
+			gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, buffers[i]);
+			gl.glBufferData(GL20.GL_ARRAY_BUFFER, particles.length * 4, upload, GL30.GL_DYNAMIC_COPY);
+			gl.glBindVertexArray(vertexArrays[i]);
+			updateProgram.enableVertexAttribute(location0);
+			updateProgram.setVertexAttribute(location0, 4, GL20.GL_FLOAT, false, PARTICLE_SIZE * 4, 0);
+			updateProgram.enableVertexAttribute(location1);
+			updateProgram.setVertexAttribute(location1, 4, GL20.GL_FLOAT, false, PARTICLE_SIZE * 4, 16);
+			gl.glBindVertexArray(0);
+		}
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+	}
+
+	private void initCPU (BlendingAttribute blendingAttribute, DepthTestAttribute depthTestAttribute) {
+		billboardBatch = new BillboardParticleBatch(AlignMode.Screen, false, capacity, blendingAttribute, depthTestAttribute);
+		billboardBatch.setTexture(region.getTexture());
+		controller = new ParticleController();
+		controller.particles = new ParallelArray(capacity);
+		renderer = new BillboardRenderer(billboardBatch);
+		renderer.set(controller);
+		renderer.allocateChannels();
+		positionChannel = controller.particles.getChannel(ParticleChannels.Position);
+		colorChannel = controller.particles.getChannel(ParticleChannels.Color);
+		scaleChannel = controller.particles.getChannel(ParticleChannels.Scale);
+		FloatChannel regionChannel = controller.particles.getChannel(ParticleChannels.TextureRegion);
+		for (int i = 0, c = capacity * regionChannel.strideSize; i < c; i += regionChannel.strideSize) {
+			regionChannel.data[i + ParticleChannels.UOffset] = region.getU();
+			regionChannel.data[i + ParticleChannels.VOffset] = region.getV();
+			regionChannel.data[i + ParticleChannels.U2Offset] = region.getU2();
+			regionChannel.data[i + ParticleChannels.V2Offset] = region.getV2();
+			regionChannel.data[i + ParticleChannels.HalfWidthOffset] = halfWidth;
+			regionChannel.data[i + ParticleChannels.HalfHeightOffset] = halfHeight;
+		}
+	}
+
+	/** @return the #version line matching the OpenGL ES 3.0 shaders, unless {@link ShaderProgram#prependVertexCode} sets one. */
+	private static String createPrefix () {
+		if (ShaderProgram.prependVertexCode != null && ShaderProgram.prependVertexCode.contains("#version")) return "";
+		return Gdx.app.getType() == ApplicationType.Desktop ? "#version 150\n" : "#version 300 es\n";
+	}
+
+	private static String read (String name) {
+		return Gdx.files.classpath("com/badlogic/gdx/graphics/g3d/particles/" + name).readString();
+	}
+
+	/** Emits a particle, replacing the oldest one if the batch is full.
+	 * @param life the time the particle lives, in seconds */
+	public void emit (float x, float y, float z, float velocityX, float velocityY, float velocityZ, float life) {
+		final float[] particles = this.particles;
+		final int offset = head * PARTICLE_SIZE;
+		particles[offset] = x;
+		particles[offset + 1] = y;
+		particles[offset + 2] = z;
+		particles[offset + 3] = 0;
+		particles[offset + 4] = velocityX;
+		particles[offset + 5] = velocityY;
+		particles[offset + 6] = velocityZ;
+		particles[offset + 7] = life;
+		if (++head == capacity) head = 0;
+		if (pending < capacity) pending++;
+		if (count < capacity) count++;
+	}
+
+	/** Emits a particle, replacing the oldest one if the batch is full.
+	 * @param life the time the particle lives, in seconds */
+	public void emit (Vector3 position, Vector3 velocity, float life) {
+		emit(position.x, position.y, position.z, velocity.x, velocity.y, velocity.z, life);
+	}
+
+	/** Advances the particles by the given time, including the ones emitted since the last update. */
+	public void update (float deltaTime) {
+		if (gpu)
+			updateGPU(deltaTime);
+		else
+			updateCPU(deltaTime);
+		pending = 0;
+	}
+
+	private void updateGPU (float deltaTime) {
+		GL30 gl = Gdx.gl30;
+		if (pending > 0) {
+			// The emitted particles are in the slots before the head, which may wrap around
+			gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, buffers[current]);
+			int start = head - pending;
+			if (start < 0) {
+				uploadParticles(start + capacity, capacity);
+				start = 0;
+			}
+			uploadParticles(start, head);
+			gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		}
+		if (count == 0) return;
+
+		updateProgram.bind();
+		updateProgram.setUniformf("u_deltaTime", deltaTime);
+		updateProgram.setUniformf("u_gravity", gravity);
+		gl.glEnable(GL30.GL_RASTERIZER_DISCARD);
+		gl.glBindVertexArray(vertexArrays[current]);
+		gl.glBindBufferBase(GL30.GL_TRANSFORM_FEEDBACK_BUFFER, 0, buffers[1 - current]);
+		gl.glBeginTransformFeedback(GL20.GL_POINTS);
+		gl.glDrawArrays(GL20.GL_POINTS, 0, count);
+		gl.glEndTransformFeedback();
+		gl.glBindBufferBase(GL30.GL_TRANSFORM_FEEDBACK_BUFFER, 0, 0);
+		gl.glBindVertexArray(0);
+		gl.glDisable(GL30.GL_RASTERIZER_DISCARD);
+		current = 1 - current;
+	}
+
+	private void uploadParticles (int start, int end) {
+		if (start == end) return;
+		upload.clear();
+		upload.put(particles, start * PARTICLE_SIZE, (end - start) * PARTICLE_SIZE).flip();
+		Gdx.gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, start * PARTICLE_SIZE * 4, (end - start) * PARTICLE_SIZE * 4, upload);
+	}
+
+	private void updateCPU (float deltaTime) {
+		final float[] particles = this.particles;
+		final float gx = gravity.x * deltaTime, gy = gravity.y * deltaTime, gz = gravity.z * deltaTime;
+		for (int offset = 0, c = count * PARTICLE_SIZE; offset < c; offset += PARTICLE_SIZE) {
+			if (particles[offset + 3] >= particles[offset + 7]) continue;
+			particles[offset + 3] += deltaTime;
+			particles[offset] += (particles[offset + 4] += gx) * deltaTime;
+			particles[offset + 1] += (particles[offset + 5] += gy) * deltaTime;
+			particles[offset + 2] += (particles[offset + 6] += gz) * deltaTime;
+		}
+	}
+
+	/** Copies the living particles to the channels drawn by the {@link BillboardParticleBatch}. */
+	private void fillChannels () {
+		final float[] particles = this.particles;
+		final float[] positions = positionChannel.data, colors = colorChannel.data, scales = scaleChannel.data;
+		final Color startColor = this.startColor, endColor = this.endColor;
+		int size = 0;
+		for (int offset = 0, c = count * PARTICLE_SIZE; offset < c; offset += PARTICLE_SIZE) {
+			final float age = particles[offset + 3], life = particles[offset + 7];
+			if (life <= 0 || age >= life) continue;
+			final float percent = age / life;
+			final int positionOffset = size * positionChannel.strideSize, colorOffset = size * colorChannel.strideSize;
+			positions[positionOffset + ParticleChannels.XOffset] = particles[offset];
+			positions[positionOffset + ParticleChannels.YOffset] = particles[offset + 1];
+			positions[positionOffset + ParticleChannels.ZOffset] = particles[offset + 2];
+			colors[colorOffset + ParticleChannels.RedOffset] = startColor.r + (endColor.r - startColor.r) * percent;
+			colors[colorOffset + ParticleChannels.GreenOffset] = startColor.g + (endColor.g - startColor.g) * percent;
+			colors[colorOffset + ParticleChannels.BlueOffset] = startColor.b + (endColor.b - startColor.b) * percent;
+			colors[colorOffset + ParticleChannels.AlphaOffset] = startColor.a + (endColor.a - startColor.a) * percent;
+			scales[size * scaleChannel.strideSize] = startScale + (endScale - startScale) * percent;
+			size++;
+		}
+		controller.particles.size = size;
+	}
+
+	/** Sets the camera the particles face. It is only used when the particles are simulated on the CPU, the GPU uses the camera
+	 * the particles are rendered with. */
+	public void setCamera (Camera camera) {
+		if (billboardBatch != null) billboardBatch.setCamera(camera);
+	}
+
+	@Override
+	public void getRenderables (Array<Renderable> renderables, Pool<Renderable> pool) {
+		if (gpu) {
+			if (count > 0) renderables.add(pool.obtain().set(renderable));
+			return;
+		}
+		fillChannels();
+		billboardBatch.begin();
+		if (controller.particles.size > 0) renderer.update();
+		billboardBatch.end();
+		billboardBatch.getRenderables(renderables, pool);
+	}
+
+	/** @return whether the particles are simulated on the GPU */
+	public boolean isGPU () {
+		return gpu;
+	}
+
+	/** @return the maximum number of particles */
+	public int getCapacity () {
+		return capacity;
+	}
+
+	/** @return the billboard batch drawing the particles when they are simulated on the CPU, null on the GPU */
+	public BillboardParticleBatch getBillboardBatch () {
+		return billboardBatch;
+	}
+
+	/** Draws the particles from the buffer holding their current state with an instanced draw call. */
+	void draw (ShaderProgram program, RenderContext context) {
+		GL30 gl = Gdx.gl30;
+		program.setUniformf("u_startColor", startColor);
+		program.setUniformf("u_endColor", endColor);
+		program.setUniformf("u_scale", startScale, endScale);
+		program.setUniformf("u_region", region.getU(), region.getV(), region.getU2(), region.getV2());
+		program.setUniformf("u_halfSize", halfWidth, halfHeight);
+		program.setUniformi("u_diffuseTexture", context.textureBinder.bind(region.getTexture()));
+
+		quad.bind(program);
+		int location0 = program.getAttributeLocation("a_state0"), location1 = program.getAttributeLocation("a_state1");
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, buffers[current]);
+		program.enableVertexAttribute(location0);
+		program.setVertexAttribute(location0, 4, GL20.GL_FLOAT, false, PARTICLE_SIZE * 4, 0);
+		gl.glVertexAttribDivisor(location0, 1);
+		program.enableVertexAttribute(location1);
+		program.setVertexAttribute(location1, 4, GL20.GL_FLOAT, false, PARTICLE_SIZE * 4, 16);
+		gl.glVertexAttribDivisor(location1, 1);
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+
+		gl.glDrawElementsInstanced(GL20.GL_TRIANGLES, 6, GL20.GL_UNSIGNED_SHORT, 0, count);
+
+		gl.glVertexAttribDivisor(location0, 0);
+		program.disableVertexAttribute(location0);
+		gl.glVertexAttribDivisor(location1, 0);
+		program.disableVertexAttribute(location1);
+		quad.unbind(program);
+	}
+
+	@Override
+	public void dispose () {
+		if (gpu) {
+			GL30 gl = Gdx.gl30;
+			gl.glDeleteVertexArrays(2, vertexArrays, 0);
+			gl.glDeleteBuffer(buffers[0]);
+			gl.glDeleteBuffer(buffers[1]);
+			updateProgram.dispose();
+			shader.dispose();
+			quad.dispose();
+		}
+	}
+
+	/** Sets the transform feedback varyings of the update shader before it is linked. */
+	static class UpdateProgram extends ShaderProgram {
+		UpdateProgram (String vertexShader, String fragmentShader) {
+			super(vertexShader, fragmentShader);
+		}
+
+		@Override
+		protected int createProgram () {
+			int program = super.createProgram();
+			if (program != -1) Gdx.gl30.glTransformFeedbackVaryings(program, VARYINGS, GL30.GL_INTERLEAVED_ATTRIBS);
+			return program;
+		}
+	}
+
+	/** Renders the {@link Renderable} of a {@link GpuBillboardParticleBatch}, facing the camera. */
+	class GpuBillboardShader implements Shader {
+		final ShaderProgram program;
+		final Vector3 right = new Vector3();
+		RenderContext context;
+
+		GpuBillboardShader (ShaderProgram program) {
+			this.program = program;
+		}
+
+		@Override
+		public void init () {
+			if (!program.isCompiled()) throw new GdxRuntimeException("Couldn't compile shader: " + program.getLog());
+		}
+
+		@Override
+		public int compareTo (Shader other) {
+			return 0;
+		}
+
+		@Override
+		public boolean canRender (Renderable instance) {
+			return instance.shader == this;
+		}
+
+		@Override
+		public void begin (Camera camera, RenderContext context) {
+			this.context = context;
+			program.bind();
+			program.setUniformMatrix("u_projViewTrans", camera.combined);
+			program.setUniformf("u_cameraRight", right.set(camera.direction).crs(camera.up).nor());
+			program.setUniformf("u_cameraUp", camera.up);
+		}
+
+		@Override
+		public void render (Renderable renderable) {
+			BlendingAttribute blending = (BlendingAttribute)renderable.material.get(BlendingAttribute.Type);
+			context.setBlending(true, blending.sourceFunction, blending.destFunction);
+			DepthTestAttribute depthTest = (DepthTestAttribute)renderable.material.get(DepthTestAttribute.Type);
+			context.setDepthTest(depthTest.depthFunc, depthTest.depthRangeNear, depthTest.depthRangeFar);
+			context.setDepthMask(depthTest.depthMask);
+			context.setCullFace(0);
+			draw(program, context);
+		}
+
+		@Override
+		public void end () {
+			context = null;
+		}
+
+		@Override
+		public void dispose () {
+			program.dispose();
+		}
+	}
+}
@@ -103,8 +103,20 @@ public abstract class ColorInfluencer extends Influencer {
 
 		@Override
 		public void update () {
-			for (int i = 0, a = 0, l = ParticleChannels.LifePercentOffset, c = i + controller.particles.size
-				* colorChannel.strideSize; i < c; i += colorChannel.strideSize, a += alphaInterpolationChannel.strideSize, l += lifeChannel.strideSize) {
+			update(0, controller.particles.size);
+		}
+
+		/** @return true for a Single, false for subclasses as they may update the particles differently. */
+		@Override
+		public boolean canUpdateInParallel () {
+			return getClass() == Single.class;
+		}
+
+		@Override
+		public void update (int startIndex, int count) {
+			for (int i = startIndex * colorChannel.strideSize, a = startIndex * alphaInterpolationChannel.strideSize,
+				l = startIndex * lifeChannel.strideSize + ParticleChannels.LifePercentOffset, c = i + count
+					* colorChannel.strideSize; i < c; i += colorChannel.strideSize, a += alphaInterpolationChannel.strideSize, l += lifeChannel.strideSize) {
 
 				float lifePercent = lifeChannel.data[l];
 				colorValue.getColor(lifePercent, colorChannel.data, i);
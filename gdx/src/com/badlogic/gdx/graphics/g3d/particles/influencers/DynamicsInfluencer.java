@@ -22,6 +22,7 @@ import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
 import com.badlogic.gdx.graphics.g3d.particles.ParticleChannels;
 import com.badlogic.gdx.graphics.g3d.particles.ParticleController;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
@@ -132,15 +133,37 @@ public class DynamicsInfluencer extends Influencer {
 	}
 
 	public void update () {
+		update(0, controller.particles.size, true, TMP_Q);
+	}
+
+	/** @return whether all the {@link #velocities} can update in parallel, always false for subclasses as they may update the
+	 *         particles differently. */
+	@Override
+	public boolean canUpdateInParallel () {
+		if (getClass() != DynamicsInfluencer.class) return false;
+		for (int k = 0; k < velocities.size; ++k)
+			if (!velocities.items[k].canUpdateInParallel()) return false;
+		return true;
+	}
+
+	@Override
+	public void update (int startIndex, int count) {
+		update(startIndex, count, false, new Quaternion());
+	}
+
+	private void update (int startIndex, int count, boolean allParticles, Quaternion tmpQ) {
 		// Clean previouse frame velocities
-		if (hasAcceleration)
-			Arrays.fill(accellerationChannel.data, 0, controller.particles.size * accellerationChannel.strideSize, 0);
-		if (has2dAngularVelocity || has3dAngularVelocity)
-			Arrays.fill(angularVelocityChannel.data, 0, controller.particles.size * angularVelocityChannel.strideSize, 0);
+		if (hasAcceleration) Arrays.fill(accellerationChannel.data, startIndex * accellerationChannel.strideSize,
+			(startIndex + count) * accellerationChannel.strideSize, 0);
+		if (has2dAngularVelocity || has3dAngularVelocity) Arrays.fill(angularVelocityChannel.data,
+			startIndex * angularVelocityChannel.strideSize, (startIndex + count) * angularVelocityChannel.strideSize, 0);
 
 		// Sum all the forces/accelerations
 		for (int k = 0; k < velocities.size; ++k) {
-			velocities.items[k].update();
+			if (allParticles)
+				velocities.items[k].update();
+			else
+				velocities.items[k].update(startIndex, count);
 		}
 
 		// Apply the forces
@@ -158,7 +181,8 @@ public class DynamicsInfluencer extends Influencer {
 			 * ParticleChannels.ZOffset] += previousPositionChannel.data[offset + ParticleChannels.ZOffset]*controller.deltaTime; }
 			 */
 			// Verlet integration
-			for (int i = 0, offset = 0; i < controller.particles.size; ++i, offset += positionChannel.strideSize) {
+			for (int i = startIndex, offset = startIndex * positionChannel.strideSize, n = startIndex
+				+ count; i < n; ++i, offset += positionChannel.strideSize) {
 				float x = positionChannel.data[offset + ParticleChannels.XOffset],
 					y = positionChannel.data[offset + ParticleChannels.YOffset],
 					z = positionChannel.data[offset + ParticleChannels.ZOffset];
@@ -178,7 +202,8 @@ public class DynamicsInfluencer extends Influencer {
 		}
 
 		if (has2dAngularVelocity) {
-			for (int i = 0, offset = 0; i < controller.particles.size; ++i, offset += rotationChannel.strideSize) {
+			for (int i = startIndex, offset = startIndex * rotationChannel.strideSize, n = startIndex
+				+ count; i < n; ++i, offset += rotationChannel.strideSize) {
 				float rotation = angularVelocityChannel.data[i] * controller.deltaTime;
 				if (rotation != 0) {
 					float cosBeta = MathUtils.cosDeg(rotation), sinBeta = MathUtils.sinDeg(rotation);
@@ -191,8 +216,9 @@ public class DynamicsInfluencer extends Influencer {
 				}
 			}
 		} else if (has3dAngularVelocity) {
-			for (int i = 0, offset = 0,
-				angularOffset = 0; i < controller.particles.size; ++i, offset += rotationChannel.strideSize, angularOffset += angularVelocityChannel.strideSize) {
+			for (int i = startIndex, offset = startIndex * rotationChannel.strideSize, angularOffset = startIndex
+				* angularVelocityChannel.strideSize, n = startIndex
+					+ count; i < n; ++i, offset += rotationChannel.strideSize, angularOffset += angularVelocityChannel.strideSize) {
 
 				float wx = angularVelocityChannel.data[angularOffset + ParticleChannels.XOffset],
 					wy = angularVelocityChannel.data[angularOffset + ParticleChannels.YOffset],
@@ -201,11 +227,11 @@ public class DynamicsInfluencer extends Influencer {
 					qy = rotationChannel.data[offset + ParticleChannels.YOffset],
 					qz = rotationChannel.data[offset + ParticleChannels.ZOffset],
 					qw = rotationChannel.data[offset + ParticleChannels.WOffset];
-				TMP_Q.set(wx, wy, wz, 0).mul(qx, qy, qz, qw).mul(0.5f * controller.deltaTime).add(qx, qy, qz, qw).nor();
-				rotationChannel.data[offset + ParticleChannels.XOffset] = TMP_Q.x;
-				rotationChannel.data[offset + ParticleChannels.YOffset] = TMP_Q.y;
-				rotationChannel.data[offset + ParticleChannels.ZOffset] = TMP_Q.z;
-				rotationChannel.data[offset + ParticleChannels.WOffset] = TMP_Q.w;
+				tmpQ.set(wx, wy, wz, 0).mul(qx, qy, qz, qw).mul(0.5f * controller.deltaTime).add(qx, qy, qz, qw).nor();
+				rotationChannel.data[offset + ParticleChannels.XOffset] = tmpQ.x;
+				rotationChannel.data[offset + ParticleChannels.YOffset] = tmpQ.y;
+				rotationChannel.data[offset + ParticleChannels.ZOffset] = tmpQ.z;
+				rotationChannel.data[offset + ParticleChannels.WOffset] = tmpQ.w;
 			}
 		}
 	}
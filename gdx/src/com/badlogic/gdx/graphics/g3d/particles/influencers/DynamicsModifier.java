@@ -53,18 +53,27 @@ public abstract class DynamicsModifier extends Influencer {
 
 		@Override
 		public void update () {
-			for (int i = 0, accelOffset = 0, c = i + controller.particles.size
-				* rotationChannel.strideSize; i < c; i += rotationChannel.strideSize, accelOffset += accellerationChannel.strideSize) {
+			update(0, controller.particles.size, TMP_V1, TMP_V2, TMP_V3, TMP_Q);
+		}
+
+		@Override
+		public void update (int startIndex, int count) {
+			update(startIndex, count, new Vector3(), new Vector3(), new Vector3(), new Quaternion());
+		}
+
+		private void update (int startIndex, int count, Vector3 tmpV1, Vector3 tmpV2, Vector3 tmpV3, Quaternion tmpQ) {
+			for (int i = startIndex * rotationChannel.strideSize, accelOffset = startIndex * accellerationChannel.strideSize, c = i
+				+ count * rotationChannel.strideSize; i < c; i += rotationChannel.strideSize, accelOffset += accellerationChannel.strideSize) {
 
-				Vector3 axisZ = TMP_V1.set(accellerationChannel.data[accelOffset + ParticleChannels.XOffset],
+				Vector3 axisZ = tmpV1.set(accellerationChannel.data[accelOffset + ParticleChannels.XOffset],
 					accellerationChannel.data[accelOffset + ParticleChannels.YOffset],
 					accellerationChannel.data[accelOffset + ParticleChannels.ZOffset]).nor(),
-					axisY = TMP_V2.set(TMP_V1).crs(Vector3.Y).nor().crs(TMP_V1).nor(), axisX = TMP_V3.set(axisY).crs(axisZ).nor();
-				TMP_Q.setFromAxes(false, axisX.x, axisY.x, axisZ.x, axisX.y, axisY.y, axisZ.y, axisX.z, axisY.z, axisZ.z);
-				rotationChannel.data[i + ParticleChannels.XOffset] = TMP_Q.x;
-				rotationChannel.data[i + ParticleChannels.YOffset] = TMP_Q.y;
-				rotationChannel.data[i + ParticleChannels.ZOffset] = TMP_Q.z;
-				rotationChannel.data[i + ParticleChannels.WOffset] = TMP_Q.w;
+					axisY = tmpV2.set(tmpV1).crs(Vector3.Y).nor().crs(tmpV1).nor(), axisX = tmpV3.set(axisY).crs(axisZ).nor();
+				tmpQ.setFromAxes(false, axisX.x, axisY.x, axisZ.x, axisX.y, axisY.y, axisZ.y, axisX.z, axisY.z, axisZ.z);
+				rotationChannel.data[i + ParticleChannels.XOffset] = tmpQ.x;
+				rotationChannel.data[i + ParticleChannels.YOffset] = tmpQ.y;
+				rotationChannel.data[i + ParticleChannels.ZOffset] = tmpQ.z;
+				rotationChannel.data[i + ParticleChannels.WOffset] = tmpQ.w;
 			}
 		}
 
@@ -204,8 +213,15 @@ public abstract class DynamicsModifier extends Influencer {
 
 		@Override
 		public void update () {
-			for (int i = 0, l = ParticleChannels.LifePercentOffset, s = 0, c = i + controller.particles.size
-				* rotationalVelocity2dChannel.strideSize; i < c; s += strengthChannel.strideSize, i += rotationalVelocity2dChannel.strideSize, l += lifeChannel.strideSize) {
+			update(0, controller.particles.size);
+		}
+
+		@Override
+		public void update (int startIndex, int count) {
+			for (int i = startIndex * rotationalVelocity2dChannel.strideSize,
+				l = startIndex * lifeChannel.strideSize + ParticleChannels.LifePercentOffset,
+				s = startIndex * strengthChannel.strideSize,
+				c = i + count * rotationalVelocity2dChannel.strideSize; i < c; s += strengthChannel.strideSize, i += rotationalVelocity2dChannel.strideSize, l += lifeChannel.strideSize) {
 				rotationalVelocity2dChannel.data[i] += strengthChannel.data[s + ParticleChannels.VelocityStrengthStartOffset]
 					+ strengthChannel.data[s + ParticleChannels.VelocityStrengthDiffOffset]
 						* strengthValue.getScale(lifeChannel.data[l]);
@@ -263,8 +279,19 @@ public abstract class DynamicsModifier extends Influencer {
 			// Consider a channel which represent a simple angular momentum L
 			// Proceed as Algorithm 2
 
-			for (int i = 0, l = ParticleChannels.LifePercentOffset, s = 0, a = 0, c = controller.particles.size
-				* rotationalForceChannel.strideSize; i < c; s += strengthChannel.strideSize, i += rotationalForceChannel.strideSize, a += angularChannel.strideSize, l += lifeChannel.strideSize) {
+			update(0, controller.particles.size, TMP_V3);
+		}
+
+		@Override
+		public void update (int startIndex, int count) {
+			update(startIndex, count, new Vector3());
+		}
+
+		private void update (int startIndex, int count, Vector3 tmpV3) {
+			for (int i = startIndex * rotationalForceChannel.strideSize,
+				l = startIndex * lifeChannel.strideSize + ParticleChannels.LifePercentOffset,
+				s = startIndex * strengthChannel.strideSize,
+				a = startIndex * angularChannel.strideSize, c = i + count * rotationalForceChannel.strideSize; i < c; s += strengthChannel.strideSize, i += rotationalForceChannel.strideSize, a += angularChannel.strideSize, l += lifeChannel.strideSize) {
 
 				float lifePercent = lifeChannel.data[l],
 					strength = strengthChannel.data[s + ParticleChannels.VelocityStrengthStartOffset]
@@ -277,12 +304,12 @@ public abstract class DynamicsModifier extends Influencer {
 				float cosTheta = MathUtils.cosDeg(theta), sinTheta = MathUtils.sinDeg(theta), cosPhi = MathUtils.cosDeg(phi),
 					sinPhi = MathUtils.sinDeg(phi);
 
-				TMP_V3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi);
-				TMP_V3.scl(strength * MathUtils.degreesToRadians);
+				tmpV3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi);
+				tmpV3.scl(strength * MathUtils.degreesToRadians);
 
-				rotationalForceChannel.data[i + ParticleChannels.XOffset] += TMP_V3.x;
-				rotationalForceChannel.data[i + ParticleChannels.YOffset] += TMP_V3.y;
-				rotationalForceChannel.data[i + ParticleChannels.ZOffset] += TMP_V3.z;
+				rotationalForceChannel.data[i + ParticleChannels.XOffset] += tmpV3.x;
+				rotationalForceChannel.data[i + ParticleChannels.YOffset] += tmpV3.y;
+				rotationalForceChannel.data[i + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -312,6 +339,15 @@ public abstract class DynamicsModifier extends Influencer {
 
 		@Override
 		public void update () {
+			update(0, controller.particles.size, TMP_V3);
+		}
+
+		@Override
+		public void update (int startIndex, int count) {
+			update(startIndex, count, new Vector3());
+		}
+
+		private void update (int startIndex, int count, Vector3 tmpV3) {
 			float cx = 0, cy = 0, cz = 0;
 			if (!isGlobal) {
 				float[] val = controller.transform.val;
@@ -320,19 +356,20 @@ public abstract class DynamicsModifier extends Influencer {
 				cz = val[Matrix4.M23];
 			}
 
-			int lifeOffset = ParticleChannels.LifePercentOffset, strengthOffset = 0, positionOffset = 0, forceOffset = 0;
-			for (int i = 0,
-				c = controller.particles.size; i < c; ++i, positionOffset += positionChannel.strideSize, strengthOffset += strengthChannel.strideSize, forceOffset += accelerationChannel.strideSize, lifeOffset += lifeChannel.strideSize) {
+			int lifeOffset = startIndex * lifeChannel.strideSize + ParticleChannels.LifePercentOffset,
+				strengthOffset = startIndex * strengthChannel.strideSize, positionOffset = startIndex * positionChannel.strideSize,
+				forceOffset = startIndex * accelerationChannel.strideSize;
+			for (int i = startIndex, c = startIndex + count; i < c; ++i, positionOffset += positionChannel.strideSize, strengthOffset += strengthChannel.strideSize, forceOffset += accelerationChannel.strideSize, lifeOffset += lifeChannel.strideSize) {
 
 				float strength = strengthChannel.data[strengthOffset + ParticleChannels.VelocityStrengthStartOffset]
 					+ strengthChannel.data[strengthOffset + ParticleChannels.VelocityStrengthDiffOffset]
 						* strengthValue.getScale(lifeChannel.data[lifeOffset]);
-				TMP_V3.set(positionChannel.data[positionOffset + ParticleChannels.XOffset] - cx,
+				tmpV3.set(positionChannel.data[positionOffset + ParticleChannels.XOffset] - cx,
 					positionChannel.data[positionOffset + ParticleChannels.YOffset] - cy,
 					positionChannel.data[positionOffset + ParticleChannels.ZOffset] - cz).nor().scl(strength);
-				accelerationChannel.data[forceOffset + ParticleChannels.XOffset] += TMP_V3.x;
-				accelerationChannel.data[forceOffset + ParticleChannels.YOffset] += TMP_V3.y;
-				accelerationChannel.data[forceOffset + ParticleChannels.ZOffset] += TMP_V3.z;
+				accelerationChannel.data[forceOffset + ParticleChannels.XOffset] += tmpV3.x;
+				accelerationChannel.data[forceOffset + ParticleChannels.YOffset] += tmpV3.y;
+				accelerationChannel.data[forceOffset + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -360,8 +397,20 @@ public abstract class DynamicsModifier extends Influencer {
 
 		@Override
 		public void update () {
-			for (int i = 0, l = ParticleChannels.LifePercentOffset, s = 0, a = 0, c = i + controller.particles.size
-				* directionalVelocityChannel.strideSize; i < c; s += strengthChannel.strideSize, i += directionalVelocityChannel.strideSize, a += angularChannel.strideSize, l += lifeChannel.strideSize) {
+			update(0, controller.particles.size, TMP_V3, TMP_Q);
+		}
+
+		@Override
+		public void update (int startIndex, int count) {
+			update(startIndex, count, new Vector3(), new Quaternion());
+		}
+
+		private void update (int startIndex, int count, Vector3 tmpV3, Quaternion tmpQ) {
+			for (int i = startIndex * directionalVelocityChannel.strideSize,
+				l = startIndex * lifeChannel.strideSize + ParticleChannels.LifePercentOffset,
+				s = startIndex * strengthChannel.strideSize,
+				a = startIndex * angularChannel.strideSize, c = i + count
+					* directionalVelocityChannel.strideSize; i < c; s += strengthChannel.strideSize, i += directionalVelocityChannel.strideSize, a += angularChannel.strideSize, l += lifeChannel.strideSize) {
 
 				float lifePercent = lifeChannel.data[l],
 					strength = strengthChannel.data[s + ParticleChannels.VelocityStrengthStartOffset]
@@ -373,16 +422,16 @@ public abstract class DynamicsModifier extends Influencer {
 
 				float cosTheta = MathUtils.cosDeg(theta), sinTheta = MathUtils.sinDeg(theta), cosPhi = MathUtils.cosDeg(phi),
 					sinPhi = MathUtils.sinDeg(phi);
-				TMP_V3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi).nor().scl(strength);
+				tmpV3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi).nor().scl(strength);
 
 				if (!isGlobal) {
-					controller.transform.getRotation(TMP_Q, true);
-					TMP_V3.mul(TMP_Q);
+					controller.transform.getRotation(tmpQ, true);
+					tmpV3.mul(tmpQ);
 				}
 
-				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += TMP_V3.x;
-				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += TMP_V3.y;
-				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += TMP_V3.z;
+				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += tmpV3.x;
+				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += tmpV3.y;
+				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -411,8 +460,19 @@ public abstract class DynamicsModifier extends Influencer {
 
 		@Override
 		public void update () {
-			for (int i = 0, l = ParticleChannels.LifePercentOffset, s = 0, a = 0, positionOffset = 0,
-				c = i + controller.particles.size
+			update(0, controller.particles.size, TMP_V1, TMP_V2, TMP_V3, TMP_Q);
+		}
+
+		@Override
+		public void update (int startIndex, int count) {
+			update(startIndex, count, new Vector3(), new Vector3(), new Vector3(), new Quaternion());
+		}
+
+		private void update (int startIndex, int count, Vector3 tmpV1, Vector3 tmpV2, Vector3 tmpV3, Quaternion tmpQ) {
+			for (int i = startIndex * directionalVelocityChannel.strideSize,
+				l = startIndex * lifeChannel.strideSize + ParticleChannels.LifePercentOffset,
+				s = startIndex * strengthChannel.strideSize,
+				a = startIndex * angularChannel.strideSize, positionOffset = startIndex * positionChannel.strideSize, c = i + count
 					* directionalVelocityChannel.strideSize; i < c; s += strengthChannel.strideSize, i += directionalVelocityChannel.strideSize, a += angularChannel.strideSize, l += lifeChannel.strideSize, positionOffset += positionChannel.strideSize) {
 
 				float lifePercent = lifeChannel.data[l],
@@ -425,20 +485,20 @@ public abstract class DynamicsModifier extends Influencer {
 
 				float cosTheta = MathUtils.cosDeg(theta), sinTheta = MathUtils.sinDeg(theta), cosPhi = MathUtils.cosDeg(phi),
 					sinPhi = MathUtils.sinDeg(phi);
-				TMP_V3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi);
-				TMP_V1.set(positionChannel.data[positionOffset + ParticleChannels.XOffset],
+				tmpV3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi);
+				tmpV1.set(positionChannel.data[positionOffset + ParticleChannels.XOffset],
 					positionChannel.data[positionOffset + ParticleChannels.YOffset],
 					positionChannel.data[positionOffset + ParticleChannels.ZOffset]);
 				if (!isGlobal) {
-					controller.transform.getTranslation(TMP_V2);
-					TMP_V1.sub(TMP_V2);
-					controller.transform.getRotation(TMP_Q, true);
-					TMP_V3.mul(TMP_Q);
+					controller.transform.getTranslation(tmpV2);
+					tmpV1.sub(tmpV2);
+					controller.transform.getRotation(tmpQ, true);
+					tmpV3.mul(tmpQ);
 				}
-				TMP_V3.crs(TMP_V1).nor().scl(strength);
-				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += TMP_V3.x;
-				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += TMP_V3.y;
-				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += TMP_V3.z;
+				tmpV3.crs(tmpV1).nor().scl(strength);
+				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += tmpV3.x;
+				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += tmpV3.y;
+				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -496,6 +556,15 @@ public abstract class DynamicsModifier extends Influencer {
 		this.isGlobal = modifier.isGlobal;
 	}
 
+	/** @return true for the modifiers of this class, except {@link BrownianAcceleration} as its random accelerations depend on the
+	 *         order the particles are updated in. False for other subclasses as they may update the particles differently. */
+	@Override
+	public boolean canUpdateInParallel () {
+		final Class<?> type = getClass();
+		return type == FaceDirection.class || type == Rotational2D.class || type == Rotational3D.class
+			|| type == CentripetalAcceleration.class || type == PolarAcceleration.class || type == TangentialAcceleration.class;
+	}
+
 	@Override
 	public void allocateChannels () {
 		lifeChannel = controller.particles.addChannel(ParticleChannels.Life);
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.particles.influencers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/** An {@link InfluencerExecutor} updating the particles in parallel on a {@link ForkJoinPool}. The particles are split in
+ * ranges of at least {@link #minParticlesPerTask}, each updated by all the influencers of the run in order, so the channels
+ * of a range stay in the cache between influencers. As each particle is updated independently, the result is the same as
+ * updating the influencers one after the other on a single thread, whatever the number of threads.
+ * <p>
+ * One executor can be shared by the controllers of all effects, see
+ * {@link com.badlogic.gdx.graphics.g3d.particles.ParticleEffect#setExecutor(InfluencerExecutor)}. */
+public class ForkJoinInfluencerExecutor implements InfluencerExecutor, Disposable {
+	/** The smallest number of particles updated by a task, fewer particles are updated on the calling thread. */
+	public int minParticlesPerTask = 2048;
+
+	private final ForkJoinPool pool;
+	private final boolean ownsPool;
+
+	/** Creates an executor with its own {@link ForkJoinPool}, which is shut down when the executor is disposed. */
+	public ForkJoinInfluencerExecutor () {
+		this(new ForkJoinPool(), true);
+	}
+
+	/** Creates an executor which updates the particles on the specified pool. */
+	public ForkJoinInfluencerExecutor (final ForkJoinPool pool) {
+		this(pool, false);
+	}
+
+	private ForkJoinInfluencerExecutor (final ForkJoinPool pool, final boolean ownsPool) {
+		this.pool = pool;
+		this.ownsPool = ownsPool;
+	}
+
+	@Override
+	public void update (final Array<Influencer> influencers, final int start, final int end, final int count) {
+		final int perTask = Math.max(minParticlesPerTask, count / (pool.getParallelism() * 4));
+		if (count <= perTask) {
+			for (int i = start; i < end; i++)
+				influencers.get(i).update(0, count);
+		} else
+			pool.invoke(new UpdateTask(influencers, start, end, 0, count, perTask));
+	}
+
+	/** Shuts the pool down if it was created by this executor. */
+	@Override
+	public void dispose () {
+		if (ownsPool) pool.shutdown();
+	}
+
+	static class UpdateTask extends RecursiveAction {
+		private static final long serialVersionUID = 1675321431237891111L;
+
+		final Array<Influencer> influencers;
+		final int start, end, from, to, perTask;
+
+		UpdateTask (final Array<Influencer> influencers, final int start, final int end, final int from, final int to,
+			final int perTask) {
+			this.influencers = influencers;
+			this.start = start;
+			this.end = end;
+			this.from = from;
+			this.to = to;
+			this.perTask = perTask;
+		}
+
+		@Override
+		protected void compute () {
+			if (to - from <= perTask) {
+				for (int i = start; i < end; i++)
+					influencers.get(i).update(from, to - from);
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			invokeAll(new UpdateTask(influencers, start, end, from, mid, perTask),
+				new UpdateTask(influencers, start, end, mid, to, perTask));
+		}
+	}
+}
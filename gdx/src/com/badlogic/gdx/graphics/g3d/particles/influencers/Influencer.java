@@ -16,11 +16,28 @@
 
 package com.badlogic.gdx.graphics.g3d.particles.influencers;
 
+import com.badlogic.gdx.graphics.g3d.particles.ParticleController;
 import com.badlogic.gdx.graphics.g3d.particles.ParticleControllerComponent;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
 /** It's a {@link ParticleControllerComponent} which usually modifies one or more properties of the particles(i.e color, scale,
  * graphical representation, velocity, etc...).
  * @author Inferno */
 public abstract class Influencer extends ParticleControllerComponent {
 
+	/** Returns whether {@link #update(int, int)} can update disjoint ranges of the particles at the same time from different
+	 * threads, giving the same result as {@link #update()}. This requires the update of each particle to only depend on its own
+	 * channels and on values which don't change during the update. Such influencers are updated in parallel when the controller
+	 * has an {@link ParticleController#executor}. The built-in influencers only return true for their own class, so subclasses are
+	 * updated serially unless they override this method too. */
+	public boolean canUpdateInParallel () {
+		return false;
+	}
+
+	/** Updates the particles in the range, see {@link #canUpdateInParallel()}.
+	 * @param startIndex the index of the first particle to update
+	 * @param count the number of particles to update */
+	public void update (int startIndex, int count) {
+		throw new GdxRuntimeException("The influencer can't update a range of particles: " + getClass().getName());
+	}
 }
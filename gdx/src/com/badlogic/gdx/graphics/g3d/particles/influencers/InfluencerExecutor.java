@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.particles.influencers;
+
+import com.badlogic.gdx.graphics.g3d.particles.ParticleController;
+import com.badlogic.gdx.utils.Array;
+
+/** Updates a run of consecutive {@link Influencer}s of a {@link ParticleController} which
+ * {@link Influencer#canUpdateInParallel() can update in parallel}, splitting the particles in ranges that are updated at the
+ * same time, such as {@link ForkJoinInfluencerExecutor}.
+ * @see ParticleController#executor */
+public interface InfluencerExecutor {
+	/** Calls {@link Influencer#update(int, int)} of the influencers from start to end, exclusive, for ranges covering all the
+	 * particles, and returns once all of them are updated. Each range must be updated by the influencers in order.
+	 * @param count the number of particles */
+	public void update (Array<Influencer> influencers, int start, int end, int count);
+}
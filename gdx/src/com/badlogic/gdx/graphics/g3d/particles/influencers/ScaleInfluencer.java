@@ -28,6 +28,12 @@ public class ScaleInfluencer extends SimpleInfluencer {
 		valueChannelDescriptor = ParticleChannels.Scale;
 	}
 
+	/** @return true for a ScaleInfluencer, false for subclasses as they may update the particles differently. */
+	@Override
+	public boolean canUpdateInParallel () {
+		return getClass() == ScaleInfluencer.class;
+	}
+
 	@Override
 	public void activateParticles (int startIndex, int count) {
 		if (value.isRelative()) {
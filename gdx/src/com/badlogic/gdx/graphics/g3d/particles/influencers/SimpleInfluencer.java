@@ -80,8 +80,14 @@ public abstract class SimpleInfluencer extends Influencer {
 
 	@Override
 	public void update () {
-		for (int i = 0, a = 0, l = ParticleChannels.LifePercentOffset, c = i + controller.particles.size
-			* valueChannel.strideSize; i < c; i += valueChannel.strideSize, a += interpolationChannel.strideSize, l += lifeChannel.strideSize) {
+		update(0, controller.particles.size);
+	}
+
+	@Override
+	public void update (int startIndex, int count) {
+		for (int i = startIndex * valueChannel.strideSize, a = startIndex * interpolationChannel.strideSize,
+			l = startIndex * lifeChannel.strideSize + ParticleChannels.LifePercentOffset, c = i + count
+				* valueChannel.strideSize; i < c; i += valueChannel.strideSize, a += interpolationChannel.strideSize, l += lifeChannel.strideSize) {
 
 			valueChannel.data[i] = interpolationChannel.data[a + ParticleChannels.InterpolationStartOffset]
 				+ interpolationChannel.data[a + ParticleChannels.InterpolationDiffOffset] * value.getScale(lifeChannel.data[l]);
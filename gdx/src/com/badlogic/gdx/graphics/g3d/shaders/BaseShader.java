@@ -266,6 +266,11 @@ public abstract class BaseShader implements Shader {
 			currentMesh.bind(program, getAttributeLocations(renderable.meshPart.mesh.getVertexAttributes()),
 				getInstancedAttributeLocations(renderable.meshPart.mesh.getInstancedAttributes()));
 		}
+		draw(renderable);
+	}
+
+	/** Issues the draw call for the mesh part of the renderable. The uniforms are set and the mesh is bound when this is called. */
+	protected void draw (Renderable renderable) {
 		renderable.meshPart.render(program, false);
 	}
 
@@ -19,6 +19,7 @@ package com.badlogic.gdx.graphics.g3d.shaders;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.VertexAttribute;
 import com.badlogic.gdx.graphics.VertexAttributes.Usage;
 import com.badlogic.gdx.graphics.g3d.Attribute;
@@ -27,6 +28,8 @@ import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.CascadedShadowMapAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ClusteredLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.CubemapAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.DepthTestAttribute;
@@ -37,13 +40,18 @@ import com.badlogic.gdx.graphics.g3d.attributes.PointLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.SpotLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.AmbientCubemap;
+import com.badlogic.gdx.graphics.g3d.environment.CascadedShadowLight;
+import com.badlogic.gdx.graphics.g3d.environment.ClusteredLights;
 import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
 import com.badlogic.gdx.graphics.g3d.environment.PointLight;
 import com.badlogic.gdx.graphics.g3d.environment.SpotLight;
+import com.badlogic.gdx.graphics.g3d.utils.BoneTexture;
 import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.g3d.utils.TextureDescriptor;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Matrix3;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Plane;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
@@ -64,6 +72,10 @@ public class DefaultShader extends BaseShader {
 		public int numBones = 12;
 		/** The number of bone weights to use (up to 8 with default vertex shader), default is 4. */
 		public int numBoneWeights = 4;
+		/** Whether skinned renderables read their bones from a {@link BoneTexture} instead of an uniform array, which removes the
+		 * {@link #numBones} limit. The bones of the skinned renderables rendered in a row are packed and uploaded at once. Requires
+		 * OpenGL ES 3.0, the uniform array is used otherwise. */
+		public boolean boneTexture = false;
 		/** */
 		public boolean ignoreUnimplemented = true;
 		/** Set to 0 to disable culling, -1 to inherit from {@link DefaultShader#defaultCullFace} */
@@ -94,6 +106,9 @@ public class DefaultShader extends BaseShader {
 		public final static Uniform projViewWorldTrans = new Uniform("u_projViewWorldTrans");
 		public final static Uniform normalMatrix = new Uniform("u_normalMatrix");
 		public final static Uniform bones = new Uniform("u_bones");
+		public final static Uniform boneTexture = new Uniform("u_boneTexture");
+		public final static Uniform boneTextureSize = new Uniform("u_boneTextureSize");
+		public final static Uniform boneOffset = new Uniform("u_boneOffset");
 
 		public final static Uniform shininess = new Uniform("u_shininess", FloatAttribute.Shininess);
 		public final static Uniform opacity = new Uniform("u_opacity", BlendingAttribute.Type);
@@ -429,6 +444,9 @@ public class DefaultShader extends BaseShader {
 	public final int u_projViewWorldTrans;
 	public final int u_normalMatrix;
 	public final int u_bones;
+	public final int u_boneTexture;
+	public final int u_boneTextureSize;
+	public final int u_boneOffset;
 	// Material uniforms
 	public final int u_shininess;
 	public final int u_opacity;
@@ -470,6 +488,18 @@ public class DefaultShader extends BaseShader {
 	protected final int u_shadowMapProjViewTrans = register(new Uniform("u_shadowMapProjViewTrans"));
 	protected final int u_shadowTexture = register(new Uniform("u_shadowTexture"));
 	protected final int u_shadowPCFOffset = register(new Uniform("u_shadowPCFOffset"));
+	protected final int u_csmProjViewTrans = register(new Uniform("u_csmProjViewTrans"));
+	protected final int u_csmSplits = register(new Uniform("u_csmSplits"));
+	protected final int u_csmDepthPlane = register(new Uniform("u_csmDepthPlane"));
+	protected final int u_csmStaticTexture = register(new Uniform("u_csmStaticTexture"));
+	protected final int u_csmDynamicTexture = register(new Uniform("u_csmDynamicTexture"));
+	protected final int u_csmPCFOffset = register(new Uniform("u_csmPCFOffset"));
+	protected final int u_clusterTexture = register(new Uniform("u_clusterTexture"));
+	protected final int u_clusterTextureSize = register(new Uniform("u_clusterTextureSize"));
+	protected final int u_clusterScale = register(new Uniform("u_clusterScale"));
+	protected final int u_clusterSize = register(new Uniform("u_clusterSize"));
+	protected final int u_clusterOffsets = register(new Uniform("u_clusterOffsets"));
+	protected final int u_clusterDepthPlane = register(new Uniform("u_clusterDepthPlane"));
 	// FIXME Cache vertex attribute locations...
 
 	protected int dirLightsLoc;
@@ -493,10 +523,19 @@ public class DefaultShader extends BaseShader {
 	protected final boolean lighting;
 	protected final boolean environmentCubemap;
 	protected final boolean shadowMap;
+	/** The number of cascades of the {@link CascadedShadowMapAttribute}, 0 if there is none. */
+	protected final int numCascades;
+	/** The maximum number of lights per cluster of the {@link ClusteredLightsAttribute}, 0 if there is none or the renderable
+	 * has no normals. The point and spot light uniforms aren't used if it is set. */
+	protected final int maxClusterLights;
 	protected final AmbientCubemap ambientCubemap = new AmbientCubemap();
 	protected final DirectionalLight directionalLights[];
 	protected final PointLight pointLights[];
 	protected final SpotLight spotLights[];
+	/** The texture holding the bones of skinned renderables, null if the bones are set as an uniform array. */
+	protected final BoneTexture boneTexture;
+	private final Array<Renderable> skinnedRenderables;
+	private int skinnedCount;
 
 	/** The renderable used to create this shader, invalid after the call to init */
 	private Renderable renderable;
@@ -535,6 +574,10 @@ public class DefaultShader extends BaseShader {
 		this.environmentCubemap = attributes.has(CubemapAttribute.EnvironmentMap)
 			|| (lighting && attributes.has(CubemapAttribute.EnvironmentMap));
 		this.shadowMap = lighting && renderable.environment.shadowMap != null;
+		this.numCascades = getNumCascades(renderable);
+		this.maxClusterLights = getMaxClusterLights(renderable);
+		this.boneTexture = useBoneTexture(renderable, config) ? new BoneTexture() : null;
+		this.skinnedRenderables = boneTexture != null ? new Array<Renderable>() : null;
 		this.renderable = renderable;
 		attributesMask = attributes.getMask() | optionalAttributes;
 		vertexMask = renderable.meshPart.mesh.getVertexAttributes().getMaskWithSizePacked();
@@ -544,17 +587,18 @@ public class DefaultShader extends BaseShader {
 			: 0];
 		for (int i = 0; i < directionalLights.length; i++)
 			directionalLights[i] = new DirectionalLight();
-		this.pointLights = new PointLight[lighting && config.numPointLights > 0 ? config.numPointLights : 0];
+		this.pointLights = new PointLight[lighting && maxClusterLights == 0 && config.numPointLights > 0 ? config.numPointLights
+			: 0];
 		for (int i = 0; i < pointLights.length; i++)
 			pointLights[i] = new PointLight();
-		this.spotLights = new SpotLight[lighting && config.numSpotLights > 0 ? config.numSpotLights : 0];
+		this.spotLights = new SpotLight[lighting && maxClusterLights == 0 && config.numSpotLights > 0 ? config.numSpotLights : 0];
 		for (int i = 0; i < spotLights.length; i++)
 			spotLights[i] = new SpotLight();
 
 		if (!config.ignoreUnimplemented && (implementedFlags & attributesMask) != attributesMask)
 			throw new GdxRuntimeException("Some attributes not implemented yet (" + attributesMask + ")");
 
-		if (renderable.bones != null && renderable.bones.length > config.numBones) {
+		if (boneTexture == null && renderable.bones != null && renderable.bones.length > config.numBones) {
 			throw new GdxRuntimeException("too many bones: " + renderable.bones.length + ", max configured: " + config.numBones);
 		}
 
@@ -580,8 +624,12 @@ public class DefaultShader extends BaseShader {
 		u_viewWorldTrans = register(Inputs.viewWorldTrans, Setters.viewWorldTrans);
 		u_projViewWorldTrans = register(Inputs.projViewWorldTrans, Setters.projViewWorldTrans);
 		u_normalMatrix = register(Inputs.normalMatrix, Setters.normalMatrix);
-		u_bones = (renderable.bones != null && config.numBones > 0) ? register(Inputs.bones, new Setters.Bones(config.numBones))
+		u_bones = (boneTexture == null && renderable.bones != null && config.numBones > 0)
+			? register(Inputs.bones, new Setters.Bones(config.numBones))
 			: -1;
+		u_boneTexture = boneTexture != null ? register(Inputs.boneTexture) : -1;
+		u_boneTextureSize = boneTexture != null ? register(Inputs.boneTextureSize) : -1;
+		u_boneOffset = boneTexture != null ? register(Inputs.boneOffset) : -1;
 
 		u_shininess = register(Inputs.shininess, Setters.shininess);
 		u_opacity = register(Inputs.opacity);
@@ -603,8 +651,10 @@ public class DefaultShader extends BaseShader {
 		u_ambientUVTransform = register(Inputs.ambientUVTransform, Setters.ambientUVTransform);
 		u_alphaTest = register(Inputs.alphaTest);
 
+		// Clustered point lights are all shaded per fragment, none of them is added to the ambient cubemap
 		u_ambientCubemap = lighting
-			? register(Inputs.ambientCube, new Setters.ACubemap(config.numDirectionalLights, config.numPointLights))
+			? register(Inputs.ambientCube, new Setters.ACubemap(config.numDirectionalLights,
+				maxClusterLights > 0 ? Integer.MAX_VALUE : config.numPointLights))
 			: -1;
 		u_environmentCubemap = environmentCubemap ? register(Inputs.environmentCubemap, Setters.environmentCubemap) : -1;
 	}
@@ -671,6 +721,29 @@ public class DefaultShader extends BaseShader {
 		return mask;
 	}
 
+	/** @return The number of cascades of the {@link CascadedShadowMapAttribute} of the environment, 0 if there is none. */
+	private static int getNumCascades (final Renderable renderable) {
+		if (renderable.environment == null) return 0;
+		final CascadedShadowMapAttribute attribute = renderable.environment.get(CascadedShadowMapAttribute.class,
+			CascadedShadowMapAttribute.Type);
+		return attribute == null || attribute.light == null ? 0 : attribute.light.getNumCascades();
+	}
+
+	/** @return The maximum number of lights per cluster of the {@link ClusteredLightsAttribute} of the environment, 0 if there is
+	 *         none or the renderable has no normals. */
+	private static int getMaxClusterLights (final Renderable renderable) {
+		if (renderable.environment == null) return 0;
+		if ((renderable.meshPart.mesh.getVertexAttributes().getMask() & Usage.Normal) == 0) return 0;
+		final ClusteredLightsAttribute attribute = renderable.environment.get(ClusteredLightsAttribute.class,
+			ClusteredLightsAttribute.Type);
+		return attribute == null || attribute.lights == null ? 0 : attribute.lights.maxLightsPerCluster;
+	}
+
+	/** @return Whether a shader for the renderable reads the bones from a {@link BoneTexture}. */
+	public static boolean useBoneTexture (final Renderable renderable, final Config config) {
+		return config.boneTexture && renderable.bones != null && Gdx.gl30 != null;
+	}
+
 	public static String createPrefix (final Renderable renderable, final Config config) {
 		final Attributes attributes = combineAttributes(renderable);
 		String prefix = "";
@@ -686,12 +759,21 @@ public class DefaultShader extends BaseShader {
 				prefix += "#define lightingFlag\n";
 				prefix += "#define ambientCubemapFlag\n";
 				prefix += "#define numDirectionalLights " + config.numDirectionalLights + "\n";
-				prefix += "#define numPointLights " + config.numPointLights + "\n";
-				prefix += "#define numSpotLights " + config.numSpotLights + "\n";
+				final int maxClusterLights = getMaxClusterLights(renderable);
+				prefix += "#define numPointLights " + (maxClusterLights > 0 ? 0 : config.numPointLights) + "\n";
+				prefix += "#define numSpotLights " + (maxClusterLights > 0 ? 0 : config.numSpotLights) + "\n";
+				if (maxClusterLights > 0) {
+					prefix += "#define clusteredLightsFlag\n";
+					prefix += "#define maxClusterLights " + maxClusterLights + "\n";
+				}
 				if (attributes.has(ColorAttribute.Fog)) {
 					prefix += "#define fogFlag\n";
 				}
-				if (renderable.environment.shadowMap != null) prefix += "#define shadowMapFlag\n";
+				final int numCascades = getNumCascades(renderable);
+				if (numCascades > 0) {
+					prefix += "#define cascadedShadowMapFlag\n";
+					prefix += "#define numCascades " + numCascades + "\n";
+				} else if (renderable.environment.shadowMap != null) prefix += "#define shadowMapFlag\n";
 				if (attributes.has(CubemapAttribute.EnvironmentMap)) prefix += "#define environmentCubemapFlag\n";
 			}
 		}
@@ -743,17 +825,21 @@ public class DefaultShader extends BaseShader {
 			prefix += "#define " + FloatAttribute.ShininessAlias + "Flag\n";
 		if ((attributesMask & FloatAttribute.AlphaTest) == FloatAttribute.AlphaTest)
 			prefix += "#define " + FloatAttribute.AlphaTestAlias + "Flag\n";
-		if (renderable.bones != null && config.numBones > 0) prefix += "#define numBones " + config.numBones + "\n";
+		if (useBoneTexture(renderable, config))
+			prefix += "#define boneTextureFlag\n";
+		else if (renderable.bones != null && config.numBones > 0) prefix += "#define numBones " + config.numBones + "\n";
 		return prefix;
 	}
 
 	@Override
 	public boolean canRender (final Renderable renderable) {
 		if (renderable.bones != null) {
-			if (renderable.bones.length > config.numBones) return false;
+			if (boneTexture == null && renderable.bones.length > config.numBones) return false;
 			if (renderable.meshPart.mesh.getVertexAttributes().getBoneWeights() > config.numBoneWeights) return false;
 		}
 		if (renderable.meshPart.mesh.getVertexAttributes().getTextureCoordinates() != textureCoordinates) return false;
+		if (getNumCascades(renderable) != numCascades) return false;
+		if (getMaxClusterLights(renderable) != maxClusterLights) return false;
 		final long renderableMask = combineAttributeMasks(renderable);
 		return (attributesMask == (renderableMask | optionalAttributes))
 			&& (vertexMask == renderable.meshPart.mesh.getVertexAttributes().getMaskWithSizePacked())
@@ -779,6 +865,8 @@ public class DefaultShader extends BaseShader {
 	private final Matrix3 normalMatrix = new Matrix3();
 	private float time;
 	private boolean lightsSet;
+	private CascadedShadowLight cascadesSet;
+	private ClusteredLights clustersSet;
 
 	@Override
 	public void begin (final Camera camera, final RenderContext context) {
@@ -791,6 +879,8 @@ public class DefaultShader extends BaseShader {
 		for (final SpotLight spotLight : spotLights)
 			spotLight.set(0, 0, 0, 0, 0, 0, 0, -1, 0, 0, 1, 0);
 		lightsSet = false;
+		cascadesSet = null;
+		clustersSet = null;
 
 		if (has(u_time)) set(u_time, time += Gdx.graphics.getDeltaTime());
 
@@ -804,17 +894,51 @@ public class DefaultShader extends BaseShader {
 		}
 	}
 
+	@Override
+	public void render (Renderable renderable) {
+		if (boneTexture == null || renderable.bones == null) {
+			super.render(renderable);
+			return;
+		}
+		// Defer skinned renderables until the end, so the bones of all of them are uploaded at once.
+		if (skinnedCount == skinnedRenderables.size) skinnedRenderables.add(new Renderable());
+		skinnedRenderables.get(skinnedCount++).set(renderable);
+		boneTexture.add(renderable.bones);
+	}
+
 	@Override
 	public void render (Renderable renderable, Attributes combinedAttributes) {
 		if (!combinedAttributes.has(BlendingAttribute.Type))
 			context.setBlending(false, GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 		bindMaterial(combinedAttributes);
 		if (lighting) bindLights(renderable, combinedAttributes);
+		if (boneTexture != null && renderable.bones != null) bindBones(renderable);
 		super.render(renderable, combinedAttributes);
 	}
 
+	protected void bindBones (final Renderable renderable) {
+		set(u_boneOffset, (float)boneTexture.add(renderable.bones));
+		if (has(u_boneTexture)) program.setUniformi(loc(u_boneTexture), boneTexture.bind(context.textureBinder));
+		set(u_boneTextureSize, boneTexture.getWidth(), boneTexture.getHeight(), 1f / boneTexture.getWidth(),
+			1f / boneTexture.getHeight());
+	}
+
 	@Override
 	public void end () {
+		if (skinnedCount > 0) {
+			for (int i = 0; i < skinnedCount; i++) {
+				final Renderable renderable = skinnedRenderables.get(i);
+				super.render(renderable);
+				renderable.material = null;
+				renderable.environment = null;
+				renderable.bones = null;
+				renderable.meshPart.mesh = null;
+				renderable.shader = null;
+				renderable.userData = null;
+			}
+			skinnedCount = 0;
+		}
+		if (boneTexture != null) boneTexture.clear();
 		super.end();
 	}
 
@@ -931,12 +1055,48 @@ public class DefaultShader extends BaseShader {
 			set(u_shadowPCFOffset, 1.f / (2f * lights.shadowMap.getDepthMap().texture.getWidth()));
 		}
 
+		if (numCascades > 0 && has(u_csmProjViewTrans)) bindCascades(lights);
+		if (maxClusterLights > 0 && has(u_clusterTexture)) bindClusters(lights);
+
 		lightsSet = true;
 	}
 
+	protected void bindCascades (final Environment environment) {
+		final CascadedShadowLight light = environment.get(CascadedShadowMapAttribute.class,
+			CascadedShadowMapAttribute.Type).light;
+		if (cascadesSet != light) {
+			program.setUniformMatrix4fv(loc(u_csmProjViewTrans), light.getProjViewTrans(), 0, numCascades * 16);
+			program.setUniform1fv(loc(u_csmSplits), light.getSplits(), 0, numCascades);
+			final Plane plane = light.getDepthPlane();
+			set(u_csmDepthPlane, plane.normal.x, plane.normal.y, plane.normal.z, plane.d);
+			cascadesSet = light;
+		}
+		final TextureDescriptor<Texture> staticDepthMap = light.getStaticDepthMap();
+		set(u_csmStaticTexture, staticDepthMap);
+		set(u_csmDynamicTexture, light.getDynamicDepthMap());
+		set(u_csmPCFOffset, 0.5f / staticDepthMap.texture.getWidth(), 0.5f / staticDepthMap.texture.getHeight());
+	}
+
+	protected void bindClusters (final Environment environment) {
+		final ClusteredLights clusters = environment.get(ClusteredLightsAttribute.class, ClusteredLightsAttribute.Type).lights;
+		program.setUniformi(loc(u_clusterTexture), clusters.bind(context.textureBinder));
+		if (clustersSet != clusters) {
+			set(u_clusterTextureSize, (float)clusters.getWidth(), (float)clusters.getHeight(), 1f / clusters.getWidth(),
+				1f / clusters.getHeight());
+			set(u_clusterScale, clusters.tilesX / (float)clusters.getViewportWidth(),
+				clusters.tilesY / (float)clusters.getViewportHeight(), clusters.getSliceScale(), clusters.getSliceBias());
+			set(u_clusterSize, (float)clusters.tilesX, (float)clusters.tilesY, (float)clusters.slices);
+			set(u_clusterOffsets, (float)clusters.getLightOffset(), (float)clusters.getIndexOffset());
+			final Plane plane = clusters.getDepthPlane();
+			set(u_clusterDepthPlane, plane.normal.x, plane.normal.y, plane.normal.z, plane.d);
+			clustersSet = clusters;
+		}
+	}
+
 	@Override
 	public void dispose () {
 		program.dispose();
+		if (boneTexture != null) boneTexture.dispose();
 		super.dispose();
 	}
 
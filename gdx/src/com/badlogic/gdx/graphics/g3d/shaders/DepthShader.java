@@ -90,7 +90,7 @@ public class DepthShader extends DefaultShader {
 		super(renderable, config, shaderProgram);
 		final Attributes attributes = combineAttributes(renderable);
 
-		if (renderable.bones != null && renderable.bones.length > config.numBones) {
+		if (boneTexture == null && renderable.bones != null && renderable.bones.length > config.numBones) {
 			throw new GdxRuntimeException("too many bones: " + renderable.bones.length + ", max configured: " + config.numBones);
 		}
 
@@ -118,7 +118,7 @@ public class DepthShader extends DefaultShader {
 	@Override
 	public boolean canRender (Renderable renderable) {
 		if (renderable.bones != null) {
-			if (renderable.bones.length > config.numBones) return false;
+			if (boneTexture == null && renderable.bones.length > config.numBones) return false;
 			if (renderable.meshPart.mesh.getVertexAttributes().getBoneWeights() > config.numBoneWeights) return false;
 		}
 		final Attributes attributes = combineAttributes(renderable);
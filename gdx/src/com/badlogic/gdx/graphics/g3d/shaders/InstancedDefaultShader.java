@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.shaders;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Attributes;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.glutils.InstanceBufferObject;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** A {@link DefaultShader} that draws consecutive renderables sharing the same mesh part, material and environment with a single
+ * instanced draw call. It requires OpenGL ES 3.0.
+ * <p>
+ * Instead of setting the world transform uniform for each renderable, the shader collects the world transforms of a run of
+ * renderables with the same mesh part and equal materials and environments in an {@link InstanceBufferObject}, and draws the run
+ * with glDrawElementsInstanced or glDrawArraysInstanced once it ends, when the shader ends or when {@link Config#maxInstances} is
+ * reached. Runs only form when the renderables are sorted so that instances of the same mesh follow each other, which
+ * {@link com.badlogic.gdx.graphics.g3d.utils.RadixRenderableSorter} does for opaque renderables.
+ * <p>
+ * If {@link Config#instanceColors} is set, each instance is also tinted by the {@link Color} found in
+ * {@link Renderable#userData}, which is copied from {@link com.badlogic.gdx.graphics.g3d.ModelInstance#userData}, or white if
+ * there is none. Skinned renderables and meshes that have instanced rendering enabled can't be rendered by this shader. The
+ * normals are transformed by the world transform itself, so non-uniform scaling should be avoided. */
+public class InstancedDefaultShader extends DefaultShader {
+	public static class Config extends DefaultShader.Config {
+		/** The maximum number of instances drawn with a single draw call. */
+		public int maxInstances = 1024;
+		/** Whether each instance is tinted by the {@link Color} in {@link Renderable#userData}. */
+		public boolean instanceColors = false;
+
+		public Config () {
+			super();
+		}
+
+		public Config (final String vertexShader, final String fragmentShader) {
+			super(vertexShader, fragmentShader);
+		}
+	}
+
+	public final static String worldTransAttribute = "i_worldTrans";
+	public final static String colorAttribute = "i_color";
+
+	private final boolean instanceColors;
+	private final int maxInstances;
+	private final int stride;
+	private final float[] data;
+	private final InstanceBufferObject instances;
+	private final int[] instanceLocations;
+	private final Renderable batch = new Renderable();
+	private final Attributes batchAttributes = new Attributes();
+	private int count;
+
+	public InstancedDefaultShader (final Renderable renderable) {
+		this(renderable, new Config());
+	}
+
+	public InstancedDefaultShader (final Renderable renderable, final Config config) {
+		this(renderable, config, createPrefix(renderable, config));
+	}
+
+	public InstancedDefaultShader (final Renderable renderable, final Config config, final String prefix) {
+		this(renderable, config, prefix, config.vertexShader != null ? config.vertexShader : getDefaultVertexShader(),
+			config.fragmentShader != null ? config.fragmentShader : getDefaultFragmentShader());
+	}
+
+	public InstancedDefaultShader (final Renderable renderable, final Config config, final String prefix,
+		final String vertexShader, final String fragmentShader) {
+		this(renderable, config, new ShaderProgram(prefix + vertexShader, prefix + fragmentShader));
+	}
+
+	public InstancedDefaultShader (final Renderable renderable, final Config config, final ShaderProgram shaderProgram) {
+		super(renderable, config, shaderProgram);
+		if (Gdx.gl30 == null) throw new GdxRuntimeException("InstancedDefaultShader requires OpenGL ES 3.0");
+		if (renderable.bones != null) throw new GdxRuntimeException("InstancedDefaultShader can't render skinned meshes");
+		if (config.maxInstances < 1) throw new GdxRuntimeException("maxInstances must be > 0: " + config.maxInstances);
+		this.instanceColors = config.instanceColors;
+		this.maxInstances = config.maxInstances;
+		final VertexAttributes attributes = createInstanceAttributes(instanceColors);
+		this.stride = attributes.vertexSize / 4;
+		this.data = new float[maxInstances * stride];
+		this.instances = new InstanceBufferObject(false, maxInstances, attributes);
+		this.instanceLocations = new int[attributes.size()];
+	}
+
+	/** @return The per instance attributes: the four columns of the world transform and optionally the color. */
+	public static VertexAttributes createInstanceAttributes (final boolean instanceColors) {
+		final VertexAttribute[] attributes = new VertexAttribute[instanceColors ? 5 : 4];
+		for (int i = 0; i < 4; i++)
+			attributes[i] = new VertexAttribute(Usage.Generic, 4, worldTransAttribute, i);
+		if (instanceColors) attributes[4] = new VertexAttribute(Usage.ColorUnpacked, 4, colorAttribute);
+		return new VertexAttributes(attributes);
+	}
+
+	public static String createPrefix (final Renderable renderable, final Config config) {
+		String prefix = DefaultShader.createPrefix(renderable, config);
+		prefix += "#define instancedFlag\n";
+		if (config.instanceColors) prefix += "#define instanceColorFlag\n";
+		return prefix;
+	}
+
+	@Override
+	public void init () {
+		super.init();
+		for (int i = 0; i < 4; i++)
+			instanceLocations[i] = program.getAttributeLocation(worldTransAttribute);
+		if (instanceColors) instanceLocations[4] = program.getAttributeLocation(colorAttribute);
+	}
+
+	@Override
+	public boolean canRender (final Renderable renderable) {
+		return renderable.bones == null && !renderable.meshPart.mesh.isInstanced() && super.canRender(renderable);
+	}
+
+	@Override
+	public void render (final Renderable renderable) {
+		if (renderable.worldTransform.det3x3() == 0) return;
+		if (count > 0 && !canBatch(renderable)) flush();
+		if (count == 0) batch.set(renderable);
+
+		final float[] data = this.data;
+		final int offset = count * stride;
+		System.arraycopy(renderable.worldTransform.val, 0, data, offset, 16);
+		if (instanceColors) {
+			final Color color = renderable.userData instanceof Color ? (Color)renderable.userData : Color.WHITE;
+			data[offset + 16] = color.r;
+			data[offset + 17] = color.g;
+			data[offset + 18] = color.b;
+			data[offset + 19] = color.a;
+		}
+		if (++count == maxInstances) flush();
+	}
+
+	/** @return Whether the renderable can be drawn with the same draw call as the pending instances. */
+	protected boolean canBatch (final Renderable renderable) {
+		return batch.meshPart.equals(renderable.meshPart)
+			&& (batch.material == renderable.material || (batch.material != null && batch.material.equals(renderable.material)))
+			&& (batch.environment == renderable.environment
+				|| (batch.environment != null && batch.environment.equals(renderable.environment)));
+	}
+
+	/** Draws the pending instances, if any. */
+	public void flush () {
+		if (count == 0) return;
+		batchAttributes.clear();
+		if (batch.environment != null) batchAttributes.set(batch.environment);
+		if (batch.material != null) batchAttributes.set(batch.material);
+		render(batch, batchAttributes);
+		count = 0;
+		batch.material = null;
+		batch.environment = null;
+		batch.userData = null;
+	}
+
+	@Override
+	protected void draw (final Renderable renderable) {
+		instances.setInstanceData(data, 0, count * stride);
+		instances.bind(program, instanceLocations);
+		final MeshPart meshPart = renderable.meshPart;
+		final Mesh mesh = meshPart.mesh;
+		if (mesh.getNumIndices() > 0)
+			Gdx.gl30.glDrawElementsInstanced(meshPart.primitiveType, meshPart.size, GL20.GL_UNSIGNED_SHORT, meshPart.offset * 2,
+				count);
+		else
+			Gdx.gl30.glDrawArraysInstanced(meshPart.primitiveType, meshPart.offset, meshPart.size, count);
+		// The divisors are stored in the vertex array object of the mesh, reset them for shaders that draw the mesh normally
+		final VertexAttributes attributes = instances.getAttributes();
+		for (int i = 0; i < instanceLocations.length; i++)
+			if (instanceLocations[i] >= 0) Gdx.gl30.glVertexAttribDivisor(instanceLocations[i] + attributes.get(i).unit, 0);
+		instances.unbind(program, instanceLocations);
+	}
+
+	@Override
+	public void end () {
+		flush();
+		super.end();
+	}
+
+	@Override
+	public void dispose () {
+		instances.dispose();
+		super.dispose();
+	}
+}
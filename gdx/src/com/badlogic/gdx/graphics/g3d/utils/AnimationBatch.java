@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.Animation;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodeAnimation;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/** Updates many {@link AnimationController}s at once, evaluating their animations and the node and bone transforms of their
+ * {@link ModelInstance}s in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * {@link #update(float)} first updates the state of each controller on the calling thread, so
+ * {@link AnimationController.AnimationListener}s are still called on that thread, but records the animations to apply instead of
+ * applying them. The keyframes of the recorded animations are then sampled into a flat float array per instance, the nodes are
+ * visited in a precomputed parent first order instead of recursively, and the bones are updated, without the map and the pooled
+ * transforms {@link BaseAnimationController} uses to blend animations.
+ * <p>
+ * The result is the same as calling {@link AnimationController#update(float)} on each controller. The controllers can still be
+ * used directly, for example to start animations, but should not be updated elsewhere. The nodes of an instance are collected
+ * when its controller is added, add it again if the node hierarchy or the animations of the instance change. Not supported on
+ * GWT. */
+public class AnimationBatch implements Disposable {
+	/** The values sampled per node: translation, rotation and scale. */
+	private final static int STRIDE = 10;
+
+	private final ForkJoinPool pool;
+	private final boolean ownsPool;
+	private final Array<Rig> rigs = new Array<Rig>();
+	private final ObjectMap<AnimationController, Rig> rigsByController = new ObjectMap<AnimationController, Rig>();
+	/** The minimum number of instances evaluated by one task. */
+	public int minInstancesPerTask = 4;
+
+	/** Creates an AnimationBatch with its own {@link ForkJoinPool}, which is shut down when the batch is disposed. */
+	public AnimationBatch () {
+		this(new ForkJoinPool(), true);
+	}
+
+	/** Creates an AnimationBatch which evaluates the animations on the specified pool. */
+	public AnimationBatch (final ForkJoinPool pool) {
+		this(pool, false);
+	}
+
+	private AnimationBatch (final ForkJoinPool pool, final boolean ownsPool) {
+		this.pool = pool;
+		this.ownsPool = ownsPool;
+	}
+
+	/** Adds the controller to the batch, or collects the nodes of its instance again if it was added before. */
+	public void add (final AnimationController controller) {
+		final Rig rig = new Rig(controller);
+		final Rig old = rigsByController.put(controller, rig);
+		if (old != null)
+			rigs.set(rigs.indexOf(old, true), rig);
+		else
+			rigs.add(rig);
+	}
+
+	/** @return Whether the controller was part of the batch. */
+	public boolean remove (final AnimationController controller) {
+		final Rig rig = rigsByController.remove(controller);
+		if (rig == null) return false;
+		rigs.removeValue(rig, true);
+		return true;
+	}
+
+	public void clear () {
+		rigs.clear();
+		rigsByController.clear();
+	}
+
+	/** @return The number of controllers in the batch. */
+	public int size () {
+		return rigs.size;
+	}
+
+	/** Updates all controllers and their instances.
+	 * @param delta The time elapsed since last update, see {@link AnimationController#update(float)}. */
+	public void update (final float delta) {
+		final Object[] items = rigs.items;
+		final int n = rigs.size;
+		for (int i = 0; i < n; i++) {
+			final AnimationController controller = ((Rig)items[i]).controller;
+			controller.deferred = true;
+			try {
+				controller.update(delta);
+			} finally {
+				controller.deferred = false;
+			}
+		}
+		if (n == 0) return;
+		final int perTask = Math.max(minInstancesPerTask, n / (pool.getParallelism() * 4));
+		if (n <= perTask)
+			evaluate(items, 0, n);
+		else
+			pool.invoke(new EvaluateTask(items, 0, n, perTask));
+	}
+
+	static void evaluate (final Object[] rigs, final int from, final int to) {
+		final Quaternion tmpQ1 = new Quaternion(), tmpQ2 = new Quaternion();
+		for (int i = from; i < to; i++)
+			((Rig)rigs[i]).evaluate(tmpQ1, tmpQ2);
+	}
+
+	@Override
+	public void dispose () {
+		clear();
+		if (ownsPool) pool.shutdown();
+	}
+
+	static class EvaluateTask extends RecursiveAction {
+		private static final long serialVersionUID = 7469637966549045278L;
+
+		final Object[] rigs;
+		final int from, to, perTask;
+
+		EvaluateTask (final Object[] rigs, final int from, final int to, final int perTask) {
+			this.rigs = rigs;
+			this.from = from;
+			this.to = to;
+			this.perTask = perTask;
+		}
+
+		@Override
+		protected void compute () {
+			if (to - from <= perTask) {
+				evaluate(rigs, from, to);
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			invokeAll(new EvaluateTask(rigs, from, mid, perTask), new EvaluateTask(rigs, mid, to, perTask));
+		}
+	}
+
+	/** The nodes of an instance in parent first order, with the buffers to sample its animations into. */
+	static class Rig {
+		final AnimationController controller;
+		final Node[] nodes;
+		final int[] parents;
+		final NodePart[] skinnedParts;
+		final ObjectMap<Animation, int[]> tracks = new ObjectMap<Animation, int[]>();
+		final float[] pose;
+		/** Per node, 0 if not sampled, 1 if sampled from the first animation and 2 if from the second one. */
+		final byte[] sampled;
+		final float[] sample = new float[STRIDE];
+
+		Rig (final AnimationController controller) {
+			this.controller = controller;
+			final ModelInstance instance = controller.target;
+			final Array<Node> nodes = new Array<Node>(Node[]::new);
+			final ObjectIntMap<Node> indices = new ObjectIntMap<Node>();
+			final Array<NodePart> skinnedParts = new Array<NodePart>(NodePart[]::new);
+			for (Node root : instance.nodes)
+				collect(root, nodes, indices, skinnedParts);
+			this.nodes = nodes.toArray();
+			this.parents = new int[this.nodes.length];
+			for (int i = 0; i < this.nodes.length; i++) {
+				final Node node = this.nodes[i];
+				parents[i] = node.inheritTransform && node.hasParent() ? indices.get(node.getParent(), -1) : -1;
+			}
+			this.skinnedParts = skinnedParts.toArray();
+			this.pose = new float[this.nodes.length * STRIDE];
+			this.sampled = new byte[this.nodes.length];
+			for (Animation animation : instance.animations) {
+				final int[] track = new int[animation.nodeAnimations.size];
+				for (int i = 0; i < track.length; i++) {
+					track[i] = indices.get(animation.nodeAnimations.get(i).node, -1);
+					if (track[i] < 0)
+						throw new GdxRuntimeException("Animation " + animation.id + " animates a node of another instance");
+				}
+				tracks.put(animation, track);
+			}
+		}
+
+		private static void collect (final Node node, final Array<Node> nodes, final ObjectIntMap<Node> indices,
+			final Array<NodePart> skinnedParts) {
+			indices.put(node, nodes.size);
+			nodes.add(node);
+			for (NodePart part : node.parts)
+				if (part.invBoneBindTransforms != null && part.bones != null
+					&& part.invBoneBindTransforms.size == part.bones.length) skinnedParts.add(part);
+			for (Node child : node.getChildren())
+				collect(child, nodes, indices, skinnedParts);
+		}
+
+		void evaluate (final Quaternion tmpQ1, final Quaternion tmpQ2) {
+			final AnimationController controller = this.controller;
+			if (!controller.deferredTransforms) return;
+			final Animation animation1 = controller.deferredAnimation1, animation2 = controller.deferredAnimation2;
+			if (animation1 != null) {
+				final Node[] nodes = this.nodes;
+				final float[] pose = this.pose;
+				final byte[] sampled = this.sampled;
+				final int[] track1 = track(animation1), cursors1 = controller.getCursors(animation1);
+				final Array<NodeAnimation> nodeAnimations1 = animation1.nodeAnimations;
+				for (int i = 0; i < track1.length; i++) {
+					nodeAnimations1.get(i).getTransform(controller.deferredTime1, pose, track1[i] * STRIDE, cursors1, i * 3);
+					sampled[track1[i]] = 1;
+				}
+				if (animation2 != null) {
+					final float weight = controller.deferredWeight;
+					final int[] track2 = track(animation2), cursors2 = controller.getCursors(animation2);
+					final Array<NodeAnimation> nodeAnimations2 = animation2.nodeAnimations;
+					for (int i = 0; i < track2.length; i++) {
+						final int index = track2[i];
+						nodeAnimations2.get(i).getTransform(controller.deferredTime2, sample, 0, cursors2, i * 3);
+						if (sampled[index] == 0) rest(nodes[index], pose, index * STRIDE);
+						blend(pose, index * STRIDE, sample, 0, weight, tmpQ1, tmpQ2);
+						sampled[index] = 2;
+					}
+					// Nodes only animated by the first animation blend towards their rest transform
+					for (int i = 0; i < track1.length; i++) {
+						final int index = track1[i];
+						if (sampled[index] != 1) continue;
+						rest(nodes[index], sample, 0);
+						blend(pose, index * STRIDE, sample, 0, weight, tmpQ1, tmpQ2);
+					}
+				}
+				for (int i = 0; i < nodes.length; i++) {
+					if (sampled[i] == 0) continue;
+					sampled[i] = 0;
+					final Node node = nodes[i];
+					final int o = i * STRIDE;
+					node.isAnimated = true;
+					node.localTransform.set(pose[o], pose[o + 1], pose[o + 2], pose[o + 3], pose[o + 4], pose[o + 5], pose[o + 6],
+						pose[o + 7], pose[o + 8], pose[o + 9]);
+				}
+			}
+			calculateTransforms();
+			controller.deferredAnimation1 = controller.deferredAnimation2 = null;
+			controller.deferredTransforms = false;
+		}
+
+		private int[] track (final Animation animation) {
+			final int[] track = tracks.get(animation);
+			if (track == null)
+				throw new GdxRuntimeException("Animation " + animation.id + " was added to the instance after its controller");
+			return track;
+		}
+
+		/** Same as {@link ModelInstance#calculateTransforms()}, without recursion. */
+		private void calculateTransforms () {
+			final Node[] nodes = this.nodes;
+			final int[] parents = this.parents;
+			for (int i = 0; i < nodes.length; i++) {
+				final Node node = nodes[i];
+				node.calculateLocalTransform();
+				if (parents[i] >= 0)
+					node.globalTransform.set(nodes[parents[i]].globalTransform).mul(node.localTransform);
+				else
+					node.globalTransform.set(node.localTransform);
+			}
+			for (final NodePart part : skinnedParts) {
+				final Node[] boneNodes = part.invBoneBindTransforms.keys;
+				final Matrix4[] invBindTransforms = part.invBoneBindTransforms.values;
+				final Matrix4[] bones = part.bones;
+				for (int i = 0; i < bones.length; i++)
+					bones[i].set(boneNodes[i].globalTransform).mul(invBindTransforms[i]);
+			}
+		}
+
+		private static void rest (final Node node, final float[] out, final int o) {
+			out[o] = node.translation.x;
+			out[o + 1] = node.translation.y;
+			out[o + 2] = node.translation.z;
+			out[o + 3] = node.rotation.x;
+			out[o + 4] = node.rotation.y;
+			out[o + 5] = node.rotation.z;
+			out[o + 6] = node.rotation.w;
+			out[o + 7] = node.scale.x;
+			out[o + 8] = node.scale.y;
+			out[o + 9] = node.scale.z;
+		}
+
+		/** Blends the transform at offset o towards the one at offset so, like {@link BaseAnimationController.Transform#lerp}. */
+		private static void blend (final float[] out, final int o, final float[] src, final int so, final float alpha,
+			final Quaternion tmpQ1, final Quaternion tmpQ2) {
+			for (int i = 0; i < 3; i++) {
+				out[o + i] += alpha * (src[so + i] - out[o + i]);
+				out[o + 7 + i] += alpha * (src[so + 7 + i] - out[o + 7 + i]);
+			}
+			tmpQ1.set(out[o + 3], out[o + 4], out[o + 5], out[o + 6]);
+			tmpQ2.set(src[so + 3], src[so + 4], src[so + 5], src[so + 6]);
+			tmpQ1.slerp(tmpQ2, alpha);
+			out[o + 3] = tmpQ1.x;
+			out[o + 4] = tmpQ1.y;
+			out[o + 5] = tmpQ1.z;
+			out[o + 6] = tmpQ1.w;
+		}
+	}
+}
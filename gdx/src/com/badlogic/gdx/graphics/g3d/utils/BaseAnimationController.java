@@ -99,6 +99,12 @@ public class BaseAnimationController {
 	private boolean applying = false;
 	/** The {@link ModelInstance} on which the animations are being performed. */
 	public final ModelInstance target;
+	/** Set by an {@link AnimationBatch} while it updates this controller, the animations are then recorded and applied later. */
+	boolean deferred;
+	Animation deferredAnimation1, deferredAnimation2;
+	float deferredTime1, deferredTime2, deferredWeight;
+	boolean deferredTransforms;
+	private final ObjectMap<Animation, int[]> cursors = new ObjectMap<Animation, int[]>();
 
 	/** Construct a new BaseAnimationController.
 	 * @param target The {@link ModelInstance} on which the animations are being performed. */
@@ -117,7 +123,7 @@ public class BaseAnimationController {
 	 * @param weight The blend weight of this animation relative to the previous applied animations. */
 	protected void apply (final Animation animation, final float time, final float weight) {
 		if (!applying) throw new GdxRuntimeException("You must call begin() before adding an animation");
-		applyAnimation(transforms, transformPool, weight, animation, time);
+		applyAnimation(transforms, transformPool, weight, animation, time, getCursors(animation));
 	}
 
 	/** End applying multiple animations to the instance and update it to reflect the changes. */
@@ -135,14 +141,21 @@ public class BaseAnimationController {
 	/** Apply a single animation to the {@link ModelInstance} and update the it to reflect the changes. */
 	protected void applyAnimation (final Animation animation, final float time) {
 		if (applying) throw new GdxRuntimeException("Call end() first");
-		applyAnimation(null, null, 1.f, animation, time);
+		if (deferred) {
+			defer(animation, time, null, 0f, 0f);
+			return;
+		}
+		applyAnimation(null, null, 1.f, animation, time, getCursors(animation));
 		target.calculateTransforms();
 	}
 
 	/** Apply two animations, blending the second onto to first using weight. */
 	protected void applyAnimations (final Animation anim1, final float time1, final Animation anim2, final float time2,
 		final float weight) {
-		if (anim2 == null || weight == 0.f)
+		if (deferred && anim1 != null && anim2 != null && weight != 0.f && weight != 1.f) {
+			if (applying) throw new GdxRuntimeException("Call end() first");
+			defer(anim1, time1, anim2, time2, weight);
+		} else if (anim2 == null || weight == 0.f)
 			applyAnimation(anim1, time1);
 		else if (anim1 == null || weight == 1.f)
 			applyAnimation(anim2, time2);
@@ -156,6 +169,33 @@ public class BaseAnimationController {
 		}
 	}
 
+	/** @return The keyframe index of each translation, rotation and scaling of the animation at its last sample, so that the next
+	 *         sample can continue from there instead of searching, see
+	 *         {@link NodeAnimation#getKeyframeIndex(float[], float, int)}. */
+	protected int[] getCursors (final Animation animation) {
+		int[] result = cursors.get(animation);
+		if (result == null || result.length != animation.nodeAnimations.size * 3)
+			cursors.put(animation, result = new int[animation.nodeAnimations.size * 3]);
+		return result;
+	}
+
+	private void defer (final Animation anim1, final float time1, final Animation anim2, final float time2, final float weight) {
+		deferredAnimation1 = anim1;
+		deferredTime1 = time1;
+		deferredAnimation2 = anim2;
+		deferredTime2 = time2;
+		deferredWeight = weight;
+		deferredTransforms = true;
+	}
+
+	/** Update the transforms of the target to reflect changes to its nodes. */
+	protected void calculateTransforms () {
+		if (deferred)
+			deferredTransforms = true;
+		else
+			target.calculateTransforms();
+	}
+
 	private final static Transform tmpT = new Transform();
 
 	/** Find first key frame index just before a given time
@@ -187,75 +227,33 @@ public class BaseAnimationController {
 		return minIndex;
 	}
 
-	private final static Vector3 getTranslationAtTime (final NodeAnimation nodeAnim, final float time, final Vector3 out) {
-		if (nodeAnim.translation == null) return out.set(nodeAnim.node.translation);
-		if (nodeAnim.translation.size == 1) return out.set(nodeAnim.translation.get(0).value);
-
-		int index = getFirstKeyframeIndexAtTime(nodeAnim.translation, time);
-		final NodeKeyframe firstKeyframe = nodeAnim.translation.get(index);
-		out.set((Vector3)firstKeyframe.value);
-
-		if (++index < nodeAnim.translation.size) {
-			final NodeKeyframe<Vector3> secondKeyframe = nodeAnim.translation.get(index);
-			final float t = (time - firstKeyframe.keytime) / (secondKeyframe.keytime - firstKeyframe.keytime);
-			out.lerp(secondKeyframe.value, t);
-		}
-		return out;
-	}
-
-	private final static Quaternion getRotationAtTime (final NodeAnimation nodeAnim, final float time, final Quaternion out) {
-		if (nodeAnim.rotation == null) return out.set(nodeAnim.node.rotation);
-		if (nodeAnim.rotation.size == 1) return out.set(nodeAnim.rotation.get(0).value);
+	private final static float[] tmpValues = new float[10];
 
-		int index = getFirstKeyframeIndexAtTime(nodeAnim.rotation, time);
-		final NodeKeyframe firstKeyframe = nodeAnim.rotation.get(index);
-		out.set((Quaternion)firstKeyframe.value);
-
-		if (++index < nodeAnim.rotation.size) {
-			final NodeKeyframe<Quaternion> secondKeyframe = nodeAnim.rotation.get(index);
-			final float t = (time - firstKeyframe.keytime) / (secondKeyframe.keytime - firstKeyframe.keytime);
-			out.slerp(secondKeyframe.value, t);
-		}
-		return out;
-	}
-
-	private final static Vector3 getScalingAtTime (final NodeAnimation nodeAnim, final float time, final Vector3 out) {
-		if (nodeAnim.scaling == null) return out.set(nodeAnim.node.scale);
-		if (nodeAnim.scaling.size == 1) return out.set(nodeAnim.scaling.get(0).value);
-
-		int index = getFirstKeyframeIndexAtTime(nodeAnim.scaling, time);
-		final NodeKeyframe firstKeyframe = nodeAnim.scaling.get(index);
-		out.set((Vector3)firstKeyframe.value);
-
-		if (++index < nodeAnim.scaling.size) {
-			final NodeKeyframe<Vector3> secondKeyframe = nodeAnim.scaling.get(index);
-			final float t = (time - firstKeyframe.keytime) / (secondKeyframe.keytime - firstKeyframe.keytime);
-			out.lerp(secondKeyframe.value, t);
-		}
-		return out;
-	}
-
-	private final static Transform getNodeAnimationTransform (final NodeAnimation nodeAnim, final float time) {
+	private final static Transform getNodeAnimationTransform (final NodeAnimation nodeAnim, final float time, final int[] cursors,
+		final int cursorOffset) {
 		final Transform transform = tmpT;
-		getTranslationAtTime(nodeAnim, time, transform.translation);
-		getRotationAtTime(nodeAnim, time, transform.rotation);
-		getScalingAtTime(nodeAnim, time, transform.scale);
+		final float[] v = tmpValues;
+		nodeAnim.getTransform(time, v, 0, cursors, cursorOffset);
+		transform.translation.set(v[0], v[1], v[2]);
+		transform.rotation.set(v[3], v[4], v[5], v[6]);
+		transform.scale.set(v[7], v[8], v[9]);
 		return transform;
 	}
 
-	private final static void applyNodeAnimationDirectly (final NodeAnimation nodeAnim, final float time) {
+	private final static void applyNodeAnimationDirectly (final NodeAnimation nodeAnim, final float time, final int[] cursors,
+		final int cursorOffset) {
 		final Node node = nodeAnim.node;
 		node.isAnimated = true;
-		final Transform transform = getNodeAnimationTransform(nodeAnim, time);
+		final Transform transform = getNodeAnimationTransform(nodeAnim, time, cursors, cursorOffset);
 		transform.toMatrix4(node.localTransform);
 	}
 
 	private final static void applyNodeAnimationBlending (final NodeAnimation nodeAnim, final ObjectMap<Node, Transform> out,
-		final Pool<Transform> pool, final float alpha, final float time) {
+		final Pool<Transform> pool, final float alpha, final float time, final int[] cursors, final int cursorOffset) {
 
 		final Node node = nodeAnim.node;
 		node.isAnimated = true;
-		final Transform transform = getNodeAnimationTransform(nodeAnim, time);
+		final Transform transform = getNodeAnimationTransform(nodeAnim, time, cursors, cursorOffset);
 
 		Transform t = out.get(node, null);
 		if (t != null) {
@@ -274,15 +272,22 @@ public class BaseAnimationController {
 	/** Helper method to apply one animation to either an objectmap for blending or directly to the bones. */
 	protected static void applyAnimation (final ObjectMap<Node, Transform> out, final Pool<Transform> pool, final float alpha,
 		final Animation animation, final float time) {
+		applyAnimation(out, pool, alpha, animation, time, null);
+	}
 
+	/** Helper method to apply one animation to either an objectmap for blending or directly to the bones.
+	 * @param cursors The keyframe cursors of the animation, see {@link #getCursors(Animation)}, may be null. */
+	protected static void applyAnimation (final ObjectMap<Node, Transform> out, final Pool<Transform> pool, final float alpha,
+		final Animation animation, final float time, final int[] cursors) {
+		final Array<NodeAnimation> nodeAnimations = animation.nodeAnimations;
 		if (out == null) {
-			for (final NodeAnimation nodeAnim : animation.nodeAnimations)
-				applyNodeAnimationDirectly(nodeAnim, time);
+			for (int i = 0; i < nodeAnimations.size; i++)
+				applyNodeAnimationDirectly(nodeAnimations.get(i), time, cursors, i * 3);
 		} else {
 			for (final Node node : out.keys())
 				node.isAnimated = false;
-			for (final NodeAnimation nodeAnim : animation.nodeAnimations)
-				applyNodeAnimationBlending(nodeAnim, out, pool, alpha, time);
+			for (int i = 0; i < nodeAnimations.size; i++)
+				applyNodeAnimationBlending(nodeAnimations.get(i), out, pool, alpha, time, cursors, i * 3);
 			for (final ObjectMap.Entry<Node, Transform> e : out.entries()) {
 				if (!e.key.isAnimated) {
 					e.key.isAnimated = true;
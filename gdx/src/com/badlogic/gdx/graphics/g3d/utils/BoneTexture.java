@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.FloatTextureData;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/** A float texture holding the bone matrices of skinned renderables, so a shader can read any number of bones with texture
+ * lookups instead of being limited by the number of uniforms. Each matrix takes 4 consecutive RGBA texels, one per column, and
+ * the bones of a renderable follow each other.
+ * <p>
+ * Bones are added with {@link #add(Matrix4[])}, which packs each bone array once and returns its offset, and the packed bones
+ * are sent to the GPU at once by the next {@link #bind(TextureBinder)}. The texture grows as needed. Call {@link #clear()} before
+ * packing the bones of the next frame. */
+public class BoneTexture implements Disposable {
+	/** The width of the texture in texels, 256 bone matrices per row. */
+	public static final int WIDTH = 1024;
+	private static final int BONES_PER_ROW = WIDTH / 4;
+	private final static Matrix4 idtMatrix = new Matrix4();
+
+	private final ObjectIntMap<Matrix4[]> offsets = new ObjectIntMap<Matrix4[]>();
+	private FloatTextureData data;
+	private Texture texture;
+	private final IntBuffer tmpInt = BufferUtils.newIntBuffer(16);
+	private int count, uploaded;
+
+	/** @param initialBones The number of bones the texture can hold before it has to grow. */
+	public BoneTexture (int initialBones) {
+		create(rows(initialBones));
+	}
+
+	public BoneTexture () {
+		this(BONES_PER_ROW);
+	}
+
+	private static int rows (int bones) {
+		return Math.max(1, (bones + BONES_PER_ROW - 1) / BONES_PER_ROW);
+	}
+
+	private void create (int height) {
+		final FloatTextureData oldData = data;
+		data = new FloatTextureData(WIDTH, height, GL30.GL_RGBA32F, GL20.GL_RGBA, GL20.GL_FLOAT, false);
+		data.prepare();
+		if (oldData != null) {
+			final FloatBuffer oldBuffer = oldData.getBuffer();
+			((Buffer)oldBuffer).position(0);
+			((Buffer)oldBuffer).limit(count * 16);
+			data.getBuffer().put(oldBuffer);
+		}
+		if (texture != null) texture.dispose();
+		texture = null;
+		uploaded = 0;
+	}
+
+	/** Packs the bones if they were not added since the last {@link #clear()}. Missing bones are replaced by the identity matrix.
+	 * @return The index of the first bone in the texture. */
+	public int add (final Matrix4[] bones) {
+		int offset = offsets.get(bones, -1);
+		if (offset >= 0) return offset;
+		offset = count;
+		if ((count + bones.length) * 4 > WIDTH * data.getHeight()) create(Integer.highestOneBit(rows(count + bones.length)) << 1);
+		final FloatBuffer buffer = data.getBuffer();
+		((Buffer)buffer).limit(buffer.capacity());
+		((Buffer)buffer).position(offset * 16);
+		for (int i = 0; i < bones.length; i++)
+			buffer.put(bones[i] == null ? idtMatrix.val : bones[i].val);
+		count += bones.length;
+		offsets.put(bones, offset);
+		return offset;
+	}
+
+	/** Binds the texture with the binder, creating it or uploading the bones added since the last bind if needed. Must be called
+	 * on the rendering thread.
+	 * @return The texture unit the texture is bound to. */
+	public int bind (final TextureBinder binder) {
+		if (texture == null) {
+			// Creating the texture binds it to the active unit, restore the binding the binder knows about.
+			Gdx.gl.glGetIntegerv(GL20.GL_TEXTURE_BINDING_2D, tmpInt);
+			texture = new Texture(data);
+			Gdx.gl.glBindTexture(GL20.GL_TEXTURE_2D, tmpInt.get(0));
+			uploaded = count;
+		}
+		final int unit = binder.bind(texture);
+		if (uploaded < count) {
+			final int fromRow = uploaded / BONES_PER_ROW;
+			final int toRow = rows(count);
+			final FloatBuffer buffer = data.getBuffer();
+			((Buffer)buffer).limit(toRow * WIDTH * 4);
+			((Buffer)buffer).position(fromRow * WIDTH * 4);
+			Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, fromRow, WIDTH, toRow - fromRow, GL20.GL_RGBA, GL20.GL_FLOAT, buffer);
+			uploaded = count;
+		}
+		return unit;
+	}
+
+	/** Removes all bones, the texture keeps its size. */
+	public void clear () {
+		offsets.clear();
+		count = 0;
+		uploaded = 0;
+	}
+
+	/** @return The number of bones added since the last {@link #clear()}. */
+	public int getCount () {
+		return count;
+	}
+
+	/** @return The texture, null before the first {@link #bind(TextureBinder)}. */
+	public Texture getTexture () {
+		return texture;
+	}
+
+	public int getWidth () {
+		return WIDTH;
+	}
+
+	public int getHeight () {
+		return data.getHeight();
+	}
+
+	@Override
+	public void dispose () {
+		if (texture != null) texture.dispose();
+		texture = null;
+	}
+}
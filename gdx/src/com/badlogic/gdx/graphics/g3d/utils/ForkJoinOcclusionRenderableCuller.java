@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.utils.Disposable;
+
+/** An {@link OcclusionRenderableCuller} which rasterizes bands of rows of the depth buffer in parallel on a
+ * {@link ForkJoinPool}. Not supported on GWT. */
+public class ForkJoinOcclusionRenderableCuller extends OcclusionRenderableCuller implements Disposable {
+	private final ForkJoinPool pool;
+	private final boolean ownsPool;
+	/** The minimum number of rows rasterized by one task. */
+	public int minRowsPerTask = 8;
+
+	/** Creates a culler with a depth buffer of 256x128 pixels and its own {@link ForkJoinPool}, which is shut down when the culler
+	 * is disposed. */
+	public ForkJoinOcclusionRenderableCuller () {
+		this(256, 128);
+	}
+
+	/** Creates a culler with its own {@link ForkJoinPool}, which is shut down when the culler is disposed. */
+	public ForkJoinOcclusionRenderableCuller (final int width, final int height) {
+		this(width, height, new ForkJoinPool(), true);
+	}
+
+	/** Creates a culler which rasterizes on the specified pool. */
+	public ForkJoinOcclusionRenderableCuller (final int width, final int height, final ForkJoinPool pool) {
+		this(width, height, pool, false);
+	}
+
+	private ForkJoinOcclusionRenderableCuller (final int width, final int height, final ForkJoinPool pool,
+		final boolean ownsPool) {
+		super(width, height);
+		this.pool = pool;
+		this.ownsPool = ownsPool;
+	}
+
+	@Override
+	protected void rasterize () {
+		final int perTask = Math.max(minRowsPerTask, height / (pool.getParallelism() * 4));
+		if (height <= perTask)
+			rasterize(0, height);
+		else
+			pool.invoke(new RasterizeTask(this, 0, height, perTask));
+	}
+
+	@Override
+	public void dispose () {
+		if (ownsPool) pool.shutdown();
+	}
+
+	static class RasterizeTask extends RecursiveAction {
+		private static final long serialVersionUID = 2819296971429885708L;
+
+		final ForkJoinOcclusionRenderableCuller culler;
+		final int from, to, perTask;
+
+		RasterizeTask (final ForkJoinOcclusionRenderableCuller culler, final int from, final int to, final int perTask) {
+			this.culler = culler;
+			this.from = from;
+			this.to = to;
+			this.perTask = perTask;
+		}
+
+		@Override
+		protected void compute () {
+			if (to - from <= perTask) {
+				culler.rasterize(from, to);
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			invokeAll(new RasterizeTask(culler, from, mid, perTask), new RasterizeTask(culler, mid, to, perTask));
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+/** A {@link RenderableCuller} which culls the renderables whose bounding sphere is outside of the camera frustum. The bounding
+ * sphere is the one of the {@link MeshPart} (see {@link MeshPart#update()}), transformed by the world transform of the
+ * renderable. Renderables without calculated bounds and skinned renderables, whose bounds depend on their bones, are always
+ * visible. */
+public class FrustumRenderableCuller implements RenderableCuller {
+	private final Vector3 center = new Vector3();
+	private final Vector3 scale = new Vector3();
+
+	@Override
+	public boolean isVisible (final Camera camera, final Renderable renderable) {
+		final MeshPart meshPart = renderable.meshPart;
+		if (meshPart.radius < 0f || renderable.bones != null) return true;
+		final Matrix4 worldTransform = renderable.worldTransform;
+		center.set(meshPart.center).mul(worldTransform);
+		float radius = meshPart.radius;
+		if (worldTransform.hasRotationOrScaling()) {
+			worldTransform.getScale(scale);
+			radius *= Math.max(scale.x, Math.max(scale.y, scale.z));
+		}
+		return camera.frustum.sphereInFrustum(center, radius);
+	}
+}
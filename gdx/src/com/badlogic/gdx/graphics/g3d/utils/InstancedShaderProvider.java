@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
+import com.badlogic.gdx.graphics.g3d.shaders.InstancedDefaultShader;
+
+/** A {@link DefaultShaderProvider} that creates {@link InstancedDefaultShader}s, so repeated meshes are drawn with instanced draw
+ * calls. Skinned renderables, meshes that have instanced rendering enabled, and all renderables when OpenGL ES 3.0 isn't
+ * available get a {@link DefaultShader} instead. Use it together with {@link RadixRenderableSorter} so the instances of a mesh are
+ * rendered consecutively. */
+public class InstancedShaderProvider extends DefaultShaderProvider {
+	public InstancedShaderProvider (final InstancedDefaultShader.Config config) {
+		super(config == null ? new InstancedDefaultShader.Config() : config);
+	}
+
+	public InstancedShaderProvider (final String vertexShader, final String fragmentShader) {
+		this(new InstancedDefaultShader.Config(vertexShader, fragmentShader));
+	}
+
+	public InstancedShaderProvider (final FileHandle vertexShader, final FileHandle fragmentShader) {
+		this(vertexShader.readString(), fragmentShader.readString());
+	}
+
+	public InstancedShaderProvider () {
+		this(null);
+	}
+
+	@Override
+	protected Shader createShader (final Renderable renderable) {
+		if (Gdx.gl30 != null && renderable.bones == null && !renderable.meshPart.mesh.isInstanced())
+			return new InstancedDefaultShader(renderable, (InstancedDefaultShader.Config)config);
+		return new DefaultShader(renderable, config);
+	}
+}
@@ -33,6 +33,7 @@ import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.EllipseShapeBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.PatchShapeBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.SphereShapeBuilder;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.BulkTransform;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix3;
 import com.badlogic.gdx.math.Matrix4;
@@ -473,48 +474,31 @@ public class MeshBuilder implements MeshPartBuilder {
 		return lastIndex;
 	}
 
-	private final static Vector3 vTmp = new Vector3();
-
-	private final static void transformPosition (final float[] values, final int offset, final int size, Matrix4 transform) {
-		if (size > 2) {
-			vTmp.set(values[offset], values[offset + 1], values[offset + 2]).mul(transform);
-			values[offset] = vTmp.x;
-			values[offset + 1] = vTmp.y;
-			values[offset + 2] = vTmp.z;
-		} else if (size > 1) {
-			vTmp.set(values[offset], values[offset + 1], 0).mul(transform);
-			values[offset] = vTmp.x;
-			values[offset + 1] = vTmp.y;
-		} else
-			values[offset] = vTmp.set(values[offset], 0, 0).mul(transform).x;
-	}
-
-	private final static void transformNormal (final float[] values, final int offset, final int size, Matrix3 transform) {
-		if (size > 2) {
-			vTmp.set(values[offset], values[offset + 1], values[offset + 2]).mul(transform).nor();
-			values[offset] = vTmp.x;
-			values[offset + 1] = vTmp.y;
-			values[offset + 2] = vTmp.z;
-		} else if (size > 1) {
-			vTmp.set(values[offset], values[offset + 1], 0).mul(transform).nor();
-			values[offset] = vTmp.x;
-			values[offset + 1] = vTmp.y;
-		} else
-			values[offset] = vTmp.set(values[offset], 0, 0).mul(transform).nor().x;
+	private final void addVertex (final float[] values, final int offset) {
+		addVertices(values, offset, 1);
 	}
 
-	private final void addVertex (final float[] values, final int offset) {
-		final int o = vertices.size;
-		vertices.addAll(values, offset, stride);
-		lastIndex = vindex++;
+	/** Adds consecutive vertices, transforming them at once if a vertex transform is set. */
+	private final void addVertices (final float[] values, final int offset, final int count) {
+		final int start = vertices.size;
+		vertices.addAll(values, offset, count * stride);
+		vindex += count;
+		lastIndex = vindex - 1;
 
 		if (vertexTransformationEnabled) {
-			transformPosition(vertices.items, o + posOffset, posSize, positionTransform);
-			if (norOffset >= 0) transformNormal(vertices.items, o + norOffset, 3, normalTransform);
-			if (biNorOffset >= 0) transformNormal(vertices.items, o + biNorOffset, 3, normalTransform);
-			if (tangentOffset >= 0) transformNormal(vertices.items, o + tangentOffset, 3, normalTransform);
+			final float[] items = vertices.items;
+			BulkTransform.mul(positionTransform, items, start + posOffset, count, stride, Math.min(posSize, 3));
+			if (norOffset >= 0) BulkTransform.mulNormalized(normalTransform, items, start + norOffset, count, stride, 3);
+			if (biNorOffset >= 0) BulkTransform.mulNormalized(normalTransform, items, start + biNorOffset, count, stride, 3);
+			if (tangentOffset >= 0) BulkTransform.mulNormalized(normalTransform, items, start + tangentOffset, count, stride, 3);
 		}
 
+		for (int o = start, end = start + count * stride; o < end; o += stride)
+			updateVertex(o);
+	}
+
+	/** Extends the bounds with the vertex at the offset and applies the color and UV transform to it. */
+	private final void updateVertex (final int o) {
 		final float x = vertices.items[o + posOffset];
 		final float y = (posSize > 1) ? vertices.items[o + posOffset + 1] : 0f;
 		final float z = (posSize > 2) ? vertices.items[o + posOffset + 2] : 0f;
@@ -577,9 +561,8 @@ public class MeshBuilder implements MeshPartBuilder {
 
 	@Override
 	public short vertex (final float... values) {
-		final int n = values.length - stride;
-		for (int i = 0; i <= n; i += stride)
-			addVertex(values, i);
+		final int count = values.length / stride;
+		if (count > 0) addVertices(values, 0, count);
 		return (short)lastIndex;
 	}
 
@@ -790,8 +773,7 @@ public class MeshBuilder implements MeshPartBuilder {
 
 		final int numVertices = vertices.length / stride;
 		ensureVertices(numVertices);
-		for (int v = 0; v < vertices.length; v += stride)
-			addVertex(vertices, v);
+		if (numVertices > 0) addVertices(vertices, 0, numVertices);
 
 		ensureIndices(indices.length);
 		for (int i = 0; i < indices.length; ++i)
@@ -0,0 +1,569 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Reorders and compresses the vertices and indices of meshes so the GPU processes them faster.
+ * <ul>
+ * <li>{@link #optimizeVertexCache(short[], int, int, int, int) Vertex cache optimization} reorders the triangles with Tom
+ * Forsyth's algorithm, so vertices shared by consecutive triangles are found in the post transform cache instead of being
+ * shaded again.</li>
+ * <li>{@link #optimizeOverdraw(short[], int, int, float[], int, int, int, float) Overdraw optimization} then reorders clusters of
+ * those triangles so the outward facing ones are drawn first, which lets the depth test reject more hidden fragments, while
+ * keeping the cache efficiency within a threshold.</li>
+ * <li>{@link #optimizeVertexFetch(float[], int, short[], int, int) Vertex fetch optimization} stores the vertices in the order
+ * they are first used, improving the locality of the vertex fetches, and drops unused vertices.</li>
+ * <li>{@link #quantize(ModelMesh, boolean) Quantization} stores normals, tangents and binormals as normalized shorts, texture
+ * coordinates as normalized unsigned shorts or half floats and colors as normalized bytes.</li>
+ * </ul>
+ * The {@link #computeACMR(short[], int, int, int) average cache miss ratio} and the
+ * {@link #computeATVR(short[], int, int, int) average transformed vertex ratio} measure the result.
+ * <p>
+ * Models can be optimized while loading by setting
+ * {@link com.badlogic.gdx.assets.loaders.ModelLoader.ModelParameters#meshOptimizer}, or offline by calling
+ * {@link #optimize(ModelData, Config)} before writing them, as the g3dm converter of gdx-tools does. Only meshes with float
+ * vertices and indices are optimized. */
+public class MeshOptimizer {
+	public static class Config {
+		/** Whether to reorder the triangles for the post transform vertex cache. */
+		public boolean vertexCache = true;
+		/** Whether to reorder clusters of triangles to reduce overdraw, after the vertex cache optimization. */
+		public boolean overdraw = true;
+		/** How much worse the average cache miss ratio of the clusters may become to reduce overdraw, 1.05 allows 5%. */
+		public float overdrawThreshold = 1.05f;
+		/** Whether to store the vertices in the order they are used and remove unused vertices. */
+		public boolean vertexFetch = true;
+		/** Whether to store the attributes with smaller types, see {@link MeshOptimizer#quantize(ModelMesh, boolean)}. */
+		public boolean quantize = false;
+		/** Whether quantized texture coordinates outside of the [0, 1] range are stored as half floats, which requires OpenGL ES
+		 * 3.0, instead of floats. */
+		public boolean halfFloatTexCoords = false;
+		/** The number of vertices of the simulated post transform cache. */
+		public int cacheSize = 32;
+	}
+
+	private final static int MAX_VALENCE_SCORES = 32;
+
+	/** Optimizes all meshes of the model, see {@link #optimize(ModelMesh, Config)}. */
+	public static void optimize (ModelData data, Config config) {
+		for (int i = 0; i < data.meshes.size; i++)
+			optimize(data.meshes.get(i), config);
+	}
+
+	/** Optimizes the triangle parts of the mesh for the vertex cache and overdraw, then the vertex fetch of the whole mesh, and
+	 * quantizes it last, as configured. Meshes using a {@link ModelMesh#vertexBuffer} or with parts without indices are left
+	 * unchanged. */
+	public static void optimize (ModelMesh mesh, Config config) {
+		if (mesh.vertices == null || mesh.vertexBuffer != null) return;
+		for (ModelMeshPart part : mesh.parts)
+			if (part.indices == null || part.indices.length == 0) return;
+		final VertexAttributes attributes = new VertexAttributes(mesh.attributes);
+		final int stride = attributes.vertexSize / 4;
+		final int numVertices = mesh.vertices.length / stride;
+		final VertexAttribute position = attributes.findByUsage(Usage.Position);
+
+		for (ModelMeshPart part : mesh.parts) {
+			if (part.primitiveType != GL20.GL_TRIANGLES) continue;
+			if (config.vertexCache) optimizeVertexCache(part.indices, 0, part.indices.length, numVertices, config.cacheSize);
+			if (config.overdraw && position != null && position.type == GL20.GL_FLOAT)
+				optimizeOverdraw(part.indices, 0, part.indices.length, mesh.vertices, stride, position.offset / 4, config.cacheSize,
+					config.overdrawThreshold);
+		}
+
+		if (config.vertexFetch) {
+			int numIndices = 0;
+			for (ModelMeshPart part : mesh.parts)
+				numIndices += part.indices.length;
+			final short[] indices = new short[numIndices];
+			int offset = 0;
+			for (ModelMeshPart part : mesh.parts) {
+				System.arraycopy(part.indices, 0, indices, offset, part.indices.length);
+				offset += part.indices.length;
+			}
+			final int used = optimizeVertexFetch(mesh.vertices, stride, indices, 0, numIndices);
+			if (used < numVertices) mesh.vertices = Arrays.copyOf(mesh.vertices, used * stride);
+			offset = 0;
+			for (ModelMeshPart part : mesh.parts) {
+				System.arraycopy(indices, offset, part.indices, 0, part.indices.length);
+				offset += part.indices.length;
+			}
+		}
+
+		if (config.quantize) quantize(mesh, config.halfFloatTexCoords);
+	}
+
+	/** Reorders the triangles of the indices with Tom Forsyth's linear speed vertex cache optimization, so consecutive triangles
+	 * share as many vertices as possible. The indices are unsigned shorts.
+	 * @param numVertices The number of vertices, greater than the largest index.
+	 * @param cacheSize The number of vertices of the simulated cache, at least 4. */
+	public static void optimizeVertexCache (short[] indices, int offset, int count, int numVertices, int cacheSize) {
+		final int numTriangles = count / 3;
+		if (numTriangles < 2) return;
+		if (cacheSize < 4) throw new IllegalArgumentException("cacheSize must be >= 4: " + cacheSize);
+
+		final float[] cacheScores = new float[cacheSize];
+		for (int i = 0; i < cacheSize; i++)
+			cacheScores[i] = i < 3 ? 0.75f : (float)Math.pow(1f - (i - 3) / (float)(cacheSize - 3), 1.5f);
+		final float[] valenceScores = new float[MAX_VALENCE_SCORES];
+		for (int i = 1; i < MAX_VALENCE_SCORES; i++)
+			valenceScores[i] = 2f / (float)Math.sqrt(i);
+
+		// The triangles using each vertex, the first valence[v] of them are not emitted yet
+		final int[] valence = new int[numVertices];
+		for (int i = offset, n = offset + numTriangles * 3; i < n; i++)
+			valence[indices[i] & 0xFFFF]++;
+		final int[] adjacencyOffsets = new int[numVertices + 1];
+		for (int v = 0; v < numVertices; v++)
+			adjacencyOffsets[v + 1] = adjacencyOffsets[v] + valence[v];
+		final int[] adjacency = new int[numTriangles * 3];
+		final int[] fill = new int[numVertices];
+		for (int t = 0; t < numTriangles; t++) {
+			for (int k = 0; k < 3; k++) {
+				final int v = indices[offset + t * 3 + k] & 0xFFFF;
+				adjacency[adjacencyOffsets[v] + fill[v]++] = t;
+			}
+		}
+
+		final float[] vertexScores = new float[numVertices];
+		final int[] cachePositions = new int[numVertices];
+		for (int v = 0; v < numVertices; v++) {
+			cachePositions[v] = -1;
+			vertexScores[v] = score(-1, valence[v], cacheScores, valenceScores);
+		}
+		final float[] triangleScores = new float[numTriangles];
+		final boolean[] emitted = new boolean[numTriangles];
+		for (int t = 0; t < numTriangles; t++) {
+			final int i = offset + t * 3;
+			triangleScores[t] = vertexScores[indices[i] & 0xFFFF] + vertexScores[indices[i + 1] & 0xFFFF]
+				+ vertexScores[indices[i + 2] & 0xFFFF];
+		}
+
+		final short[] result = new short[numTriangles * 3];
+		int[] cache = new int[cacheSize + 3], newCache = new int[cacheSize + 3];
+		int cacheCount = 0, cursor = 0, best = -1;
+		for (int emittedCount = 0; emittedCount < numTriangles; emittedCount++) {
+			if (best < 0) {
+				// No triangle in the cache is left, continue with the next triangle in the original order
+				while (emitted[cursor])
+					cursor++;
+				best = cursor;
+			}
+			emitted[best] = true;
+			final int a = indices[offset + best * 3] & 0xFFFF, b = indices[offset + best * 3 + 1] & 0xFFFF,
+				c = indices[offset + best * 3 + 2] & 0xFFFF;
+			result[emittedCount * 3] = (short)a;
+			result[emittedCount * 3 + 1] = (short)b;
+			result[emittedCount * 3 + 2] = (short)c;
+			removeTriangle(a, best, valence, adjacencyOffsets, adjacency);
+			removeTriangle(b, best, valence, adjacencyOffsets, adjacency);
+			removeTriangle(c, best, valence, adjacencyOffsets, adjacency);
+
+			// Move the vertices of the triangle to the front of the cache
+			int n = 0;
+			newCache[n++] = a;
+			if (b != a) newCache[n++] = b;
+			if (c != a && c != b) newCache[n++] = c;
+			for (int i = 0; i < cacheCount; i++) {
+				final int v = cache[i];
+				if (v != a && v != b && v != c) newCache[n++] = v;
+			}
+			for (int i = 0; i < n; i++) {
+				final int v = newCache[i];
+				cachePositions[v] = i < cacheSize ? i : -1;
+				vertexScores[v] = score(cachePositions[v], valence[v], cacheScores, valenceScores);
+			}
+
+			// Update the triangles of the vertices whose score changed, including the ones pushed out of the cache
+			best = -1;
+			float bestScore = -1f;
+			for (int i = 0; i < n; i++) {
+				final int v = newCache[i];
+				for (int j = adjacencyOffsets[v], e = j + valence[v]; j < e; j++) {
+					final int t = adjacency[j];
+					final int k = offset + t * 3;
+					final float s = vertexScores[indices[k] & 0xFFFF] + vertexScores[indices[k + 1] & 0xFFFF]
+						+ vertexScores[indices[k + 2] & 0xFFFF];
+					triangleScores[t] = s;
+					if (s > bestScore) {
+						bestScore = s;
+						best = t;
+					}
+				}
+			}
+
+			final int[] swap = cache;
+			cache = newCache;
+			newCache = swap;
+			cacheCount = Math.min(n, cacheSize);
+		}
+		System.arraycopy(result, 0, indices, offset, result.length);
+	}
+
+	private static float score (int cachePosition, int valence, float[] cacheScores, float[] valenceScores) {
+		if (valence == 0) return -1f;
+		final float score = cachePosition < 0 ? 0f : cacheScores[cachePosition];
+		return score + (valence < MAX_VALENCE_SCORES ? valenceScores[valence] : 2f / (float)Math.sqrt(valence));
+	}
+
+	private static void removeTriangle (int vertex, int triangle, int[] valence, int[] adjacencyOffsets, int[] adjacency) {
+		final int start = adjacencyOffsets[vertex], end = start + valence[vertex];
+		for (int j = start; j < end; j++) {
+			if (adjacency[j] == triangle) {
+				adjacency[j] = adjacency[end - 1];
+				adjacency[end - 1] = triangle;
+				valence[vertex]--;
+				return;
+			}
+		}
+	}
+
+	/** Reorders clusters of triangles so the ones facing away from the center of the mesh are drawn first, which reduces overdraw
+	 * from most view points. The triangles should be optimized for the vertex cache first. They are split into clusters where
+	 * the cache would be empty anyway, and further where the average cache miss ratio of a cluster stays within the threshold
+	 * of the original order.
+	 * @param vertices The vertices, with float positions.
+	 * @param stride The number of floats per vertex.
+	 * @param positionOffset The offset in floats of the position in a vertex.
+	 * @param threshold How much worse the cache miss ratio of the clusters may become, 1.05 allows 5%. */
+	public static void optimizeOverdraw (short[] indices, int offset, int count, float[] vertices, int stride, int positionOffset,
+		int cacheSize, float threshold) {
+		final int numTriangles = count / 3;
+		if (numTriangles < 2) return;
+
+		// Hard boundaries, where all vertices of a triangle miss the cache
+		final int[] misses = new int[numTriangles];
+		final int[] stamps = new int[maxIndex(indices, offset, numTriangles * 3) + 1];
+		int time = cacheSize + 1;
+		for (int t = 0; t < numTriangles; t++)
+			for (int k = 0; k < 3; k++) {
+				final int v = indices[offset + t * 3 + k] & 0xFFFF;
+				if (time - stamps[v] > cacheSize) {
+					stamps[v] = time++;
+					misses[t]++;
+				}
+			}
+		final IntArray hard = new IntArray();
+		for (int t = 0; t < numTriangles; t++)
+			if (t == 0 || misses[t] == 3) hard.add(t);
+		hard.add(numTriangles);
+
+		// Soft boundaries, as soon as a cluster is about as cache efficient as its hard cluster
+		final IntArray clusters = new IntArray();
+		for (int h = 0; h < hard.size - 1; h++) {
+			final int start = hard.get(h), end = hard.get(h + 1);
+			int hardMisses = 0;
+			for (int t = start; t < end; t++)
+				hardMisses += misses[t];
+			final float target = threshold * hardMisses / (end - start);
+			int clusterStart = start, clusterMisses = 0;
+			time += cacheSize + 1;
+			clusters.add(start);
+			for (int t = start; t < end; t++) {
+				for (int k = 0; k < 3; k++) {
+					final int v = indices[offset + t * 3 + k] & 0xFFFF;
+					if (time - stamps[v] > cacheSize) {
+						stamps[v] = time++;
+						clusterMisses++;
+					}
+				}
+				if (t + 1 < end && clusterMisses <= target * (t + 1 - clusterStart)) {
+					clusterStart = t + 1;
+					clusterMisses = 0;
+					time += cacheSize + 1;
+					clusters.add(clusterStart);
+				}
+			}
+		}
+		clusters.add(numTriangles);
+
+		// Sort the clusters by how much they face away from the center of the mesh
+		final int numClusters = clusters.size - 1;
+		final float[] centroids = new float[numClusters * 3];
+		final float[] normals = new float[numClusters * 3];
+		float cx = 0f, cy = 0f, cz = 0f, totalArea = 0f;
+		for (int i = 0; i < numClusters; i++) {
+			float area = 0f;
+			for (int t = clusters.get(i), e = clusters.get(i + 1); t < e; t++) {
+				final int i0 = (indices[offset + t * 3] & 0xFFFF) * stride + positionOffset;
+				final int i1 = (indices[offset + t * 3 + 1] & 0xFFFF) * stride + positionOffset;
+				final int i2 = (indices[offset + t * 3 + 2] & 0xFFFF) * stride + positionOffset;
+				final float ux = vertices[i1] - vertices[i0], uy = vertices[i1 + 1] - vertices[i0 + 1],
+					uz = vertices[i1 + 2] - vertices[i0 + 2];
+				final float vx = vertices[i2] - vertices[i0], vy = vertices[i2 + 1] - vertices[i0 + 1],
+					vz = vertices[i2 + 2] - vertices[i0 + 2];
+				final float nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+				final float a = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+				centroids[i * 3] += (vertices[i0] + vertices[i1] + vertices[i2]) * a / 3f;
+				centroids[i * 3 + 1] += (vertices[i0 + 1] + vertices[i1 + 1] + vertices[i2 + 1]) * a / 3f;
+				centroids[i * 3 + 2] += (vertices[i0 + 2] + vertices[i1 + 2] + vertices[i2 + 2]) * a / 3f;
+				normals[i * 3] += nx;
+				normals[i * 3 + 1] += ny;
+				normals[i * 3 + 2] += nz;
+				area += a;
+			}
+			cx += centroids[i * 3];
+			cy += centroids[i * 3 + 1];
+			cz += centroids[i * 3 + 2];
+			totalArea += area;
+			if (area > 0f) {
+				centroids[i * 3] /= area;
+				centroids[i * 3 + 1] /= area;
+				centroids[i * 3 + 2] /= area;
+			}
+		}
+		if (totalArea > 0f) {
+			cx /= totalArea;
+			cy /= totalArea;
+			cz /= totalArea;
+		}
+		final long[] keys = new long[numClusters];
+		for (int i = 0; i < numClusters; i++) {
+			final float nx = normals[i * 3], ny = normals[i * 3 + 1], nz = normals[i * 3 + 2];
+			final float length = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+			final float dot = length == 0f ? 0f
+				: ((centroids[i * 3] - cx) * nx + (centroids[i * 3 + 1] - cy) * ny + (centroids[i * 3 + 2] - cz) * nz) / length;
+			// Descending order of the dot product, ties keep the original order
+			final int bits = Float.floatToIntBits(-dot);
+			keys[i] = (long)(bits ^ ((bits >> 31) & 0x7FFFFFFF)) << 32 | i;
+		}
+		Arrays.sort(keys);
+
+		final short[] result = new short[numTriangles * 3];
+		int n = 0;
+		for (int i = 0; i < numClusters; i++) {
+			final int cluster = (int)keys[i];
+			final int start = clusters.get(cluster) * 3, size = clusters.get(cluster + 1) * 3 - start;
+			System.arraycopy(indices, offset + start, result, n, size);
+			n += size;
+		}
+		System.arraycopy(result, 0, indices, offset, n);
+	}
+
+	/** Stores the vertices in the order they are first used by the indices and updates the indices, the vertices that are not
+	 * used are moved to the end.
+	 * @param stride The number of floats per vertex.
+	 * @return The number of used vertices, which are at the start of the vertices. */
+	public static int optimizeVertexFetch (float[] vertices, int stride, short[] indices, int offset, int count) {
+		final int numVertices = vertices.length / stride;
+		final int[] remap = new int[numVertices];
+		Arrays.fill(remap, -1);
+		int used = 0;
+		for (int i = offset, n = offset + count; i < n; i++) {
+			final int v = indices[i] & 0xFFFF;
+			if (remap[v] < 0) remap[v] = used++;
+			indices[i] = (short)remap[v];
+		}
+		final float[] result = new float[numVertices * stride];
+		int unused = used;
+		for (int v = 0; v < numVertices; v++)
+			System.arraycopy(vertices, v * stride, result, (remap[v] < 0 ? unused++ : remap[v]) * stride, stride);
+		System.arraycopy(result, 0, vertices, 0, result.length);
+		return used;
+	}
+
+	/** @return The average number of vertices missing a FIFO cache of the size per triangle, from 3 for unconnected triangles
+	 *         down to about 0.5 for optimal ordering of large meshes. */
+	public static float computeACMR (short[] indices, int offset, int count, int cacheSize) {
+		final int numTriangles = count / 3;
+		if (numTriangles == 0) return 0f;
+		return computeMisses(indices, offset, numTriangles * 3, cacheSize) / (float)numTriangles;
+	}
+
+	/** @return The average number of times each used vertex misses a FIFO cache of the size, 1 is optimal. */
+	public static float computeATVR (short[] indices, int offset, int count, int cacheSize) {
+		if (count == 0) return 0f;
+		final boolean[] used = new boolean[maxIndex(indices, offset, count) + 1];
+		int numUsed = 0;
+		for (int i = offset, n = offset + count; i < n; i++) {
+			final int v = indices[i] & 0xFFFF;
+			if (!used[v]) {
+				used[v] = true;
+				numUsed++;
+			}
+		}
+		return computeMisses(indices, offset, count, cacheSize) / (float)numUsed;
+	}
+
+	private static int computeMisses (short[] indices, int offset, int count, int cacheSize) {
+		final int[] stamps = new int[maxIndex(indices, offset, count) + 1];
+		int time = cacheSize + 1, misses = 0;
+		for (int i = offset, n = offset + count; i < n; i++) {
+			final int v = indices[i] & 0xFFFF;
+			if (time - stamps[v] > cacheSize) {
+				stamps[v] = time++;
+				misses++;
+			}
+		}
+		return misses;
+	}
+
+	private static int maxIndex (short[] indices, int offset, int count) {
+		int max = 0;
+		for (int i = offset, n = offset + count; i < n; i++)
+			max = Math.max(max, indices[i] & 0xFFFF);
+		return max;
+	}
+
+	/** Stores the attributes of the mesh with smaller types in a {@link ModelMesh#vertexBuffer}, and the indices in a
+	 * {@link ModelMesh#indexBuffer}. Normals, tangents and binormals become normalized shorts, texture coordinates within [0, 1]
+	 * normalized unsigned shorts, others half floats if allowed, and unpacked colors normalized bytes. Positions and other
+	 * attributes stay floats, so the bounds of the parts can still be computed. Every attribute is padded to four bytes.
+	 * <p>
+	 * The quantized mesh can only be rendered, its vertices can't be read as floats anymore, for example by {@link MeshBuilder}
+	 * or {@link com.badlogic.gdx.graphics.g3d.ModelCache}. Meshes without float vertices are left unchanged.
+	 * @param halfFloatTexCoords Whether texture coordinates outside of [0, 1] become half floats, which requires OpenGL ES 3.0. */
+	public static void quantize (ModelMesh mesh, boolean halfFloatTexCoords) {
+		if (mesh.vertices == null || mesh.vertexBuffer != null) return;
+		final VertexAttributes attributes = new VertexAttributes(mesh.attributes);
+		final int stride = attributes.vertexSize / 4;
+		final int numVertices = mesh.vertices.length / stride;
+		final float[] vertices = mesh.vertices;
+
+		final VertexAttribute[] quantized = new VertexAttribute[attributes.size()];
+		for (int i = 0; i < quantized.length; i++) {
+			final VertexAttribute attribute = attributes.get(i);
+			quantized[i] = attribute.copy();
+			if (attribute.type != GL20.GL_FLOAT) continue;
+			final int n = attribute.numComponents;
+			switch (attribute.usage) {
+			case Usage.Normal:
+			case Usage.Tangent:
+			case Usage.BiNormal:
+				quantized[i] = new VertexAttribute(attribute.usage, n == 3 ? 4 : n, GL20.GL_SHORT, true, attribute.alias,
+					attribute.unit);
+				break;
+			case Usage.TextureCoordinates:
+				if (inUnitRange(vertices, stride, attribute.offset / 4, n))
+					quantized[i] = new VertexAttribute(attribute.usage, n + (n & 1), GL20.GL_UNSIGNED_SHORT, true, attribute.alias,
+						attribute.unit);
+				else if (halfFloatTexCoords)
+					quantized[i] = new VertexAttribute(attribute.usage, n + (n & 1), GL30.GL_HALF_FLOAT, false, attribute.alias,
+						attribute.unit);
+				break;
+			case Usage.ColorUnpacked:
+				quantized[i] = new VertexAttribute(Usage.ColorPacked, 4, GL20.GL_UNSIGNED_BYTE, true, attribute.alias,
+					attribute.unit);
+				break;
+			}
+		}
+		final VertexAttributes quantizedAttributes = new VertexAttributes(quantized);
+
+		final ByteBuffer buffer = BufferUtils.newByteBuffer(numVertices * quantizedAttributes.vertexSize);
+		for (int v = 0; v < numVertices; v++) {
+			for (int i = 0; i < quantized.length; i++) {
+				final VertexAttribute source = attributes.get(i), target = quantizedAttributes.get(i);
+				final int from = v * stride + source.offset / 4;
+				final int n = source.numComponents;
+				int position = v * quantizedAttributes.vertexSize + target.offset;
+				for (int c = 0; c < target.numComponents; c++) {
+					final float value = c < n ? vertices[from + c] : 0f;
+					switch (target.type) {
+					case GL20.GL_FLOAT:
+						buffer.putFloat(position, value);
+						position += 4;
+						break;
+					case GL20.GL_SHORT:
+						buffer.putShort(position, (short)Math.round(MathUtils.clamp(value, -1f, 1f) * 32767f));
+						position += 2;
+						break;
+					case GL20.GL_UNSIGNED_SHORT:
+						buffer.putShort(position, (short)Math.round(MathUtils.clamp(value, 0f, 1f) * 65535f));
+						position += 2;
+						break;
+					case GL30.GL_HALF_FLOAT:
+						buffer.putShort(position, toHalfFloat(value));
+						position += 2;
+						break;
+					case GL20.GL_UNSIGNED_BYTE:
+						buffer.put(position, (byte)Math.round(MathUtils.clamp(value, 0f, 1f) * 255f));
+						position += 1;
+						break;
+					default:
+						throw new IllegalStateException("Unexpected vertex attribute type: " + target.type);
+					}
+				}
+			}
+		}
+
+		int numIndices = 0;
+		for (ModelMeshPart part : mesh.parts)
+			numIndices += part.indices == null ? 0 : part.indices.length;
+		final ByteBuffer indexBuffer = BufferUtils.newByteBuffer(numIndices * 2);
+		int offset = 0;
+		for (ModelMeshPart part : mesh.parts) {
+			// Same as Model#convertMesh, parts without indices draw all vertices
+			part.offset = offset;
+			part.size = numIndices > 0 ? part.indices.length : numVertices;
+			if (numIndices > 0) {
+				for (int i = 0; i < part.indices.length; i++)
+					indexBuffer.putShort((offset + i) * 2, part.indices[i]);
+				offset += part.indices.length;
+			}
+		}
+
+		mesh.attributes = quantized;
+		mesh.vertices = null;
+		mesh.vertexBuffer = buffer;
+		mesh.indexBuffer = indexBuffer;
+	}
+
+	private static boolean inUnitRange (float[] vertices, int stride, int offset, int numComponents) {
+		for (int i = offset; i < vertices.length; i += stride)
+			for (int c = 0; c < numComponents; c++)
+				if (vertices[i + c] < 0f || vertices[i + c] > 1f) return false;
+		return true;
+	}
+
+	/** @return The value as an IEEE 754 half float, rounded to nearest. */
+	static short toHalfFloat (float value) {
+		final int bits = Float.floatToIntBits(value);
+		final int sign = (bits >>> 16) & 0x8000;
+		final int exponent = ((bits >>> 23) & 0xFF) - 127 + 15;
+		int mantissa = bits & 0x7FFFFF;
+		if (exponent >= 31) {
+			// Overflow to infinity, keep NaN
+			return (short)(sign | 0x7C00 | ((bits & 0x7FFFFFFF) > 0x7F800000 ? 0x200 : 0));
+		}
+		if (exponent <= 0) {
+			// Subnormal or zero
+			if (exponent < -10) return (short)sign;
+			mantissa |= 0x800000;
+			final int shift = 14 - exponent;
+			final int half = mantissa >> shift;
+			final int round = (mantissa >> (shift - 1)) & 1;
+			return (short)(sign | (half + round));
+		}
+		final int half = sign | exponent << 10 | mantissa >> 13;
+		// Round to nearest, carrying into the exponent if needed
+		return (short)(half + ((mantissa >> 12) & 1));
+	}
+}
@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/** Reduces the number of triangles of a mesh by collapsing edges, ordered by the error they introduce as measured by quadric
+ * error metrics (Garland and Heckbert, "Surface Simplification Using Quadric Error Metrics").
+ * <p>
+ * Each collapse moves a vertex onto one of its neighbours, so no vertices are created or changed: the simplified indices refer
+ * to the original vertices and several levels of detail can share the same vertex data, see
+ * {@link com.badlogic.gdx.graphics.g3d.ModelLod}. Vertices with exactly the same attributes are merged first, so meshes
+ * without shared vertices can be simplified too. Vertices sharing their position with vertices that have different attributes,
+ * such as along texture seams, are never moved, neither are non manifold vertices. Vertices on the borders of open meshes only
+ * move along the border, unless {@link #lockBorders} is set.
+ * <p>
+ * Collapses that would flip triangles are rejected. The {@link #error} of a simplification is the largest distance between a
+ * moved vertex and the planes of its original triangles, relative to the size of the mesh. */
+public class MeshSimplifier {
+	/** The largest error allowed, relative to the size of the mesh: 0.01 allows vertices to move 1% of the mesh size away from
+	 * their original surface. */
+	public float targetError = 0.01f;
+	/** Whether vertices on the borders of open meshes are kept in place. */
+	public boolean lockBorders = false;
+	/** The error of the last {@link #simplify(short[], int, int, float[], int, int, int, short[], int) simplification}, relative
+	 * to the size of the mesh. */
+	public float error;
+
+	private final static byte MANIFOLD = 0, BORDER = 1, LOCKED = 2;
+	/** The weight of the planes keeping the border vertices on the border, relative to the triangle planes. */
+	private final static float BORDER_WEIGHT = 10f;
+	/** The smallest cosine of the angle a triangle may be rotated by a collapse. */
+	private final static float MIN_COSINE = 0.2f;
+
+	private long[] edges;
+	private int edgeMask;
+
+	/** Simplifies the triangles of the indices down to the target number of indices, or as close as possible without exceeding
+	 * the {@link #targetError}. The indices are unsigned shorts.
+	 * @param vertices The vertices, of which only the positions are used to simplify while all floats are compared to merge
+	 *           equal vertices.
+	 * @param stride The number of floats per vertex.
+	 * @param positionOffset The offset in floats of the three position components in each vertex.
+	 * @param targetCount The number of indices to simplify down to.
+	 * @param destination The array receiving the simplified indices, which may be the indices. It needs room for count indices.
+	 * @return The number of simplified indices written to the destination. */
+	public int simplify (short[] indices, int offset, int count, float[] vertices, int stride, int positionOffset, int targetCount,
+		short[] destination, int destinationOffset) {
+		count -= count % 3;
+		final int numVertices = vertices.length / stride;
+		final int[] result = new int[count];
+		for (int i = 0; i < count; i++)
+			result[i] = indices[offset + i] & 0xFFFF;
+		error = 0f;
+		int indexCount = count > targetCount ? simplify(result, count, vertices, stride, positionOffset, numVertices, targetCount)
+			: count;
+		for (int i = 0; i < indexCount; i++)
+			destination[destinationOffset + i] = (short)result[i];
+		return indexCount;
+	}
+
+	private int simplify (int[] result, int indexCount, float[] vertices, int stride, int positionOffset, int numVertices,
+		int targetCount) {
+		// Merge equal vertices and find the first vertex with the same position of each vertex.
+		final int[] position = new int[numVertices];
+		remap(vertices, stride, 0, stride, numVertices, position);
+		for (int i = 0; i < indexCount; i++)
+			result[i] = position[result[i]];
+		remap(vertices, stride, positionOffset, 3, numVertices, position);
+
+		// Scale the positions to the unit cube, so the error is relative to the size of the mesh.
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE, size = 0f;
+		for (int i = 0; i < indexCount; i++) {
+			final int v = result[i] * stride + positionOffset;
+			minX = Math.min(minX, vertices[v]);
+			minY = Math.min(minY, vertices[v + 1]);
+			minZ = Math.min(minZ, vertices[v + 2]);
+		}
+		for (int i = 0; i < indexCount; i++) {
+			final int v = result[i] * stride + positionOffset;
+			size = Math.max(size, Math.max(vertices[v] - minX, Math.max(vertices[v + 1] - minY, vertices[v + 2] - minZ)));
+		}
+		if (size == 0f) return indexCount;
+		final float scale = 1f / size;
+		final float[] positions = new float[numVertices * 3];
+		for (int v = 0; v < numVertices; v++) {
+			final int p = v * stride + positionOffset;
+			positions[v * 3] = (vertices[p] - minX) * scale;
+			positions[v * 3 + 1] = (vertices[p + 1] - minY) * scale;
+			positions[v * 3 + 2] = (vertices[p + 2] - minZ) * scale;
+		}
+
+		// Vertices sharing their position with other vertices or on non manifold edges are locked.
+		final byte[] kinds = new byte[numVertices];
+		final int[] wedges = new int[numVertices];
+		final boolean[] counted = new boolean[numVertices];
+		for (int i = 0; i < indexCount; i++) {
+			final int v = result[i];
+			if (counted[v]) continue;
+			counted[v] = true;
+			if (++wedges[position[v]] > 1) kinds[position[v]] = LOCKED;
+		}
+		buildEdges(result, indexCount, position, kinds);
+		final int[] borders = new int[numVertices];
+		for (int i = 0; i < indexCount; i++) {
+			final int a = position[result[i]], b = position[result[i - i % 3 + (i + 1) % 3]];
+			if (!hasEdge(b, a)) {
+				borders[a]++;
+				borders[b]++;
+			}
+		}
+		for (int v = 0; v < numVertices; v++)
+			if (borders[v] > 0 && kinds[v] == MANIFOLD) kinds[v] = lockBorders || borders[v] > 2 ? LOCKED : BORDER;
+
+		final float[] quadrics = new float[numVertices * 11];
+		for (int i = 0; i < indexCount; i += 3)
+			addTriangleQuadrics(quadrics, positions, position, result, i);
+
+		final int[] targets = new int[numVertices];
+		Arrays.fill(targets, -1);
+		final boolean[] touched = new boolean[numVertices];
+		final int[] fanStarts = new int[numVertices + 1];
+		final int[] fans = new int[indexCount];
+		final int[] from = new int[indexCount * 2], to = new int[indexCount * 2];
+		final float[] costs = new float[indexCount * 2];
+		final long[] order = new long[indexCount * 2];
+		final float maxError = targetError * targetError;
+		float maxCost = 0f;
+
+		while (indexCount > targetCount) {
+			buildEdges(result, indexCount, position, null);
+
+			// The triangles around each position.
+			Arrays.fill(fanStarts, 0);
+			for (int i = 0; i < indexCount; i++)
+				fanStarts[position[result[i]] + 1]++;
+			for (int v = 0; v < numVertices; v++)
+				fanStarts[v + 1] += fanStarts[v];
+			for (int i = 0; i < indexCount; i++)
+				fans[fanStarts[position[result[i]]]++] = i / 3;
+			for (int v = numVertices; v > 0; v--)
+				fanStarts[v] = fanStarts[v - 1];
+			fanStarts[0] = 0;
+
+			// Interior vertices can collapse along any edge, border vertices only along the border.
+			int numCandidates = 0;
+			for (int i = 0; i < indexCount; i++) {
+				final int v0 = result[i], v1 = result[i - i % 3 + (i + 1) % 3];
+				final int a = position[v0], b = position[v1];
+				final boolean border = !hasEdge(b, a);
+				for (int k = 0; k < 2; k++) {
+					final int u = k == 0 ? v0 : v1, v = k == 0 ? v1 : v0;
+					final byte kind = kinds[position[u]];
+					if (border ? kind != BORDER || kinds[position[v]] == MANIFOLD : kind != MANIFOLD || a > b) continue;
+					from[numCandidates] = u;
+					to[numCandidates] = border ? v | 0x80000000 : v;
+					costs[numCandidates] = evaluate(quadrics, position[u], position[v], positions);
+					order[numCandidates] = (long)Float.floatToIntBits(costs[numCandidates]) << 32 | numCandidates;
+					numCandidates++;
+				}
+			}
+			Arrays.sort(order, 0, numCandidates);
+
+			int triangles = indexCount / 3, collapses = 0;
+			final int targetTriangles = targetCount / 3;
+			Arrays.fill(touched, false);
+			for (int c = 0; c < numCandidates && triangles > targetTriangles; c++) {
+				final int candidate = (int)order[c];
+				final float cost = costs[candidate];
+				if (cost > maxError) break;
+				final int u = from[candidate], v = to[candidate] & 0x7FFFFFFF;
+				final int pu = position[u], pv = position[v];
+				if (touched[pu] || touched[pv] || flips(pu, pv, result, position, positions, fans, fanStarts)) continue;
+				targets[u] = v;
+				for (int k = 0; k < 11; k++)
+					quadrics[pv * 11 + k] += quadrics[pu * 11 + k];
+				touch(pu, result, position, fans, fanStarts, touched);
+				touch(pv, result, position, fans, fanStarts, touched);
+				triangles -= to[candidate] < 0 ? 1 : 2;
+				maxCost = Math.max(maxCost, cost);
+				collapses++;
+			}
+			if (collapses == 0) break;
+
+			// Move the collapsed vertices and remove the triangles that became degenerate.
+			int n = 0;
+			for (int i = 0; i < indexCount; i += 3) {
+				for (int k = 0; k < 3; k++) {
+					final int v = result[i + k];
+					result[n + k] = targets[v] >= 0 ? targets[v] : v;
+				}
+				final int a = position[result[n]], b = position[result[n + 1]], c = position[result[n + 2]];
+				if (a != b && b != c && c != a) n += 3;
+			}
+			Arrays.fill(targets, -1);
+			indexCount = n;
+		}
+		error = (float)Math.sqrt(maxCost);
+		return indexCount;
+	}
+
+	/** Sets remap[v] to the first vertex whose floats in the range equal those of vertex v. */
+	private static void remap (float[] vertices, int stride, int start, int length, int numVertices, int[] remap) {
+		final int mask = MathUtils.nextPowerOfTwo(Math.max(2, numVertices * 2)) - 1;
+		final int[] table = new int[mask + 1];
+		Arrays.fill(table, -1);
+		for (int v = 0; v < numVertices; v++) {
+			final int offset = v * stride + start;
+			int hash = 0;
+			for (int k = 0; k < length; k++)
+				hash = hash * 31 + Float.floatToIntBits(vertices[offset + k]);
+			int slot = (hash * 0x9E3779B9) >>> 16 & mask;
+			while (true) {
+				final int other = table[slot];
+				if (other < 0) {
+					table[slot] = v;
+					remap[v] = v;
+					break;
+				}
+				if (equals(vertices, offset, other * stride + start, length)) {
+					remap[v] = other;
+					break;
+				}
+				slot = slot + 1 & mask;
+			}
+		}
+	}
+
+	private static boolean equals (float[] vertices, int a, int b, int length) {
+		for (int k = 0; k < length; k++)
+			if (Float.floatToIntBits(vertices[a + k]) != Float.floatToIntBits(vertices[b + k])) return false;
+		return true;
+	}
+
+	/** Adds the directed edges between the positions of the triangles to the edge table.
+	 * @param kinds If not null, the positions of edges found more than once are locked. */
+	private void buildEdges (int[] result, int indexCount, int[] position, byte[] kinds) {
+		final int capacity = MathUtils.nextPowerOfTwo(Math.max(2, indexCount * 2));
+		if (edges == null || edges.length < capacity) edges = new long[capacity];
+		edgeMask = capacity - 1;
+		Arrays.fill(edges, 0, capacity, -1L);
+		for (int i = 0; i < indexCount; i++) {
+			final int a = position[result[i]], b = position[result[i - i % 3 + (i + 1) % 3]];
+			final long key = (long)a << 32 | b;
+			int slot = slot(key);
+			while (edges[slot] != -1L && edges[slot] != key)
+				slot = slot + 1 & edgeMask;
+			if (edges[slot] == key && kinds != null) kinds[a] = kinds[b] = LOCKED;
+			edges[slot] = key;
+		}
+	}
+
+	/** @return Whether the edge table contains the directed edge. */
+	private boolean hasEdge (int a, int b) {
+		final long key = (long)a << 32 | b;
+		int slot = slot(key);
+		while (edges[slot] != -1L) {
+			if (edges[slot] == key) return true;
+			slot = slot + 1 & edgeMask;
+		}
+		return false;
+	}
+
+	private int slot (long key) {
+		return (int)((key * 0x9E3779B97F4A7C15L) >>> 32) & edgeMask;
+	}
+
+	/** Adds the plane of the triangle, weighted by its area, to the quadrics of its corners. */
+	private void addTriangleQuadrics (float[] quadrics, float[] positions, int[] position, int[] result, int i) {
+		final int a = position[result[i]], b = position[result[i + 1]], c = position[result[i + 2]];
+		final float ax = positions[a * 3], ay = positions[a * 3 + 1], az = positions[a * 3 + 2];
+		final float abx = positions[b * 3] - ax, aby = positions[b * 3 + 1] - ay, abz = positions[b * 3 + 2] - az;
+		final float acx = positions[c * 3] - ax, acy = positions[c * 3 + 1] - ay, acz = positions[c * 3 + 2] - az;
+		float nx = aby * acz - abz * acy, ny = abz * acx - abx * acz, nz = abx * acy - aby * acx;
+		final float length = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+		if (length == 0f) return;
+		nx /= length;
+		ny /= length;
+		nz /= length;
+		final float weight = length * 0.5f;
+		for (int k = 0; k < 3; k++) {
+			final int v = k == 0 ? a : k == 1 ? b : c;
+			addPlane(quadrics, v, nx, ny, nz, -(nx * ax + ny * ay + nz * az), weight);
+		}
+		if (lockBorders) return;
+		// Planes through the border edges, perpendicular to the triangle, keep border vertices on the border.
+		for (int k = 0; k < 3; k++) {
+			final int u = k == 0 ? a : k == 1 ? b : c, v = k == 0 ? b : k == 1 ? c : a;
+			if (hasEdge(v, u)) continue;
+			final float ex = positions[v * 3] - positions[u * 3], ey = positions[v * 3 + 1] - positions[u * 3 + 1],
+				ez = positions[v * 3 + 2] - positions[u * 3 + 2];
+			float px = ey * nz - ez * ny, py = ez * nx - ex * nz, pz = ex * ny - ey * nx;
+			final float edgeLength = (float)Math.sqrt(px * px + py * py + pz * pz);
+			if (edgeLength == 0f) continue;
+			px /= edgeLength;
+			py /= edgeLength;
+			pz /= edgeLength;
+			final float d = -(px * positions[u * 3] + py * positions[u * 3 + 1] + pz * positions[u * 3 + 2]);
+			final float borderWeight = edgeLength * edgeLength * BORDER_WEIGHT;
+			addPlane(quadrics, u, px, py, pz, d, borderWeight);
+			addPlane(quadrics, v, px, py, pz, d, borderWeight);
+		}
+	}
+
+	private static void addPlane (float[] quadrics, int v, float a, float b, float c, float d, float weight) {
+		final int q = v * 11;
+		quadrics[q] += a * a * weight;
+		quadrics[q + 1] += a * b * weight;
+		quadrics[q + 2] += a * c * weight;
+		quadrics[q + 3] += a * d * weight;
+		quadrics[q + 4] += b * b * weight;
+		quadrics[q + 5] += b * c * weight;
+		quadrics[q + 6] += b * d * weight;
+		quadrics[q + 7] += c * c * weight;
+		quadrics[q + 8] += c * d * weight;
+		quadrics[q + 9] += d * d * weight;
+		quadrics[q + 10] += weight;
+	}
+
+	/** @return The squared distance error of moving u onto v, the sum of both quadrics at the position of v divided by their
+	 *         weight. */
+	private static float evaluate (float[] quadrics, int u, int v, float[] positions) {
+		final float x = positions[v * 3], y = positions[v * 3 + 1], z = positions[v * 3 + 2];
+		float result = 0f, weight = 0f;
+		for (int k = 0; k < 2; k++) {
+			final int q = (k == 0 ? u : v) * 11;
+			result += quadrics[q] * x * x + 2f * quadrics[q + 1] * x * y + 2f * quadrics[q + 2] * x * z
+				+ 2f * quadrics[q + 3] * x + quadrics[q + 4] * y * y + 2f * quadrics[q + 5] * y * z + 2f * quadrics[q + 6] * y
+				+ quadrics[q + 7] * z * z + 2f * quadrics[q + 8] * z + quadrics[q + 9];
+			weight += quadrics[q + 10];
+		}
+		return weight == 0f ? 0f : Math.abs(result) / weight;
+	}
+
+	/** @return Whether moving u onto v rotates one of the triangles around u that don't contain v too much. */
+	private static boolean flips (int u, int v, int[] result, int[] position, float[] positions, int[] fans, int[] fanStarts) {
+		for (int f = fanStarts[u], n = fanStarts[u + 1]; f < n; f++) {
+			final int t = fans[f] * 3;
+			final int a = position[result[t]], b = position[result[t + 1]], c = position[result[t + 2]];
+			if (a == v || b == v || c == v) continue;
+			// The other two corners in winding order after u.
+			final int p1 = a == u ? b : b == u ? c : a, p2 = a == u ? c : b == u ? a : b;
+			final float ex = positions[p1 * 3] - positions[u * 3], ey = positions[p1 * 3 + 1] - positions[u * 3 + 1],
+				ez = positions[p1 * 3 + 2] - positions[u * 3 + 2];
+			final float fx = positions[p2 * 3] - positions[u * 3], fy = positions[p2 * 3 + 1] - positions[u * 3 + 1],
+				fz = positions[p2 * 3 + 2] - positions[u * 3 + 2];
+			final float nx = ey * fz - ez * fy, ny = ez * fx - ex * fz, nz = ex * fy - ey * fx;
+			final float gx = positions[p1 * 3] - positions[v * 3], gy = positions[p1 * 3 + 1] - positions[v * 3 + 1],
+				gz = positions[p1 * 3 + 2] - positions[v * 3 + 2];
+			final float hx = positions[p2 * 3] - positions[v * 3], hy = positions[p2 * 3 + 1] - positions[v * 3 + 1],
+				hz = positions[p2 * 3 + 2] - positions[v * 3 + 2];
+			final float mx = gy * hz - gz * hy, my = gz * hx - gx * hz, mz = gx * hy - gy * hx;
+			final float dot = nx * mx + ny * my + nz * mz;
+			if (dot <= MIN_COSINE * (float)Math.sqrt((nx * nx + ny * ny + nz * nz) * (mx * mx + my * my + mz * mz))) return true;
+		}
+		return false;
+	}
+
+	/** Marks the positions of the triangles around the position, so they aren't collapsed again in the same pass. */
+	private static void touch (int u, int[] result, int[] position, int[] fans, int[] fanStarts, boolean[] touched) {
+		for (int f = fanStarts[u], n = fanStarts[u + 1]; f < n; f++) {
+			final int t = fans[f] * 3;
+			touched[position[result[t]]] = true;
+			touched[position[result[t + 1]]] = true;
+			touched[position[result[t + 2]]] = true;
+		}
+	}
+}
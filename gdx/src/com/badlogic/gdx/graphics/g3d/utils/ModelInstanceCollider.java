@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Octree;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/** An {@link Octree.Collider} for {@link ModelInstance}s, to keep static instances in an {@link Octree} that
+ * {@link ModelBatch#render(Octree)} can query with the camera frustum. The world space bounding box of an instance is calculated
+ * the first time it is needed and cached, so {@link #invalidate(ModelInstance)} must be called after an instance has moved and
+ * before it is updated in the octree. */
+public class ModelInstanceCollider implements Octree.Collider<ModelInstance> {
+	private final ObjectMap<ModelInstance, BoundingBox> bounds = new ObjectMap<ModelInstance, BoundingBox>();
+	private final Vector3 tmp = new Vector3();
+
+	/** @return the cached world space bounding box of the instance, calculated if needed. */
+	public BoundingBox getBounds (final ModelInstance instance) {
+		BoundingBox box = bounds.get(instance);
+		if (box == null) {
+			box = instance.calculateBoundingBox(new BoundingBox()).mul(instance.transform);
+			bounds.put(instance, box);
+		}
+		return box;
+	}
+
+	/** Removes the cached bounding box of the instance, must be called when the instance has moved or is removed from the
+	 * octree. */
+	public void invalidate (final ModelInstance instance) {
+		bounds.remove(instance);
+	}
+
+	/** Removes all cached bounding boxes. */
+	public void clear () {
+		bounds.clear();
+	}
+
+	@Override
+	public boolean intersects (final BoundingBox nodeBounds, final ModelInstance instance) {
+		return nodeBounds.intersects(getBounds(instance));
+	}
+
+	@Override
+	public boolean intersects (final Frustum frustum, final ModelInstance instance) {
+		return frustum.boundsInFrustum(getBounds(instance));
+	}
+
+	@Override
+	public float intersects (final Ray ray, final ModelInstance instance) {
+		if (Intersector.intersectRayBounds(ray, getBounds(instance), tmp)) return tmp.dst2(ray.origin);
+		return Float.MAX_VALUE;
+	}
+}
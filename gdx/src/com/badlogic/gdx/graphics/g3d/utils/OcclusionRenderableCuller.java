@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** A {@link RenderableCuller} which culls the renderables hidden behind designated occluders, as well as those outside of the
+ * camera frustum.
+ * <p>
+ * {@link #update(Camera)} rasterizes the triangles of the {@link #addOccluder(Occluder, Matrix4) added} {@link Occluder}s into a
+ * small depth buffer on the CPU, keeping the nearest depth of each pixel, then builds a hierarchical depth pyramid, each level
+ * keeping the farthest depth of 2x2 pixels of the level below. A renderable is tested by projecting the bounding box of its
+ * {@link MeshPart} (see {@link MeshPart#update()}), transformed by its world transform, and comparing the nearest depth of the
+ * box with the farthest depth of the at most 4x4 pyramid pixels covering it, on the finest level where they do. Renderables
+ * without calculated bounds, skinned renderables and renderables crossing the near plane are always visible.
+ * <p>
+ * Occluders should be simple, closed meshes lying inside the objects they stand for, such as the walls of a building, so that
+ * they never hide anything visible. Triangles crossing the near plane are skipped. The rows of the depth buffer are rasterized
+ * independently, see {@link ForkJoinOcclusionRenderableCuller} to rasterize them in parallel. The inner loops only access
+ * consecutive floats of a row without branching, so the JIT can vectorize them.
+ * <p>
+ * The culler has to be updated with the same camera as the {@link com.badlogic.gdx.graphics.g3d.ModelBatch} before the
+ * renderables are added to the batch, and whenever the camera or the occluders move. */
+public class OcclusionRenderableCuller implements RenderableCuller {
+	/** The triangles of an occluder, in its local space. */
+	public static class Occluder {
+		/** The x, y and z coordinates of each vertex. */
+		public final float[] positions;
+		/** Three vertex indices for each triangle. */
+		public final short[] indices;
+
+		public Occluder (final float[] positions, final short[] indices) {
+			if (indices.length % 3 != 0) throw new IllegalArgumentException("The indices must form triangles: " + indices.length);
+			this.positions = positions;
+			this.indices = indices;
+		}
+
+		/** Copies the positions of the vertices used by the mesh part, which must consist of triangles, from the mesh. The
+		 * vertices of the mesh must be readable, see {@link Mesh#getVertices(float[])}. */
+		public Occluder (final MeshPart meshPart) {
+			if (meshPart.primitiveType != GL20.GL_TRIANGLES) throw new GdxRuntimeException("Occluders must consist of triangles");
+			final Mesh mesh = meshPart.mesh;
+			final VertexAttribute position = mesh.getVertexAttribute(Usage.Position);
+			if (position == null) throw new GdxRuntimeException("The mesh of an occluder must have positions");
+			final int stride = mesh.getVertexSize() / 4, offset = position.offset / 4;
+			final int components = Math.min(3, position.numComponents);
+			final float[] vertices = mesh.getVertices(new float[mesh.getNumVertices() * stride]);
+			final short[] source = new short[meshPart.size];
+			if (mesh.getNumIndices() > 0)
+				mesh.getIndices(meshPart.offset, meshPart.size, source, 0);
+			else
+				for (int i = 0; i < source.length; i++)
+					source[i] = (short)(meshPart.offset + i);
+
+			final int[] remap = new int[mesh.getNumVertices()];
+			Arrays.fill(remap, -1);
+			final float[] positions = new float[source.length * 3];
+			indices = new short[source.length];
+			int count = 0;
+			for (int i = 0; i < source.length; i++) {
+				final int vertex = source[i] & 0xFFFF;
+				if (remap[vertex] == -1) {
+					for (int c = 0; c < components; c++)
+						positions[count * 3 + c] = vertices[vertex * stride + offset + c];
+					remap[vertex] = count++;
+				}
+				indices[i] = (short)remap[vertex];
+			}
+			this.positions = Arrays.copyOf(positions, count * 3);
+		}
+	}
+
+	/** The size of the depth buffer in pixels. */
+	public final int width, height;
+	/** The levels of the depth pyramid, the first one being the depth buffer, with the normalized device depth per pixel. */
+	private final float[][] levels;
+	private final int[] levelWidths, levelHeights;
+
+	private final Array<Occluder> occluders = new Array<Occluder>();
+	private final Array<Matrix4> transforms = new Array<Matrix4>();
+	private final Matrix4 combined = new Matrix4(), tmpM = new Matrix4();
+	private final Vector3 tmpV = new Vector3();
+	/** The screen coordinates and depth of the vertices of the occluders, NaN for vertices in front of the near plane. */
+	private float[] vertices = new float[0];
+	/** The setup of each triangle, see {@link #TRIANGLE_SIZE}. */
+	private float[] triangles = new float[0];
+	private int triangleCount;
+	private boolean updated;
+
+	/** The floats per triangle: the screen coordinates of the vertices sorted by y, then the depth at the origin and its
+	 * derivatives along x and y. */
+	private static final int TRIANGLE_SIZE = 9;
+
+	/** Creates a culler with a depth buffer of 256x128 pixels. */
+	public OcclusionRenderableCuller () {
+		this(256, 128);
+	}
+
+	/** @param width the width of the depth buffer in pixels
+	 * @param height the height of the depth buffer in pixels */
+	public OcclusionRenderableCuller (final int width, final int height) {
+		if (width < 1 || height < 1) throw new IllegalArgumentException("Invalid depth buffer size: " + width + "x" + height);
+		this.width = width;
+		this.height = height;
+		int count = 1;
+		for (int w = width, h = height; w > 1 || h > 1; w = (w + 1) >> 1, h = (h + 1) >> 1)
+			count++;
+		levels = new float[count][];
+		levelWidths = new int[count];
+		levelHeights = new int[count];
+		for (int i = 0, w = width, h = height; i < count; i++, w = (w + 1) >> 1, h = (h + 1) >> 1) {
+			levels[i] = new float[w * h];
+			levelWidths[i] = w;
+			levelHeights[i] = h;
+		}
+	}
+
+	/** Adds an occluder, which is rasterized by the next {@link #update(Camera)}.
+	 * @param transform the world transform of the occluder, which is not copied so it can be moved */
+	public void addOccluder (final Occluder occluder, final Matrix4 transform) {
+		occluders.add(occluder);
+		transforms.add(transform);
+	}
+
+	/** @return whether the occluder was added with the transform */
+	public boolean removeOccluder (final Occluder occluder, final Matrix4 transform) {
+		for (int i = 0; i < occluders.size; i++) {
+			if (occluders.get(i) == occluder && transforms.get(i) == transform) {
+				occluders.removeIndex(i);
+				transforms.removeIndex(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void clearOccluders () {
+		occluders.clear();
+		transforms.clear();
+	}
+
+	/** @return the number of occluder triangles rasterized by the last {@link #update(Camera)} */
+	public int getTriangleCount () {
+		return triangleCount;
+	}
+
+	/** Rasterizes the occluders as seen by the camera and builds the depth pyramid. Renderables are tested with the camera of the
+	 * last update. */
+	public void update (final Camera camera) {
+		combined.set(camera.combined);
+		setupTriangles();
+		Arrays.fill(levels[0], 1f);
+		if (triangleCount > 0) rasterize();
+		buildPyramid();
+		updated = true;
+	}
+
+	/** Projects the vertices of the occluders and sets up the triangles which are in front of the camera and cover the center of
+	 * at least one pixel row. */
+	private void setupTriangles () {
+		int vertexCount = 0, indexCount = 0;
+		for (int i = 0; i < occluders.size; i++) {
+			vertexCount += occluders.get(i).positions.length / 3;
+			indexCount += occluders.get(i).indices.length;
+		}
+		if (vertices.length < vertexCount * 3) vertices = new float[vertexCount * 3];
+		if (triangles.length < indexCount / 3 * TRIANGLE_SIZE) triangles = new float[indexCount / 3 * TRIANGLE_SIZE];
+
+		final float[] vertices = this.vertices, triangles = this.triangles;
+		final float halfWidth = width * 0.5f, halfHeight = height * 0.5f;
+		int count = 0, base = 0;
+		for (int o = 0; o < occluders.size; o++) {
+			final Occluder occluder = occluders.get(o);
+			final float[] m = tmpM.set(combined).mul(transforms.get(o)).val;
+			final float[] positions = occluder.positions;
+			for (int i = 0, v = base, n = positions.length; i < n; i += 3, v += 3) {
+				final float x = positions[i], y = positions[i + 1], z = positions[i + 2];
+				final float w = m[Matrix4.M30] * x + m[Matrix4.M31] * y + m[Matrix4.M32] * z + m[Matrix4.M33];
+				final float cz = m[Matrix4.M20] * x + m[Matrix4.M21] * y + m[Matrix4.M22] * z + m[Matrix4.M23];
+				if (cz < -w || w <= 0f) {
+					vertices[v] = Float.NaN;
+					continue;
+				}
+				final float invW = 1f / w;
+				vertices[v] = ((m[Matrix4.M00] * x + m[Matrix4.M01] * y + m[Matrix4.M02] * z + m[Matrix4.M03]) * invW + 1f)
+					* halfWidth;
+				vertices[v + 1] = ((m[Matrix4.M10] * x + m[Matrix4.M11] * y + m[Matrix4.M12] * z + m[Matrix4.M13]) * invW + 1f)
+					* halfHeight;
+				vertices[v + 2] = cz * invW;
+			}
+
+			final short[] indices = occluder.indices;
+			for (int i = 0, n = indices.length; i < n; i += 3) {
+				final int a = base + (indices[i] & 0xFFFF) * 3, b = base + (indices[i + 1] & 0xFFFF) * 3;
+				final int c = base + (indices[i + 2] & 0xFFFF) * 3;
+				if (setupTriangle(vertices, a, b, c, triangles, count * TRIANGLE_SIZE)) count++;
+			}
+			base += positions.length;
+		}
+		triangleCount = count;
+	}
+
+	private boolean setupTriangle (final float[] vertices, int a, int b, int c, final float[] triangles, final int t) {
+		if (Float.isNaN(vertices[a]) || Float.isNaN(vertices[b]) || Float.isNaN(vertices[c])) return false;
+		// Sort the vertices by y
+		int tmp;
+		if (vertices[b + 1] < vertices[a + 1]) {
+			tmp = a;
+			a = b;
+			b = tmp;
+		}
+		if (vertices[c + 1] < vertices[b + 1]) {
+			tmp = b;
+			b = c;
+			c = tmp;
+			if (vertices[b + 1] < vertices[a + 1]) {
+				tmp = a;
+				a = b;
+				b = tmp;
+			}
+		}
+		final float x0 = vertices[a], y0 = vertices[a + 1], z0 = vertices[a + 2];
+		final float x1 = vertices[b], y1 = vertices[b + 1], z1 = vertices[b + 2];
+		final float x2 = vertices[c], y2 = vertices[c + 1], z2 = vertices[c + 2];
+		if (y2 < 0.5f || y0 > height - 0.5f || Math.max(x0, Math.max(x1, x2)) < 0.5f
+			|| Math.min(x0, Math.min(x1, x2)) > width - 0.5f || Math.ceil(y0 - 0.5f) >= Math.ceil(y2 - 0.5f)) return false;
+		// The plane of the depth through the three vertices
+		final float e1x = x1 - x0, e1y = y1 - y0, e1z = z1 - z0, e2x = x2 - x0, e2y = y2 - y0, e2z = z2 - z0;
+		final float nz = e1x * e2y - e1y * e2x;
+		if (Math.abs(nz) < 1e-6f) return false;
+		final float dzdx = -(e1y * e2z - e1z * e2y) / nz, dzdy = -(e1z * e2x - e1x * e2z) / nz;
+		triangles[t] = x0;
+		triangles[t + 1] = y0;
+		triangles[t + 2] = x1;
+		triangles[t + 3] = y1;
+		triangles[t + 4] = x2;
+		triangles[t + 5] = y2;
+		triangles[t + 6] = z0 - dzdx * x0 - dzdy * y0;
+		triangles[t + 7] = dzdx;
+		triangles[t + 8] = dzdy;
+		return true;
+	}
+
+	/** Rasterizes all rows of the depth buffer, see {@link #rasterize(int, int)}. Can be overridden to rasterize bands of rows in
+	 * parallel. */
+	protected void rasterize () {
+		rasterize(0, height);
+	}
+
+	/** Rasterizes the occluder triangles into the rows of the depth buffer in the range, keeping the nearest depth of each pixel.
+	 * Distinct ranges can be rasterized concurrently. A pixel is covered if its center is inside a triangle.
+	 * @param startRow the first row, inclusive
+	 * @param endRow the last row, exclusive */
+	protected void rasterize (final int startRow, final int endRow) {
+		final float[] triangles = this.triangles, depth = levels[0];
+		final int width = this.width;
+		for (int t = 0, n = triangleCount * TRIANGLE_SIZE; t < n; t += TRIANGLE_SIZE) {
+			final float x0 = triangles[t], y0 = triangles[t + 1], x1 = triangles[t + 2], y1 = triangles[t + 3];
+			final float x2 = triangles[t + 4], y2 = triangles[t + 5];
+			final int firstRow = Math.max(startRow, (int)Math.ceil(y0 - 0.5f));
+			final int lastRow = Math.min(endRow, (int)Math.ceil(y2 - 0.5f));
+			if (firstRow >= lastRow) continue;
+			final float z = triangles[t + 6], dzdx = triangles[t + 7], dzdy = triangles[t + 8];
+			final float longSlope = (x2 - x0) / (y2 - y0);
+			for (int row = firstRow; row < lastRow; row++) {
+				final float cy = row + 0.5f;
+				final float xa = x0 + longSlope * (cy - y0);
+				final float xb = cy < y1 ? x0 + (x1 - x0) * (cy - y0) / (y1 - y0) : x1 + (x2 - x1) * (cy - y1) / (y2 - y1);
+				final int start = Math.max(0, (int)Math.ceil(Math.min(xa, xb) - 0.5f));
+				final int end = Math.min(width, (int)Math.ceil(Math.max(xa, xb) - 0.5f));
+				final float rowZ = z + dzdy * cy + dzdx * 0.5f;
+				final int offset = row * width;
+				for (int x = start; x < end; x++)
+					depth[offset + x] = Math.min(depth[offset + x], rowZ + dzdx * x);
+			}
+		}
+	}
+
+	/** Builds each level of the pyramid from the farthest depth of 2x2 pixels of the level below. */
+	private void buildPyramid () {
+		for (int l = 1; l < levels.length; l++) {
+			final float[] source = levels[l - 1], target = levels[l];
+			final int sourceWidth = levelWidths[l - 1], sourceHeight = levelHeights[l - 1];
+			final int targetWidth = levelWidths[l], targetHeight = levelHeights[l];
+			for (int y = 0; y < targetHeight; y++) {
+				final int row0 = (y << 1) * sourceWidth, row1 = Math.min((y << 1) + 1, sourceHeight - 1) * sourceWidth;
+				for (int x = 0; x < targetWidth; x++) {
+					final int x0 = x << 1, x1 = Math.min(x0 + 1, sourceWidth - 1);
+					target[y * targetWidth + x] = Math.max(Math.max(source[row0 + x0], source[row0 + x1]),
+						Math.max(source[row1 + x0], source[row1 + x1]));
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isVisible (final Camera camera, final Renderable renderable) {
+		final MeshPart meshPart = renderable.meshPart;
+		if (!updated || meshPart.radius < 0f || renderable.bones != null) return true;
+		final float[] m = tmpM.set(combined).mul(renderable.worldTransform).val;
+		final Vector3 center = meshPart.center, halfExtents = meshPart.halfExtents;
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < 8; i++) {
+			final Vector3 corner = tmpV.set((i & 1) == 0 ? -halfExtents.x : halfExtents.x,
+				(i & 2) == 0 ? -halfExtents.y : halfExtents.y, (i & 4) == 0 ? -halfExtents.z : halfExtents.z).add(center);
+			final float w = m[Matrix4.M30] * corner.x + m[Matrix4.M31] * corner.y + m[Matrix4.M32] * corner.z + m[Matrix4.M33];
+			final float z = m[Matrix4.M20] * corner.x + m[Matrix4.M21] * corner.y + m[Matrix4.M22] * corner.z + m[Matrix4.M23];
+			if (z < -w || w <= 0f) return true;
+			final float invW = 1f / w;
+			final float x = m[Matrix4.M00] * corner.x + m[Matrix4.M01] * corner.y + m[Matrix4.M02] * corner.z + m[Matrix4.M03];
+			final float y = m[Matrix4.M10] * corner.x + m[Matrix4.M11] * corner.y + m[Matrix4.M12] * corner.z + m[Matrix4.M13];
+			minX = Math.min(minX, x * invW);
+			maxX = Math.max(maxX, x * invW);
+			minY = Math.min(minY, y * invW);
+			maxY = Math.max(maxY, y * invW);
+			minZ = Math.min(minZ, z * invW);
+		}
+		// Outside of the frustum
+		if (maxX < -1f || minX > 1f || maxY < -1f || minY > 1f || minZ > 1f) return false;
+
+		int x0 = Math.max(0, (int)((minX + 1f) * 0.5f * width)), x1 = Math.min(width - 1, (int)((maxX + 1f) * 0.5f * width));
+		int y0 = Math.max(0, (int)((minY + 1f) * 0.5f * height)), y1 = Math.min(height - 1, (int)((maxY + 1f) * 0.5f * height));
+		int level = 0;
+		while (level < levels.length - 1 && (x1 - x0 > 3 || y1 - y0 > 3)) {
+			x0 >>= 1;
+			x1 >>= 1;
+			y0 >>= 1;
+			y1 >>= 1;
+			level++;
+		}
+		final float[] depth = levels[level];
+		final int levelWidth = levelWidths[level];
+		for (int y = y0; y <= y1; y++)
+			for (int x = x0; x <= x1; x++)
+				if (depth[y * levelWidth + x] >= minZ) return true;
+		return false;
+	}
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+/** A {@link RenderableSorter} which computes a 64 bit key for each {@link Renderable} once and sorts the keys with a radix sort,
+ * instead of comparing the renderables with each other like {@link DefaultRenderableSorter}.
+ * <p>
+ * Opaque renderables come first, grouped by shader, mesh and material to reduce the state changes, and front to back within a
+ * group. Grouping by mesh before material keeps the instances of a model together, since each
+ * {@link com.badlogic.gdx.graphics.g3d.ModelInstance} has its own copy of the materials, which lets an
+ * {@link com.badlogic.gdx.graphics.g3d.shaders.InstancedDefaultShader} draw them at once. Blended renderables follow, back to
+ * front, ordered by shader and material at the same distance. The distance is the one of the center of the mesh part,
+ * transformed by the world transform, to the camera. Renderables with equal keys keep their order.
+ * <p>
+ * Shaders, materials and meshes are compared by identity and numbered in the order they are first encountered in each sort. Up
+ * to 4095 shaders, 16383 materials and 8191 meshes are distinguished, further ones share the last number. */
+public class RadixRenderableSorter implements RenderableSorter {
+	private static final int SHADER_BITS = 12, MATERIAL_BITS = 14, MESH_BITS = 13, DEPTH_BITS = 24;
+	private static final long BLENDED = 1L << 63;
+
+	private final IdentityIds shaders = new IdentityIds(SHADER_BITS);
+	private final IdentityIds materials = new IdentityIds(MATERIAL_BITS);
+	private final IdentityIds meshes = new IdentityIds(MESH_BITS);
+	private final Vector3 tmpV = new Vector3();
+	private final int[] counts = new int[256];
+	private long[] keys = new long[0], tmpKeys = new long[0];
+	private int[] indices = new int[0], tmpIndices = new int[0];
+	private Object[] sorted = new Object[0];
+
+	@Override
+	public void sort (final Camera camera, final Array<Renderable> renderables) {
+		final int size = renderables.size;
+		if (size < 2) return;
+		if (keys.length < size) {
+			keys = new long[size];
+			tmpKeys = new long[size];
+			indices = new int[size];
+			tmpIndices = new int[size];
+			sorted = new Object[size];
+		}
+
+		final Object[] items = renderables.items;
+		for (int i = 0; i < size; i++) {
+			keys[i] = computeKey(camera, (Renderable)items[i]);
+			indices[i] = i;
+		}
+		shaders.clear();
+		materials.clear();
+		meshes.clear();
+
+		final int[] order = radixSort(size);
+		for (int i = 0; i < size; i++)
+			sorted[i] = items[order[i]];
+		System.arraycopy(sorted, 0, items, 0, size);
+		Arrays.fill(sorted, 0, size, null);
+	}
+
+	/** Computes the sort key of a renderable, renderables are sorted by increasing keys. */
+	protected long computeKey (final Camera camera, final Renderable renderable) {
+		final Material material = renderable.material;
+		final BlendingAttribute blending = material == null ? null : (BlendingAttribute)material.get(BlendingAttribute.Type);
+		// The bits of a positive float are ordered like the float
+		final long depth = Float.floatToIntBits(camera.position.dst2(getTranslation(renderable.worldTransform,
+			renderable.meshPart.center, tmpV)));
+		final long shader = shaders.get(renderable.shader);
+		final long materialId = materials.get(material);
+		if (blending != null && blending.blended) {
+			final long inverseDepth = ~depth & 0x7fffffffL;
+			return BLENDED | (inverseDepth << 32) | (shader << (32 - SHADER_BITS))
+				| (materialId & ((1L << (32 - SHADER_BITS)) - 1));
+		}
+		final long mesh = meshes.get(renderable.meshPart.mesh);
+		return (shader << (MESH_BITS + MATERIAL_BITS + DEPTH_BITS)) | (mesh << (MATERIAL_BITS + DEPTH_BITS))
+			| (materialId << DEPTH_BITS) | (depth >>> (31 - DEPTH_BITS));
+	}
+
+
+	private Vector3 getTranslation (Matrix4 worldTransform, Vector3 center, Vector3 output) {
+		if (center.isZero())
+			worldTransform.getTranslation(output);
+		else if (!worldTransform.hasRotationOrScaling())
+			worldTransform.getTranslation(output).add(center);
+		else
+			output.set(center).mul(worldTransform);
+		return output;
+	}
+
+	/** Sorts the keys with a least significant digit radix sort of 8 bits per pass, skipping the passes where all keys have the
+	 * same digit.
+	 * @return the indices of the renderables in sorted order */
+	private int[] radixSort (final int size) {
+		final int[] counts = this.counts;
+		long[] keys = this.keys, tmpKeys = this.tmpKeys;
+		int[] indices = this.indices, tmpIndices = this.tmpIndices;
+		for (int shift = 0; shift < 64; shift += 8) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < size; i++)
+				counts[(int)(keys[i] >>> shift) & 0xff]++;
+			if (counts[(int)(keys[0] >>> shift) & 0xff] == size) continue;
+			for (int i = 0, total = 0; i < 256; i++) {
+				final int count = counts[i];
+				counts[i] = total;
+				total += count;
+			}
+			for (int i = 0; i < size; i++) {
+				final long key = keys[i];
+				final int index = counts[(int)(key >>> shift) & 0xff]++;
+				tmpKeys[index] = key;
+				tmpIndices[index] = indices[i];
+			}
+			long[] swapKeys = keys;
+			keys = tmpKeys;
+			tmpKeys = swapKeys;
+			int[] swapIndices = indices;
+			indices = tmpIndices;
+			tmpIndices = swapIndices;
+		}
+		return indices;
+	}
+
+	/** Numbers objects by identity in the order they are added, null being 0. It doesn't allocate once its table is large
+	 * enough. */
+	static class IdentityIds {
+		private final int maxId;
+		private Object[] keys = new Object[32];
+		private int[] ids = new int[32];
+		private int size, shift = 64 - 5;
+
+		IdentityIds (int bits) {
+			maxId = (1 << bits) - 1;
+		}
+
+		int get (Object object) {
+			if (object == null) return 0;
+			final Object[] keys = this.keys;
+			final int mask = keys.length - 1;
+			for (int i = place(object);; i = (i + 1) & mask) {
+				final Object other = keys[i];
+				if (other == object) return ids[i];
+				if (other == null) {
+					final int id = Math.min(++size, maxId);
+					keys[i] = object;
+					ids[i] = id;
+					if (size * 2 > keys.length) resize();
+					return id;
+				}
+			}
+		}
+
+		private int place (Object object) {
+			return (int)(System.identityHashCode(object) * 0x9E3779B97F4A7C15L >>> shift);
+		}
+
+		private void resize () {
+			final Object[] oldKeys = keys;
+			final int[] oldIds = ids;
+			keys = new Object[oldKeys.length << 1];
+			ids = new int[keys.length];
+			shift--;
+			final int mask = keys.length - 1;
+			for (int j = 0; j < oldKeys.length; j++) {
+				final Object key = oldKeys[j];
+				if (key == null) continue;
+				int i = place(key);
+				while (keys[i] != null)
+					i = (i + 1) & mask;
+				keys[i] = key;
+				ids[i] = oldIds[j];
+			}
+		}
+
+		void clear () {
+			if (size == 0) return;
+			Arrays.fill(keys, null);
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+
+/** Responsible for deciding which {@link Renderable}s can be skipped by a {@link ModelBatch}, e.g. because they are outside of
+ * the camera frustum. */
+public interface RenderableCuller {
+	/** @param camera the camera used for rendering
+	 * @param renderable the renderable, with its world transform and mesh part set
+	 * @return false if the renderable doesn't need to be rendered */
+	public boolean isVisible (Camera camera, Renderable renderable);
+}
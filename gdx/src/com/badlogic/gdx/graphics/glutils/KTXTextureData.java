@@ -7,13 +7,16 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Cubemap;
 import com.badlogic.gdx.graphics.CubemapData;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture;
@@ -29,6 +32,10 @@ import com.badlogic.gdx.utils.StreamUtils;
  *
  * For example, KTXTextureData can be used for {@link Texture} or {@link Cubemap}.
  *
+ * KTX2 files are supported too, with ETC2/EAC, ASTC and BCn compressed formats and the common uncompressed formats. Their levels
+ * may be stored as is or supercompressed with zlib, Zstandard and BasisLZ supercompression are not supported. Whether a
+ * compressed format can be used depends on the OpenGL implementation, there is no software fallback except for ETC1.
+ *
  * @author Vincent Bousquet */
 public class KTXTextureData implements TextureData, CubemapData {
 
@@ -95,6 +102,10 @@ public class KTXTextureData implements TextureData, CubemapData {
 		} else {
 			compressedData = ByteBuffer.wrap(file.readBytes());
 		}
+		if (isKTX2()) {
+			prepareKTX2();
+			return;
+		}
 		if (compressedData.get() != (byte)0x0AB) throw new GdxRuntimeException("Invalid KTX Header");
 		if (compressedData.get() != (byte)0x04B) throw new GdxRuntimeException("Invalid KTX Header");
 		if (compressedData.get() != (byte)0x054) throw new GdxRuntimeException("Invalid KTX Header");
@@ -144,6 +155,260 @@ public class KTXTextureData implements TextureData, CubemapData {
 		}
 	}
 
+	private static final byte[] KTX2_IDENTIFIER = {(byte)0x0AB, (byte)0x04B, (byte)0x054, (byte)0x058, (byte)0x020, (byte)0x032,
+		(byte)0x030, (byte)0x0BB, (byte)0x00D, (byte)0x00A, (byte)0x01A, (byte)0x00A};
+
+	private boolean isKTX2 () {
+		if (compressedData.limit() < KTX2_IDENTIFIER.length) return false;
+		for (int i = 0; i < KTX2_IDENTIFIER.length; i++)
+			if (compressedData.get(i) != KTX2_IDENTIFIER[i]) return false;
+		return true;
+	}
+
+	/** Reads a KTX2 file and converts its levels to the KTX layout used by {@link #consumeCustomData(int)}: for each level the
+	 * face size followed by the faces, each padded to 4 bytes, with uncompressed rows padded to 4 bytes too. */
+	private void prepareKTX2 () {
+		writeKTX2(BufferUtils.newUnsafeByteBuffer(readKTX2(compressedData)));
+	}
+
+	/** The level data and face sizes read by {@link #readKTX2(ByteBuffer)}, until they are written by
+	 * {@link #writeKTX2(ByteBuffer)}. */
+	private ByteBuffer[] ktx2Levels;
+	private int[] ktx2FaceSizes;
+	private int ktx2BytesPerPixel;
+
+	/** Reads the header and the levels of a KTX2 file.
+	 * @return the size of the levels in the KTX layout */
+	int readKTX2 (ByteBuffer in) {
+		compressedData = in;
+		in.order(ByteOrder.LITTLE_ENDIAN);
+		((Buffer)in).position(KTX2_IDENTIFIER.length);
+		int vkFormat = in.getInt();
+		in.getInt(); // typeSize
+		pixelWidth = in.getInt();
+		pixelHeight = in.getInt();
+		pixelDepth = in.getInt();
+		numberOfArrayElements = in.getInt();
+		numberOfFaces = in.getInt();
+		numberOfMipmapLevels = in.getInt();
+		int supercompressionScheme = in.getInt();
+		if (supercompressionScheme != KTX2_SUPERCOMPRESSION_NONE && supercompressionScheme != KTX2_SUPERCOMPRESSION_ZLIB)
+			throw new GdxRuntimeException("Unsupported KTX2 supercompression scheme " + supercompressionScheme
+				+ " (only none and zlib are supported): " + file);
+		int bytesPerPixel = setVkFormat(vkFormat);
+		if (numberOfMipmapLevels == 0) {
+			numberOfMipmapLevels = 1;
+			useMipMaps = true;
+		}
+		int layers = Math.max(1, numberOfArrayElements);
+
+		// Level index, after the dfd, kvd and sgd offsets and lengths
+		int levelIndex = in.position() + 4 * 4 + 8 * 2;
+		ByteBuffer[] levels = new ByteBuffer[numberOfMipmapLevels];
+		int[] faceSizes = new int[numberOfMipmapLevels];
+		int size = 0;
+		for (int level = 0; level < numberOfMipmapLevels; level++) {
+			int index = levelIndex + level * 3 * 8;
+			int offset = (int)in.getLong(index);
+			int length = (int)in.getLong(index + 8);
+			ByteBuffer data;
+			if (supercompressionScheme == KTX2_SUPERCOMPRESSION_ZLIB)
+				data = ByteBuffer.wrap(inflate(in, offset, length, (int)in.getLong(index + 16)));
+			else {
+				((Buffer)in).limit(offset + length);
+				((Buffer)in).position(offset);
+				data = in.slice();
+				((Buffer)in).limit(in.capacity());
+			}
+			levels[level] = data;
+			if (bytesPerPixel == 0)
+				faceSizes[level] = data.capacity() / numberOfFaces;
+			else {
+				int rowSize = (Math.max(1, pixelWidth >> level) * bytesPerPixel + 3) & ~3;
+				faceSizes[level] = rowSize * Math.max(1, pixelHeight >> level) * Math.max(1, pixelDepth >> level) * layers;
+			}
+			size += 4 + ((faceSizes[level] + 3) & ~3) * numberOfFaces;
+		}
+		ktx2Levels = levels;
+		ktx2FaceSizes = faceSizes;
+		ktx2BytesPerPixel = bytesPerPixel;
+		return size;
+	}
+
+	/** Writes the levels read by {@link #readKTX2(ByteBuffer)} in the KTX layout and replaces the file data with them.
+	 * @param out a buffer of the size returned by {@link #readKTX2(ByteBuffer)} */
+	void writeKTX2 (ByteBuffer out) {
+		ByteBuffer[] levels = ktx2Levels;
+		int[] faceSizes = ktx2FaceSizes;
+		int bytesPerPixel = ktx2BytesPerPixel;
+		int layers = Math.max(1, numberOfArrayElements);
+		for (int level = 0; level < numberOfMipmapLevels; level++) {
+			ByteBuffer data = levels[level];
+			int faceSize = faceSizes[level];
+			out.putInt(faceSize);
+			for (int face = 0; face < numberOfFaces; face++) {
+				int start = out.position();
+				if (bytesPerPixel == 0) {
+					((Buffer)data).limit((face + 1) * faceSize);
+					out.put(data);
+				} else {
+					// KTX2 rows are tightly packed
+					int rowLength = Math.max(1, pixelWidth >> level) * bytesPerPixel;
+					int rows = Math.max(1, pixelHeight >> level) * Math.max(1, pixelDepth >> level) * layers;
+					for (int row = 0; row < rows; row++) {
+						((Buffer)data).limit(data.position() + rowLength);
+						out.put(data);
+						((Buffer)out).position(out.position() + ((rowLength + 3) & ~3) - rowLength);
+					}
+				}
+				((Buffer)out).position(start + ((faceSize + 3) & ~3));
+			}
+		}
+		((Buffer)out).position(0);
+		if (BufferUtils.isUnsafeByteBuffer(compressedData)) BufferUtils.disposeUnsafeByteBuffer(compressedData);
+		compressedData = out;
+		imagePos = 0;
+		ktx2Levels = null;
+		ktx2FaceSizes = null;
+	}
+
+	private byte[] inflate (ByteBuffer in, int offset, int length, int uncompressedLength) {
+		byte[] input = new byte[length];
+		((Buffer)in).position(offset);
+		in.get(input);
+		byte[] output = new byte[uncompressedLength];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(input);
+			int inflated = 0;
+			while (inflated < uncompressedLength && !inflater.finished()) {
+				int count = inflater.inflate(output, inflated, uncompressedLength - inflated);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+				inflated += count;
+			}
+			if (inflated != uncompressedLength) throw new GdxRuntimeException("Truncated KTX2 level data: " + file);
+		} catch (DataFormatException e) {
+			throw new GdxRuntimeException("Couldn't inflate KTX2 level data: " + file, e);
+		} finally {
+			inflater.end();
+		}
+		return output;
+	}
+
+	private static final int KTX2_SUPERCOMPRESSION_NONE = 0;
+	private static final int KTX2_SUPERCOMPRESSION_ZLIB = 3;
+
+	private static final int VK_FORMAT_R5G6B5_UNORM_PACK16 = 4;
+	private static final int VK_FORMAT_R8_UNORM = 9;
+	private static final int VK_FORMAT_R8G8_UNORM = 16;
+	private static final int VK_FORMAT_R8G8B8_UNORM = 23;
+	private static final int VK_FORMAT_R8G8B8_SRGB = 29;
+	private static final int VK_FORMAT_R8G8B8A8_UNORM = 37;
+	private static final int VK_FORMAT_R8G8B8A8_SRGB = 43;
+	private static final int VK_FORMAT_R16G16B16A16_SFLOAT = 97;
+	private static final int VK_FORMAT_R32G32B32A32_SFLOAT = 109;
+	private static final int VK_FORMAT_BC1_RGB_UNORM_BLOCK = 131;
+	private static final int VK_FORMAT_ASTC_4x4_UNORM_BLOCK = 157;
+	private static final int VK_FORMAT_ASTC_12x12_SRGB_BLOCK = 184;
+
+	/** OpenGL internal and base internal formats for the compressed Vulkan formats from VK_FORMAT_BC1_RGB_UNORM_BLOCK to
+	 * VK_FORMAT_EAC_R11G11_SNORM_BLOCK, the BCn formats need the S3TC, RGTC and BPTC extensions. */
+	private static final int[] COMPRESSED_FORMATS = { //
+		0x83F0, GL20.GL_RGB, // BC1 RGB
+		0x8C4C, GL20.GL_RGB, // BC1 RGB sRGB
+		0x83F1, GL20.GL_RGBA, // BC1 RGBA
+		0x8C4D, GL20.GL_RGBA, // BC1 RGBA sRGB
+		0x83F2, GL20.GL_RGBA, // BC2
+		0x8C4E, GL20.GL_RGBA, // BC2 sRGB
+		0x83F3, GL20.GL_RGBA, // BC3
+		0x8C4F, GL20.GL_RGBA, // BC3 sRGB
+		0x8DBB, GL30.GL_RED, // BC4
+		0x8DBC, GL30.GL_RED, // BC4 signed
+		0x8DBD, GL30.GL_RG, // BC5
+		0x8DBE, GL30.GL_RG, // BC5 signed
+		0x8E8F, GL20.GL_RGB, // BC6H unsigned float
+		0x8E8E, GL20.GL_RGB, // BC6H signed float
+		0x8E8C, GL20.GL_RGBA, // BC7
+		0x8E8D, GL20.GL_RGBA, // BC7 sRGB
+		GL30.GL_COMPRESSED_RGB8_ETC2, GL20.GL_RGB, //
+		GL30.GL_COMPRESSED_SRGB8_ETC2, GL20.GL_RGB, //
+		GL30.GL_COMPRESSED_RGB8_PUNCHTHROUGH_ALPHA1_ETC2, GL20.GL_RGBA, //
+		GL30.GL_COMPRESSED_SRGB8_PUNCHTHROUGH_ALPHA1_ETC2, GL20.GL_RGBA, //
+		GL30.GL_COMPRESSED_RGBA8_ETC2_EAC, GL20.GL_RGBA, //
+		GL30.GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC, GL20.GL_RGBA, //
+		GL30.GL_COMPRESSED_R11_EAC, GL30.GL_RED, //
+		GL30.GL_COMPRESSED_SIGNED_R11_EAC, GL30.GL_RED, //
+		GL30.GL_COMPRESSED_RG11_EAC, GL30.GL_RG, //
+		GL30.GL_COMPRESSED_SIGNED_RG11_EAC, GL30.GL_RG};
+
+	/** Sets the OpenGL type and formats matching the Vulkan format of a KTX2 file.
+	 * @return the size of a pixel in bytes, or 0 for compressed formats. */
+	private int setVkFormat (int vkFormat) {
+		glType = glFormat = 0;
+		glTypeSize = 1;
+		int index = (vkFormat - VK_FORMAT_BC1_RGB_UNORM_BLOCK) * 2;
+		if (index >= 0 && index < COMPRESSED_FORMATS.length) {
+			glInternalFormat = COMPRESSED_FORMATS[index];
+			glBaseInternalFormat = COMPRESSED_FORMATS[index + 1];
+			return 0;
+		}
+		if (vkFormat >= VK_FORMAT_ASTC_4x4_UNORM_BLOCK && vkFormat <= VK_FORMAT_ASTC_12x12_SRGB_BLOCK) {
+			// UNORM and SRGB alternate, in the same block size order as GL_COMPRESSED_RGBA_ASTC_4x4_KHR and following
+			int blockSize = (vkFormat - VK_FORMAT_ASTC_4x4_UNORM_BLOCK) / 2;
+			boolean srgb = (vkFormat - VK_FORMAT_ASTC_4x4_UNORM_BLOCK) % 2 == 1;
+			glInternalFormat = (srgb ? 0x93D0 : 0x93B0) + blockSize;
+			glBaseInternalFormat = GL20.GL_RGBA;
+			return 0;
+		}
+		glType = GL20.GL_UNSIGNED_BYTE;
+		switch (vkFormat) {
+		case VK_FORMAT_R5G6B5_UNORM_PACK16:
+			glType = GL20.GL_UNSIGNED_SHORT_5_6_5;
+			glTypeSize = 2;
+			glInternalFormat = glFormat = GL20.GL_RGB;
+			break;
+		case VK_FORMAT_R8_UNORM:
+			glInternalFormat = GL30.GL_R8;
+			glFormat = GL30.GL_RED;
+			break;
+		case VK_FORMAT_R8G8_UNORM:
+			glInternalFormat = GL30.GL_RG8;
+			glFormat = GL30.GL_RG;
+			break;
+		case VK_FORMAT_R8G8B8_UNORM:
+			glInternalFormat = glFormat = GL20.GL_RGB;
+			break;
+		case VK_FORMAT_R8G8B8_SRGB:
+			glInternalFormat = GL30.GL_SRGB8;
+			glFormat = GL20.GL_RGB;
+			break;
+		case VK_FORMAT_R8G8B8A8_UNORM:
+			glInternalFormat = glFormat = GL20.GL_RGBA;
+			break;
+		case VK_FORMAT_R8G8B8A8_SRGB:
+			glInternalFormat = GL30.GL_SRGB8_ALPHA8;
+			glFormat = GL20.GL_RGBA;
+			break;
+		case VK_FORMAT_R16G16B16A16_SFLOAT:
+			glType = GL30.GL_HALF_FLOAT;
+			glTypeSize = 2;
+			glInternalFormat = GL30.GL_RGBA16F;
+			glFormat = GL20.GL_RGBA;
+			break;
+		case VK_FORMAT_R32G32B32A32_SFLOAT:
+			glType = GL20.GL_FLOAT;
+			glTypeSize = 4;
+			glInternalFormat = GL30.GL_RGBA32F;
+			glFormat = GL20.GL_RGBA;
+			break;
+		default:
+			throw new GdxRuntimeException("Unsupported KTX2 vkFormat " + vkFormat + ": " + file);
+		}
+		glBaseInternalFormat = glFormat;
+		int components = glFormat == GL30.GL_RED ? 1 : glFormat == GL30.GL_RG ? 2 : glFormat == GL20.GL_RGB ? 3 : 4;
+		return glType == GL20.GL_UNSIGNED_SHORT_5_6_5 ? 2 : components * glTypeSize;
+	}
+
 	private static final int GL_TEXTURE_1D = 0x1234;
 	private static final int GL_TEXTURE_3D = 0x1234;
 	private static final int GL_TEXTURE_1D_ARRAY_EXT = 0x1234;
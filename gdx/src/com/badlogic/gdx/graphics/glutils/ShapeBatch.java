@@ -0,0 +1,691 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ShortArray;
+
+/** Renders points, lines, shape outlines and filled shapes in the x/y plane as a single stream of triangles.
+ * <p>
+ * Unlike {@link ShapeRenderer}, every {@link ShapeType} is tessellated into triangles, so changing the shape type with
+ * {@link #set(ShapeType)} never flushes the batch and a frame that mixes lines, outlines and filled shapes is usually drawn with a
+ * single draw call. Lines have a width in world units, are connected with {@link JoinType joins} and ended with {@link CapType
+ * caps}. If a {@link #setFeather(float) feather} is set, every edge gets a fringe that fades the color to transparent, which
+ * anti-aliases the shapes without multisampling. Blending must be enabled for translucent colors and for the feather.
+ * <p>
+ * Standard usage pattern looks as follows:
+ *
+ * <pre>
+ * {@code
+ * shapeBatch.setProjectionMatrix(camera.combined);
+ * shapeBatch.begin();
+ * shapeBatch.setLineWidth(2);
+ * shapeBatch.polyline(vertices);
+ * shapeBatch.set(ShapeType.Filled);
+ * shapeBatch.circle(x, y, radius);
+ * shapeBatch.end();
+ * }
+ * </pre>
+ *
+ * Translucent lines don't overlap themselves at joins, but separate shapes do. */
+public class ShapeBatch implements Disposable {
+	/** How the segments of polylines and outlines are connected. */
+	public enum JoinType {
+		/** The outer edges are extended until they meet. Falls back to {@link #Bevel} when the miter is longer than the miter
+		 * limit. */
+		Miter,
+		/** The outer corners are connected with a straight edge. */
+		Bevel,
+		/** The outer corners are connected with an arc. */
+		Round
+	}
+
+	/** How the ends of open polylines are drawn. */
+	public enum CapType {
+		/** The line ends exactly at its end points. */
+		Butt,
+		/** The line is extended by half its width past its end points. */
+		Square,
+		/** The line ends with a half circle around its end points. */
+		Round
+	}
+
+	private final ImmediateModeRenderer renderer;
+	private boolean matrixDirty = false;
+	private final Matrix4 projectionMatrix = new Matrix4();
+	private final Matrix4 transformMatrix = new Matrix4();
+	private final Matrix4 combinedMatrix = new Matrix4();
+	private final Color color = new Color(1, 1, 1, 1);
+	private float colorBits = Color.WHITE_FLOAT_BITS, clearBits = Color.toFloatBits(1f, 1f, 1f, 0f);
+	private ShapeType shapeType = ShapeType.Line;
+	private boolean drawing;
+	private float lineWidth = 1, feather = 0, miterLimit = 4;
+	private JoinType joinType = JoinType.Miter;
+	private CapType capType = CapType.Butt;
+
+	private final FloatArray path = new FloatArray();
+	private final FloatArray joints = new FloatArray();
+	private final EarClippingTriangulator triangulator = new EarClippingTriangulator();
+
+	public ShapeBatch () {
+		this(5001);
+	}
+
+	/** @param maxVertices The maximum number of vertices per draw call, rounded down to a multiple of 3. */
+	public ShapeBatch (int maxVertices) {
+		this(maxVertices, null);
+	}
+
+	public ShapeBatch (int maxVertices, ShaderProgram defaultShader) {
+		maxVertices -= maxVertices % 3;
+		if (maxVertices < 3) throw new IllegalArgumentException("maxVertices must be >= 3: " + maxVertices);
+		if (defaultShader == null)
+			renderer = new ImmediateModeRenderer20(maxVertices, false, true, 0);
+		else
+			renderer = new ImmediateModeRenderer20(maxVertices, false, true, 0, defaultShader);
+		projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		matrixDirty = true;
+	}
+
+	/** Sets the color to be used by the next shapes drawn. */
+	public void setColor (Color color) {
+		setColor(color.r, color.g, color.b, color.a);
+	}
+
+	/** Sets the color to be used by the next shapes drawn. */
+	public void setColor (float r, float g, float b, float a) {
+		color.set(r, g, b, a);
+		colorBits = color.toFloatBits();
+		clearBits = Color.toFloatBits(color.r, color.g, color.b, 0);
+	}
+
+	/** If the color is modified, {@link #setColor(Color)} must be called. */
+	public Color getColor () {
+		return color;
+	}
+
+	/** Sets the width of lines and outlines in world units. Default is 1. */
+	public void setLineWidth (float lineWidth) {
+		if (lineWidth <= 0) throw new IllegalArgumentException("lineWidth must be > 0: " + lineWidth);
+		this.lineWidth = lineWidth;
+	}
+
+	public float getLineWidth () {
+		return lineWidth;
+	}
+
+	/** Sets the width in world units of the fringe added outside every edge, in which the color fades to transparent. With the
+	 * default projection, 1 anti-aliases the shapes. Default is 0, which disables the fringe. */
+	public void setFeather (float feather) {
+		if (feather < 0) throw new IllegalArgumentException("feather must be >= 0: " + feather);
+		this.feather = feather;
+	}
+
+	public float getFeather () {
+		return feather;
+	}
+
+	public void setJoinType (JoinType joinType) {
+		if (joinType == null) throw new IllegalArgumentException("joinType cannot be null.");
+		this.joinType = joinType;
+	}
+
+	public JoinType getJoinType () {
+		return joinType;
+	}
+
+	public void setCapType (CapType capType) {
+		if (capType == null) throw new IllegalArgumentException("capType cannot be null.");
+		this.capType = capType;
+	}
+
+	public CapType getCapType () {
+		return capType;
+	}
+
+	/** Sets the maximum ratio of miter length to half the line width before a {@link JoinType#Miter} join is beveled. Default is
+	 * 4. */
+	public void setMiterLimit (float miterLimit) {
+		if (miterLimit < 1) throw new IllegalArgumentException("miterLimit must be >= 1: " + miterLimit);
+		this.miterLimit = miterLimit;
+	}
+
+	public float getMiterLimit () {
+		return miterLimit;
+	}
+
+	public void updateMatrices () {
+		matrixDirty = true;
+	}
+
+	/** Sets the projection matrix to be used for rendering. Usually this will be set to {@link Camera#combined}. */
+	public void setProjectionMatrix (Matrix4 matrix) {
+		projectionMatrix.set(matrix);
+		matrixDirty = true;
+	}
+
+	/** If the matrix is modified, {@link #updateMatrices()} must be called. */
+	public Matrix4 getProjectionMatrix () {
+		return projectionMatrix;
+	}
+
+	public void setTransformMatrix (Matrix4 matrix) {
+		transformMatrix.set(matrix);
+		matrixDirty = true;
+	}
+
+	/** If the matrix is modified, {@link #updateMatrices()} must be called. */
+	public Matrix4 getTransformMatrix () {
+		return transformMatrix;
+	}
+
+	/** Sets the transformation matrix to identity. */
+	public void identity () {
+		transformMatrix.idt();
+		matrixDirty = true;
+	}
+
+	/** Multiplies the current transformation matrix by a translation matrix. */
+	public void translate (float x, float y, float z) {
+		transformMatrix.translate(x, y, z);
+		matrixDirty = true;
+	}
+
+	/** Multiplies the current transformation matrix by a rotation matrix. */
+	public void rotate (float axisX, float axisY, float axisZ, float degrees) {
+		transformMatrix.rotate(axisX, axisY, axisZ, degrees);
+		matrixDirty = true;
+	}
+
+	/** Multiplies the current transformation matrix by a scale matrix. */
+	public void scale (float scaleX, float scaleY, float scaleZ) {
+		transformMatrix.scale(scaleX, scaleY, scaleZ);
+		matrixDirty = true;
+	}
+
+	/** Starts a new batch of shapes using the current shape type, {@link ShapeType#Line} by default. The call to this method must
+	 * be paired with a call to {@link #end()}. */
+	public void begin () {
+		if (drawing) throw new IllegalStateException("Call end() before beginning a new shape batch.");
+		if (matrixDirty) {
+			combinedMatrix.set(projectionMatrix);
+			Matrix4.mul(combinedMatrix.val, transformMatrix.val);
+			matrixDirty = false;
+		}
+		renderer.begin(combinedMatrix, GL20.GL_TRIANGLES);
+		drawing = true;
+	}
+
+	/** Starts a new batch of shapes using the specified shape type. */
+	public void begin (ShapeType type) {
+		set(type);
+		begin();
+	}
+
+	/** Sets the shape type used by the next shapes drawn. This does not flush the batch. */
+	public void set (ShapeType type) {
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		shapeType = type;
+	}
+
+	/** Returns the current shape type. */
+	public ShapeType getCurrentType () {
+		return shapeType;
+	}
+
+	/** Draws a point as a square the size of the line width. */
+	public void point (float x, float y) {
+		float size = lineWidth * 0.5f;
+		path.clear();
+		path.add(x - size, y - size, x + size, y - size);
+		path.add(x + size, y + size, x - size, y + size);
+		fill(path.items, 0, path.size, true);
+	}
+
+	/** Draws a line with the current line width, join and cap. */
+	public void line (float x, float y, float x2, float y2) {
+		path.clear();
+		path.add(x, y, x2, y2);
+		stroke(path.items, 0, path.size, false);
+	}
+
+	/** Draws a cubic bezier curve with the current line width, join and cap. */
+	public void curve (float x1, float y1, float cx1, float cy1, float cx2, float cy2, float x2, float y2, int segments) {
+		if (segments <= 0) throw new IllegalArgumentException("segments must be > 0.");
+		path.clear();
+		float step = 1f / segments;
+		for (int i = 0; i < segments; i++) {
+			float t = i * step, u = 1 - t;
+			float b0 = u * u * u, b1 = 3 * u * u * t, b2 = 3 * u * t * t, b3 = t * t * t;
+			path.add(b0 * x1 + b1 * cx1 + b2 * cx2 + b3 * x2, b0 * y1 + b1 * cy1 + b2 * cy2 + b3 * y2);
+		}
+		path.add(x2, y2);
+		stroke(path.items, 0, path.size, false);
+	}
+
+	/** Draws a triangle in x/y plane using {@link ShapeType#Line} or {@link ShapeType#Filled}. */
+	public void triangle (float x1, float y1, float x2, float y2, float x3, float y3) {
+		path.clear();
+		path.add(x1, y1, x2, y2);
+		path.add(x3, y3);
+		shape(true);
+	}
+
+	/** Draws a rectangle in the x/y plane using {@link ShapeType#Line} or {@link ShapeType#Filled}. */
+	public void rect (float x, float y, float width, float height) {
+		path.clear();
+		path.add(x, y, x + width, y);
+		path.add(x + width, y + height, x, y + height);
+		shape(true);
+	}
+
+	/** Draws a rectangle in the x/y plane rotated around (x + originX, y + originY) using {@link ShapeType#Line} or
+	 * {@link ShapeType#Filled}. */
+	public void rect (float x, float y, float originX, float originY, float width, float height, float degrees) {
+		float cos = MathUtils.cosDeg(degrees), sin = MathUtils.sinDeg(degrees);
+		float worldOriginX = x + originX, worldOriginY = y + originY;
+		float x1 = -originX, y1 = -originY, x2 = width - originX, y2 = height - originY;
+		path.clear();
+		path.add(worldOriginX + cos * x1 - sin * y1, worldOriginY + sin * x1 + cos * y1);
+		path.add(worldOriginX + cos * x2 - sin * y1, worldOriginY + sin * x2 + cos * y1);
+		path.add(worldOriginX + cos * x2 - sin * y2, worldOriginY + sin * x2 + cos * y2);
+		path.add(worldOriginX + cos * x1 - sin * y2, worldOriginY + sin * x1 + cos * y2);
+		shape(true);
+	}
+
+	/** Calls {@link #arc(float, float, float, float, float, int)} by estimating the number of segments needed for a smooth arc. */
+	public void arc (float x, float y, float radius, float start, float degrees) {
+		arc(x, y, radius, start, degrees, Math.max(1, (int)(6 * (float)Math.cbrt(radius) * (Math.abs(degrees) / 360.0f))));
+	}
+
+	/** Draws a pie slice using {@link ShapeType#Line} or {@link ShapeType#Filled}. The outline includes the two edges to the
+	 * center, like {@link ShapeRenderer#arc(float, float, float, float, float, int)}. */
+	public void arc (float x, float y, float radius, float start, float degrees, int segments) {
+		if (segments <= 0) throw new IllegalArgumentException("segments must be > 0.");
+		path.clear();
+		path.add(x, y);
+		addArc(x, y, radius, radius, start * MathUtils.degreesToRadians, degrees * MathUtils.degreesToRadians, segments);
+		shape(Math.abs(degrees) <= 180);
+	}
+
+	/** Calls {@link #circle(float, float, float, int)} by estimating the number of segments needed for a smooth circle. */
+	public void circle (float x, float y, float radius) {
+		circle(x, y, radius, Math.max(3, (int)(6 * (float)Math.cbrt(radius))));
+	}
+
+	/** Draws a circle using {@link ShapeType#Line} or {@link ShapeType#Filled}. */
+	public void circle (float x, float y, float radius, int segments) {
+		if (segments < 3) throw new IllegalArgumentException("segments must be >= 3.");
+		path.clear();
+		addArc(x, y, radius, radius, 0, MathUtils.PI2, segments);
+		path.size -= 2; // The last point is the first point.
+		shape(true);
+	}
+
+	/** Calls {@link #ellipse(float, float, float, float, int)} by estimating the number of segments needed for a smooth
+	 * ellipse. */
+	public void ellipse (float x, float y, float width, float height) {
+		ellipse(x, y, width, height, Math.max(3, (int)(12 * (float)Math.cbrt(Math.max(width * 0.5f, height * 0.5f)))));
+	}
+
+	/** Draws an ellipse within the specified bounds using {@link ShapeType#Line} or {@link ShapeType#Filled}. */
+	public void ellipse (float x, float y, float width, float height, int segments) {
+		if (segments < 3) throw new IllegalArgumentException("segments must be >= 3.");
+		path.clear();
+		addArc(x + width * 0.5f, y + height * 0.5f, width * 0.5f, height * 0.5f, 0, MathUtils.PI2, segments);
+		path.size -= 2;
+		shape(true);
+	}
+
+	/** Draws a polygon in the x/y plane using {@link ShapeType#Line} or {@link ShapeType#Filled}. The vertices must contain at
+	 * least 3 points (6 floats x,y). Filled polygons may be concave but must not intersect themselves. */
+	public void polygon (float[] vertices, int offset, int count) {
+		if (count < 6) throw new IllegalArgumentException("Polygons must contain at least 3 points.");
+		if (count % 2 != 0) throw new IllegalArgumentException("Polygons must have an even number of vertices.");
+		if (shapeType == ShapeType.Line)
+			stroke(vertices, offset, count, true);
+		else
+			fill(vertices, offset, count, false);
+	}
+
+	/** @see #polygon(float[], int, int) */
+	public void polygon (float[] vertices) {
+		polygon(vertices, 0, vertices.length);
+	}
+
+	/** Draws a polyline in the x/y plane with the current line width, join and cap. The vertices must contain at least 2 points
+	 * (4 floats x,y). */
+	public void polyline (float[] vertices, int offset, int count) {
+		if (count < 4) throw new IllegalArgumentException("Polylines must contain at least 2 points.");
+		if (count % 2 != 0) throw new IllegalArgumentException("Polylines must have an even number of vertices.");
+		stroke(vertices, offset, count, false);
+	}
+
+	/** @see #polyline(float[], int, int) */
+	public void polyline (float[] vertices) {
+		polyline(vertices, 0, vertices.length);
+	}
+
+	private void addArc (float x, float y, float radiusX, float radiusY, float start, float radians, int segments) {
+		float step = radians / segments;
+		for (int i = 0; i <= segments; i++) {
+			float angle = start + i * step;
+			path.add(x + radiusX * MathUtils.cos(angle), y + radiusY * MathUtils.sin(angle));
+		}
+	}
+
+	/** Draws the closed path using the current shape type. */
+	private void shape (boolean convex) {
+		if (shapeType == ShapeType.Line)
+			stroke(path.items, 0, path.size, true);
+		else
+			fill(path.items, 0, path.size, convex);
+	}
+
+	/** Fills a polygon. The fringe is placed outside the polygon, along the miter of each corner. */
+	private void fill (float[] vertices, int offset, int count, boolean convex) {
+		checkDrawing();
+		float c = colorBits;
+		if (convex) {
+			float x0 = vertices[offset], y0 = vertices[offset + 1];
+			for (int i = offset + 2, n = offset + count - 2; i < n; i += 2)
+				triangle(x0, y0, c, vertices[i], vertices[i + 1], c, vertices[i + 2], vertices[i + 3], c);
+		} else {
+			ShortArray triangles = triangulator.computeTriangles(vertices, offset, count);
+			short[] items = triangles.items;
+			for (int i = 0, n = triangles.size; i < n; i += 3) {
+				int a = items[i] * 2, b = items[i + 1] * 2, d = items[i + 2] * 2;
+				triangle(vertices[a], vertices[a + 1], c, vertices[b], vertices[b + 1], c, vertices[d], vertices[d + 1], c);
+			}
+		}
+		if (feather == 0) return;
+
+		// Outward is to the right of the edges for counterclockwise polygons.
+		float area = 0;
+		int last = offset + count - 2;
+		for (int i = offset, p = last; i <= last; p = i, i += 2)
+			area += vertices[p] * vertices[i + 1] - vertices[i] * vertices[p + 1];
+		float side = area < 0 ? 1 : -1;
+
+		float[] fringe = joints.setSize(count);
+		for (int i = offset, p = last; i <= last; p = i, i += 2) {
+			int next = i == last ? offset : i + 2;
+			float x = vertices[i], y = vertices[i + 1];
+			float d0x = x - vertices[p], d0y = y - vertices[p + 1];
+			float d1x = vertices[next] - x, d1y = vertices[next + 1] - y;
+			float len0 = len(d0x, d0y), len1 = len(d1x, d1y);
+			float n0x = -d0y / len0 * side, n0y = d0x / len0 * side, n1x = -d1y / len1 * side, n1y = d1x / len1 * side;
+			float mx = n0x + n1x, my = n0y + n1y, mlen = len(mx, my);
+			if (mlen < 0.0001f) {
+				mx = n0x;
+				my = n0y;
+			} else {
+				mx /= mlen;
+				my /= mlen;
+			}
+			float scale = feather / Math.max(mx * n0x + my * n0y, 1 / miterLimit);
+			fringe[i - offset] = x + mx * scale;
+			fringe[i - offset + 1] = y + my * scale;
+		}
+		float o = clearBits;
+		for (int i = 0, p = count - 2; i < count; p = i, i += 2) {
+			float px = vertices[offset + p], py = vertices[offset + p + 1], x = vertices[offset + i], y = vertices[offset + i + 1];
+			quad(px, py, c, x, y, c, fringe[i], fringe[i + 1], o, fringe[p], fringe[p + 1], o);
+		}
+	}
+
+	/** Strokes a polyline or, if closed, the outline of a polygon. Each point stores the left and right edge points (and their
+	 * fringes) where the segment ending at the point stops and where the segment starting at the point begins. Segments are then
+	 * emitted as quads between those points, so translucent lines never overlap at joins. */
+	private void stroke (float[] vertices, int offset, int count, boolean closed) {
+		checkDrawing();
+		// Remove consecutive duplicate points, which have no direction.
+		FloatArray points = path;
+		if (vertices != path.items) {
+			points.clear();
+			points.addAll(vertices, offset, count);
+		} else if (offset != 0) {
+			System.arraycopy(vertices, offset, vertices, 0, count);
+			points.size = count;
+		}
+		float[] p = points.items;
+		int n = 2;
+		for (int i = 2; i < points.size; i += 2) {
+			if (p[i] == p[n - 2] && p[i + 1] == p[n - 1]) continue;
+			p[n++] = p[i];
+			p[n++] = p[i + 1];
+		}
+		if (closed && n > 2 && p[0] == p[n - 2] && p[1] == p[n - 1]) n -= 2;
+		points.size = n;
+		int pointCount = n / 2;
+		if (pointCount < 2) {
+			if (capType != CapType.Butt) point(p[0], p[1]);
+			return;
+		}
+		if (pointCount < 3) closed = false;
+
+		float[] j = joints.setSize(pointCount * 16);
+		for (int i = 0; i < pointCount; i++) {
+			int prev = i == 0 ? (closed ? pointCount - 1 : -1) : i - 1;
+			int next = i == pointCount - 1 ? (closed ? 0 : -1) : i + 1;
+			if (prev == -1)
+				cap(p, i, next, j, i * 16, true);
+			else if (next == -1)
+				cap(p, i, prev, j, i * 16, false);
+			else
+				join(p, prev, i, next, j, i * 16);
+		}
+
+		float c = colorBits, o = clearBits;
+		boolean fringe = feather > 0;
+		for (int i = 0, segments = closed ? pointCount : pointCount - 1; i < segments; i++) {
+			int a = i * 16 + 8, b = (i + 1) % pointCount * 16; // Exit points of i, entry points of i + 1.
+			quad(j[a], j[a + 1], c, j[a + 2], j[a + 3], c, j[b + 2], j[b + 3], c, j[b], j[b + 1], c);
+			if (fringe) {
+				quad(j[a + 4], j[a + 5], o, j[a], j[a + 1], c, j[b], j[b + 1], c, j[b + 4], j[b + 5], o);
+				quad(j[a + 2], j[a + 3], c, j[a + 6], j[a + 7], o, j[b + 6], j[b + 7], o, j[b + 2], j[b + 3], c);
+			}
+		}
+	}
+
+	/** Computes the entry and exit edge points of an interior point and emits the join geometry. Layout of the 16 floats: entry
+	 * left, entry right, entry left fringe, entry right fringe, then the same for the exit. */
+	private void join (float[] p, int prev, int i, int next, float[] j, int o) {
+		float hw = lineWidth * 0.5f;
+		float x = p[i * 2], y = p[i * 2 + 1];
+		float d0x = x - p[prev * 2], d0y = y - p[prev * 2 + 1], len0 = len(d0x, d0y);
+		float d1x = p[next * 2] - x, d1y = p[next * 2 + 1] - y, len1 = len(d1x, d1y);
+		d0x /= len0;
+		d0y /= len0;
+		d1x /= len1;
+		d1y /= len1;
+		float n0x = -d0y, n0y = d0x, n1x = -d1y, n1y = d1x;
+		float mx = n0x + n1x, my = n0y + n1y, mlen = len(mx, my);
+		float dot; // Cosine of half the turn angle.
+		if (mlen < 0.0001f) { // The line reverses direction.
+			mx = d0x;
+			my = d0y;
+			dot = 0;
+		} else {
+			mx /= mlen;
+			my /= mlen;
+			dot = mx * n0x + my * n0y;
+		}
+		float f = feather;
+
+		if (joinType == JoinType.Miter && dot * miterLimit >= 1) {
+			float miter = hw / dot, fringe = (hw + f) / dot;
+			set(j, o, x + mx * miter, y + my * miter, x - mx * miter, y - my * miter);
+			set(j, o + 4, x + mx * fringe, y + my * fringe, x - mx * fringe, y - my * fringe);
+			System.arraycopy(j, o, j, o + 8, 8);
+			return;
+		}
+
+		// The outer side is opposite the direction of the turn. The inner edges meet at the miter point, limited so short segments
+		// don't push it past their other ends.
+		float cross = d0x * d1y - d0y * d1x;
+		float side = cross > 0 ? -1 : 1;
+		float inner = dot == 0 ? 0 : Math.min(hw / dot, Math.min(len0, len1));
+		float innerFringe = dot == 0 ? 0 : inner + f / dot;
+		float ix = x - side * mx * inner, iy = y - side * my * inner;
+		float ifx = x - side * mx * innerFringe, ify = y - side * my * innerFringe;
+		float o1x = x + side * n0x * hw, o1y = y + side * n0y * hw, o2x = x + side * n1x * hw, o2y = y + side * n1y * hw;
+		float of1x = x + side * n0x * (hw + f), of1y = y + side * n0y * (hw + f);
+		float of2x = x + side * n1x * (hw + f), of2y = y + side * n1y * (hw + f);
+		if (side > 0) {
+			set(j, o, o1x, o1y, ix, iy);
+			set(j, o + 4, of1x, of1y, ifx, ify);
+			set(j, o + 8, o2x, o2y, ix, iy);
+			set(j, o + 12, of2x, of2y, ifx, ify);
+		} else {
+			set(j, o, ix, iy, o1x, o1y);
+			set(j, o + 4, ifx, ify, of1x, of1y);
+			set(j, o + 8, ix, iy, o2x, o2y);
+			set(j, o + 12, ifx, ify, of2x, of2y);
+		}
+
+		// Fill the wedge between the outer corners with a bevel or an arc, fanned from the inner point.
+		float turn = (float)Math.atan2(cross, d0x * d1x + d0y * d1y);
+		int segments = joinType == JoinType.Round ? arcSegments(hw, Math.abs(turn)) : 1;
+		float start = MathUtils.atan2(side * n0y, side * n0x);
+		fan(x, y, ix, iy, hw, start, turn, segments);
+	}
+
+	/** Computes the edge points of an end point of an open polyline and emits the cap geometry. Entry and exit are the same. */
+	private void cap (float[] p, int i, int other, float[] j, int o, boolean start) {
+		float hw = lineWidth * 0.5f, f = feather;
+		float x = p[i * 2], y = p[i * 2 + 1];
+		float dx = start ? p[other * 2] - x : x - p[other * 2], dy = start ? p[other * 2 + 1] - y : y - p[other * 2 + 1];
+		float len = len(dx, dy);
+		dx /= len;
+		dy /= len;
+		float nx = -dy, ny = dx;
+		// Direction pointing away from the line.
+		float ox = start ? -dx : dx, oy = start ? -dy : dy;
+
+		if (capType == CapType.Round) {
+			set(j, o, x + nx * hw, y + ny * hw, x - nx * hw, y - ny * hw);
+			set(j, o + 4, x + nx * (hw + f), y + ny * (hw + f), x - nx * (hw + f), y - ny * (hw + f));
+			System.arraycopy(j, o, j, o + 8, 8);
+			float from = start ? MathUtils.atan2(ny, nx) : MathUtils.atan2(-ny, -nx);
+			fan(x, y, x, y, hw, from, MathUtils.PI, arcSegments(hw, MathUtils.PI));
+			return;
+		}
+
+		if (capType == CapType.Square) {
+			x += ox * hw;
+			y += oy * hw;
+		}
+		float lx = x + nx * hw, ly = y + ny * hw, rx = x - nx * hw, ry = y - ny * hw;
+		float lfx = lx + (nx + ox) * f, lfy = ly + (ny + oy) * f, rfx = rx + (ox - nx) * f, rfy = ry + (oy - ny) * f;
+		set(j, o, lx, ly, rx, ry);
+		set(j, o + 4, lfx, lfy, rfx, rfy);
+		System.arraycopy(j, o, j, o + 8, 8);
+		if (f > 0) quad(lx, ly, colorBits, rx, ry, colorBits, rfx, rfy, clearBits, lfx, lfy, clearBits);
+	}
+
+	/** Emits triangles from (fromX, fromY) to an arc around (x, y) and the fringe outside the arc. */
+	private void fan (float x, float y, float fromX, float fromY, float radius, float start, float radians, int segments) {
+		float c = colorBits, o = clearBits, f = feather;
+		float step = radians / segments;
+		float cos = MathUtils.cos(start), sin = MathUtils.sin(start);
+		for (int i = 1; i <= segments; i++) {
+			float angle = start + i * step;
+			float cos2 = MathUtils.cos(angle), sin2 = MathUtils.sin(angle);
+			float ax = x + cos * radius, ay = y + sin * radius, bx = x + cos2 * radius, by = y + sin2 * radius;
+			triangle(fromX, fromY, c, ax, ay, c, bx, by, c);
+			if (f > 0) quad(ax, ay, c, bx, by, c, bx + cos2 * f, by + sin2 * f, o, ax + cos * f, ay + sin * f, o);
+			cos = cos2;
+			sin = sin2;
+		}
+	}
+
+	private int arcSegments (float radius, float radians) {
+		return Math.max(1, (int)(6 * (float)Math.cbrt(radius) * (radians / MathUtils.PI2)));
+	}
+
+	private void quad (float x1, float y1, float c1, float x2, float y2, float c2, float x3, float y3, float c3, float x4, float y4,
+		float c4) {
+		triangle(x1, y1, c1, x2, y2, c2, x3, y3, c3);
+		triangle(x3, y3, c3, x4, y4, c4, x1, y1, c1);
+	}
+
+	private void triangle (float x1, float y1, float c1, float x2, float y2, float c2, float x3, float y3, float c3) {
+		ImmediateModeRenderer renderer = this.renderer;
+		if (renderer.getMaxVertices() - renderer.getNumVertices() < 3) renderer.flush();
+		renderer.color(c1);
+		renderer.vertex(x1, y1, 0);
+		renderer.color(c2);
+		renderer.vertex(x2, y2, 0);
+		renderer.color(c3);
+		renderer.vertex(x3, y3, 0);
+	}
+
+	private void checkDrawing () {
+		if (!drawing) throw new IllegalStateException("begin must be called first.");
+		if (matrixDirty) {
+			end();
+			begin();
+		}
+	}
+
+	static private void set (float[] j, int o, float x1, float y1, float x2, float y2) {
+		j[o] = x1;
+		j[o + 1] = y1;
+		j[o + 2] = x2;
+		j[o + 3] = y2;
+	}
+
+	static private float len (float x, float y) {
+		return (float)Math.sqrt(x * x + y * y);
+	}
+
+	/** Finishes the batch of shapes and ensures they get rendered. */
+	public void end () {
+		if (!drawing) throw new IllegalStateException("begin must be called before end.");
+		renderer.end();
+		drawing = false;
+	}
+
+	public void flush () {
+		if (!drawing) return;
+		end();
+		begin();
+	}
+
+	public ImmediateModeRenderer getRenderer () {
+		return renderer;
+	}
+
+	/** @return true if currently between begin and end. */
+	public boolean isDrawing () {
+		return drawing;
+	}
+
+	public void dispose () {
+		renderer.dispose();
+	}
+}
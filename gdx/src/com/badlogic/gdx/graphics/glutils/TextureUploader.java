@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.GLTexture;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Uploads the {@link Pixmap} of a {@link TextureData} to a new {@link Texture} over several calls to {@link #update(int)}, so
+ * large textures can be streamed in without a frame spike. The texture storage is allocated on the first update and each update
+ * then uploads a band of rows, no more than the specified number of bytes.
+ * <p>
+ * With OpenGL ES 3.0, each band is copied into a pixel buffer object with glMapBufferRange and glTexSubImage2D reads from that
+ * buffer, so the driver can transfer the pixels to the GPU asynchronously instead of copying them during the call. Otherwise the
+ * bands are uploaded directly from the Pixmap.
+ * <p>
+ * The TextureData should be prepared beforehand, ideally on another thread, so decoding the image doesn't happen on the rendering
+ * thread. Only TextureData of type {@link TextureData.TextureDataType#Pixmap} without mipmaps can be uploaded this way, see
+ * {@link #canUpload(TextureData)}. If the texture is managed and the context is lost, it is reloaded all at once from the
+ * original TextureData.
+ * <p>
+ * The uploader must be disposed once the upload is complete or abandoned. */
+public class TextureUploader implements Disposable {
+	private final TextureData data;
+	private Pixmap pixmap;
+	private boolean disposePixmap;
+	private Texture texture;
+	private int row, rowBytes, bufferHandle;
+
+	/** @param data Pixmap TextureData without mipmaps. */
+	public TextureUploader (TextureData data) {
+		if (!canUpload(data)) throw new GdxRuntimeException("TextureData must be of type Pixmap without mipmaps.");
+		this.data = data;
+	}
+
+	/** @return whether the TextureData can be uploaded by a TextureUploader. */
+	static public boolean canUpload (TextureData data) {
+		return data.getType() == TextureData.TextureDataType.Pixmap && !data.useMipMaps();
+	}
+
+	/** Uploads the next band of rows. Must be called on the rendering thread.
+	 * @param maxBytes The maximum number of bytes to upload. At least one row is always uploaded.
+	 * @return true if the whole texture has been uploaded. */
+	public boolean update (int maxBytes) {
+		if (texture == null) begin();
+		int height = pixmap.getHeight();
+		if (row == height) return true;
+
+		int rows = Math.min(Math.max(1, maxBytes / rowBytes), height - row);
+		int offset = row * rowBytes, size = rows * rowBytes;
+		ByteBuffer pixels = pixmap.getPixels();
+		((Buffer)pixels).limit(offset + size);
+		((Buffer)pixels).position(offset);
+
+		GL20 gl = Gdx.gl;
+		texture.bind();
+		gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+		if (bufferHandle != 0) {
+			GL30 gl30 = Gdx.gl30;
+			gl.glBindBuffer(GL30.GL_PIXEL_UNPACK_BUFFER, bufferHandle);
+			if (Gdx.app.getType() == ApplicationType.WebGL)
+				gl.glBufferData(GL30.GL_PIXEL_UNPACK_BUFFER, size, pixels, GL20.GL_STREAM_DRAW);
+			else {
+				// Orphan the storage so the previous band can still be read while this one is written.
+				gl.glBufferData(GL30.GL_PIXEL_UNPACK_BUFFER, size, null, GL20.GL_STREAM_DRAW);
+				Buffer mapped = gl30.glMapBufferRange(GL30.GL_PIXEL_UNPACK_BUFFER, 0, size,
+					GL30.GL_MAP_WRITE_BIT | GL30.GL_MAP_INVALIDATE_BUFFER_BIT);
+				if (mapped instanceof ByteBuffer) {
+					((ByteBuffer)mapped).put(pixels);
+					gl30.glUnmapBuffer(GL30.GL_PIXEL_UNPACK_BUFFER);
+				} else
+					gl.glBufferSubData(GL30.GL_PIXEL_UNPACK_BUFFER, 0, size, pixels);
+			}
+			gl30.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, row, pixmap.getWidth(), rows, pixmap.getGLFormat(),
+				pixmap.getGLType(), 0);
+			gl.glBindBuffer(GL30.GL_PIXEL_UNPACK_BUFFER, 0);
+		} else
+			gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, row, pixmap.getWidth(), rows, pixmap.getGLFormat(), pixmap.getGLType(),
+				pixels);
+		gl.glBindTexture(GL20.GL_TEXTURE_2D, 0);
+		((Buffer)pixels).clear();
+
+		row += rows;
+		if (row < height) return false;
+		end();
+		return true;
+	}
+
+	private void begin () {
+		if (!data.isPrepared()) data.prepare();
+		pixmap = data.consumePixmap();
+		disposePixmap = data.disposePixmap();
+		if (data.getFormat() != pixmap.getFormat()) {
+			Pixmap tmp = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), data.getFormat());
+			tmp.setBlending(Blending.None);
+			tmp.drawPixmap(pixmap, 0, 0, 0, 0, pixmap.getWidth(), pixmap.getHeight());
+			if (disposePixmap) pixmap.dispose();
+			pixmap = tmp;
+			disposePixmap = true;
+		}
+		rowBytes = pixmap.getPixels().capacity() / pixmap.getHeight();
+		texture = new Texture(new UploadTextureData(data, pixmap));
+		if (Gdx.gl30 != null) bufferHandle = Gdx.gl.glGenBuffer();
+	}
+
+	private void end () {
+		((UploadTextureData)texture.getTextureData()).uploaded = true;
+		if (bufferHandle != 0) {
+			Gdx.gl.glDeleteBuffer(bufferHandle);
+			bufferHandle = 0;
+		}
+		if (disposePixmap) pixmap.dispose();
+		pixmap = null;
+	}
+
+	/** @return the texture, or null before the first {@link #update(int)}. Its contents are incomplete until update returns
+	 *         true. */
+	public Texture getTexture () {
+		return texture;
+	}
+
+	/** @return whether the whole texture has been uploaded. */
+	public boolean isDone () {
+		return texture != null && pixmap == null;
+	}
+
+	/** Releases the resources used for the upload. If the upload is not complete, the texture is disposed too. */
+	public void dispose () {
+		if (texture == null || isDone()) return;
+		if (bufferHandle != 0) {
+			Gdx.gl.glDeleteBuffer(bufferHandle);
+			bufferHandle = 0;
+		}
+		if (disposePixmap) pixmap.dispose();
+		pixmap = null;
+		texture.dispose();
+		texture = null;
+	}
+
+	/** Allocates the texture storage while uploading, and uploads the original TextureData when the texture is reloaded. */
+	static class UploadTextureData implements TextureData {
+		final TextureData data;
+		final int width, height, internalFormat, format, type;
+		boolean uploaded;
+
+		UploadTextureData (TextureData data, Pixmap pixmap) {
+			this.data = data;
+			width = pixmap.getWidth();
+			height = pixmap.getHeight();
+			internalFormat = pixmap.getGLInternalFormat();
+			format = pixmap.getGLFormat();
+			type = pixmap.getGLType();
+		}
+
+		@Override
+		public TextureDataType getType () {
+			return TextureDataType.Custom;
+		}
+
+		@Override
+		public boolean isPrepared () {
+			return true;
+		}
+
+		@Override
+		public void prepare () {
+			throw new GdxRuntimeException("prepare() must not be called on an UploadTextureData instance as it is already prepared.");
+		}
+
+		@Override
+		public void consumeCustomData (int target) {
+			if (uploaded)
+				GLTexture.uploadImageData(target, data, 0);
+			else
+				Gdx.gl.glTexImage2D(target, 0, internalFormat, width, height, 0, format, type, null);
+		}
+
+		@Override
+		public Pixmap consumePixmap () {
+			throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+		}
+
+		@Override
+		public boolean disposePixmap () {
+			throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+		}
+
+		@Override
+		public int getWidth () {
+			return width;
+		}
+
+		@Override
+		public int getHeight () {
+			return height;
+		}
+
+		@Override
+		public Format getFormat () {
+			return data.getFormat();
+		}
+
+		@Override
+		public boolean useMipMaps () {
+			return false;
+		}
+
+		@Override
+		public boolean isManaged () {
+			return data.isManaged();
+		}
+	}
+}
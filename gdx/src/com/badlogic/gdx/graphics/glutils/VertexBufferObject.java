@@ -72,6 +72,18 @@ public class VertexBufferObject implements VertexData {
 		setUsage(isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW);
 	}
 
+	/** Constructs a new interleaved VertexBufferObject which uses the given buffer for its vertices instead of allocating its own.
+	 * The vertices between the position and the limit of the buffer are uploaded on the first bind. The buffer is not disposed.
+	 *
+	 * @param isStatic whether the vertex data is static.
+	 * @param unmanagedBuffer the vertices, read in the byte order of the buffer
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObject (boolean isStatic, ByteBuffer unmanagedBuffer, VertexAttributes attributes) {
+		this(isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW, unmanagedBuffer.slice().order(unmanagedBuffer.order()), false,
+			attributes);
+		isDirty = true;
+	}
+
 	protected VertexBufferObject (int usage, ByteBuffer data, boolean ownsBuffer, VertexAttributes attributes) {
 		bufferHandle = Gdx.gl20.glGenBuffer();
 
@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * <p>
+ * A {@link VertexData} implementation for vertices that change every time they are drawn, such as those of batches. It requires
+ * OpenGL ES 3.0.
+ * <p>
+ * A single vertex buffer object large enough for several uploads is allocated once and used as a ring. Each upload is written
+ * behind the previous one with glMapBufferRange and the unsynchronized and invalidate range flags, so the driver never has to
+ * wait for draw calls that still read earlier ranges, and the vertex attribute pointers are set to the start of the new range.
+ * When the ring is full its storage is orphaned with glBufferData, which lets the driver hand out fresh memory while in-flight
+ * draw calls keep the old storage. Backends that can't map buffers fall back to glBufferSubData.
+ * <p>
+ * The attribute pointers are kept in a vertex array object, as required by OpenGL 3.0+ core profiles. They are only set again
+ * when the vertices were uploaded to a new range or the attribute locations changed.
+ * <p>
+ * Vertices are staged in client memory like {@link VertexBufferObject} and uploaded on the next bind after they changed, so
+ * indices and draw offsets stay relative to the first vertex of the data set with {@link #setVertices(float[], int, int)}.
+ * <p>
+ * If the OpenGL ES context was lost you can call {@link #invalidate()} to recreate a new OpenGL vertex buffer object.
+ * <p>
+ * VertexBufferObjectRing must be disposed via the {@link #dispose()} method when no longer needed */
+public class VertexBufferObjectRing implements VertexData {
+	final static IntBuffer tmpHandle = BufferUtils.newIntBuffer(1);
+
+	final VertexAttributes attributes;
+	final FloatBuffer buffer;
+	final ByteBuffer byteBuffer;
+	final int ringSize;
+	final boolean canMap;
+	int bufferHandle;
+	/** The byte offset of the last upload in the ring, used for the vertex attribute pointers. */
+	int offset;
+	/** The byte offset in the ring where the next upload will be written. */
+	int head;
+	boolean isDirty = false;
+	boolean isBound = false;
+	int vaoHandle = -1;
+	/** The attribute locations and the byte offset the attribute pointers of the vertex array object were last set with. */
+	IntArray cachedLocations = new IntArray();
+	int cachedOffset = -1;
+
+	/** Constructs a new interleaved VertexBufferObjectRing holding 4 uploads of the maximum number of vertices.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param attributes the {@link VertexAttribute}s. */
+	public VertexBufferObjectRing (int numVertices, VertexAttribute... attributes) {
+		this(numVertices, new VertexAttributes(attributes));
+	}
+
+	/** Constructs a new interleaved VertexBufferObjectRing holding 4 uploads of the maximum number of vertices.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObjectRing (int numVertices, VertexAttributes attributes) {
+		this(numVertices, attributes, 4);
+	}
+
+	/** Constructs a new interleaved VertexBufferObjectRing.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param attributes the {@link VertexAttributes}.
+	 * @param uploads the number of uploads of the maximum number of vertices the ring can hold before it is orphaned. Should be
+	 *           at least the number of times the vertices are changed per frame. */
+	public VertexBufferObjectRing (int numVertices, VertexAttributes attributes, int uploads) {
+		if (Gdx.gl30 == null) throw new GdxRuntimeException("VertexBufferObjectRing requires OpenGL ES 3.0.");
+		if (uploads < 1) throw new IllegalArgumentException("uploads must be > 0: " + uploads);
+		this.attributes = attributes;
+		byteBuffer = BufferUtils.newByteBuffer(attributes.vertexSize * numVertices);
+		buffer = byteBuffer.asFloatBuffer();
+		((Buffer)buffer).flip();
+		((Buffer)byteBuffer).flip();
+		ringSize = attributes.vertexSize * numVertices * uploads;
+		canMap = Gdx.app.getType() != ApplicationType.WebGL;
+		bufferHandle = createBufferObject();
+		createVAO();
+	}
+
+	private int createBufferObject () {
+		int result = Gdx.gl20.glGenBuffer();
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, result);
+		Gdx.gl20.glBufferData(GL20.GL_ARRAY_BUFFER, ringSize, null, GL20.GL_STREAM_DRAW);
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		offset = 0;
+		head = 0;
+		return result;
+	}
+
+	@Override
+	public VertexAttributes getAttributes () {
+		return attributes;
+	}
+
+	@Override
+	public int getNumVertices () {
+		return buffer.limit() * 4 / attributes.vertexSize;
+	}
+
+	@Override
+	public int getNumMaxVertices () {
+		return byteBuffer.capacity() / attributes.vertexSize;
+	}
+
+	/** @deprecated use {@link #getBuffer(boolean)} instead */
+	@Override
+	@Deprecated
+	public FloatBuffer getBuffer () {
+		isDirty = true;
+		return buffer;
+	}
+
+	@Override
+	public FloatBuffer getBuffer (boolean forWriting) {
+		isDirty |= forWriting;
+		return buffer;
+	}
+
+	/** Writes the staged vertices behind the previous upload, orphaning the ring first if they don't fit. The buffer must be
+	 * bound. */
+	private void upload () {
+		int size = buffer.limit() * 4;
+		((Buffer)byteBuffer).limit(size);
+		isDirty = false;
+		if (size == 0) return;
+
+		GL20 gl = Gdx.gl20;
+		if (head + size > ringSize) {
+			gl.glBufferData(GL20.GL_ARRAY_BUFFER, ringSize, null, GL20.GL_STREAM_DRAW);
+			head = 0;
+		}
+		offset = head;
+		head += size;
+
+		((Buffer)byteBuffer).position(0);
+		Buffer mapped = canMap ? Gdx.gl30.glMapBufferRange(GL20.GL_ARRAY_BUFFER, offset, size,
+			GL30.GL_MAP_WRITE_BIT | GL30.GL_MAP_INVALIDATE_RANGE_BIT | GL30.GL_MAP_UNSYNCHRONIZED_BIT) : null;
+		if (mapped instanceof ByteBuffer) {
+			((ByteBuffer)mapped).put(byteBuffer);
+			((Buffer)byteBuffer).position(0);
+			Gdx.gl30.glUnmapBuffer(GL20.GL_ARRAY_BUFFER);
+		} else
+			gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, offset, size, byteBuffer);
+	}
+
+	private void bufferChanged () {
+		if (isBound) {
+			Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+			upload();
+			setAttributePointers();
+		}
+	}
+
+	@Override
+	public void setVertices (float[] vertices, int offset, int count) {
+		isDirty = true;
+		BufferUtils.copy(vertices, byteBuffer, count, offset);
+		((Buffer)buffer).position(0);
+		((Buffer)buffer).limit(count);
+		bufferChanged();
+	}
+
+	@Override
+	public void updateVertices (int targetOffset, float[] vertices, int sourceOffset, int count) {
+		isDirty = true;
+		final int pos = byteBuffer.position();
+		((Buffer)byteBuffer).position(targetOffset * 4);
+		BufferUtils.copy(vertices, sourceOffset, count, byteBuffer);
+		((Buffer)byteBuffer).position(pos);
+		bufferChanged();
+	}
+
+	/** Binds this VertexBufferObjectRing for rendering via glDrawArrays or glDrawElements
+	 *
+	 * @param shader the shader */
+	@Override
+	public void bind (final ShaderProgram shader) {
+		bind(shader, null);
+	}
+
+	@Override
+	public void bind (final ShaderProgram shader, final int[] locations) {
+		Gdx.gl30.glBindVertexArray(vaoHandle);
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) upload();
+		bindAttributes(shader, locations);
+		isBound = true;
+	}
+
+	/** Enables the attribute locations of the shader in the vertex array object, if they differ from the cached ones, and sets
+	 * the attribute pointers to the last upload. */
+	private void bindAttributes (ShaderProgram shader, int[] locations) {
+		final int numAttributes = attributes.size();
+		boolean stillValid = cachedLocations.size != 0;
+		if (stillValid) {
+			if (locations == null) {
+				for (int i = 0; stillValid && i < numAttributes; i++)
+					stillValid = shader.getAttributeLocation(attributes.get(i).alias) == cachedLocations.get(i);
+			} else {
+				stillValid = locations.length == cachedLocations.size;
+				for (int i = 0; stillValid && i < numAttributes; i++)
+					stillValid = locations[i] == cachedLocations.get(i);
+			}
+		}
+
+		if (!stillValid) {
+			for (int i = 0; i < cachedLocations.size; i++) {
+				final int location = cachedLocations.get(i);
+				if (location >= 0) shader.disableVertexAttribute(location);
+			}
+			cachedLocations.clear();
+			for (int i = 0; i < numAttributes; i++) {
+				final int location = locations == null ? shader.getAttributeLocation(attributes.get(i).alias) : locations[i];
+				cachedLocations.add(location);
+				if (location >= 0) shader.enableVertexAttribute(location);
+			}
+			cachedOffset = -1;
+		}
+		if (cachedOffset != offset) setAttributePointers();
+	}
+
+	/** Points the cached attribute locations at the last upload. The vertex array object and the buffer must be bound. */
+	private void setAttributePointers () {
+		final GL20 gl = Gdx.gl20;
+		for (int i = 0; i < cachedLocations.size; i++) {
+			final int location = cachedLocations.get(i);
+			if (location < 0) continue;
+			final VertexAttribute attribute = attributes.get(i);
+			gl.glVertexAttribPointer(location, attribute.numComponents, attribute.type, attribute.normalized,
+				attributes.vertexSize, offset + attribute.offset);
+		}
+		cachedOffset = offset;
+	}
+
+	/** Unbinds this VertexBufferObjectRing.
+	 *
+	 * @param shader the shader */
+	@Override
+	public void unbind (final ShaderProgram shader) {
+		unbind(shader, null);
+	}
+
+	@Override
+	public void unbind (final ShaderProgram shader, final int[] locations) {
+		Gdx.gl30.glBindVertexArray(0);
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		isBound = false;
+	}
+
+	/** Invalidates the VertexBufferObjectRing so a new OpenGL buffer handle is created. Use this in case of a context loss. */
+	@Override
+	public void invalidate () {
+		bufferHandle = createBufferObject();
+		createVAO();
+		cachedLocations.clear();
+		isDirty = true;
+	}
+
+	/** Disposes of all resources this VertexBufferObjectRing uses. */
+	@Override
+	public void dispose () {
+		GL20 gl = Gdx.gl20;
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		gl.glDeleteBuffer(bufferHandle);
+		bufferHandle = 0;
+		deleteVAO();
+	}
+
+	private void createVAO () {
+		((Buffer)tmpHandle).clear();
+		Gdx.gl30.glGenVertexArrays(1, tmpHandle);
+		vaoHandle = tmpHandle.get();
+	}
+
+	private void deleteVAO () {
+		if (vaoHandle != -1) {
+			((Buffer)tmpHandle).clear();
+			tmpHandle.put(vaoHandle);
+			((Buffer)tmpHandle).flip();
+			Gdx.gl30.glDeleteVertexArrays(1, tmpHandle);
+			vaoHandle = -1;
+		}
+	}
+
+	/** Returns the VBO handle
+	 * @return the VBO handle */
+	public int getBufferHandle () {
+		return bufferHandle;
+	}
+}
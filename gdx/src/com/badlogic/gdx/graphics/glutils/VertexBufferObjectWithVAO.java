@@ -76,14 +76,31 @@ public class VertexBufferObjectWithVAO implements VertexData {
 	}
 
 	public VertexBufferObjectWithVAO (boolean isStatic, ByteBuffer unmanagedBuffer, VertexAttributes attributes) {
+		this(isStatic, unmanagedBuffer, attributes, false);
+	}
+
+	/** Constructs a new interleaved VertexBufferObjectWithVAO which uses the given buffer instead of allocating its own. The
+	 * buffer is not disposed.
+	 *
+	 * @param isStatic whether the vertex data is static.
+	 * @param unmanagedBuffer the buffer to store the vertices in, read and written in the byte order of the buffer
+	 * @param attributes the {@link VertexAttributes}.
+	 * @param hasVertices whether the buffer already contains the vertices, between its position and limit, which are then
+	 *           uploaded on the first bind. Otherwise the buffer is only used as storage for the vertices set later. */
+	public VertexBufferObjectWithVAO (boolean isStatic, ByteBuffer unmanagedBuffer, VertexAttributes attributes,
+		boolean hasVertices) {
 		this.isStatic = isStatic;
 		this.attributes = attributes;
 
-		byteBuffer = unmanagedBuffer;
+		byteBuffer = hasVertices ? unmanagedBuffer.slice().order(unmanagedBuffer.order()) : unmanagedBuffer;
 		ownsBuffer = false;
 		buffer = byteBuffer.asFloatBuffer();
-		((Buffer)buffer).flip();
-		((Buffer)byteBuffer).flip();
+		if (hasVertices)
+			isDirty = true;
+		else {
+			((Buffer)buffer).flip();
+			((Buffer)byteBuffer).flip();
+		}
 		bufferHandle = Gdx.gl20.glGenBuffer();
 		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
 		createVAO();
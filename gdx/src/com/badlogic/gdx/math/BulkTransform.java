@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.math;
+
+/** Transforms many vectors stored in a float array at once, for example the positions, normals or texture coordinates of the
+ * vertices of a mesh. The vectors start at an offset and are a stride of floats apart, so the other attributes of the vertices
+ * between them are left untouched.
+ * <p>
+ * Unlike {@link Matrix4#mulVec(float[], float[], int, int, int)}, {@link Matrix4#prj(float[], float[], int, int, int)} and
+ * {@link Matrix4#rot(float[], float[], int, int, int)}, these are written in Java, so they work on every backend. The matrix is
+ * read into local variables once and nothing is allocated per vector. The results are the same as applying
+ * {@link Vector3#mul(Matrix4)}, {@link Vector3#prj(Matrix4)}, {@link Vector3#rot(Matrix4)}, {@link Vector3#mul(Matrix3)} or
+ * {@link Affine2#applyTo(Vector2)} to each vector. */
+public final class BulkTransform {
+	private BulkTransform () {
+	}
+
+	/** Multiplies the vectors with the matrix, like {@link Vector3#mul(Matrix4)}. Vectors with fewer than 3 dimensions are
+	 * extended with 0 and only their own components are written.
+	 * @param vectors the vectors, transformed in place
+	 * @param offset the index of the first component of the first vector
+	 * @param count the number of vectors
+	 * @param stride the number of floats from one vector to the next
+	 * @param dimensions the number of components of each vector, 1 to 3 */
+	public static void mul (final Matrix4 matrix, final float[] vectors, int offset, final int count, final int stride,
+		final int dimensions) {
+		final float[] m = matrix.val;
+		final float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02], m03 = m[Matrix4.M03];
+		final float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12], m13 = m[Matrix4.M13];
+		final float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22], m23 = m[Matrix4.M23];
+		switch (dimensions) {
+		case 1:
+			for (int i = 0; i < count; i++, offset += stride)
+				vectors[offset] = vectors[offset] * m00 + m03;
+			break;
+		case 2:
+			for (int i = 0; i < count; i++, offset += stride) {
+				final float x = vectors[offset], y = vectors[offset + 1];
+				vectors[offset] = x * m00 + y * m01 + m03;
+				vectors[offset + 1] = x * m10 + y * m11 + m13;
+			}
+			break;
+		case 3:
+			for (int i = 0; i < count; i++, offset += stride) {
+				final float x = vectors[offset], y = vectors[offset + 1], z = vectors[offset + 2];
+				vectors[offset] = x * m00 + y * m01 + z * m02 + m03;
+				vectors[offset + 1] = x * m10 + y * m11 + z * m12 + m13;
+				vectors[offset + 2] = x * m20 + y * m21 + z * m22 + m23;
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("dimensions must be 1, 2 or 3: " + dimensions);
+		}
+	}
+
+	/** Multiplies the 3 component vectors with the matrix and divides them by w, like {@link Vector3#prj(Matrix4)}.
+	 * @param vectors the vectors, transformed in place
+	 * @param offset the index of the x component of the first vector
+	 * @param count the number of vectors
+	 * @param stride the number of floats from one vector to the next */
+	public static void prj (final Matrix4 matrix, final float[] vectors, int offset, final int count, final int stride) {
+		final float[] m = matrix.val;
+		final float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02], m03 = m[Matrix4.M03];
+		final float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12], m13 = m[Matrix4.M13];
+		final float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22], m23 = m[Matrix4.M23];
+		final float m30 = m[Matrix4.M30], m31 = m[Matrix4.M31], m32 = m[Matrix4.M32], m33 = m[Matrix4.M33];
+		for (int i = 0; i < count; i++, offset += stride) {
+			final float x = vectors[offset], y = vectors[offset + 1], z = vectors[offset + 2];
+			final float w = 1f / (x * m30 + y * m31 + z * m32 + m33);
+			vectors[offset] = (x * m00 + y * m01 + z * m02 + m03) * w;
+			vectors[offset + 1] = (x * m10 + y * m11 + z * m12 + m13) * w;
+			vectors[offset + 2] = (x * m20 + y * m21 + z * m22 + m23) * w;
+		}
+	}
+
+	/** Multiplies the 3 component vectors with the upper left 3x3 part of the matrix, like {@link Vector3#rot(Matrix4)}.
+	 * @param vectors the vectors, transformed in place
+	 * @param offset the index of the x component of the first vector
+	 * @param count the number of vectors
+	 * @param stride the number of floats from one vector to the next */
+	public static void rot (final Matrix4 matrix, final float[] vectors, int offset, final int count, final int stride) {
+		final float[] m = matrix.val;
+		mul(m[Matrix4.M00], m[Matrix4.M01], m[Matrix4.M02], m[Matrix4.M10], m[Matrix4.M11], m[Matrix4.M12], m[Matrix4.M20],
+			m[Matrix4.M21], m[Matrix4.M22], vectors, offset, count, stride);
+	}
+
+	/** Multiplies the 3 component vectors with the matrix, like {@link Vector3#mul(Matrix3)}.
+	 * @param vectors the vectors, transformed in place
+	 * @param offset the index of the x component of the first vector
+	 * @param count the number of vectors
+	 * @param stride the number of floats from one vector to the next */
+	public static void mul (final Matrix3 matrix, final float[] vectors, int offset, final int count, final int stride) {
+		final float[] m = matrix.val;
+		mul(m[Matrix3.M00], m[Matrix3.M01], m[Matrix3.M02], m[Matrix3.M10], m[Matrix3.M11], m[Matrix3.M12], m[Matrix3.M20],
+			m[Matrix3.M21], m[Matrix3.M22], vectors, offset, count, stride);
+	}
+
+	private static void mul (final float m00, final float m01, final float m02, final float m10, final float m11,
+		final float m12, final float m20, final float m21, final float m22, final float[] vectors, int offset, final int count,
+		final int stride) {
+		for (int i = 0; i < count; i++, offset += stride) {
+			final float x = vectors[offset], y = vectors[offset + 1], z = vectors[offset + 2];
+			vectors[offset] = x * m00 + y * m01 + z * m02;
+			vectors[offset + 1] = x * m10 + y * m11 + z * m12;
+			vectors[offset + 2] = x * m20 + y * m21 + z * m22;
+		}
+	}
+
+	/** Multiplies the vectors with the matrix and normalizes them, like {@link Vector3#mul(Matrix3)} followed by
+	 * {@link Vector3#nor()}, which transforms normals with a normal matrix. Vectors with fewer than 3 dimensions are extended with
+	 * 0 and only their own components are written.
+	 * @param vectors the vectors, transformed in place
+	 * @param offset the index of the first component of the first vector
+	 * @param count the number of vectors
+	 * @param stride the number of floats from one vector to the next
+	 * @param dimensions the number of components of each vector, 1 to 3 */
+	public static void mulNormalized (final Matrix3 matrix, final float[] vectors, int offset, final int count, final int stride,
+		final int dimensions) {
+		if (dimensions < 1 || dimensions > 3)
+			throw new IllegalArgumentException("dimensions must be 1, 2 or 3: " + dimensions);
+		final float[] m = matrix.val;
+		final float m00 = m[Matrix3.M00], m01 = m[Matrix3.M01], m02 = m[Matrix3.M02];
+		final float m10 = m[Matrix3.M10], m11 = m[Matrix3.M11], m12 = m[Matrix3.M12];
+		final float m20 = m[Matrix3.M20], m21 = m[Matrix3.M21], m22 = m[Matrix3.M22];
+		for (int i = 0; i < count; i++, offset += stride) {
+			final float x = vectors[offset];
+			final float y = dimensions > 1 ? vectors[offset + 1] : 0f;
+			final float z = dimensions > 2 ? vectors[offset + 2] : 0f;
+			final float nx = x * m00 + y * m01 + z * m02, ny = x * m10 + y * m11 + z * m12, nz = x * m20 + y * m21 + z * m22;
+			final float len2 = nx * nx + ny * ny + nz * nz;
+			final float scale = len2 == 0f || len2 == 1f ? 1f : 1f / (float)Math.sqrt(len2);
+			vectors[offset] = nx * scale;
+			if (dimensions > 1) vectors[offset + 1] = ny * scale;
+			if (dimensions > 2) vectors[offset + 2] = nz * scale;
+		}
+	}
+
+	/** Multiplies the 2 component vectors with the affine transform, like {@link Affine2#applyTo(Vector2)}.
+	 * @param vectors the vectors, transformed in place
+	 * @param offset the index of the x component of the first vector
+	 * @param count the number of vectors
+	 * @param stride the number of floats from one vector to the next */
+	public static void mul (final Affine2 affine, final float[] vectors, int offset, final int count, final int stride) {
+		final float m00 = affine.m00, m01 = affine.m01, m02 = affine.m02, m10 = affine.m10, m11 = affine.m11, m12 = affine.m12;
+		for (int i = 0; i < count; i++, offset += stride) {
+			final float x = vectors[offset], y = vectors[offset + 1];
+			vectors[offset] = m00 * x + m01 * y + m02;
+			vectors[offset + 1] = m10 * x + m11 * y + m12;
+		}
+	}
+
+	/** Scales the vectors component wise, ignoring the scale factors of missing components.
+	 * @param vectors the vectors, scaled in place
+	 * @param offset the index of the first component of the first vector
+	 * @param count the number of vectors
+	 * @param stride the number of floats from one vector to the next
+	 * @param dimensions the number of components of each vector, 1 to 3 */
+	public static void scale (final float scaleX, final float scaleY, final float scaleZ, final float[] vectors, int offset,
+		final int count, final int stride, final int dimensions) {
+		switch (dimensions) {
+		case 1:
+			for (int i = 0; i < count; i++, offset += stride)
+				vectors[offset] *= scaleX;
+			break;
+		case 2:
+			for (int i = 0; i < count; i++, offset += stride) {
+				vectors[offset] *= scaleX;
+				vectors[offset + 1] *= scaleY;
+			}
+			break;
+		case 3:
+			for (int i = 0; i < count; i++, offset += stride) {
+				vectors[offset] *= scaleX;
+				vectors[offset + 1] *= scaleY;
+				vectors[offset + 2] *= scaleZ;
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("dimensions must be 1, 2 or 3: " + dimensions);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.badlogic.gdx.graphics.g3d;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.FloatAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.IntAttribute;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AttributesTest {
+	private static void assertSorted (Attributes attributes) {
+		long mask = 0, previous = 0;
+		for (Attribute attribute : attributes) {
+			Assert.assertTrue(Long.numberOfTrailingZeros(attribute.type) > Long.numberOfTrailingZeros(previous)
+				|| previous == 0);
+			Assert.assertSame(attribute, attributes.get(attribute.type));
+			mask |= attribute.type;
+			previous = attribute.type;
+		}
+		Assert.assertEquals(attributes.getMask(), mask);
+	}
+
+	@Test
+	public void testGetSetRemove () {
+		final Attributes attributes = new Attributes();
+		final FloatAttribute shininess = FloatAttribute.createShininess(2f);
+		final ColorAttribute diffuse = ColorAttribute.createDiffuse(1f, 0f, 0f, 1f);
+		final BlendingAttribute blending = new BlendingAttribute(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		final IntAttribute cull = IntAttribute.createCullFace(GL20.GL_NONE);
+		attributes.set(shininess, cull, diffuse, blending);
+		Assert.assertEquals(4, attributes.size());
+		assertSorted(attributes);
+		Assert.assertTrue(attributes.has(ColorAttribute.Diffuse | FloatAttribute.Shininess));
+		Assert.assertFalse(attributes.has(ColorAttribute.Diffuse | ColorAttribute.Specular));
+		Assert.assertNull(attributes.get(ColorAttribute.Specular));
+		Assert.assertNull(attributes.get(ColorAttribute.Diffuse | FloatAttribute.Shininess));
+
+		final ColorAttribute red = ColorAttribute.createDiffuse(0f, 1f, 0f, 1f);
+		attributes.set(red);
+		Assert.assertEquals(4, attributes.size());
+		Assert.assertSame(red, attributes.get(ColorAttribute.Diffuse));
+
+		attributes.remove(ColorAttribute.Diffuse | IntAttribute.CullFace);
+		Assert.assertEquals(2, attributes.size());
+		assertSorted(attributes);
+		Assert.assertNull(attributes.get(ColorAttribute.Diffuse));
+		Assert.assertSame(shininess, attributes.get(FloatAttribute.Shininess));
+		Assert.assertSame(blending, attributes.get(BlendingAttribute.Type));
+	}
+
+	@Test
+	public void testEquality () {
+		final Material a = new Material("a", ColorAttribute.createDiffuse(1f, 1f, 1f, 1f), FloatAttribute.createShininess(4f));
+		final Material b = new Material("a", FloatAttribute.createShininess(4f), ColorAttribute.createDiffuse(1f, 1f, 1f, 1f));
+		Assert.assertEquals(a, b);
+		Assert.assertEquals(a.hashCode(), b.hashCode());
+		Assert.assertEquals(0, a.compareTo(b));
+		((FloatAttribute)b.get(FloatAttribute.Shininess)).value = 8f;
+		Assert.assertFalse(a.equals(b));
+		Assert.assertTrue(a.same(b));
+		Assert.assertTrue(a.compareTo(b) < 0);
+	}
+
+	@Test
+	public void testInvalidType () {
+		try {
+			new Attributes().set(new FloatAttribute(FloatAttribute.Shininess | FloatAttribute.AlphaTest));
+			Assert.fail();
+		} catch (GdxRuntimeException ignored) {
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.badlogic.gdx.graphics.g3d.environment;
+
+import java.util.Random;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.attributes.CascadedShadowMapAttribute;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CascadedShadowLightTest {
+	private static final int size = 512;
+
+	/** Computes the frustum plane points without the native {@link com.badlogic.gdx.math.Frustum#update(Matrix4)}. */
+	private static class TestCamera extends PerspectiveCamera {
+		private static final float[] clipCorners = {-1, -1, 1, -1, 1, 1, -1, 1, -1, -1, 1, -1, 1, 1, -1, 1};
+
+		TestCamera () {
+			super(67, 16, 9);
+		}
+
+		@Override
+		public void update (boolean updateFrustum) {
+			super.update(false);
+			invProjectionView.set(combined).inv();
+			for (int i = 0; i < 8; i++)
+				frustum.planePoints[i].set(clipCorners[i * 2], clipCorners[i * 2 + 1], i < 4 ? -1 : 1).prj(invProjectionView);
+		}
+	}
+
+	/** Doesn't create frame buffers or render anything, so the cascades can be checked without OpenGL. */
+	private static class TestLight extends CascadedShadowLight {
+		TestLight (int numCascades) {
+			super(numCascades, size, 100f, 20f);
+			set(1, 1, 1, -1, -2, -0.5f);
+			for (int i = 0; i < numCascades; i++)
+				cameras[i] = new OrthographicCamera() {
+					@Override
+					public void update (boolean updateFrustum) {
+						super.update(false);
+					}
+				};
+		}
+
+		@Override
+		protected FrameBuffer createFrameBuffer (int width, int height) {
+			return null;
+		}
+
+		@Override
+		protected void begin (FrameBuffer buffer, int cascade) {
+		}
+
+		@Override
+		public void end () {
+		}
+
+		/** @return the number of cascades whose static casters have to be rendered again. */
+		int renderStatic () {
+			int count = 0;
+			for (int i = 0; i < numCascades; i++)
+				if (beginStatic(i)) count++;
+			return count;
+		}
+	}
+
+	private static PerspectiveCamera camera () {
+		PerspectiveCamera camera = new TestCamera();
+		camera.near = 0.1f;
+		camera.far = 300f;
+		camera.position.set(3, 2, 5);
+		camera.lookAt(10, 0, -10);
+		camera.update();
+		return camera;
+	}
+
+	/** Checks that the points of the view frustum up to the shadow distance map into the tile of their cascade, at least two
+	 * texels away from its border, and into the depth range of the shadow map. */
+	private static void assertCovered (TestLight light, PerspectiveCamera camera, Random random) {
+		final int numCascades = light.getNumCascades();
+		final int columns = numCascades > 1 ? 2 : 1, rows = numCascades > 2 ? 2 : 1;
+		final float[] splits = light.getSplits();
+		final Vector3[] points = camera.frustum.planePoints;
+		final Matrix4 projViewTrans = new Matrix4();
+		final Vector3 point = new Vector3(), near = new Vector3(), far = new Vector3();
+		final float inset = 2f / size - 0.0001f;
+		for (int cascade = 0; cascade < numCascades; cascade++) {
+			System.arraycopy(light.getProjViewTrans(), cascade * 16, projViewTrans.val, 0, 16);
+			final float from = cascade == 0 ? camera.near : splits[cascade - 1], to = splits[cascade];
+			for (int i = 0; i < 1000; i++) {
+				// The corners of the part of the frustum and random points in it
+				final float u = i < 8 ? i & 1 : random.nextFloat(), v = i < 8 ? i >> 1 & 1 : random.nextFloat();
+				final float t = i < 8 ? i >> 2 : random.nextFloat();
+				near.set(points[0]).lerp(points[1], u).lerp(point.set(points[3]).lerp(points[2], u), v);
+				far.set(points[4]).lerp(points[5], u).lerp(point.set(points[7]).lerp(points[6], u), v);
+				final float distance = from + (to - from) * t;
+				point.set(near).lerp(far, (distance - camera.near) / (camera.far - camera.near));
+				Assert.assertEquals(distance, light.getDepthPlane().distance(point), distance * 0.001f);
+
+				point.mul(projViewTrans);
+				final float x = point.x * columns - cascade % columns, y = point.y * rows - cascade / columns;
+				Assert.assertTrue("x " + x, x >= inset && x <= 1f - inset);
+				Assert.assertTrue("y " + y, y >= inset && y <= 1f - inset);
+				final float depth = point.z + light.depthBias;
+				Assert.assertTrue("depth " + depth, depth >= 0f && depth <= 1f);
+			}
+		}
+	}
+
+	@Test
+	public void testPointsInTiles () {
+		final Random random = new Random(1);
+		for (int numCascades = 1; numCascades <= CascadedShadowLight.MAX_CASCADES; numCascades++) {
+			TestLight light = new TestLight(numCascades);
+			PerspectiveCamera camera = camera();
+			for (int frame = 0; frame < 50; frame++) {
+				light.update(camera);
+				assertCovered(light, camera, random);
+				// Move and turn the camera, by small steps that keep most cascades cached and by larger ones
+				final float distance = frame % 5 == 0 ? 5f : 0.05f;
+				camera.position.add(random.nextFloat() * distance, random.nextFloat() * distance * 0.2f,
+					-random.nextFloat() * distance);
+				camera.rotate(Vector3.Y, random.nextFloat() * 20f - 10f);
+				camera.update();
+			}
+		}
+	}
+
+	@Test
+	public void testStaticCache () {
+		TestLight light = new TestLight(4);
+		PerspectiveCamera camera = camera();
+		light.update(camera);
+		Assert.assertEquals(4, light.renderStatic());
+		light.update(camera);
+		Assert.assertEquals(0, light.renderStatic());
+
+		// Small movements and rotations stay within the margin of every cascade
+		for (int i = 0; i < 10; i++) {
+			camera.position.add(0.002f, -0.001f, 0.003f);
+			camera.rotate(Vector3.Y, 0.1f);
+			camera.update();
+			light.update(camera);
+			Assert.assertEquals(0, light.renderStatic());
+		}
+
+		// Moving further than the margin of the nearest cascade moves it, but not the farthest
+		camera.position.add(2f, 0f, -2f);
+		camera.update();
+		light.update(camera);
+		final int moved = light.renderStatic();
+		Assert.assertTrue(moved >= 1 && moved < 4);
+		Assert.assertFalse(light.beginStatic(0));
+
+		light.direction.rotate(Vector3.X, 1f);
+		light.update(camera);
+		Assert.assertEquals(4, light.renderStatic());
+
+		light.invalidate();
+		Assert.assertEquals(4, light.renderStatic());
+	}
+
+	@Test
+	public void testAttributeCompare () {
+		TestLight light1 = new TestLight(1), light2 = new TestLight(1);
+		CascadedShadowMapAttribute a1 = new CascadedShadowMapAttribute(light1);
+		CascadedShadowMapAttribute b1 = new CascadedShadowMapAttribute(light1);
+		CascadedShadowMapAttribute a2 = new CascadedShadowMapAttribute(light2);
+		Assert.assertEquals(0, a1.compareTo(b1));
+		Assert.assertEquals(0, a1.compareTo(a1.copy()));
+		Assert.assertTrue(a1.compareTo(a2) != 0);
+		Assert.assertEquals(Integer.signum(a1.compareTo(a2)), -Integer.signum(a2.compareTo(a1)));
+		Assert.assertTrue(new CascadedShadowMapAttribute((CascadedShadowLight)null).compareTo(a1) < 0);
+	}
+}
@@ -0,0 +1,165 @@
+package com.badlogic.gdx.graphics.g3d.loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObjLoaderTest {
+	private static ObjLoader.LineReader reader (String text) throws IOException {
+		ObjLoader.LineReader reader = new ObjLoader.LineReader(new ByteArrayInputStream(text.getBytes("UTF-8")));
+		Assert.assertTrue(reader.nextLine());
+		return reader;
+	}
+
+	private static void assertFloat (String value) throws IOException {
+		float actual = reader(value).nextFloat();
+		Assert.assertEquals(value, Float.floatToRawIntBits(Float.parseFloat(value)), Float.floatToRawIntBits(actual));
+	}
+
+	private static ModelData load (String obj) {
+		final byte[] bytes = obj.getBytes();
+		FileHandle file = new FileHandle("test.obj") {
+			@Override
+			public InputStream read () {
+				return new ByteArrayInputStream(bytes);
+			}
+		};
+		return new ObjLoader().loadModelData(file, false);
+	}
+
+	@Test
+	public void testFloats () throws IOException {
+		String[] values = {"0", "1", "-1", "+1", "-0", "+0", "0.0", "-0.0", ".5", "-.5", "+.5", "5.", "1e3", "1E3", "1e+3", "1e-3",
+			"-2.5e-7", ".5e1", "5.e-1", "1e22", "1e-22", "1e23", "1e-23", "3.4028235e38", "1.4e-45", "1e-50", "1e50", "0.1", "0.2",
+			"0.3", "123456789012345", "1234567890123456", "1.23456789012345678901234567890", "0.000000000000000000000000012345",
+			"00000000000000000000001.5", "1.0000000000000000000000", "16777217", "3.32276713848114", "6.50134539604187",
+			"0.000985876948107034", "NaN", "-Infinity", "0x1p3"};
+		for (String value : values)
+			assertFloat(value);
+
+		// Numbers as exported by modeling tools, including halfway cases where rounding twice would be off by one ulp
+		Random random = new Random(1);
+		for (int i = 0; i < 100000; i++) {
+			float value = (float)((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10));
+			assertFloat(Float.toString(value));
+			assertFloat(String.format("%.6f", value));
+			assertFloat(Double.toString(((double)value + Math.nextUp(value)) / 2));
+		}
+
+		try {
+			reader("1.2.3").nextFloat();
+			Assert.fail();
+		} catch (NumberFormatException expected) {
+		}
+		try {
+			ObjLoader.LineReader reader = reader("v");
+			reader.nextToken();
+			reader.nextFloat();
+			Assert.fail();
+		} catch (GdxRuntimeException expected) {
+		}
+	}
+
+	@Test
+	public void testTokens () throws IOException {
+		ObjLoader.LineReader reader = reader("\tv  1.5\t-2 \t3\r\nVN 0 0 1\r\n\r\n# comment\n");
+		Assert.assertTrue(reader.nextToken());
+		Assert.assertEquals("v", reader.token());
+		Assert.assertEquals(1.5f, reader.nextFloat(), 0f);
+		Assert.assertEquals(-2f, reader.nextFloat(), 0f);
+		Assert.assertEquals(3f, reader.nextFloat(), 0f);
+		Assert.assertFalse(reader.nextToken());
+		Assert.assertTrue(reader.nextLine());
+		Assert.assertTrue(reader.nextToken());
+		Assert.assertFalse(reader.tokenEquals("vn", false));
+		Assert.assertTrue(reader.tokenEquals("vn", true));
+		Assert.assertEquals(0f, reader.nextFloat(), 0f);
+		Assert.assertEquals(0f, reader.nextFloat(), 0f);
+		Assert.assertEquals(1f, reader.nextFloat(), 0f);
+		Assert.assertFalse(reader.nextToken());
+		Assert.assertTrue(reader.nextLine());
+		Assert.assertFalse(reader.nextToken());
+		Assert.assertTrue(reader.nextLine());
+		Assert.assertTrue(reader.nextToken());
+		Assert.assertEquals('#', reader.charAt(0));
+		Assert.assertFalse(reader.nextLine());
+	}
+
+	@Test
+	public void testFaceVertices () throws IOException {
+		ObjLoader.LineReader reader = reader("f 3 2/1 4//2 5/3/1 -1 -2/-1 -3//-2 -1/-2/-3");
+		Assert.assertTrue(reader.nextToken());
+		IntArray out = new IntArray();
+		while (reader.nextToken())
+			reader.faceVertex(out, 5, 2, 3);
+		Assert.assertArrayEquals(new int[] { //
+			2, -1, -1, //
+			1, -1, 0, //
+			3, 1, -1, //
+			4, 0, 2, //
+			4, -1, -1, //
+			3, -1, 2, //
+			2, 0, -1, //
+			4, -1, 1}, out.toArray());
+	}
+
+	@Test
+	public void testLoad () {
+		ModelData data = load("# Exported with CRLF line endings\r\n" //
+			+ "v 0 0 0\r\nv 1 0 0\r\nv 1 1 0\r\nv 0 1 0\r\n" //
+			+ "vt 0 0\r\nvt 1 0\r\nvt 1 1\r\nvt 0 1\r\n" //
+			+ "vn 0 0 1\r\n" //
+			+ "g quad\r\n" //
+			+ "f 1/1/1 2/2/1 3/3/1 4/4/1\r\n" //
+			+ "g relative\r\n" //
+			+ "\tf\t-4//-1  -3//-1\t-2//-1 \r\n" //
+			+ "g positions\r\n" //
+			+ "# f 1 2 3\r\n" //
+			+ "f 1 3 4\r\n");
+		Assert.assertNotNull(data);
+		Assert.assertEquals(3, data.meshes.size);
+
+		ModelMesh quad = data.meshes.get(0);
+		Assert.assertEquals("quad", quad.id);
+		Assert.assertEquals(Usage.Position | Usage.Normal | Usage.TextureCoordinates, usage(quad));
+		Assert.assertArrayEquals(new float[] { //
+			0, 0, 0, 0, 0, 1, 0, 0, //
+			1, 0, 0, 0, 0, 1, 1, 0, //
+			1, 1, 0, 0, 0, 1, 1, 1, //
+			0, 0, 0, 0, 0, 1, 0, 0, //
+			1, 1, 0, 0, 0, 1, 1, 1, //
+			0, 1, 0, 0, 0, 1, 0, 1}, quad.vertices, 0f);
+		Assert.assertEquals(6, quad.parts[0].indices.length);
+
+		ModelMesh relative = data.meshes.get(1);
+		Assert.assertEquals("relative", relative.id);
+		Assert.assertEquals(Usage.Position | Usage.Normal, usage(relative));
+		Assert.assertArrayEquals(new float[] { //
+			0, 0, 0, 0, 0, 1, //
+			1, 0, 0, 0, 0, 1, //
+			1, 1, 0, 0, 0, 1}, relative.vertices, 0f);
+
+		ModelMesh positions = data.meshes.get(2);
+		Assert.assertEquals("positions", positions.id);
+		Assert.assertEquals(Usage.Position, usage(positions));
+		Assert.assertArrayEquals(new float[] {0, 0, 0, 1, 1, 0, 0, 1, 0}, positions.vertices, 0f);
+	}
+
+	private static int usage (ModelMesh mesh) {
+		int usage = 0;
+		for (int i = 0; i < mesh.attributes.length; i++)
+			usage |= mesh.attributes[i].usage;
+		return usage;
+	}
+}
@@ -0,0 +1,122 @@
+package com.badlogic.gdx.graphics.g3d.particles;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderData;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParticleSorterTest {
+	private final RandomXS128 random = new RandomXS128(42);
+	private final Array<ParticleControllerRenderData> renderData = new Array<ParticleControllerRenderData>();
+	private final Camera camera = new Camera() {
+		@Override
+		public void update () {
+			view.setToLookAt(direction, up);
+		}
+
+		@Override
+		public void update (boolean updateFrustum) {
+			update();
+		}
+	};
+
+	@Before
+	public void setUp () {
+		camera.direction.set(1, 0.5f, -1).nor();
+		camera.up.set(0, 1, 0);
+		camera.update();
+		renderData.clear();
+	}
+
+	private ParticleControllerRenderData addController (int capacity, int size) {
+		ParticleController controller = new ParticleController();
+		controller.particles = new ParallelArray(capacity);
+		ParticleControllerRenderData data = new ParticleControllerRenderData() {
+		};
+		data.controller = controller;
+		data.positionChannel = controller.particles.addChannel(ParticleChannels.Position);
+		controller.particles.size = size;
+		for (int i = 0; i < capacity * 3; i++)
+			data.positionChannel.data[i] = random.nextFloat() * 200 - 100;
+		renderData.add(data);
+		return data;
+	}
+
+	private void assertSorted (ParticleSorter sorter, int count) {
+		int[] offsets = sorter.sort(renderData);
+		float[] distances = new float[count];
+		boolean[] used = new boolean[count];
+		float[] val = camera.view.val;
+		int i = 0;
+		for (ParticleControllerRenderData data : renderData) {
+			FloatChannel position = data.positionChannel;
+			for (int k = 0; k < data.controller.particles.size; k++, i++) {
+				int offset = offsets[i];
+				Assert.assertFalse(used[offset]);
+				used[offset] = true;
+				distances[offset] = val[Matrix4.M20] * position.data[k * 3] + val[Matrix4.M21] * position.data[k * 3 + 1]
+					+ val[Matrix4.M22] * position.data[k * 3 + 2];
+			}
+		}
+		Assert.assertEquals(count, i);
+		for (i = 1; i < count; i++)
+			Assert.assertTrue(distances[i - 1] <= distances[i]);
+	}
+
+	private void move (ParticleControllerRenderData data, float amount) {
+		for (int i = 0; i < data.controller.particles.size * 3; i++)
+			data.positionChannel.data[i] += (random.nextFloat() - 0.5f) * amount;
+	}
+
+	@Test
+	public void testSort () {
+		for (int count : new int[] {0, 1, 2, 10, 127, 128, 5000}) {
+			setUp();
+			addController(count, count);
+			ParticleSorter.Distance sorter = new ParticleSorter.Distance();
+			sorter.setCamera(camera);
+			sorter.ensureCapacity(count);
+			assertSorted(sorter, count);
+		}
+	}
+
+	@Test
+	public void testIncremental () {
+		ParticleControllerRenderData first = addController(3000, 2000), second = addController(1000, 1000);
+		ParticleSorter.Distance sorter = new ParticleSorter.Distance();
+		sorter.setCamera(camera);
+		sorter.ensureCapacity(4000);
+		assertSorted(sorter, 3000);
+		for (int frame = 0; frame < 50; frame++) {
+			move(first, 0.5f);
+			move(second, 0.5f);
+			// Particles die and are spawned, as with ParallelArray#removeElement and ParallelArray#addElement
+			ParallelArray particles = first.controller.particles;
+			particles.removeElement(random.nextInt(particles.size));
+			particles.size = Math.min(particles.capacity, particles.size + random.nextInt(3));
+			if (frame % 10 == 9) {
+				camera.rotate(45, 0, 1, 0);
+				camera.update();
+			}
+			assertSorted(sorter, first.controller.particles.size + second.controller.particles.size);
+		}
+	}
+
+	@Test
+	public void testFullSort () {
+		ParticleControllerRenderData data = addController(2000, 2000);
+		ParticleSorter.Distance sorter = new ParticleSorter.Distance();
+		sorter.maxShiftsPerParticle = 0;
+		sorter.setCamera(camera);
+		sorter.ensureCapacity(2000);
+		for (int frame = 0; frame < 5; frame++) {
+			move(data, 50);
+			assertSorted(sorter, 2000);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.badlogic.gdx.graphics.g3d.particles.influencers;
+
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.ChannelDescriptor;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleChannels;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleController;
+import com.badlogic.gdx.graphics.g3d.particles.emitters.RegularEmitter;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsModifier.BrownianAcceleration;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsModifier.CentripetalAcceleration;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsModifier.PolarAcceleration;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsModifier.Rotational3D;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsModifier.Strength;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.PointSpriteRenderer;
+import com.badlogic.gdx.graphics.g3d.particles.values.PointSpawnShapeValue;
+import com.badlogic.gdx.graphics.g3d.particles.values.ScaledNumericValue;
+import com.badlogic.gdx.math.MathUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ForkJoinInfluencerExecutorTest {
+	private static final ChannelDescriptor[] channels = {ParticleChannels.Life, ParticleChannels.Position,
+		ParticleChannels.PreviousPosition, ParticleChannels.Color, ParticleChannels.Scale, ParticleChannels.Rotation3D,
+		ParticleChannels.Acceleration, ParticleChannels.AngularVelocity3D};
+
+	private static void setHigh (ScaledNumericValue value, float high) {
+		value.setActive(true);
+		value.setHigh(high);
+		value.setTimeline(new float[] {0, 1});
+		value.setScaling(new float[] {1, 0.25f});
+	}
+
+	private static <T extends Strength> T strength (T modifier, float strength) {
+		setHigh(modifier.strengthValue, strength);
+		return modifier;
+	}
+
+	/** Creates the same controller every time, seeding the random numbers used when it is started and when particles are
+	 * activated. */
+	private static ParticleController createController () {
+		MathUtils.random.setSeed(1);
+		RegularEmitter emitter = new RegularEmitter();
+		emitter.getDuration().setLow(1000);
+		emitter.getEmission().setHigh(20000);
+		emitter.getLife().setHigh(500, 1500);
+		emitter.setMaxParticleCount(10000);
+
+		PointSpawnShapeValue shape = new PointSpawnShapeValue();
+		shape.xOffsetValue.setActive(true);
+		shape.xOffsetValue.setLow(-5, 5);
+		shape.yOffsetValue.setActive(true);
+		shape.yOffsetValue.setLow(0, 2);
+
+		ScaleInfluencer scale = new ScaleInfluencer();
+		setHigh(scale.value, 2);
+		scale.value.setLow(0.5f);
+
+		ColorInfluencer.Single color = new ColorInfluencer.Single();
+		color.colorValue.setColors(new float[] {1, 0, 0, 0, 0, 1});
+		color.colorValue.setTimeline(new float[] {0, 1});
+		setHigh(color.alphaValue, 1);
+
+		DynamicsInfluencer dynamics = new DynamicsInfluencer();
+		PolarAcceleration polar = strength(new PolarAcceleration(), 10);
+		setHigh(polar.thetaValue, 90);
+		setHigh(polar.phiValue, 45);
+		dynamics.velocities.add(polar);
+		dynamics.velocities.add(strength(new CentripetalAcceleration(), 3));
+		Rotational3D rotational = strength(new Rotational3D(), 180);
+		setHigh(rotational.thetaValue, 30);
+		setHigh(rotational.phiValue, 60);
+		dynamics.velocities.add(rotational);
+
+		ParticleController controller = new ParticleController("test", emitter, new PointSpriteRenderer(),
+			new SpawnInfluencer(shape), scale, color, dynamics);
+		controller.init();
+		controller.start();
+		return controller;
+	}
+
+	/** Updates the controller and stores the number of particles and their channels after each frame. */
+	private static void simulate (ParticleController controller, float[][] frames) {
+		for (int frame = 0; frame < frames.length; frame++) {
+			controller.update(1 / 30f);
+			int size = 1;
+			for (ChannelDescriptor descriptor : channels) {
+				FloatChannel channel = controller.particles.getChannel(descriptor);
+				Assert.assertNotNull(channel);
+				size += channel.strideSize * controller.particles.size;
+			}
+			float[] values = frames[frame] = new float[size];
+			values[0] = controller.particles.size;
+			int offset = 1;
+			for (ChannelDescriptor descriptor : channels) {
+				FloatChannel channel = controller.particles.getChannel(descriptor);
+				int length = channel.strideSize * controller.particles.size;
+				System.arraycopy(channel.data, 0, values, offset, length);
+				offset += length;
+			}
+		}
+	}
+
+	@Test
+	public void testSameAsSerial () {
+		ParticleController serial = createController();
+		for (Influencer influencer : serial.influencers)
+			if (!(influencer instanceof SpawnInfluencer)) Assert.assertTrue(influencer.canUpdateInParallel());
+		float[][] expected = new float[20][];
+		simulate(serial, expected);
+		Assert.assertTrue(serial.particles.size > 4000);
+
+		ForkJoinInfluencerExecutor executor = new ForkJoinInfluencerExecutor();
+		try {
+			executor.minParticlesPerTask = 64;
+			ParticleController parallel = createController();
+			parallel.executor = executor;
+			float[][] actual = new float[expected.length][];
+			simulate(parallel, actual);
+			for (int frame = 0; frame < expected.length; frame++)
+				Assert.assertArrayEquals("frame " + frame, expected[frame], actual[frame], 0f);
+		} finally {
+			executor.dispose();
+		}
+	}
+
+	@Test
+	public void testSubclassesUpdateSerially () {
+		Assert.assertFalse(new ScaleInfluencer() {
+			@Override
+			public void update () {
+			}
+		}.canUpdateInParallel());
+		Assert.assertFalse(new ColorInfluencer.Single() {
+		}.canUpdateInParallel());
+		Assert.assertFalse(new BrownianAcceleration().canUpdateInParallel());
+		Assert.assertFalse(new CentripetalAcceleration() {
+		}.canUpdateInParallel());
+
+		DynamicsInfluencer dynamics = new DynamicsInfluencer();
+		dynamics.velocities.add(new CentripetalAcceleration());
+		Assert.assertTrue(dynamics.canUpdateInParallel());
+		Assert.assertFalse(new DynamicsInfluencer(dynamics) {
+		}.canUpdateInParallel());
+		dynamics.velocities.add(new BrownianAcceleration());
+		Assert.assertFalse(dynamics.canUpdateInParallel());
+	}
+}
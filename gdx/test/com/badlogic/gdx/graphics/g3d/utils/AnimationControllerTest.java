@@ -7,8 +7,12 @@ import org.junit.Test;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.model.Animation;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodeAnimation;
 import com.badlogic.gdx.graphics.g3d.model.NodeKeyframe;
 import com.badlogic.gdx.graphics.g3d.utils.AnimationController.AnimationDesc;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 
 public class AnimationControllerTest {
@@ -52,6 +56,60 @@ public class AnimationControllerTest {
 		Assert.assertEquals(0, BaseAnimationController.getFirstKeyframeIndexAtTime(keyFrames, 3f));
 	}
 
+	@Test
+	public void testGetKeyframeIndexCursor () {
+
+		float[] times = {0f, 3f, 12f, 13f};
+
+		Assert.assertEquals(0, NodeAnimation.getKeyframeIndex(times, -1f, 2));
+		Assert.assertEquals(0, NodeAnimation.getKeyframeIndex(times, 2f, 0));
+		Assert.assertEquals(1, NodeAnimation.getKeyframeIndex(times, 9f, 0));
+		Assert.assertEquals(1, NodeAnimation.getKeyframeIndex(times, 9f, 1));
+		Assert.assertEquals(2, NodeAnimation.getKeyframeIndex(times, 12.5f, 0));
+		Assert.assertEquals(0, NodeAnimation.getKeyframeIndex(times, 2f, 2));
+		Assert.assertEquals(2, NodeAnimation.getKeyframeIndex(times, 13f, 5));
+		Assert.assertEquals(0, NodeAnimation.getKeyframeIndex(times, 14f, 2));
+
+		Array<NodeKeyframe<String>> keyFrames = new Array<NodeKeyframe<String>>();
+		times = new float[100];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = i * 0.5f + (i % 3) * 0.1f;
+			keyFrames.add(new NodeKeyframe<String>(times[i], "key"));
+		}
+		int cursor = 0;
+		for (float time = -1f; time < 52f; time += 0.07f) {
+			cursor = NodeAnimation.getKeyframeIndex(times, time, cursor);
+			Assert.assertEquals(BaseAnimationController.getFirstKeyframeIndexAtTime(keyFrames, time), cursor);
+		}
+	}
+
+	@Test
+	public void testNodeAnimationGetTransform () {
+
+		NodeAnimation nodeAnimation = new NodeAnimation();
+		nodeAnimation.node = new Node();
+		nodeAnimation.node.scale.set(2f, 3f, 4f);
+		nodeAnimation.translation = new Array<NodeKeyframe<Vector3>>();
+		nodeAnimation.translation.add(new NodeKeyframe<Vector3>(0f, new Vector3(0f, 0f, 0f)));
+		nodeAnimation.translation.add(new NodeKeyframe<Vector3>(2f, new Vector3(2f, 4f, 6f)));
+		nodeAnimation.rotation = new Array<NodeKeyframe<Quaternion>>();
+		nodeAnimation.rotation.add(new NodeKeyframe<Quaternion>(0f, new Quaternion(Vector3.Y, 0f)));
+		nodeAnimation.rotation.add(new NodeKeyframe<Quaternion>(2f, new Quaternion(Vector3.Y, 90f)));
+
+		float[] out = new float[10];
+		int[] cursors = new int[3];
+		nodeAnimation.getTransform(1f, out, 0, cursors, 0);
+		Assert.assertEquals(1f, out[0], 1e-6f);
+		Assert.assertEquals(2f, out[1], 1e-6f);
+		Assert.assertEquals(3f, out[2], 1e-6f);
+		Quaternion expected = new Quaternion(Vector3.Y, 0f).slerp(new Quaternion(Vector3.Y, 90f), 0.5f);
+		Assert.assertEquals(expected.y, out[4], 1e-6f);
+		Assert.assertEquals(expected.w, out[6], 1e-6f);
+		Assert.assertEquals(2f, out[7], 0f);
+		Assert.assertEquals(3f, out[8], 0f);
+		Assert.assertEquals(4f, out[9], 0f);
+	}
+
 	private static void assertSameAnimation (Animation expected, AnimationDesc actual) {
 		if (!expected.id.equals(actual.animation.id)) {
 			Assert.fail("expected: " + expected.id + ", actual: " + actual.animation.id);
@@ -0,0 +1,101 @@
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshOptimizerTest {
+	private static final int size = 64;
+
+	private static short[] grid (boolean shuffle) {
+		final short[] indices = new short[(size - 1) * (size - 1) * 6];
+		int i = 0;
+		for (int y = 0; y < size - 1; y++) {
+			for (int x = 0; x < size - 1; x++) {
+				final int v = y * size + x;
+				indices[i++] = (short)v;
+				indices[i++] = (short)(v + 1);
+				indices[i++] = (short)(v + size);
+				indices[i++] = (short)(v + 1);
+				indices[i++] = (short)(v + size + 1);
+				indices[i++] = (short)(v + size);
+			}
+		}
+		if (shuffle) {
+			final Random random = new Random(1);
+			for (int t = indices.length / 3 - 1; t > 0; t--) {
+				final int o = random.nextInt(t + 1);
+				for (int c = 0; c < 3; c++) {
+					final short s = indices[t * 3 + c];
+					indices[t * 3 + c] = indices[o * 3 + c];
+					indices[o * 3 + c] = s;
+				}
+			}
+		}
+		return indices;
+	}
+
+	/** @return The triangles as sorted strings, each in its smallest rotation so the first vertex doesn't matter. */
+	private static List<String> triangles (short[] indices, float[] vertices, int stride) {
+		final List<String> result = new ArrayList<String>();
+		final String[] corners = new String[3];
+		for (int i = 0; i < indices.length; i += 3) {
+			for (int c = 0; c < 3; c++) {
+				final int v = indices[i + c] & 0xFFFF;
+				final StringBuilder builder = new StringBuilder();
+				for (int k = 0; k < stride; k++)
+					builder.append(vertices == null ? v : vertices[v * stride + k]).append(',');
+				corners[c] = builder.toString();
+			}
+			String triangle = null;
+			for (int c = 0; c < 3; c++) {
+				final String rotation = corners[c] + corners[(c + 1) % 3] + corners[(c + 2) % 3];
+				if (triangle == null || rotation.compareTo(triangle) < 0) triangle = rotation;
+			}
+			result.add(triangle);
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	@Test
+	public void testVertexCache () {
+		final short[] indices = grid(true);
+		final List<String> before = triangles(indices, null, 1);
+		Assert.assertTrue(MeshOptimizer.computeACMR(indices, 0, indices.length, 32) > 2.5f);
+		MeshOptimizer.optimizeVertexCache(indices, 0, indices.length, size * size, 32);
+		Assert.assertTrue(MeshOptimizer.computeACMR(indices, 0, indices.length, 32) < 0.8f);
+		Assert.assertEquals(before, triangles(indices, null, 1));
+	}
+
+	@Test
+	public void testVertexFetch () {
+		final short[] indices = grid(true);
+		final float[] vertices = new float[(size * size + 1) * 2];
+		for (int v = 0; v < size * size; v++) {
+			vertices[v * 2] = v % size;
+			vertices[v * 2 + 1] = v / size;
+		}
+		final List<String> before = triangles(indices, vertices, 2);
+		Assert.assertEquals(size * size, MeshOptimizer.optimizeVertexFetch(vertices, 2, indices, 0, indices.length));
+		Assert.assertEquals(before, triangles(indices, vertices, 2));
+		int max = -1;
+		for (short index : indices) {
+			Assert.assertTrue(index <= max + 1);
+			max = Math.max(max, index);
+		}
+	}
+
+	@Test
+	public void testHalfFloat () {
+		Assert.assertEquals(0, MeshOptimizer.toHalfFloat(0f));
+		Assert.assertEquals(0x3C00, MeshOptimizer.toHalfFloat(1f));
+		Assert.assertEquals((short)0xC000, MeshOptimizer.toHalfFloat(-2f));
+		Assert.assertEquals(0x3800, MeshOptimizer.toHalfFloat(0.5f));
+		Assert.assertEquals(0x7BFF, MeshOptimizer.toHalfFloat(65504f));
+	}
+}
@@ -0,0 +1,97 @@
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshSimplifierTest {
+	private static final int size = 32;
+
+	private static float[] grid (boolean bumpy) {
+		final float[] vertices = new float[size * size * 3];
+		for (int v = 0; v < size * size; v++) {
+			final float x = v % size, y = v / size;
+			vertices[v * 3] = x;
+			vertices[v * 3 + 1] = y;
+			vertices[v * 3 + 2] = bumpy ? (float)(Math.sin(x * 0.3f) * Math.cos(y * 0.3f)) * 2f : 0f;
+		}
+		return vertices;
+	}
+
+	private static short[] gridIndices () {
+		final short[] indices = new short[(size - 1) * (size - 1) * 6];
+		int i = 0;
+		for (int y = 0; y < size - 1; y++) {
+			for (int x = 0; x < size - 1; x++) {
+				final int v = y * size + x;
+				indices[i++] = (short)v;
+				indices[i++] = (short)(v + 1);
+				indices[i++] = (short)(v + size);
+				indices[i++] = (short)(v + 1);
+				indices[i++] = (short)(v + size + 1);
+				indices[i++] = (short)(v + size);
+			}
+		}
+		return indices;
+	}
+
+	private static void assertValid (short[] indices, int count, int numVertices) {
+		Assert.assertEquals(0, count % 3);
+		for (int i = 0; i < count; i += 3) {
+			final int a = indices[i] & 0xFFFF, b = indices[i + 1] & 0xFFFF, c = indices[i + 2] & 0xFFFF;
+			Assert.assertTrue(a < numVertices && b < numVertices && c < numVertices);
+			Assert.assertTrue(a != b && b != c && c != a);
+		}
+	}
+
+	@Test
+	public void testFlat () {
+		final short[] indices = gridIndices();
+		final MeshSimplifier simplifier = new MeshSimplifier();
+		final int count = simplifier.simplify(indices, 0, indices.length, grid(false), 3, 0, 0, indices, 0);
+		assertValid(indices, count, size * size);
+		Assert.assertTrue(count <= 12);
+		Assert.assertEquals(0f, simplifier.error, 1e-4f);
+	}
+
+	@Test
+	public void testLockBorders () {
+		final short[] indices = gridIndices();
+		final MeshSimplifier simplifier = new MeshSimplifier();
+		simplifier.lockBorders = true;
+		final int count = simplifier.simplify(indices, 0, indices.length, grid(false), 3, 0, 0, indices, 0);
+		assertValid(indices, count, size * size);
+		final boolean[] used = new boolean[size * size];
+		for (int i = 0; i < count; i++)
+			used[indices[i]] = true;
+		for (int i = 0; i < size; i++) {
+			Assert.assertTrue(used[i]);
+			Assert.assertTrue(used[i * size]);
+			Assert.assertTrue(used[i * size + size - 1]);
+			Assert.assertTrue(used[(size - 1) * size + i]);
+		}
+	}
+
+	@Test
+	public void testTargetCount () {
+		final short[] indices = gridIndices();
+		final short[] destination = new short[indices.length];
+		final MeshSimplifier simplifier = new MeshSimplifier();
+		simplifier.targetError = 1f;
+		final int target = indices.length / 4 / 3 * 3;
+		final int count = simplifier.simplify(indices, 0, indices.length, grid(true), 3, 0, target, destination, 0);
+		assertValid(destination, count, size * size);
+		Assert.assertTrue(count <= target);
+		Assert.assertTrue(count > target - 6);
+	}
+
+	@Test
+	public void testTargetError () {
+		final short[] indices = gridIndices();
+		final MeshSimplifier simplifier = new MeshSimplifier();
+		simplifier.targetError = 0.001f;
+		final int count = simplifier.simplify(indices, 0, indices.length, grid(true), 3, 0, 0, indices, 0);
+		assertValid(indices, count, size * size);
+		Assert.assertTrue(count > 0);
+		Assert.assertTrue(simplifier.error <= 0.001f);
+	}
+}
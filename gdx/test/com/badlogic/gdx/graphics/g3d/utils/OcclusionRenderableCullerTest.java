@@ -0,0 +1,128 @@
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.utils.OcclusionRenderableCuller.Occluder;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OcclusionRenderableCullerTest {
+	private final Camera camera = new Camera() {
+		private final Vector3 target = new Vector3();
+
+		@Override
+		public void update () {
+			projection.setToProjection(near, far, 67, 2f);
+			view.setToLookAt(position, target.set(position).add(direction), up);
+			combined.set(projection).mul(view);
+		}
+
+		@Override
+		public void update (boolean updateFrustum) {
+			update();
+		}
+	};
+	/** A wall of 10x10 units at z = 0. */
+	private final Occluder wall = new Occluder(new float[] {-5, -5, 0, 5, -5, 0, 5, 5, 0, -5, 5, 0},
+		new short[] {0, 1, 2, 2, 3, 0});
+
+	@Before
+	public void setUp () {
+		camera.near = 1;
+		camera.far = 100;
+		camera.position.set(0, 0, 10);
+		camera.direction.set(0, 0, -1);
+		camera.up.set(0, 1, 0);
+		camera.update();
+	}
+
+	private static Renderable box (float x, float y, float z, float halfWidth, float halfHeight, float halfDepth) {
+		final Renderable renderable = new Renderable();
+		renderable.worldTransform.setToTranslation(x, y, z);
+		renderable.meshPart.halfExtents.set(halfWidth, halfHeight, halfDepth);
+		renderable.meshPart.radius = renderable.meshPart.halfExtents.len();
+		return renderable;
+	}
+
+	@Test
+	public void testOcclusion () {
+		final OcclusionRenderableCuller culler = new OcclusionRenderableCuller();
+		Assert.assertTrue(culler.isVisible(camera, box(0, 0, -5, 1, 1, 1)));
+		culler.addOccluder(wall, new Matrix4());
+		culler.update(camera);
+		Assert.assertEquals(2, culler.getTriangleCount());
+
+		Assert.assertFalse(culler.isVisible(camera, box(0, 0, -5, 1, 1, 1)));
+		Assert.assertFalse(culler.isVisible(camera, box(3, -3, -1.5f, 1, 1, 1)));
+		Assert.assertTrue(culler.isVisible(camera, box(0, 0, 5, 1, 1, 1)));
+		Assert.assertTrue(culler.isVisible(camera, box(12, 0, -5, 1, 1, 1)));
+		Assert.assertTrue(culler.isVisible(camera, box(0, 0, -5, 10, 1, 1)));
+		Assert.assertTrue(culler.isVisible(camera, box(0, 0, 0, 1, 1, 1)));
+		Assert.assertTrue(culler.isVisible(camera, box(0, 0, 9.5f, 1, 1, 1)));
+		// Outside of the frustum
+		Assert.assertFalse(culler.isVisible(camera, box(100, 0, -5, 1, 1, 1)));
+		Assert.assertFalse(culler.isVisible(camera, box(0, 0, -200, 1, 1, 1)));
+
+		final Renderable skinned = box(0, 0, -5, 1, 1, 1);
+		skinned.bones = new Matrix4[0];
+		Assert.assertTrue(culler.isVisible(camera, skinned));
+		final Renderable unbounded = box(0, 0, -5, 1, 1, 1);
+		unbounded.meshPart.radius = -1;
+		Assert.assertTrue(culler.isVisible(camera, unbounded));
+	}
+
+	@Test
+	public void testMovingOccluder () {
+		final OcclusionRenderableCuller culler = new OcclusionRenderableCuller();
+		final Matrix4 transform = new Matrix4();
+		culler.addOccluder(wall, transform);
+		culler.update(camera);
+		Assert.assertFalse(culler.isVisible(camera, box(0, 0, -5, 1, 1, 1)));
+		transform.setToTranslation(20, 0, 0);
+		culler.update(camera);
+		Assert.assertTrue(culler.isVisible(camera, box(0, 0, -5, 1, 1, 1)));
+		Assert.assertTrue(culler.removeOccluder(wall, transform));
+		culler.update(camera);
+		Assert.assertEquals(0, culler.getTriangleCount());
+	}
+
+	@Test
+	public void testNearPlane () {
+		final OcclusionRenderableCuller culler = new OcclusionRenderableCuller();
+		// The wall crosses the near plane and is skipped
+		culler.addOccluder(wall, new Matrix4().setToRotation(Vector3.Y, 90).trn(0, 0, 8));
+		culler.update(camera);
+		Assert.assertEquals(0, culler.getTriangleCount());
+		Assert.assertTrue(culler.isVisible(camera, box(0, 0, -5, 1, 1, 1)));
+	}
+
+	@Test
+	public void testParallel () {
+		final OcclusionRenderableCuller serial = new OcclusionRenderableCuller(320, 160);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final ForkJoinOcclusionRenderableCuller parallel = new ForkJoinOcclusionRenderableCuller(320, 160, pool);
+			parallel.minRowsPerTask = 1;
+			for (int i = 0; i < 16; i++) {
+				final Matrix4 transform = new Matrix4().setToRotation(Vector3.Y, i * 20).trn(i * 3 - 24, i % 4 - 2, -i * 2);
+				serial.addOccluder(wall, transform);
+				parallel.addOccluder(wall, transform);
+			}
+			serial.update(camera);
+			parallel.update(camera);
+			for (int x = -40; x <= 40; x += 2)
+				for (int z = -40; z <= 0; z += 2) {
+					final Renderable renderable = box(x, 0, z, 0.5f, 0.5f, 0.5f);
+					Assert.assertEquals(serial.isVisible(camera, renderable), parallel.isVisible(camera, renderable));
+				}
+			parallel.dispose();
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.Deflater;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KTXTextureDataTest {
+	private static final int VK_FORMAT_R8G8B8_UNORM = 23;
+	private static final int VK_FORMAT_R8G8B8A8_UNORM = 37;
+	private static final int VK_FORMAT_ETC2_R8G8B8_UNORM_BLOCK = 147;
+	private static final byte[] IDENTIFIER = {(byte)0xAB, 0x4B, 0x54, 0x58, 0x20, 0x32, 0x30, (byte)0xBB, 0x0D, 0x0A, 0x1A, 0x0A};
+
+	/** @return A KTX2 file without data format descriptor and key/value data, the levels stored after the level index. */
+	private static ByteBuffer ktx2 (int vkFormat, int width, int height, int faces, boolean zlib, byte[]... levels) {
+		byte[][] stored = new byte[levels.length][];
+		int size = 80 + levels.length * 24;
+		for (int i = 0; i < levels.length; i++) {
+			stored[i] = zlib ? deflate(levels[i]) : levels[i];
+			size += stored[i].length;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(IDENTIFIER);
+		buffer.putInt(vkFormat).putInt(1).putInt(width).putInt(height).putInt(0).putInt(0).putInt(faces).putInt(levels.length);
+		buffer.putInt(zlib ? 3 : 0);
+		buffer.putInt(0).putInt(0).putInt(0).putInt(0).putLong(0).putLong(0);
+		int offset = 80 + levels.length * 24;
+		for (int i = 0; i < levels.length; i++) {
+			buffer.putLong(offset).putLong(stored[i].length).putLong(levels[i].length);
+			offset += stored[i].length;
+		}
+		for (byte[] level : stored)
+			buffer.put(level);
+		buffer.position(0);
+		return buffer;
+	}
+
+	private static byte[] deflate (byte[] data) {
+		Deflater deflater = new Deflater();
+		deflater.setInput(data);
+		deflater.finish();
+		byte[] buffer = new byte[data.length * 2 + 64];
+		int length = deflater.deflate(buffer);
+		deflater.end();
+		byte[] result = new byte[length];
+		System.arraycopy(buffer, 0, result, 0, length);
+		return result;
+	}
+
+	private static byte[] sequence (int start, int length) {
+		byte[] result = new byte[length];
+		for (int i = 0; i < length; i++)
+			result[i] = (byte)(start + i);
+		return result;
+	}
+
+	private static KTXTextureData convert (ByteBuffer ktx2) {
+		KTXTextureData data = new KTXTextureData(null, false);
+		ByteBuffer out = ByteBuffer.allocateDirect(data.readKTX2(ktx2)).order(ByteOrder.nativeOrder());
+		data.writeKTX2(out);
+		return data;
+	}
+
+	/** Asserts the RGB 3x2 image of {@link #sequence(int, int)} values starting at 1, with each row padded to 12 bytes. */
+	private static void assertPaddedRows (KTXTextureData data) {
+		Assert.assertEquals(3, data.getWidth());
+		Assert.assertEquals(2, data.getHeight());
+		Assert.assertEquals(GL20.GL_RGB, data.getGlInternalFormat());
+		ByteBuffer face = data.getData(0, 0);
+		Assert.assertEquals(24, face.limit());
+		for (int row = 0; row < 2; row++) {
+			for (int i = 0; i < 12; i++)
+				Assert.assertEquals(i < 9 ? 1 + row * 9 + i : 0, face.get(row * 12 + i));
+		}
+	}
+
+	@Test
+	public void testRowPadding () {
+		assertPaddedRows(convert(ktx2(VK_FORMAT_R8G8B8_UNORM, 3, 2, 1, false, sequence(1, 18))));
+	}
+
+	@Test
+	public void testZlib () {
+		assertPaddedRows(convert(ktx2(VK_FORMAT_R8G8B8_UNORM, 3, 2, 1, true, sequence(1, 18))));
+	}
+
+	@Test
+	public void testCubemap () {
+		KTXTextureData data = convert(ktx2(VK_FORMAT_R8G8B8A8_UNORM, 2, 2, 6, false, sequence(0, 6 * 16), sequence(100, 6 * 4)));
+		Assert.assertEquals(6, data.getNumberOfFaces());
+		Assert.assertEquals(2, data.getNumberOfMipMapLevels());
+		Assert.assertEquals(GL20.GL_RGBA, data.getGlInternalFormat());
+		for (int face = 0; face < 6; face++) {
+			ByteBuffer base = data.getData(0, face), mip = data.getData(1, face);
+			Assert.assertEquals(16, base.limit());
+			Assert.assertEquals(4, mip.limit());
+			for (int i = 0; i < 16; i++)
+				Assert.assertEquals((byte)(face * 16 + i), base.get(i));
+			for (int i = 0; i < 4; i++)
+				Assert.assertEquals((byte)(100 + face * 4 + i), mip.get(i));
+		}
+	}
+
+	@Test
+	public void testCompressed () {
+		KTXTextureData data = convert(ktx2(VK_FORMAT_ETC2_R8G8B8_UNORM_BLOCK, 4, 4, 1, false, sequence(7, 8)));
+		Assert.assertEquals(GL30.GL_COMPRESSED_RGB8_ETC2, data.getGlInternalFormat());
+		ByteBuffer face = data.getData(0, 0);
+		Assert.assertEquals(8, face.limit());
+		for (int i = 0; i < 8; i++)
+			Assert.assertEquals(7 + i, face.get(i));
+	}
+}
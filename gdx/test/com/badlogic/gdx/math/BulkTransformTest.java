@@ -0,0 +1,97 @@
+package com.badlogic.gdx.math;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class BulkTransformTest {
+	private static final int COUNT = 100, STRIDE = 7, OFFSET = 2;
+
+	private static float[] vectors () {
+		final RandomXS128 random = new RandomXS128(42);
+		final float[] vectors = new float[OFFSET + COUNT * STRIDE];
+		for (int i = 0; i < vectors.length; i++)
+			vectors[i] = random.nextFloat() * 20f - 10f;
+		return vectors;
+	}
+
+	private static Matrix4 matrix () {
+		return new Matrix4().setToRotation(1, 2, 3, 40).scl(2f, 3f, 0.5f).trn(5f, -6f, 7f);
+	}
+
+	/** Checks that the floats between the vectors are untouched. */
+	private static void assertUntouched (float[] expected, float[] actual, int dimensions) {
+		for (int i = 0; i < expected.length; i++)
+			if (i < OFFSET || (i - OFFSET) % STRIDE >= dimensions) assertEquals(expected[i], actual[i], 0f);
+	}
+
+	@Test
+	public void testMul () {
+		final Matrix4 matrix = matrix();
+		final Vector3 tmp = new Vector3();
+		for (int dimensions = 1; dimensions <= 3; dimensions++) {
+			final float[] source = vectors(), vectors = vectors();
+			BulkTransform.mul(matrix, vectors, OFFSET, COUNT, STRIDE, dimensions);
+			for (int i = 0, o = OFFSET; i < COUNT; i++, o += STRIDE) {
+				tmp.set(source[o], dimensions > 1 ? source[o + 1] : 0, dimensions > 2 ? source[o + 2] : 0).mul(matrix);
+				assertEquals(tmp.x, vectors[o], 1e-4f);
+				if (dimensions > 1) assertEquals(tmp.y, vectors[o + 1], 1e-4f);
+				if (dimensions > 2) assertEquals(tmp.z, vectors[o + 2], 1e-4f);
+			}
+			assertUntouched(source, vectors, dimensions);
+		}
+	}
+
+	@Test
+	public void testPrjAndRot () {
+		final Matrix4 matrix = new Matrix4().setToProjection(1, 100, 67, 1.5f).mul(matrix());
+		final Vector3 tmp = new Vector3();
+		final float[] source = vectors(), projected = vectors(), rotated = vectors();
+		BulkTransform.prj(matrix, projected, OFFSET, COUNT, STRIDE);
+		BulkTransform.rot(matrix, rotated, OFFSET, COUNT, STRIDE);
+		for (int i = 0, o = OFFSET; i < COUNT; i++, o += STRIDE) {
+			tmp.set(source[o], source[o + 1], source[o + 2]).prj(matrix);
+			assertEquals(tmp, new Vector3(projected[o], projected[o + 1], projected[o + 2]));
+			tmp.set(source[o], source[o + 1], source[o + 2]).rot(matrix);
+			assertEquals(tmp, new Vector3(rotated[o], rotated[o + 1], rotated[o + 2]));
+		}
+		assertUntouched(source, projected, 3);
+		assertUntouched(source, rotated, 3);
+	}
+
+	@Test
+	public void testMatrix3 () {
+		final Matrix3 matrix = new Matrix3().set(matrix()).inv().transpose();
+		final Vector3 tmp = new Vector3();
+		final float[] source = vectors(), multiplied = vectors(), normalized = vectors();
+		BulkTransform.mul(matrix, multiplied, OFFSET, COUNT, STRIDE);
+		BulkTransform.mulNormalized(matrix, normalized, OFFSET, COUNT, STRIDE, 3);
+		for (int i = 0, o = OFFSET; i < COUNT; i++, o += STRIDE) {
+			tmp.set(source[o], source[o + 1], source[o + 2]).mul(matrix);
+			assertEquals(tmp, new Vector3(multiplied[o], multiplied[o + 1], multiplied[o + 2]));
+			tmp.nor();
+			assertEquals(tmp, new Vector3(normalized[o], normalized[o + 1], normalized[o + 2]));
+		}
+		assertUntouched(source, multiplied, 3);
+		assertUntouched(source, normalized, 3);
+	}
+
+	@Test
+	public void testAffine2AndScale () {
+		final Affine2 affine = new Affine2().setToTrnRotScl(3f, -4f, 30f, 2f, 0.5f);
+		final Vector2 tmp = new Vector2();
+		final float[] source = vectors(), transformed = vectors(), scaled = vectors();
+		BulkTransform.mul(affine, transformed, OFFSET, COUNT, STRIDE);
+		BulkTransform.scale(2f, 3f, 4f, scaled, OFFSET, COUNT, STRIDE, 3);
+		for (int i = 0, o = OFFSET; i < COUNT; i++, o += STRIDE) {
+			tmp.set(source[o], source[o + 1]);
+			affine.applyTo(tmp);
+			assertEquals(tmp, new Vector2(transformed[o], transformed[o + 1]));
+			assertEquals(source[o] * 2f, scaled[o], 0f);
+			assertEquals(source[o + 1] * 3f, scaled[o + 1], 0f);
+			assertEquals(source[o + 2] * 4f, scaled[o + 2], 0f);
+		}
+		assertUntouched(source, transformed, 2);
+		assertUntouched(source, scaled, 3);
+	}
+}
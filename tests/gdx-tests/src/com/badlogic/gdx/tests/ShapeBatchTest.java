@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeBatch.CapType;
+import com.badlogic.gdx.graphics.glutils.ShapeBatch.JoinType;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.tests.utils.GdxTest;
+
+/** Draws lines, outlines and filled shapes with a ShapeBatch in a single batch. The left half is drawn without feather, the right
+ * half with feather. The small star is filled from an offset into its vertex array. */
+public class ShapeBatchTest extends GdxTest {
+	ShapeBatch batch;
+	float[] zigzag = {0, 0, 40, 60, 80, 0, 120, 60, 160, 10};
+	float[] star = {60, 0, 75, 40, 120, 40, 85, 65, 100, 110, 60, 85, 20, 110, 35, 65, 0, 40, 45, 40};
+	float[] smallStar = new float[4 + star.length];
+
+	@Override
+	public void create () {
+		batch = new ShapeBatch();
+		for (int i = 0; i < star.length; i += 2) {
+			smallStar[4 + i] = 125 + star[i] / 2;
+			smallStar[5 + i] = star[i + 1] / 2;
+		}
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+		batch.updateMatrices();
+	}
+
+	@Override
+	public void render () {
+		Gdx.gl.glClearColor(0.2f, 0.2f, 0.2f, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+		batch.begin();
+		for (int i = 0; i < 2; i++) {
+			batch.setFeather(i);
+			batch.identity();
+			batch.translate(20 + i * 300, 20, 0);
+			draw();
+		}
+		batch.end();
+		batch.identity();
+	}
+
+	private void draw () {
+		JoinType[] joins = JoinType.values();
+		CapType[] caps = CapType.values();
+		batch.set(ShapeType.Line);
+		batch.setColor(1, 1, 0, 0.6f);
+		batch.setLineWidth(12);
+		for (int i = 0; i < joins.length; i++) {
+			batch.setJoinType(joins[i]);
+			batch.setCapType(caps[i]);
+			batch.translate(0, 80, 0);
+			batch.polyline(zigzag);
+		}
+
+		batch.setLineWidth(3);
+		batch.setJoinType(JoinType.Miter);
+		batch.setColor(0, 1, 1, 1);
+		batch.circle(220, 40, 30);
+		batch.rect(180, -120, 40, 25, 80, 50, 30);
+
+		batch.set(ShapeType.Filled);
+		batch.setColor(1, 0, 1, 0.8f);
+		batch.polygon(star);
+		batch.polygon(smallStar, 4, star.length);
+		batch.arc(220, -40, 30, 0, 270);
+		batch.setColor(1, 1, 1, 1);
+		batch.ellipse(150, -240, 100, 40);
+		batch.setLineWidth(6);
+		batch.point(20, -200);
+	}
+
+	@Override
+	public void dispose () {
+		batch.dispose();
+	}
+}
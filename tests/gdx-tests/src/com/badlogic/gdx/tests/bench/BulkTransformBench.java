@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.BulkTransform;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Compares the time the native {@link Matrix4#mulVec(float[], float[], int, int, int)},
+ * {@link Matrix4#prj(float[], float[], int, int, int)} and {@link Matrix4#rot(float[], float[], int, int, int)}, the Java
+ * {@link BulkTransform} methods and a loop over {@link Vector3} take to transform the positions of 100000 vertices of 8 floats.
+ * Each is measured transforming the vertices in one call and in calls of 4 vertices, as a sprite or quad would. The results are
+ * logged. */
+public class BulkTransformBench extends GdxTest {
+	static final int VERTICES = 100000, STRIDE = 8, WARMUP = 20, ITERATIONS = 100;
+
+	final float[] vertices = new float[VERTICES * STRIDE];
+	final Matrix4 matrix = new Matrix4().setToRotation(1, 2, 3, 40).trn(5, -6, 7);
+	final Vector3 tmp = new Vector3();
+
+	@Override
+	public void create () {
+		RandomXS128 random = new RandomXS128(42);
+		for (int i = 0; i < vertices.length; i++)
+			vertices[i] = random.nextFloat() * 2f - 1f;
+
+		for (int batch : new int[] {VERTICES, 4}) {
+			for (int operation = 0; operation < 3; operation++) {
+				String name = operation == 0 ? "mul" : operation == 1 ? "prj" : "rot";
+				log(name + ", native", batch, bench(operation, 0, batch));
+				log(name + ", BulkTransform", batch, bench(operation, 1, batch));
+				log(name + ", Vector3", batch, bench(operation, 2, batch));
+			}
+		}
+	}
+
+	private long bench (int operation, int implementation, int batch) {
+		long total = 0;
+		for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+			long start = TimeUtils.nanoTime();
+			for (int v = 0; v < VERTICES; v += batch)
+				transform(operation, implementation, v * STRIDE, batch);
+			if (i >= WARMUP) total += TimeUtils.nanoTime() - start;
+			// Keeps the values from growing or shrinking
+			matrix.inv();
+		}
+		return total;
+	}
+
+	private void transform (int operation, int implementation, int offset, int count) {
+		final float[] vertices = this.vertices;
+		if (implementation == 0) {
+			if (operation == 0)
+				Matrix4.mulVec(matrix.val, vertices, offset, count, STRIDE);
+			else if (operation == 1)
+				Matrix4.prj(matrix.val, vertices, offset, count, STRIDE);
+			else
+				Matrix4.rot(matrix.val, vertices, offset, count, STRIDE);
+		} else if (implementation == 1) {
+			if (operation == 0)
+				BulkTransform.mul(matrix, vertices, offset, count, STRIDE, 3);
+			else if (operation == 1)
+				BulkTransform.prj(matrix, vertices, offset, count, STRIDE);
+			else
+				BulkTransform.rot(matrix, vertices, offset, count, STRIDE);
+		} else {
+			for (int i = 0; i < count; i++, offset += STRIDE) {
+				tmp.set(vertices[offset], vertices[offset + 1], vertices[offset + 2]);
+				if (operation == 0)
+					tmp.mul(matrix);
+				else if (operation == 1)
+					tmp.prj(matrix);
+				else
+					tmp.rot(matrix);
+				vertices[offset] = tmp.x;
+				vertices[offset + 1] = tmp.y;
+				vertices[offset + 2] = tmp.z;
+			}
+		}
+	}
+
+	private void log (String name, int batch, long total) {
+		Gdx.app.log("BulkTransformBench",
+			name + ": " + (total / ITERATIONS / 1000) + " µs per " + VERTICES + " vertices in calls of " + batch);
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.decals.CameraGroupStrategy;
+import com.badlogic.gdx.graphics.g3d.decals.Decal;
+import com.badlogic.gdx.graphics.g3d.decals.DecalBatch;
+import com.badlogic.gdx.graphics.g3d.decals.PackedDecalBatch;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Compares the time a {@link DecalBatch} with a {@link CameraGroupStrategy} and a {@link PackedDecalBatch} take to add and
+ * flush 50000 decals lying on the ground around the camera, using 4 textures of which 2 are blended. The results are logged. */
+public class DecalBatchBench extends GdxTest {
+	static final int DECALS = 50000, WARMUP = 20, ITERATIONS = 100;
+
+	final Texture[] textures = new Texture[4];
+	final Array<Decal> decals = new Array<Decal>(DECALS);
+	PerspectiveCamera camera;
+
+	@Override
+	public void create () {
+		textures[0] = new Texture(Gdx.files.internal("data/egg.png"));
+		textures[1] = new Texture(Gdx.files.internal("data/sys.png"));
+		textures[2] = new Texture(Gdx.files.internal("data/badlogic.jpg"));
+		textures[3] = new Texture(Gdx.files.internal("data/particle-star.png"));
+
+		RandomXS128 random = new RandomXS128(42);
+		for (int i = 0; i < DECALS; i++) {
+			int texture = random.nextInt(textures.length);
+			Decal decal = Decal.newDecal(0.5f, 0.5f, new TextureRegion(textures[texture]), texture >= 2);
+			decal.setPosition(random.nextFloat() * 200 - 100, 0, random.nextFloat() * 200 - 100);
+			decal.setRotationX(-90);
+			decals.add(decal);
+		}
+
+		camera = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		camera.position.set(0, 20, 60);
+		camera.lookAt(0, 0, 0);
+		camera.near = 1;
+		camera.far = 300;
+		camera.update();
+
+		CameraGroupStrategy strategy = new CameraGroupStrategy(camera);
+		DecalBatch decalBatch = new DecalBatch(strategy);
+		long total = 0;
+		for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+			Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+			long start = TimeUtils.nanoTime();
+			for (Decal decal : decals)
+				decalBatch.add(decal);
+			decalBatch.flush();
+			if (i >= WARMUP) total += TimeUtils.nanoTime() - start;
+		}
+		log("DecalBatch", total);
+		decalBatch.dispose();
+		strategy.dispose();
+
+		PackedDecalBatch packedBatch = new PackedDecalBatch(camera);
+		total = 0;
+		for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+			Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+			long start = TimeUtils.nanoTime();
+			for (Decal decal : decals)
+				packedBatch.add(decal);
+			packedBatch.flush();
+			if (i >= WARMUP) total += TimeUtils.nanoTime() - start;
+		}
+		log("PackedDecalBatch", total);
+		packedBatch.dispose();
+	}
+
+	private void log (String name, long total) {
+		Gdx.app.log("DecalBatchBench", name + ": " + (total / ITERATIONS / 1000) + " µs per frame of " + DECALS + " decals");
+	}
+
+	@Override
+	public void dispose () {
+		for (Texture texture : textures)
+			texture.dispose();
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleChannels;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleController;
+import com.badlogic.gdx.graphics.g3d.particles.ParticleSorter;
+import com.badlogic.gdx.graphics.g3d.particles.batches.BillboardParticleBatch;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.BillboardRenderer;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderData;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Compares the time {@link ParticleSorter.Distance} takes to sort the particles of a {@link BillboardParticleBatch} for 1000 to
+ * 200000 slowly moving particles, when always sorting with a quick sort, always sorting with a radix sort, and refining the order
+ * of the previous frame. The camera is still, orbits slowly or orbits fast. The sort time and the time of
+ * {@link BillboardParticleBatch#end()}, which also fills the vertices, are logged. */
+public class ParticleSorterBench extends GdxTest {
+	static final int[] PARTICLES = {1000, 10000, 50000, 200000};
+	static final float[] CAMERA_SPEEDS = {0, 0.05f, 1};
+	static final int WARMUP = 20, ITERATIONS = 100;
+
+	@Override
+	public void create () {
+		for (int particles : PARTICLES) {
+			for (float cameraSpeed : CAMERA_SPEEDS) {
+				TimedSorter quick = new TimedSorter(), radix = new TimedSorter(), incremental = new TimedSorter();
+				quick.maxShiftsPerParticle = 0;
+				quick.radixSortThreshold = Integer.MAX_VALUE;
+				radix.maxShiftsPerParticle = 0;
+				bench("quick sort", quick, particles, cameraSpeed);
+				bench("radix sort", radix, particles, cameraSpeed);
+				bench("incremental", incremental, particles, cameraSpeed);
+			}
+		}
+	}
+
+	/** @param cameraSpeed the degrees the camera orbits by each frame */
+	private void bench (String name, TimedSorter sorter, int particles, float cameraSpeed) {
+		BillboardParticleBatch batch = new BillboardParticleBatch(particles);
+		batch.setSorter(sorter);
+		PerspectiveCamera camera = new PerspectiveCamera(67, 640, 480);
+		batch.setCamera(camera);
+
+		ParticleController controller = new ParticleController();
+		controller.particles = new ParallelArray(particles);
+		BillboardRenderer renderer = new BillboardRenderer(batch);
+		renderer.set(controller);
+		renderer.allocateChannels();
+		controller.renderer = renderer;
+		controller.particles.size = particles;
+		FloatChannel positions = controller.particles.getChannel(ParticleChannels.Position);
+		RandomXS128 random = new RandomXS128(42);
+		for (int i = 0, n = particles * positions.strideSize; i < n; i++)
+			positions.data[i] = random.nextFloat() * 20 - 10;
+
+		long total = 0;
+		for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+			if (i == WARMUP) sorter.time = 0;
+			// Particles move a little each frame
+			for (int k = 0, n = particles * positions.strideSize; k < n; k++)
+				positions.data[k] += (random.nextFloat() - 0.5f) * 0.02f;
+			camera.position.set(30, 10, 0).rotate(i * cameraSpeed, 0, 1, 0);
+			camera.lookAt(0, 0, 0);
+			camera.up.set(0, 1, 0);
+			camera.update();
+
+			batch.begin();
+			controller.draw();
+			long start = TimeUtils.nanoTime();
+			batch.end();
+			if (i >= WARMUP) total += TimeUtils.nanoTime() - start;
+		}
+		Gdx.app.log("ParticleSorterBench", name + ", camera orbiting " + cameraSpeed + "° per frame: "
+			+ (sorter.time / ITERATIONS / 1000) + " µs per sort, " + (total / ITERATIONS / 1000) + " µs per batch end of "
+			+ particles + " particles");
+	}
+
+	static class TimedSorter extends ParticleSorter.Distance {
+		long time;
+
+		@Override
+		public <T extends ParticleControllerRenderData> int[] sort (Array<T> renderData) {
+			long start = TimeUtils.nanoTime();
+			int[] offsets = super.sort(renderData);
+			time += TimeUtils.nanoTime() - start;
+			return offsets;
+		}
+	}
+}
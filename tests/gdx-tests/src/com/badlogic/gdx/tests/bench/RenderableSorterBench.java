@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultRenderableSorter;
+import com.badlogic.gdx.graphics.g3d.utils.RadixRenderableSorter;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Compares the time {@link DefaultRenderableSorter} and {@link RadixRenderableSorter} take to sort 10000 renderables in random
+ * order, using 16 shaders, 256 materials of which a quarter are blended and 64 meshes. The results are logged. */
+public class RenderableSorterBench extends GdxTest {
+	static final int RENDERABLES = 10000, WARMUP = 20, ITERATIONS = 100;
+
+	final Array<Mesh> meshes = new Array<Mesh>();
+
+	@Override
+	public void create () {
+		RandomXS128 random = new RandomXS128(42);
+		Shader[] shaders = new Shader[16];
+		for (int i = 0; i < shaders.length; i++)
+			shaders[i] = new BenchShader();
+		Material[] materials = new Material[256];
+		for (int i = 0; i < materials.length; i++) {
+			materials[i] = new Material("material" + i, ColorAttribute.createDiffuse(random.nextFloat(), 1, 1, 1));
+			if (i % 4 == 0) materials[i].set(new BlendingAttribute(0.5f));
+		}
+		for (int i = 0; i < 64; i++)
+			meshes.add(new Mesh(true, 3, 0, VertexAttribute.Position()));
+
+		Array<Renderable> source = new Array<Renderable>(RENDERABLES);
+		for (int i = 0; i < RENDERABLES; i++) {
+			Renderable renderable = new Renderable();
+			renderable.shader = shaders[random.nextInt(shaders.length)];
+			renderable.material = materials[random.nextInt(materials.length)];
+			renderable.meshPart.set("part", meshes.get(random.nextInt(meshes.size)), 0, 3, 0);
+			renderable.worldTransform.setToTranslation(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100,
+				random.nextFloat() * 200 - 100);
+			source.add(renderable);
+		}
+
+		PerspectiveCamera camera = new PerspectiveCamera(67, 640, 480);
+		camera.position.set(0, 0, 150);
+		camera.lookAt(0, 0, 0);
+		camera.update();
+
+		bench("DefaultRenderableSorter", new DefaultRenderableSorter(), camera, source);
+		bench("RadixRenderableSorter", new RadixRenderableSorter(), camera, source);
+	}
+
+	private void bench (String name, RenderableSorter sorter, Camera camera, Array<Renderable> source) {
+		Array<Renderable> renderables = new Array<Renderable>(source.size);
+		RandomXS128 random = new RandomXS128(1);
+		long total = 0;
+		for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+			renderables.clear();
+			renderables.addAll(source);
+			shuffle(renderables, random);
+			long start = TimeUtils.nanoTime();
+			sorter.sort(camera, renderables);
+			if (i >= WARMUP) total += TimeUtils.nanoTime() - start;
+		}
+		check(camera, renderables);
+		Gdx.app.log("RenderableSorterBench",
+			name + ": " + (total / ITERATIONS / 1000) + " µs per sort of " + source.size + " renderables");
+	}
+
+	private void shuffle (Array<Renderable> renderables, RandomXS128 random) {
+		Object[] items = renderables.items;
+		for (int i = renderables.size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Object tmp = items[i];
+			items[i] = items[j];
+			items[j] = tmp;
+		}
+	}
+
+	/** Checks that the opaque renderables come first and the blended renderables are sorted back to front. */
+	private void check (Camera camera, Array<Renderable> renderables) {
+		boolean blended = false;
+		float lastDistance = Float.MAX_VALUE;
+		Vector3 position = new Vector3();
+		for (Renderable renderable : renderables) {
+			boolean isBlended = renderable.material.has(BlendingAttribute.Type);
+			if (blended && !isBlended) throw new GdxRuntimeException("Opaque renderable after a blended renderable");
+			blended = isBlended;
+			if (!isBlended) continue;
+			float distance = camera.position.dst2(renderable.worldTransform.getTranslation(position));
+			if (distance > lastDistance + 0.01f) throw new GdxRuntimeException("Blended renderables are not sorted back to front");
+			lastDistance = distance;
+		}
+	}
+
+	@Override
+	public void dispose () {
+		for (Mesh mesh : meshes)
+			mesh.dispose();
+	}
+
+	static class BenchShader implements Shader {
+		@Override
+		public void init () {
+		}
+
+		@Override
+		public int compareTo (Shader other) {
+			return 0;
+		}
+
+		@Override
+		public boolean canRender (Renderable instance) {
+			return true;
+		}
+
+		@Override
+		public void begin (Camera camera, RenderContext context) {
+		}
+
+		@Override
+		public void render (Renderable renderable) {
+		}
+
+		@Override
+		public void end () {
+		}
+
+		@Override
+		public void dispose () {
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.utils.AnimationBatch;
+import com.badlogic.gdx.graphics.g3d.utils.AnimationController;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Animates a crowd of knights with an {@link AnimationBatch}, touch to switch between the batch and updating each
+ * {@link AnimationController} in turn. The knights start walking and idling at random, blending between both animations. */
+public class AnimationBatchTest extends BaseG3dTest {
+	final static int SIZE = 16;
+
+	Environment environment;
+	Array<AnimationController> animations = new Array<AnimationController>();
+	AnimationBatch animationBatch;
+	boolean useBatch = true;
+	long updateTime, logTime;
+	int updates;
+
+	@Override
+	public void create () {
+		super.create();
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
+
+		cam.position.set(0f, 120f, 220f);
+		cam.lookAt(0, 0, 0);
+		cam.far = 2000f;
+		cam.update();
+		showAxes = false;
+
+		animationBatch = new AnimationBatch();
+		assets.load("data/g3d/knight.g3db", Model.class);
+		loading = true;
+	}
+
+	@Override
+	protected void onLoaded () {
+		Model model = assets.get("data/g3d/knight.g3db", Model.class);
+		for (int x = 0; x < SIZE; x++) {
+			for (int z = 0; z < SIZE; z++) {
+				ModelInstance instance = new ModelInstance(model);
+				instance.transform.setToTranslation((x - SIZE / 2f) * 15f, 0, (z - SIZE / 2f) * 15f);
+				instance.transform.rotate(0, 1, 0, MathUtils.random(360f));
+				AnimationController animation = new AnimationController(instance);
+				animation.setAnimation(MathUtils.randomBoolean() ? "Walk" : "Idle", -1);
+				animation.update(MathUtils.random(2f));
+				animations.add(animation);
+				animationBatch.add(animation);
+				instances.add(instance);
+			}
+		}
+	}
+
+	@Override
+	protected void render (ModelBatch batch, Array<ModelInstance> instances) {
+		if (Gdx.input.justTouched()) useBatch = !useBatch;
+		for (AnimationController animation : animations)
+			if (MathUtils.randomBoolean(0.002f))
+				animation.animate(animation.current.animation.id.equals("Walk") ? "Idle" : "Walk", -1, null, 0.5f);
+
+		final float delta = Gdx.graphics.getDeltaTime();
+		final long start = TimeUtils.nanoTime();
+		if (useBatch)
+			animationBatch.update(delta);
+		else {
+			for (AnimationController animation : animations)
+				animation.update(delta);
+		}
+		updateTime += TimeUtils.timeSinceNanos(start);
+		updates++;
+		if (TimeUtils.timeSinceMillis(logTime) > 1000) {
+			Gdx.app.log("AnimationBatchTest", (useBatch ? "AnimationBatch: " : "AnimationController: ") + updateTime / updates / 1000
+				+ " us per update");
+			logTime = TimeUtils.millis();
+			updateTime = 0;
+			updates = 0;
+		}
+		batch.render(instances, environment);
+	}
+
+	@Override
+	public void dispose () {
+		super.dispose();
+		animationBatch.dispose();
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.CascadedShadowMapAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.CascadedShadowLight;
+import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
+import com.badlogic.gdx.graphics.g3d.utils.DepthShaderProvider;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+
+/** Renders the shadows of a large field of static boxes and a few moving spheres with a {@link CascadedShadowLight}. The depth
+ * of the boxes is only rendered again when a cascade moved, the spheres are rendered every frame. */
+public class CascadedShadowMappingTest extends GdxTest {
+	PerspectiveCamera cam;
+	CameraInputController camController;
+	ModelBatch modelBatch;
+	ModelBatch shadowBatch;
+	Model groundModel, boxModel, sphereModel;
+	Array<ModelInstance> staticInstances = new Array<ModelInstance>();
+	Array<ModelInstance> dynamicInstances = new Array<ModelInstance>();
+	Environment environment;
+	CascadedShadowLight shadowLight;
+	float time;
+
+	@Override
+	public void create () {
+		modelBatch = new ModelBatch();
+		shadowBatch = new ModelBatch(new DepthShaderProvider());
+
+		shadowLight = new CascadedShadowLight(4, 1024, 150f, 50f);
+		shadowLight.set(0.8f, 0.8f, 0.8f, -1f, -.8f, -.2f);
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, .4f, .4f, .4f, 1f));
+		environment.add(shadowLight);
+		environment.set(new CascadedShadowMapAttribute(shadowLight));
+
+		cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		cam.position.set(0f, 7f, 10f);
+		cam.lookAt(0, 0, 0);
+		cam.near = 0.5f;
+		cam.far = 300f;
+		cam.update();
+
+		final ModelBuilder modelBuilder = new ModelBuilder();
+		final long attributes = Usage.Position | Usage.Normal;
+		groundModel = modelBuilder.createBox(300f, 1f, 300f, new Material(ColorAttribute.createDiffuse(Color.WHITE)), attributes);
+		boxModel = modelBuilder.createBox(2f, 4f, 2f, new Material(ColorAttribute.createDiffuse(Color.LIGHT_GRAY)), attributes);
+		sphereModel = modelBuilder.createSphere(2f, 2f, 2f, 16, 16, new Material(ColorAttribute.createDiffuse(Color.ORANGE)),
+			attributes);
+
+		staticInstances.add(new ModelInstance(groundModel, 0f, -0.5f, 0f));
+		for (int x = -140; x <= 140; x += 10)
+			for (int z = -140; z <= 140; z += 10)
+				staticInstances.add(new ModelInstance(boxModel, x + MathUtils.random(-3f, 3f), 2f, z + MathUtils.random(-3f, 3f)));
+		for (int i = 0; i < 8; i++)
+			dynamicInstances.add(new ModelInstance(sphereModel));
+
+		Gdx.input.setInputProcessor(camController = new CameraInputController(cam));
+	}
+
+	@Override
+	public void render () {
+		camController.update();
+		time += Gdx.graphics.getDeltaTime();
+		for (int i = 0; i < dynamicInstances.size; i++) {
+			final float angle = time * 20f + i * 45f;
+			dynamicInstances.get(i).transform.setToTranslation(MathUtils.cosDeg(angle) * 6f,
+				2f + MathUtils.sinDeg(angle * 3f), MathUtils.sinDeg(angle) * 6f);
+		}
+
+		shadowLight.update(cam);
+		shadowLight.render(shadowBatch, staticInstances, dynamicInstances);
+
+		Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+		Gdx.gl.glClearColor(0.4f, 0.6f, 0.9f, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+
+		modelBatch.begin(cam);
+		modelBatch.render(staticInstances, environment);
+		modelBatch.render(dynamicInstances, environment);
+		modelBatch.end();
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		cam.viewportWidth = width;
+		cam.viewportHeight = height;
+		cam.update();
+	}
+
+	@Override
+	public void resume () {
+		shadowLight.invalidate();
+	}
+
+	@Override
+	public void dispose () {
+		modelBatch.dispose();
+		shadowBatch.dispose();
+		shadowLight.dispose();
+		groundModel.dispose();
+		boxModel.dispose();
+		sphereModel.dispose();
+	}
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.utils.FrustumRenderableCuller;
+import com.badlogic.gdx.graphics.g3d.utils.ModelInstanceCollider;
+import com.badlogic.gdx.math.Octree;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.scenes.scene2d.ui.CheckBox;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.utils.Array;
+
+/** Test showing the culling of renderables by {@link ModelBatch}, with a {@link FrustumRenderableCuller} and an {@link Octree} of
+ * static instances. Each loaded model is added 50 times, move the camera to see the culled renderables. */
+public class FrustumCullingTest extends Benchmark3DTest {
+	final FrustumRenderableCuller culler = new FrustumRenderableCuller();
+	final ModelInstanceCollider collider = new ModelInstanceCollider();
+	Octree<ModelInstance> octree;
+	int octreeSize;
+	CheckBox cullingCheckBox, octreeCheckBox;
+	Label cullingLabel;
+
+	@Override
+	public void create () {
+		super.create();
+
+		cullingLabel = new Label("Renderables: 999, culled: 999", skin);
+		cullingLabel.setPosition(0, lightsLabel.getTop());
+		hud.addActor(cullingLabel);
+
+		cullingCheckBox = new CheckBox("Frustum culling", skin);
+		cullingCheckBox.setChecked(true);
+		cullingCheckBox.setPosition(hudWidth - cullingCheckBox.getWidth(), lightsCheckBox.getTop());
+		hud.addActor(cullingCheckBox);
+
+		octreeCheckBox = new CheckBox("Octree", skin);
+		octreeCheckBox.setChecked(false);
+		octreeCheckBox.setPosition(hudWidth - octreeCheckBox.getWidth(), cullingCheckBox.getTop());
+		hud.addActor(octreeCheckBox);
+	}
+
+	@Override
+	protected void onLoaded () {
+		for (int i = 0; i < 50; i++)
+			super.onLoaded();
+	}
+
+	@Override
+	protected void render (ModelBatch batch, Array<ModelInstance> instances) {
+		batch.setCuller(cullingCheckBox.isChecked() ? culler : null);
+		if (octreeCheckBox.isChecked()) {
+			if (octree == null || octreeSize != instances.size) {
+				// The instances don't move, so the octree only needs to be rebuilt when instances are added
+				octree = new Octree<ModelInstance>(new Vector3(-15, -15, -15), new Vector3(15, 15, 15), 4, 8, collider);
+				for (ModelInstance instance : instances)
+					octree.add(instance);
+				octreeSize = instances.size;
+			}
+			batch.render(octree, lighting ? environment : null);
+		} else
+			super.render(batch, instances);
+	}
+
+	@Override
+	protected void getStatus (StringBuilder stringBuilder) {
+		stringBuilder.setLength(0);
+		stringBuilder.append("Renderables: ");
+		stringBuilder.append(modelBatch.submittedRenderables);
+		stringBuilder.append(", culled: ");
+		stringBuilder.append(modelBatch.culledRenderables);
+		cullingLabel.setText(stringBuilder);
+
+		stringBuilder.setLength(0);
+		super.getStatus(stringBuilder);
+	}
+}
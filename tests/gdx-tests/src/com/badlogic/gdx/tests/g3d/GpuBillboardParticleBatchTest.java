@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.particles.batches.GpuBillboardParticleBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+/** A fountain of up to 200000 particles drawn by a {@link GpuBillboardParticleBatch}. Press space to switch between simulating
+ * the particles on the GPU, if OpenGL ES 3.0 is available, and on the CPU. The frame rate is logged every second. */
+public class GpuBillboardParticleBatchTest extends BaseG3dTest {
+	static final int CAPACITY = 200000;
+	static final float LIFE = 4f;
+
+	Texture texture;
+	GpuBillboardParticleBatch particles;
+	boolean useGPU = true;
+	float logTime;
+
+	@Override
+	public void create () {
+		super.create();
+		texture = new Texture(Gdx.files.internal("data/pre_particle.png"));
+		createParticles();
+	}
+
+	private void createParticles () {
+		if (particles != null) particles.dispose();
+		// Additive blending, as the particles aren't sorted on the GPU
+		particles = new GpuBillboardParticleBatch(CAPACITY, new TextureRegion(texture), useGPU,
+			new BlendingAttribute(GL20.GL_SRC_ALPHA, GL20.GL_ONE), null);
+		particles.gravity.set(0, -9.8f, 0);
+		particles.startColor.set(1f, 0.6f, 0.2f, 1f);
+		particles.endColor.set(0.2f, 0.3f, 1f, 0f);
+		particles.startScale = 0.2f;
+		particles.endScale = 0.05f;
+		particles.setCamera(cam);
+	}
+
+	@Override
+	protected void render (ModelBatch batch, Array<ModelInstance> instances) {
+		if (Gdx.input.isKeyJustPressed(Keys.SPACE)) {
+			useGPU = !useGPU;
+			createParticles();
+		}
+
+		float delta = Math.min(Gdx.graphics.getDeltaTime(), 0.1f);
+		// Emits as many particles as die, so the batch stays full
+		int emitted = (int)(CAPACITY * delta / LIFE);
+		for (int i = 0; i < emitted; i++) {
+			float angle = MathUtils.random(360f), speed = MathUtils.random(1f, 3f);
+			particles.emit(0, 0, 0, MathUtils.cosDeg(angle) * speed, MathUtils.random(8f, 12f), MathUtils.sinDeg(angle) * speed,
+				MathUtils.random(LIFE * 0.5f, LIFE));
+		}
+		particles.update(delta);
+
+		batch.render(instances);
+		batch.render(particles);
+
+		if ((logTime += Gdx.graphics.getDeltaTime()) > 1f) {
+			logTime = 0;
+			Gdx.app.log("GpuBillboardParticleBatchTest",
+				(particles.isGPU() ? "GPU" : "CPU") + ", " + Gdx.graphics.getFramesPerSecond() + " fps");
+		}
+	}
+
+	@Override
+	public void dispose () {
+		particles.dispose();
+		texture.dispose();
+		super.dispose();
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.IncrementalModelCache;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+
+/** Caches a city of blocks with an {@link IncrementalModelCache} while a few doors open and close. Only the cells of the doors
+ * that moved are merged again, the number of cells rebuilt each frame is logged every second. */
+public class IncrementalModelCacheTest extends GdxTest {
+	PerspectiveCamera cam;
+	CameraInputController camController;
+	ModelBatch modelBatch;
+	Model blockModel, doorModel;
+	Array<ModelInstance> doors = new Array<ModelInstance>();
+	Array<Vector3> doorPositions = new Array<Vector3>();
+	IncrementalModelCache cache;
+	Environment environment;
+	float time, logTime;
+	int doorIndex;
+
+	@Override
+	public void create () {
+		modelBatch = new ModelBatch();
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, .4f, .4f, .4f, 1f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -.8f, -.2f));
+
+		cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		cam.position.set(0f, 60f, 80f);
+		cam.lookAt(0, 0, 0);
+		cam.near = 1f;
+		cam.far = 500f;
+		cam.update();
+
+		final ModelBuilder modelBuilder = new ModelBuilder();
+		final long attributes = Usage.Position | Usage.Normal;
+		blockModel = modelBuilder.createBox(6f, 8f, 6f, new Material(ColorAttribute.createDiffuse(Color.LIGHT_GRAY)), attributes);
+		doorModel = modelBuilder.createBox(2f, 3f, 0.2f, new Material(ColorAttribute.createDiffuse(Color.BROWN)), attributes);
+
+		cache = new IncrementalModelCache(32f);
+		for (int x = -100; x <= 100; x += 10) {
+			for (int z = -100; z <= 100; z += 10) {
+				cache.add(new ModelInstance(blockModel, x, 4f, z));
+				final ModelInstance door = new ModelInstance(doorModel, x + 1f, 1.5f, z + 3.1f);
+				doors.add(door);
+				doorPositions.add(new Vector3(x, 1.5f, z + 3.1f));
+				cache.add(door);
+			}
+		}
+
+		Gdx.input.setInputProcessor(camController = new CameraInputController(cam));
+	}
+
+	@Override
+	public void render () {
+		camController.update();
+		final float delta = Gdx.graphics.getDeltaTime();
+		time += delta;
+		// Swing a few doors each frame, every door is updated in turn
+		for (int i = 0; i < 4; i++) {
+			doorIndex = (doorIndex + 1) % doors.size;
+			final ModelInstance door = doors.get(doorIndex);
+			final Vector3 hinge = doorPositions.get(doorIndex);
+			door.transform.setToTranslation(hinge).rotate(Vector3.Y, 45f + MathUtils.sinDeg(time * 90f) * 45f).translate(1f, 0f,
+				0f);
+			cache.invalidate(door);
+		}
+		cache.update();
+		if ((logTime += delta) > 1f) {
+			logTime = 0f;
+			Gdx.app.log("IncrementalModelCacheTest", "cells: " + cache.getNumCells() + ", rebuilt: " + cache.rebuiltCells);
+		}
+
+		Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+		Gdx.gl.glClearColor(0.4f, 0.6f, 0.9f, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+
+		modelBatch.begin(cam);
+		modelBatch.render(cache, environment);
+		modelBatch.end();
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		cam.viewportWidth = width;
+		cam.viewportHeight = height;
+		cam.update();
+	}
+
+	@Override
+	public void dispose () {
+		modelBatch.dispose();
+		cache.dispose();
+		blockModel.dispose();
+		doorModel.dispose();
+	}
+}
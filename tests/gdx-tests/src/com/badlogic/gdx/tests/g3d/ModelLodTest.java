@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.LodModelInstance;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelLod;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.loader.G3dModelLoader;
+import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.UBJsonReader;
+
+/** Renders a field of teapots with a {@link ModelLod} of four levels, each {@link LodModelInstance} selecting the level matching
+ * its size on screen. The number of instances and triangles rendered at each level is logged every second. */
+public class ModelLodTest extends GdxTest {
+	PerspectiveCamera cam;
+	CameraInputController camController;
+	ModelBatch modelBatch;
+	Model model;
+	ModelLod lod;
+	Array<LodModelInstance> instances = new Array<LodModelInstance>();
+	Environment environment;
+	float logTime;
+
+	@Override
+	public void create () {
+		modelBatch = new ModelBatch();
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, .4f, .4f, .4f, 1f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -.8f, -.2f));
+
+		cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		cam.position.set(0f, 4f, 10f);
+		cam.lookAt(0, 0, -20f);
+		cam.near = 0.5f;
+		cam.far = 500f;
+		cam.update();
+
+		model = new G3dModelLoader(new UBJsonReader()).loadModel(Gdx.files.internal("data/g3d/teapot.g3db"));
+		lod = new ModelLod(model, new float[] {0.5f, 0.2f, 0.05f}, new float[] {0.3f, 0.1f, 0.03f});
+		for (int x = -20; x <= 20; x += 4) {
+			for (int z = 0; z <= 200; z += 4) {
+				final LodModelInstance instance = new LodModelInstance(lod, x, 0f, -z);
+				instance.camera = cam;
+				instances.add(instance);
+			}
+		}
+
+		Gdx.input.setInputProcessor(camController = new CameraInputController(cam));
+	}
+
+	@Override
+	public void render () {
+		camController.update();
+
+		Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+		Gdx.gl.glClearColor(0.4f, 0.6f, 0.9f, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+
+		modelBatch.begin(cam);
+		modelBatch.render(instances, environment);
+		modelBatch.end();
+
+		if ((logTime += Gdx.graphics.getDeltaTime()) > 1f) {
+			logTime = 0f;
+			final int[] counts = new int[lod.getNumLevels()];
+			for (LodModelInstance instance : instances)
+				counts[instance.getLevel()]++;
+			final StringBuilder builder = new StringBuilder();
+			int triangles = 0;
+			for (int level = 0; level < counts.length; level++) {
+				builder.append(level).append(": ").append(counts[level]).append(", ");
+				triangles += counts[level] * lod.getNumTriangles(level);
+			}
+			Gdx.app.log("ModelLodTest", "instances per level " + builder + "triangles: " + triangles + " instead of "
+				+ instances.size * lod.getNumTriangles(0));
+		}
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		cam.viewportWidth = width;
+		cam.viewportHeight = height;
+		cam.update();
+	}
+
+	@Override
+	public void dispose () {
+		modelBatch.dispose();
+		lod.dispose();
+		model.dispose();
+	}
+}
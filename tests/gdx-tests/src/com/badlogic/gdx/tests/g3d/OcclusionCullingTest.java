@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ForkJoinOcclusionRenderableCuller;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.OcclusionRenderableCuller.Occluder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+
+/** A city of 20x20 buildings with 10000 crates in its streets, culled by a {@link ForkJoinOcclusionRenderableCuller} using the
+ * buildings as occluders. Press space to toggle culling, the number of culled renderables and the frame rate are logged every
+ * second. */
+public class OcclusionCullingTest extends BaseG3dTest {
+	static final int BUILDINGS = 20, CRATES = 10000;
+	static final float SPACING = 8f;
+
+	final ForkJoinOcclusionRenderableCuller culler = new ForkJoinOcclusionRenderableCuller();
+	Model buildingModel, crateModel;
+	boolean culling = true;
+	float logTime;
+
+	@Override
+	public void create () {
+		super.create();
+		showAxes = false;
+		cam.position.set(0, 2, BUILDINGS * SPACING * 0.5f);
+		cam.lookAt(0, 2, 0);
+		cam.update();
+
+		ModelBuilder builder = new ModelBuilder();
+		buildingModel = builder.createBox(5f, 12f, 5f, new Material(ColorAttribute.createDiffuse(Color.GRAY)),
+			Usage.Position | Usage.Normal);
+		crateModel = builder.createBox(0.5f, 0.5f, 0.5f, new Material(ColorAttribute.createDiffuse(Color.ORANGE)),
+			Usage.Position | Usage.Normal);
+
+		// The occluders are slightly smaller than the buildings, so that they never hide the buildings themselves
+		Occluder occluder = new Occluder(buildingModel.meshParts.first());
+		float offset = (BUILDINGS - 1) * SPACING * 0.5f;
+		for (int x = 0; x < BUILDINGS; x++) {
+			for (int z = 0; z < BUILDINGS; z++) {
+				ModelInstance building = new ModelInstance(buildingModel, x * SPACING - offset, 6f, z * SPACING - offset);
+				instances.add(building);
+				culler.addOccluder(occluder, new Matrix4(building.transform).scale(0.9f, 0.9f, 0.9f));
+			}
+		}
+		for (int i = 0; i < CRATES; i++) {
+			// In the streets between the buildings
+			float street = (MathUtils.random(BUILDINGS - 2) + 0.5f) * SPACING - offset;
+			float along = MathUtils.random(-offset, offset);
+			boolean alongX = MathUtils.randomBoolean();
+			instances.add(new ModelInstance(crateModel, alongX ? along : street, 0.25f, alongX ? street : along));
+		}
+	}
+
+	@Override
+	protected void render (ModelBatch batch, Array<ModelInstance> instances) {
+		if (Gdx.input.isKeyJustPressed(Keys.SPACE)) culling = !culling;
+		if (culling) culler.update(cam);
+		batch.setCuller(culling ? culler : null);
+		batch.render(instances);
+
+		if ((logTime += Gdx.graphics.getDeltaTime()) > 1f) {
+			logTime = 0;
+			Gdx.app.log("OcclusionCullingTest", "Renderables: " + batch.submittedRenderables + ", culled: "
+				+ batch.culledRenderables + ", " + Gdx.graphics.getFramesPerSecond() + " fps");
+		}
+	}
+
+	@Override
+	public void dispose () {
+		culler.dispose();
+		buildingModel.dispose();
+		crateModel.dispose();
+		super.dispose();
+	}
+}
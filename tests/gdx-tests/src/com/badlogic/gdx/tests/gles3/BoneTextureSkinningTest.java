@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.gles3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
+import com.badlogic.gdx.graphics.g3d.utils.AnimationController;
+import com.badlogic.gdx.graphics.g3d.utils.BoneTexture;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultShaderProvider;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.g3d.BaseG3dTest;
+import com.badlogic.gdx.tests.utils.GdxTestConfig;
+import com.badlogic.gdx.utils.Array;
+
+/** Renders a crowd of animated knights reading their bones from a {@link BoneTexture}, see
+ * {@link DefaultShader.Config#boneTexture}. The bones of all knights are uploaded with one texture update per frame instead of an
+ * uniform array per knight. */
+@GdxTestConfig(requireGL30 = true)
+public class BoneTextureSkinningTest extends BaseG3dTest {
+	final static int SIZE = 10;
+
+	Environment environment;
+	Array<AnimationController> animations = new Array<AnimationController>();
+
+	@Override
+	public void create () {
+		super.create();
+		DefaultShader.Config config = new DefaultShader.Config();
+		config.boneTexture = true;
+		modelBatch.dispose();
+		modelBatch = new ModelBatch(new DefaultShaderProvider(config));
+
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
+
+		cam.position.set(0f, 80f, 150f);
+		cam.lookAt(0, 0, 0);
+		cam.far = 2000f;
+		cam.update();
+		showAxes = false;
+
+		assets.load("data/g3d/knight.g3db", Model.class);
+		loading = true;
+	}
+
+	@Override
+	protected void onLoaded () {
+		Model model = assets.get("data/g3d/knight.g3db", Model.class);
+		for (int x = 0; x < SIZE; x++) {
+			for (int z = 0; z < SIZE; z++) {
+				ModelInstance instance = new ModelInstance(model);
+				instance.transform.setToTranslation((x - SIZE / 2f) * 15f, 0, (z - SIZE / 2f) * 15f);
+				instance.transform.rotate(0, 1, 0, MathUtils.random(360f));
+				AnimationController animation = new AnimationController(instance);
+				animation.setAnimation(MathUtils.randomBoolean() ? "Walk" : "Idle", -1);
+				animation.update(MathUtils.random(2f));
+				animations.add(animation);
+				instances.add(instance);
+			}
+		}
+	}
+
+	@Override
+	protected void render (ModelBatch batch, Array<ModelInstance> instances) {
+		for (AnimationController animation : animations)
+			animation.update(Gdx.graphics.getDeltaTime());
+		batch.render(instances, environment);
+	}
+}
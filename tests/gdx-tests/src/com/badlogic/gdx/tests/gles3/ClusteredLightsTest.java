@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.gles3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ClusteredLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.ClusteredLights;
+import com.badlogic.gdx.graphics.g3d.environment.PointLight;
+import com.badlogic.gdx.graphics.g3d.environment.SpotLight;
+import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.tests.utils.GdxTestConfig;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+/** Lights a field of boxes with hundreds of moving point lights and a few spot lights through {@link ClusteredLights}, binned in
+ * parallel every frame. */
+@GdxTestConfig(requireGL30 = true)
+public class ClusteredLightsTest extends GdxTest {
+	final static int POINT_LIGHTS = 512;
+
+	PerspectiveCamera cam;
+	CameraInputController camController;
+	ModelBatch modelBatch;
+	Model groundModel, boxModel;
+	Array<ModelInstance> instances = new Array<ModelInstance>();
+	Environment environment;
+	ClusteredLights clusteredLights;
+	AsyncExecutor executor;
+	Array<PointLight> pointLights = new Array<PointLight>();
+	float[] phases = new float[POINT_LIGHTS];
+	float time;
+
+	@Override
+	public void create () {
+		modelBatch = new ModelBatch();
+		executor = new AsyncExecutor(4, "ClusteredLights");
+		clusteredLights = new ClusteredLights();
+		clusteredLights.setExecutor(executor);
+
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, .05f, .05f, .05f, 1f));
+		environment.set(new ClusteredLightsAttribute(clusteredLights));
+		for (int i = 0; i < POINT_LIGHTS; i++) {
+			final PointLight light = new PointLight().set(MathUtils.random(), MathUtils.random(), MathUtils.random(), 0f, 1f, 0f,
+				MathUtils.random(2f, 6f));
+			phases[i] = MathUtils.random(360f);
+			pointLights.add(light);
+			environment.add(light);
+		}
+		for (int x = -60; x <= 60; x += 40)
+			environment.add(new SpotLight().set(1f, 1f, 0.8f, x, 15f, 0f, 0f, -1f, 0.2f, 100f, 25f, 5f));
+
+		cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		cam.position.set(0f, 20f, 40f);
+		cam.lookAt(0, 0, 0);
+		cam.near = 0.5f;
+		cam.far = 300f;
+		cam.update();
+
+		final ModelBuilder modelBuilder = new ModelBuilder();
+		final long attributes = Usage.Position | Usage.Normal;
+		groundModel = modelBuilder.createBox(200f, 1f, 200f, new Material(ColorAttribute.createDiffuse(Color.WHITE)), attributes);
+		boxModel = modelBuilder.createBox(2f, 4f, 2f, new Material(ColorAttribute.createDiffuse(Color.LIGHT_GRAY),
+			ColorAttribute.createSpecular(Color.WHITE)), attributes);
+
+		instances.add(new ModelInstance(groundModel, 0f, -0.5f, 0f));
+		for (int x = -95; x <= 95; x += 10)
+			for (int z = -95; z <= 95; z += 10)
+				instances.add(new ModelInstance(boxModel, x, 2f, z));
+
+		Gdx.input.setInputProcessor(camController = new CameraInputController(cam));
+	}
+
+	@Override
+	public void render () {
+		camController.update();
+		time += Gdx.graphics.getDeltaTime();
+		for (int i = 0; i < pointLights.size; i++) {
+			final float angle = phases[i] + time * (10f + i % 7 * 5f);
+			final float radius = 10f + (i % 16) * 5.5f;
+			pointLights.get(i).position.set(MathUtils.cosDeg(angle) * radius, 1f + (i % 3), MathUtils.sinDeg(angle) * radius);
+		}
+		clusteredLights.update(cam, environment);
+
+		Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+		Gdx.gl.glClearColor(0f, 0f, 0f, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+
+		modelBatch.begin(cam);
+		modelBatch.render(instances, environment);
+		modelBatch.end();
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		cam.viewportWidth = width;
+		cam.viewportHeight = height;
+		cam.update();
+	}
+
+	@Override
+	public void dispose () {
+		modelBatch.dispose();
+		clusteredLights.dispose();
+		executor.dispose();
+		groundModel.dispose();
+		boxModel.dispose();
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.gles3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.shaders.InstancedDefaultShader;
+import com.badlogic.gdx.graphics.g3d.utils.InstancedShaderProvider;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.RadixRenderableSorter;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.tests.utils.GdxTestConfig;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/** Draws instances of the same model with an {@link InstancedDefaultShader} on the left and then with the default shader on the
+ * right, in the same frame. Both halves share the mesh and its vertex array object, so they only look the same if the instanced
+ * draw leaves no per instance state behind. */
+@GdxTestConfig(requireGL30 = true)
+public class InstancedAndDefaultShaderTest extends GdxTest {
+	final static int SIZE = 8;
+
+	PerspectiveCamera camera;
+	Environment environment;
+	Model model;
+	Array<ModelInstance> left = new Array<ModelInstance>(), right = new Array<ModelInstance>();
+	ModelBatch instancedBatch, defaultBatch;
+	SpriteBatch spriteBatch;
+	BitmapFont font;
+
+	@Override
+	public void create () {
+		camera = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		camera.position.set(0f, 10f, 14f);
+		camera.lookAt(0, 0, 0);
+		camera.near = 0.1f;
+		camera.far = 100f;
+		camera.update();
+
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
+
+		// The box has normals and texture coordinates, so the default shader uses attribute locations the instanced one binds
+		model = new ModelBuilder().createBox(0.8f, 0.8f, 0.8f, new Material(ColorAttribute.createDiffuse(Color.WHITE)),
+			Usage.Position | Usage.Normal | Usage.TextureCoordinates);
+		for (int x = 0; x < SIZE; x++) {
+			for (int z = 0; z < SIZE; z++) {
+				ModelInstance instance = new ModelInstance(model);
+				instance.transform.setToTranslation(x - SIZE - 0.5f, 0f, z - SIZE / 2f);
+				instance.userData = new Color(0.5f + 0.5f * x / SIZE, 0.5f + 0.5f * z / SIZE, 1f, 1f);
+				left.add(instance);
+				instance = new ModelInstance(model);
+				instance.transform.setToTranslation(x + 1.5f, 0f, z - SIZE / 2f);
+				right.add(instance);
+			}
+		}
+
+		InstancedDefaultShader.Config config = new InstancedDefaultShader.Config();
+		config.instanceColors = true;
+		instancedBatch = new ModelBatch(new InstancedShaderProvider(config), new RadixRenderableSorter());
+		defaultBatch = new ModelBatch();
+
+		spriteBatch = new SpriteBatch();
+		font = new BitmapFont();
+	}
+
+	@Override
+	public void render () {
+		for (ModelInstance instance : left)
+			instance.transform.rotate(0, 1, 0, Gdx.graphics.getDeltaTime() * 30f);
+		for (ModelInstance instance : right)
+			instance.transform.rotate(0, 1, 0, Gdx.graphics.getDeltaTime() * 30f);
+
+		ScreenUtils.clear(0.2f, 0.2f, 0.2f, 1f, true);
+		instancedBatch.begin(camera);
+		instancedBatch.render(left, environment);
+		instancedBatch.end();
+		defaultBatch.begin(camera);
+		defaultBatch.render(right, environment);
+		defaultBatch.end();
+
+		spriteBatch.begin();
+		font.draw(spriteBatch, "Instanced", 10, Gdx.graphics.getHeight() - 10);
+		font.draw(spriteBatch, "Default", Gdx.graphics.getWidth() - 70, Gdx.graphics.getHeight() - 10);
+		spriteBatch.end();
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		camera.viewportWidth = width;
+		camera.viewportHeight = height;
+		camera.update();
+		spriteBatch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+	}
+
+	@Override
+	public void dispose () {
+		instancedBatch.dispose();
+		defaultBatch.dispose();
+		spriteBatch.dispose();
+		font.dispose();
+		model.dispose();
+	}
+}
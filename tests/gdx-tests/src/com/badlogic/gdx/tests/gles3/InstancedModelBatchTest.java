@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.gles3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.shaders.InstancedDefaultShader;
+import com.badlogic.gdx.graphics.g3d.utils.InstancedShaderProvider;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.RadixRenderableSorter;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.tests.utils.GdxTestConfig;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/** Renders a field of tinted boxes with an {@link InstancedShaderProvider}, which draws all boxes with a few instanced draw calls.
+ * Touch the screen to switch to a regular {@link ModelBatch} for comparison. */
+@GdxTestConfig(requireGL30 = true)
+public class InstancedModelBatchTest extends GdxTest {
+	final static int SIZE = 64;
+
+	PerspectiveCamera camera;
+	Environment environment;
+	Model model;
+	Array<ModelInstance> instances = new Array<ModelInstance>();
+	ModelBatch instancedBatch, defaultBatch;
+	SpriteBatch spriteBatch;
+	BitmapFont font;
+	boolean instanced = true;
+	float angle;
+
+	@Override
+	public void create () {
+		camera = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		camera.near = 0.1f;
+		camera.far = 300f;
+
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
+
+		model = new ModelBuilder().createBox(0.8f, 0.8f, 0.8f, new Material(ColorAttribute.createDiffuse(Color.WHITE)),
+			Usage.Position | Usage.Normal);
+		for (int x = 0; x < SIZE; x++) {
+			for (int z = 0; z < SIZE; z++) {
+				ModelInstance instance = new ModelInstance(model);
+				instance.transform.setToTranslation(x - SIZE / 2f, MathUtils.random(-0.5f, 0.5f), z - SIZE / 2f);
+				instance.transform.rotate(0, 1, 0, MathUtils.random(360f));
+				instance.userData = new Color(MathUtils.random(0.3f, 1f), MathUtils.random(0.3f, 1f), MathUtils.random(0.3f, 1f),
+					1f);
+				instances.add(instance);
+			}
+		}
+
+		InstancedDefaultShader.Config config = new InstancedDefaultShader.Config();
+		config.instanceColors = true;
+		instancedBatch = new ModelBatch(new InstancedShaderProvider(config), new RadixRenderableSorter());
+		defaultBatch = new ModelBatch();
+
+		spriteBatch = new SpriteBatch();
+		font = new BitmapFont();
+	}
+
+	@Override
+	public void render () {
+		if (Gdx.input.justTouched()) instanced = !instanced;
+
+		angle += Gdx.graphics.getDeltaTime() * 10f;
+		camera.position.set(SIZE * 0.6f * MathUtils.cosDeg(angle), 20f, SIZE * 0.6f * MathUtils.sinDeg(angle));
+		camera.lookAt(0, 0, 0);
+		camera.up.set(0, 1, 0);
+		camera.update();
+
+		ScreenUtils.clear(0.2f, 0.2f, 0.2f, 1f, true);
+		ModelBatch batch = instanced ? instancedBatch : defaultBatch;
+		batch.begin(camera);
+		batch.render(instances, environment);
+		batch.end();
+
+		spriteBatch.begin();
+		font.draw(spriteBatch, (instanced ? "Instanced" : "Default") + ", FPS: " + Gdx.graphics.getFramesPerSecond(), 10,
+			Gdx.graphics.getHeight() - 10);
+		spriteBatch.end();
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		camera.viewportWidth = width;
+		camera.viewportHeight = height;
+		spriteBatch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+	}
+
+	@Override
+	public void dispose () {
+		instancedBatch.dispose();
+		defaultBatch.dispose();
+		spriteBatch.dispose();
+		font.dispose();
+		model.dispose();
+	}
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.gles3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Mesh.VertexDataType;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.graphics.glutils.VertexBufferObjectRing;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.tests.utils.GdxTestConfig;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/** Streams waving ribbons through a {@link VertexBufferObjectRing}. Every ribbon is uploaded and drawn on its own, so the ring
+ * wraps around and is orphaned several times per frame. Touch the screen to switch to a mesh with a
+ * {@link VertexDataType#VertexBufferObjectWithVAO} for comparison, both should look the same. */
+@GdxTestConfig(requireGL30 = true)
+public class VertexBufferObjectRingTest extends GdxTest {
+	final static int RIBBONS = 24;
+	final static int SEGMENTS = 256;
+
+	ShaderProgram shader;
+	Mesh ringMesh, vaoMesh;
+	float[] vertices = new float[(SEGMENTS + 1) * 2 * 4];
+	SpriteBatch batch;
+	BitmapFont font;
+	boolean ring = true;
+	float time;
+
+	@Override
+	public void create () {
+		String vertexShader = "attribute vec4 a_position;\n" //
+			+ "attribute vec4 a_color;\n" //
+			+ "varying vec4 v_color;\n" //
+			+ "void main () {\n" //
+			+ "	v_color = a_color;\n" //
+			+ "	gl_Position = a_position;\n" //
+			+ "}\n";
+		String fragmentShader = "#ifdef GL_ES\n" //
+			+ "precision mediump float;\n" //
+			+ "#endif\n" //
+			+ "varying vec4 v_color;\n" //
+			+ "void main () {\n" //
+			+ "	gl_FragColor = v_color;\n" //
+			+ "}\n";
+		shader = new ShaderProgram(vertexShader, fragmentShader);
+		if (!shader.isCompiled()) throw new GdxRuntimeException(shader.getLog());
+
+		short[] indices = new short[SEGMENTS * 6];
+		for (int i = 0, v = 0; i < indices.length; i += 6, v += 2) {
+			indices[i] = (short)v;
+			indices[i + 1] = (short)(v + 1);
+			indices[i + 2] = (short)(v + 2);
+			indices[i + 3] = (short)(v + 2);
+			indices[i + 4] = (short)(v + 1);
+			indices[i + 5] = (short)(v + 3);
+		}
+		ringMesh = createMesh(VertexDataType.VertexBufferObjectRing, indices);
+		vaoMesh = createMesh(VertexDataType.VertexBufferObjectWithVAO, indices);
+
+		batch = new SpriteBatch();
+		font = new BitmapFont();
+	}
+
+	private Mesh createMesh (VertexDataType type, short[] indices) {
+		Mesh mesh = new Mesh(type, false, (SEGMENTS + 1) * 2, indices.length, VertexAttribute.Position(),
+			VertexAttribute.ColorPacked());
+		mesh.setIndices(indices);
+		return mesh;
+	}
+
+	@Override
+	public void render () {
+		if (Gdx.input.justTouched()) ring = !ring;
+		time += Gdx.graphics.getDeltaTime();
+
+		ScreenUtils.clear(0.1f, 0.1f, 0.1f, 1f);
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		Mesh mesh = ring ? ringMesh : vaoMesh;
+		shader.bind();
+		for (int r = 0; r < RIBBONS; r++) {
+			float base = -0.9f + 1.8f * r / (RIBBONS - 1);
+			float color = Color.toFloatBits(0.4f + 0.6f * r / RIBBONS, 0.5f, 1f - 0.6f * r / RIBBONS, 0.8f);
+			for (int s = 0, i = 0; s <= SEGMENTS; s++) {
+				float x = -1f + 2f * s / SEGMENTS;
+				float y = base + 0.05f * MathUtils.sin(x * 6f + time * 2f + r * 0.5f);
+				vertices[i++] = x;
+				vertices[i++] = y - 0.02f;
+				vertices[i++] = 0f;
+				vertices[i++] = color;
+				vertices[i++] = x;
+				vertices[i++] = y + 0.02f;
+				vertices[i++] = 0f;
+				vertices[i++] = color;
+			}
+			mesh.setVertices(vertices);
+			mesh.render(shader, GL20.GL_TRIANGLES);
+		}
+		Gdx.gl.glDisable(GL20.GL_BLEND);
+
+		batch.begin();
+		font.draw(batch, (ring ? "VertexBufferObjectRing" : "VertexBufferObjectWithVAO") + ", FPS: "
+			+ Gdx.graphics.getFramesPerSecond(), 10, Gdx.graphics.getHeight() - 10);
+		batch.end();
+	}
+
+	@Override
+	public void dispose () {
+		shader.dispose();
+		ringMesh.dispose();
+		vaoMesh.dispose();
+		batch.dispose();
+		font.dispose();
+	}
+}
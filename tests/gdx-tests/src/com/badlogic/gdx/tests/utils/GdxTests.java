@@ -37,6 +37,10 @@ import java.util.Collections;
 import java.util.List;
 
 import com.badlogic.gdx.tests.*;
+import com.badlogic.gdx.tests.bench.BulkTransformBench;
+import com.badlogic.gdx.tests.bench.DecalBatchBench;
+import com.badlogic.gdx.tests.bench.ParticleSorterBench;
+import com.badlogic.gdx.tests.bench.RenderableSorterBench;
 import com.badlogic.gdx.tests.bench.TiledMapBench;
 import com.badlogic.gdx.tests.conformance.AudioSoundAndMusicIsolationTest;
 import com.badlogic.gdx.tests.conformance.DisplayModeTest;
@@ -50,20 +54,27 @@ import com.badlogic.gdx.tests.extensions.FreeTypePackTest;
 import com.badlogic.gdx.tests.extensions.FreeTypeTest;
 import com.badlogic.gdx.tests.extensions.InternationalFontsTest;
 import com.badlogic.gdx.tests.g3d.Animation3DTest;
+import com.badlogic.gdx.tests.g3d.AnimationBatchTest;
 import com.badlogic.gdx.tests.g3d.AnisotropyTest;
 import com.badlogic.gdx.tests.g3d.Basic3DSceneTest;
 import com.badlogic.gdx.tests.g3d.Basic3DTest;
 import com.badlogic.gdx.tests.g3d.Benchmark3DTest;
+import com.badlogic.gdx.tests.g3d.CascadedShadowMappingTest;
 import com.badlogic.gdx.tests.g3d.FogTest;
 import com.badlogic.gdx.tests.g3d.FrameBufferCubemapTest;
+import com.badlogic.gdx.tests.g3d.FrustumCullingTest;
+import com.badlogic.gdx.tests.g3d.GpuBillboardParticleBatchTest;
 import com.badlogic.gdx.tests.g3d.HeightMapTest;
+import com.badlogic.gdx.tests.g3d.IncrementalModelCacheTest;
 import com.badlogic.gdx.tests.g3d.LightsTest;
 import com.badlogic.gdx.tests.g3d.MaterialEmissiveTest;
 import com.badlogic.gdx.tests.g3d.MaterialTest;
 import com.badlogic.gdx.tests.g3d.MeshBuilderTest;
 import com.badlogic.gdx.tests.g3d.ModelCacheTest;
+import com.badlogic.gdx.tests.g3d.ModelLodTest;
 import com.badlogic.gdx.tests.g3d.ModelTest;
 import com.badlogic.gdx.tests.g3d.MultipleRenderTargetTest;
+import com.badlogic.gdx.tests.g3d.OcclusionCullingTest;
 import com.badlogic.gdx.tests.g3d.ParticleControllerInfluencerSingleTest;
 import com.badlogic.gdx.tests.g3d.ParticleControllerTest;
 import com.badlogic.gdx.tests.g3d.PolarAccelerationTest;
@@ -80,15 +91,20 @@ import com.badlogic.gdx.tests.gles2.GlTexImage2D;
 import com.badlogic.gdx.tests.gles2.HelloTriangle;
 import com.badlogic.gdx.tests.gles2.SimpleVertexShader;
 import com.badlogic.gdx.tests.gles2.VertexArrayTest;
+import com.badlogic.gdx.tests.gles3.BoneTextureSkinningTest;
+import com.badlogic.gdx.tests.gles3.ClusteredLightsTest;
 import com.badlogic.gdx.tests.gles3.GL30FrameBufferMultisampleMRTTest;
 import com.badlogic.gdx.tests.gles3.GL30FrameBufferMultisampleTest;
 import com.badlogic.gdx.tests.gles3.GL30Texture3DTest;
+import com.badlogic.gdx.tests.gles3.InstancedAndDefaultShaderTest;
+import com.badlogic.gdx.tests.gles3.InstancedModelBatchTest;
 import com.badlogic.gdx.tests.gles3.InstancedRenderingSpriteTest;
 import com.badlogic.gdx.tests.gles3.InstancedRenderingTest;
 import com.badlogic.gdx.tests.gles3.ModelInstancedRenderingTest;
 import com.badlogic.gdx.tests.gles3.NonPowerOfTwoTest;
 import com.badlogic.gdx.tests.gles3.PixelBufferObjectTest;
 import com.badlogic.gdx.tests.gles3.UniformBufferObjectsTest;
+import com.badlogic.gdx.tests.gles3.VertexBufferObjectRingTest;
 import com.badlogic.gdx.tests.gles31.GL31IndirectDrawingIndexedTest;
 import com.badlogic.gdx.tests.gles31.GL31IndirectDrawingNonIndexedTest;
 import com.badlogic.gdx.tests.gles31.GL31ProgramIntrospectionTest;
@@ -119,6 +135,7 @@ public class GdxTests {
 		Affine2Test.class,
 		AlphaTest.class,
 		Animation3DTest.class,
+		AnimationBatchTest.class,
 		AnimationTest.class,
 		AnisotropyTest.class,
 		AnnotationTest.class,
@@ -139,12 +156,16 @@ public class GdxTests {
 		BitmapFontTest.class,
 		BitmapFontAtlasRegionTest.class,
 		BlitTest.class,
+		BoneTextureSkinningTest.class,
 		Box2DTest.class,
 		Box2DTestCollection.class,
 		Bresenham2Test.class,
 		BufferUtilsTest.class,
+		BulkTransformBench.class,
 		BulletTestCollection.class,
+		CascadedShadowMappingTest.class,
 		ClipboardTest.class,
+		ClusteredLightsTest.class,
 		CollectionsTest.class,
 		CollisionPlaygroundTest.class,
 		ColorTest.class,
@@ -153,6 +174,7 @@ public class GdxTests {
 		CpuSpriteBatchTest.class,
 		CullTest.class,
 		CursorTest.class,
+		DecalBatchBench.class,
 		DecalTest.class,
 		DefaultTextureBinderTest.class,
 		DelaunayTriangulatorTest.class,
@@ -173,6 +195,7 @@ public class GdxTests {
 		FrameBufferCubemapTest.class,
 		FrameBufferTest.class,
 		FramebufferToTextureTest.class,
+		FrustumCullingTest.class,
 		FullscreenTest.class,
 		Gdx2DTest.class,
 		GestureDetectorTest.class,
@@ -189,6 +212,7 @@ public class GdxTests {
 		GL32OffsetElementsTest.class,
 		GlTexImage2D.class,
 		GLProfilerErrorTest.class,
+		GpuBillboardParticleBatchTest.class,
 		GroupCullingTest.class,
 		GroupFadeTest.class,
 		GroupTest.class,
@@ -200,8 +224,11 @@ public class GdxTests {
 		ImageScaleTest.class,
 		ImageTest.class,
 		ImmediateModeRendererTest.class,
+		IncrementalModelCacheTest.class,
 		IndexBufferObjectShaderTest.class,
 		InputTest.class,
+		InstancedAndDefaultShaderTest.class,
+		InstancedModelBatchTest.class,
 		InstancedRenderingTest.class,
         InstancedRenderingSpriteTest.class,
 		IntegerBitmapFontTest.class,
@@ -225,6 +252,7 @@ public class GdxTests {
 		ModelTest.class,
 		ModelCacheTest.class,
 		ModelInstancedRenderingTest.class,
+		ModelLodTest.class,
 		MoveSpriteExample.class,
 		MultipleRenderTargetTest.class,
 		MultitouchTest.class,
@@ -233,6 +261,7 @@ public class GdxTests {
 		NinePatchTest.class,
 		NoncontinuousRenderingTest.class,
 		NonPowerOfTwoTest.class,
+		OcclusionCullingTest.class,
 		OctreeTest.class,
 		OnscreenKeyboardTest.class,
 		NativeInputTest.class,
@@ -241,6 +270,7 @@ public class GdxTests {
 		ParallaxTest.class,
 		ParticleControllerInfluencerSingleTest.class,
 		ParticleControllerTest.class,
+		ParticleSorterBench.class,
 		ParticleEmitterTest.class,
 		ParticleEmittersTest.class,
 		ParticleEmitterChangeSpriteTest.class,
@@ -258,6 +288,7 @@ public class GdxTests {
 		ProjectiveTextureTest.class,
 		ReflectionTest.class,
 		ReflectionCorrectnessTest.class,
+		RenderableSorterBench.class,
 		RotationTest.class,
 		RunnablePostTest.class,
 		Scene2dTest.class,
@@ -273,6 +304,7 @@ public class GdxTests {
 		ShaderTest.class,
 		ShadowMappingTest.class,
 		ShadowMappingTextureTest.class,
+		ShapeBatchTest.class,
 		ShapeRendererTest.class,
 		ShapeRendererAlphaTest.class,
 		SimpleAnimationTest.class,
@@ -344,6 +376,7 @@ public class GdxTests {
 		VBOWithVAOPerformanceTest.class,
 		Vector2dTest.class,
 		VertexArrayTest.class,
+		VertexBufferObjectRingTest.class,
 		VertexBufferObjectShaderTest.class,
 		VibratorTest.class,
 		ViewportTest1.class,